@@ -0,0 +1,109 @@
+package fpt.tuanhm43.server.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with the committed baseline and fails the build when any
+ * benchmark got slower than the tolerance allows. Benchmarks missing from either side
+ * are reported but never fail the run, so a subset can be run with -Djmh.includes.
+ *
+ * <p>Arguments: result file, baseline file, tolerance (0.20 = 20%), update flag.
+ * With the update flag, or when no baseline exists yet, the result becomes the baseline.
+ */
+public final class BaselineComparator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+        boolean update = Boolean.parseBoolean(args[3]);
+
+        if (!Files.exists(result) || MAPPER.readTree(result.toFile()).isEmpty()) {
+            throw new IllegalStateException("No JMH results in " + result);
+        }
+        if (update || !Files.exists(baseline)) {
+            Files.createDirectories(baseline.getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("JMH baseline written to " + baseline);
+            return;
+        }
+
+        Map<String, JsonNode> expected = index(MAPPER.readTree(baseline.toFile()));
+        Map<String, JsonNode> actual = index(MAPPER.readTree(result.toFile()));
+        List<String> regressions = new ArrayList<>();
+
+        System.out.printf(Locale.ROOT, "%n%-70s %14s %14s %-8s %9s  %s%n",
+                "Benchmark", "Baseline", "Current", "Unit", "Change", "Status");
+        for (Map.Entry<String, JsonNode> entry : actual.entrySet()) {
+            JsonNode current = entry.getValue().path("primaryMetric");
+            JsonNode previous = expected.containsKey(entry.getKey())
+                    ? expected.get(entry.getKey()).path("primaryMetric")
+                    : null;
+            double score = current.path("score").asDouble();
+            String unit = current.path("scoreUnit").asText();
+
+            if (previous == null) {
+                System.out.printf(Locale.ROOT, "%-70s %14s %14.3f %-8s %9s  NEW%n", entry.getKey(), "-", score, unit, "-");
+                continue;
+            }
+            if (!unit.equals(previous.path("scoreUnit").asText())) {
+                System.out.printf(Locale.ROOT, "%-70s unit changed from %s to %s, not compared%n",
+                        entry.getKey(), previous.path("scoreUnit").asText(), unit);
+                continue;
+            }
+
+            double before = previous.path("score").asDouble();
+            double change = (score - before) / before;
+            // Throughput regresses downwards, every time-based mode upwards
+            boolean higherIsWorse = !"thrpt".equals(entry.getValue().path("mode").asText());
+            boolean regressed = higherIsWorse ? change > tolerance : change < -tolerance;
+            if (regressed) {
+                regressions.add(String.format(Locale.ROOT, "%s: %.3f -> %.3f %s (%+.1f%%)",
+                        entry.getKey(), before, score, unit, change * 100));
+            }
+            System.out.printf(Locale.ROOT, "%-70s %14.3f %14.3f %-8s %+8.1f%%  %s%n",
+                    entry.getKey(), before, score, unit, change * 100, regressed ? "REGRESSION" : "OK");
+        }
+        expected.keySet().stream()
+                .filter(key -> !actual.containsKey(key))
+                .forEach(key -> System.out.printf(Locale.ROOT, "%-70s not run%n", key));
+
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException("Benchmarks slower than baseline by more than "
+                    + Math.round(tolerance * 100) + "%:\n  " + String.join("\n  ", regressions));
+        }
+    }
+
+    /**
+     * Keys each run by benchmark name plus its @Param values, e.g. {@code DomainTotalsBenchmark.productMinPrice[size=50]}
+     */
+    private static Map<String, JsonNode> index(JsonNode runs) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : runs) {
+            String name = run.path("benchmark").asText();
+            String shortName = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+            byKey.put(params.isEmpty() ? shortName : shortName + params.toString().replace('{', '[').replace('}', ']'), run);
+        }
+        return byKey;
+    }
+}
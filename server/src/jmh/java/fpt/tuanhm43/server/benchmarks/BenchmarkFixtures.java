@@ -0,0 +1,175 @@
+package fpt.tuanhm43.server.benchmarks;
+
+import fpt.tuanhm43.server.caches.TokenBlacklist;
+import fpt.tuanhm43.server.caches.VerifiedTokenCache;
+import fpt.tuanhm43.server.entities.CartItem;
+import fpt.tuanhm43.server.entities.Category;
+import fpt.tuanhm43.server.entities.Inventory;
+import fpt.tuanhm43.server.entities.Order;
+import fpt.tuanhm43.server.entities.OrderItem;
+import fpt.tuanhm43.server.entities.OrderStatusHistory;
+import fpt.tuanhm43.server.entities.Product;
+import fpt.tuanhm43.server.entities.ProductVariant;
+import fpt.tuanhm43.server.entities.ShoppingCart;
+import fpt.tuanhm43.server.enums.OrderStatus;
+import fpt.tuanhm43.server.enums.PaymentMethod;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import fpt.tuanhm43.server.services.impl.TokenServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanCursor;
+import org.springframework.data.redis.core.ScanIteration;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detached, fully populated entity graphs for the benchmarks (no persistence context involved),
+ * plus a token service needing no Redis
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] SIZES = {"S", "M", "L", "XL"};
+    private static final String[] COLORS = {"Black", "White", "Navy", "Grey"};
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Token service over an empty, already synced blacklist, so lookups are answered by the
+     * local filter as in steady state
+     */
+    static TokenServiceImpl tokenService() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenBlacklist tokenBlacklist = new TokenBlacklist(new StringRedisTemplate() {
+            @Override
+            public Boolean hasKey(String key) {
+                return false;
+            }
+
+            @Override
+            public Cursor<String> scan(ScanOptions options) {
+                return new ScanCursor<String>(options) {
+                    @Override
+                    protected ScanIteration<String> doScan(CursorId cursorId, ScanOptions options) {
+                        return new ScanIteration<>(CursorId.initial(), List.of());
+                    }
+                }.open();
+            }
+        }, new RedisMessageListenerContainer(), meterRegistry, 1_000, 0.001);
+        tokenBlacklist.resync();
+
+        TokenServiceImpl tokenService = new TokenServiceImpl(tokenBlacklist, new VerifiedTokenCache(meterRegistry, 1_000));
+        ReflectionTestUtils.setField(tokenService, "secretKey", Base64.getEncoder().encodeToString(new byte[64]));
+        ReflectionTestUtils.setField(tokenService, "accessExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(tokenService, "refreshExpiration", TimeUnit.DAYS.toMillis(7));
+        tokenService.init();
+        return tokenService;
+    }
+
+    static Category category() {
+        return Category.builder()
+                .id(UUID.randomUUID())
+                .name("Áo thun")
+                .slug("ao-thun")
+                .build();
+    }
+
+    static Product product(int variants) {
+        Product product = Product.builder()
+                .id(UUID.randomUUID())
+                .name("Áo thun basic cổ tròn")
+                .slug("ao-thun-basic-co-tron")
+                .description("Cotton 100%, form regular")
+                .basePrice(new BigDecimal("199000"))
+                .category(category())
+                .createdAt(LocalDateTime.now())
+                .build();
+        for (int i = 0; i < variants; i++) {
+            product.getVariants().add(variant(product, i));
+        }
+        return product;
+    }
+
+    static ShoppingCart cart(int items) {
+        ShoppingCart cart = ShoppingCart.builder()
+                .id(UUID.randomUUID())
+                .sessionId(UUID.randomUUID().toString())
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+        Product product = product(items);
+        for (ProductVariant variant : product.getVariants()) {
+            CartItem item = CartItem.builder()
+                    .id(UUID.randomUUID())
+                    .productVariant(variant)
+                    .quantity(2)
+                    .unitPrice(variant.getFinalPrice())
+                    .build();
+            item.calculateSubtotal();
+            cart.addItem(item);
+        }
+        return cart;
+    }
+
+    static Order order(int items) {
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .orderNumber("ORD-20260101-00001")
+                .trackingToken(UUID.randomUUID())
+                .customerName("Nguyễn Văn A")
+                .customerEmail("a@example.com")
+                .customerPhone("0900000000")
+                .shippingAddress("1 Lê Lợi, Quận 1, TP.HCM")
+                .paymentMethod(PaymentMethod.SEPAY)
+                .paymentStatus(PaymentStatus.PENDING)
+                .status(OrderStatus.PENDING)
+                .shippingFee(new BigDecimal("30000"))
+                .currency("VND")
+                .createdAt(LocalDateTime.now())
+                .build();
+        Product product = product(items);
+        for (ProductVariant variant : product.getVariants()) {
+            order.addItem(OrderItem.builder()
+                    .id(UUID.randomUUID())
+                    .productVariant(variant)
+                    .productName(product.getName())
+                    .sku(variant.getSku())
+                    .quantity(1)
+                    .unitPrice(variant.getFinalPrice())
+                    .subtotal(variant.getFinalPrice())
+                    .build());
+        }
+        order.addStatusHistory(OrderStatusHistory.builder()
+                .id(UUID.randomUUID())
+                .toStatus(OrderStatus.PENDING)
+                .changedBy("SYSTEM")
+                .reason("Order created")
+                .build());
+        order.calculateTotals();
+        return order;
+    }
+
+    private static ProductVariant variant(Product product, int i) {
+        ProductVariant variant = ProductVariant.builder()
+                .id(UUID.randomUUID())
+                .product(product)
+                .sku("TS-" + i)
+                .size(SIZES[i % SIZES.length])
+                .color(COLORS[(i / SIZES.length) % COLORS.length])
+                .priceAdjustment(BigDecimal.valueOf((i % 5) * 10000L))
+                .build();
+        variant.setInventory(Inventory.builder()
+                .productVariant(variant)
+                .quantityAvailable(100)
+                .build());
+        return variant;
+    }
+}
@@ -0,0 +1,67 @@
+package fpt.tuanhm43.server.benchmarks;
+
+import fpt.tuanhm43.server.entities.Order;
+import fpt.tuanhm43.server.entities.Product;
+import fpt.tuanhm43.server.entities.ShoppingCart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates recomputed on every cart change, checkout and product listing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomainTotalsBenchmark {
+
+    @Param({"5", "50"})
+    private int size;
+
+    private ShoppingCart cart;
+    private Order order;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        cart = BenchmarkFixtures.cart(size);
+        order = BenchmarkFixtures.order(size);
+        product = BenchmarkFixtures.product(size);
+    }
+
+    @Benchmark
+    public BigDecimal cartRecalculateTotals() {
+        cart.recalculateTotals();
+        return cart.getTotalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal orderCalculateTotals() {
+        order.calculateTotals();
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal productMinPrice() {
+        return product.getMinPrice();
+    }
+
+    @Benchmark
+    public BigDecimal productMaxPrice() {
+        return product.getMaxPrice();
+    }
+}
@@ -0,0 +1,83 @@
+package fpt.tuanhm43.server.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.dtos.ApiResponseDTO;
+import fpt.tuanhm43.server.dtos.PageResponseDTO;
+import fpt.tuanhm43.server.dtos.product.response.ProductResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serialization of a catalog page as the controllers return it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    /** Same defaults as the ObjectMapper Spring Boot configures for MVC */
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private ApiResponseDTO<PageResponseDTO<ProductResponse>> response;
+
+    @Setup
+    public void setUp() {
+        List<ProductResponse> content = IntStream.range(0, PAGE_SIZE)
+                .mapToObj(i -> ProductResponse.builder()
+                        .id(UUID.randomUUID())
+                        .name("Áo thun basic " + i)
+                        .slug("ao-thun-basic-" + i)
+                        .description("Cotton 100%, form regular")
+                        .basePrice(new BigDecimal("199000"))
+                        .minPrice(new BigDecimal("199000"))
+                        .maxPrice(new BigDecimal("239000"))
+                        .isActive(true)
+                        .categoryId(UUID.randomUUID())
+                        .categoryName("Áo thun")
+                        .categorySlug("ao-thun")
+                        .variantCount(8)
+                        .inStock(true)
+                        .totalStock(120)
+                        .createdAt(LocalDateTime.now())
+                        .updatedAt(LocalDateTime.now())
+                        .build())
+                .toList();
+
+        response = ApiResponseDTO.success(PageResponseDTO.<ProductResponse>builder()
+                .content(content)
+                .pageNumber(0)
+                .pageSize(PAGE_SIZE)
+                .totalElements(500)
+                .totalPages(25)
+                .first(true)
+                .hasContent(true)
+                .hasNext(true)
+                .build());
+    }
+
+    @Benchmark
+    public byte[] serializeProductPage() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
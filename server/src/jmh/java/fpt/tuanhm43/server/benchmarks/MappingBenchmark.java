@@ -0,0 +1,59 @@
+package fpt.tuanhm43.server.benchmarks;
+
+import fpt.tuanhm43.server.documents.ProductSearchDocument;
+import fpt.tuanhm43.server.dtos.order.response.OrderDetailResponse;
+import fpt.tuanhm43.server.entities.Order;
+import fpt.tuanhm43.server.entities.Product;
+import fpt.tuanhm43.server.mappers.OrderMapper;
+import fpt.tuanhm43.server.mappers.OrderMapperImpl;
+import fpt.tuanhm43.server.mappers.ProductSearchMapper;
+import fpt.tuanhm43.server.mappers.ProductSearchMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct mapping on the order detail view and the Elasticsearch indexing path
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private static final int ORDER_ITEMS = 10;
+    private static final int PRODUCT_VARIANTS = 16;
+
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+    private final ProductSearchMapper productSearchMapper = new ProductSearchMapperImpl();
+
+    private Order order;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkFixtures.order(ORDER_ITEMS);
+        product = BenchmarkFixtures.product(PRODUCT_VARIANTS);
+    }
+
+    @Benchmark
+    public OrderDetailResponse orderToDetailResponse() {
+        return orderMapper.toDetailResponse(order);
+    }
+
+    @Benchmark
+    public ProductSearchDocument productToDocument() {
+        return productSearchMapper.toDocument(product);
+    }
+}
@@ -0,0 +1,112 @@
+package fpt.tuanhm43.server.benchmarks;
+
+import fpt.tuanhm43.server.config.JwtAuthenticationEntryPoint;
+import fpt.tuanhm43.server.config.SecurityConfig;
+import fpt.tuanhm43.server.services.impl.TokenServiceImpl;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.servlet.context.AnnotationConfigServletWebApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.AccessDeniedHandler;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Security overhead per request, through the filter chains built by {@link SecurityConfig}.
+ * {@link #catalogPublicChain} is an anonymous catalog read as routed today; {@link #catalogMainChain}
+ * is the same read forced through the main chain, as before the public chain existed;
+ * {@link #authenticatedMainChain} is a bearer-token request for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityChainBenchmark {
+
+    private AnnotationConfigServletWebApplicationContext context;
+    private FilterChainProxy allChains;
+    private FilterChainProxy mainChainOnly;
+    private String token;
+    private final FilterChain endpoint = (req, res) -> { };
+
+    @EnableWebMvc
+    static class WebMvc {
+    }
+
+    @Setup
+    public void setUp() {
+        TokenServiceImpl tokenService = BenchmarkFixtures.tokenService();
+        token = tokenService.generateAccessToken(new UsernamePasswordAuthenticationToken(
+                "benchmark-user", null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+
+        context = new AnnotationConfigServletWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.register(WebMvc.class, SecurityConfig.class, JwtAuthenticationEntryPoint.class);
+        // Already initialised; registered as a singleton so its @Value fields are not re-injected
+        context.getBeanFactory().registerSingleton("tokenService", tokenService);
+        context.registerBean(UserDetailsService.class, () -> username -> {
+            throw new UsernameNotFoundException(username);
+        });
+        context.registerBean(AccessDeniedHandler.class, () -> (request, response, e) -> response.setStatus(403));
+        context.refresh();
+
+        allChains = context.getBean("springSecurityFilterChain", FilterChainProxy.class);
+        mainChainOnly = new FilterChainProxy(context.getBean("filterChain", SecurityFilterChain.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse catalogPublicChain() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        allChains.doFilter(request("GET", "/api/v1/products/slug/ao-thun-basic"), response, endpoint);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse catalogMainChain() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        mainChainOnly.doFilter(request("GET", "/api/v1/products/slug/ao-thun-basic"), response, endpoint);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedMainChain() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/v1/orders/user/my-orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        allChains.doFilter(request, response, endpoint);
+        return response;
+    }
+}
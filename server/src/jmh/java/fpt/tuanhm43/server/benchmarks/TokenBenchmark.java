@@ -0,0 +1,78 @@
+package fpt.tuanhm43.server.benchmarks;
+
+import fpt.tuanhm43.server.config.JwtAuthenticationFilter;
+import fpt.tuanhm43.server.services.impl.TokenServiceImpl;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT verification, run by the security filter on every authenticated request.
+ * {@link #validateToken} always verifies the signature; {@link #getAuthenticationFromToken} is
+ * served from the verified-token cache after the first call, as for a client reusing its token.
+ * {@link #filterAuthentication} is the whole per-request cost of {@link JwtAuthenticationFilter}
+ * with a no-op blacklist lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBenchmark {
+
+    private TokenServiceImpl tokenService;
+    private String token;
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        tokenService = BenchmarkFixtures.tokenService();
+
+        token = tokenService.generateAccessToken(new UsernamePasswordAuthenticationToken(
+                "benchmark-user", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        filter = new JwtAuthenticationFilter(tokenService);
+        request = new MockHttpServletRequest("GET", "/api/v1/orders/user/my-orders");
+        request.setServletPath("/api/v1/orders/user/my-orders");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenService.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthenticationFromToken() {
+        return tokenService.getAuthenticationFromToken(token);
+    }
+
+    @Benchmark
+    public Authentication filterAuthentication() throws Exception {
+        filter.doFilter(request, response, chain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,80 @@
+package fpt.tuanhm43.server.benchmarks;
+
+import fpt.tuanhm43.server.services.impl.WebhookSignatureVerifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HMAC-SHA256 check done on every SePay webhook call, in verifications per second.
+ * {@link #currentKey} is the steady state; {@link #previousKey} is a webhook still signed with the
+ * old key during a rotation (two MACs); {@link #tampered} is a rejection, which always tries every key.
+ * {@link #perCallMac} is the former implementation, a new {@link Mac} and key per call and a string compare.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookSignatureBenchmark {
+
+    private static final String CURRENT_KEY = "benchmark-sepay-webhook-key";
+    private static final String PREVIOUS_KEY = "benchmark-sepay-webhook-key-old";
+
+    private WebhookSignatureVerifier verifier;
+    private String payload;
+    private String signature;
+    private String previousKeySignature;
+    private String tamperedSignature;
+
+    @Setup
+    public void setUp() throws Exception {
+        verifier = new WebhookSignatureVerifier(CURRENT_KEY, PREVIOUS_KEY);
+
+        payload = "{\"transactionId\":\"TXN-0001\",\"orderNumber\":\"ORD-20260101-00001\","
+                + "\"amount\":428000,\"status\":\"SUCCESS\",\"bankCode\":\"VCB\"}";
+        signature = perCallSign(CURRENT_KEY, payload);
+        previousKeySignature = perCallSign(PREVIOUS_KEY, payload);
+        tamperedSignature = perCallSign(CURRENT_KEY, payload + " ");
+    }
+
+    private static String perCallSign(String key, String data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getEncoder().encodeToString(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public boolean currentKey() {
+        return verifier.verify(signature, payload);
+    }
+
+    @Benchmark
+    public boolean previousKey() {
+        return verifier.verify(previousKeySignature, payload);
+    }
+
+    @Benchmark
+    public boolean tampered() {
+        return verifier.verify(tamperedSignature, payload);
+    }
+
+    @Benchmark
+    public boolean perCallMac() throws Exception {
+        return perCallSign(CURRENT_KEY, payload).equals(signature);
+    }
+}
@@ -0,0 +1,147 @@
+package fpt.tuanhm43.server.loadtest;
+
+import fpt.tuanhm43.server.documents.ProductSearchDocument;
+import fpt.tuanhm43.server.dtos.PageResponseDTO;
+import fpt.tuanhm43.server.dtos.product.response.ProductResponse;
+import fpt.tuanhm43.server.dtos.search.AdvancedSearchRequest;
+import fpt.tuanhm43.server.mappers.ProductSearchMapper;
+import fpt.tuanhm43.server.repositories.ProductRepository;
+import fpt.tuanhm43.server.services.ProductSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Embedded fallback for the Elasticsearch index: same documents, same mapper, matched in memory.
+ * Keyword search is a case-insensitive match of every term against name and description,
+ * which is close enough to the multi-match query for load purposes; fuzzy and phrase flags are ignored.
+ */
+@RequiredArgsConstructor
+public class InMemoryProductSearchService implements ProductSearchService {
+
+    private static final Map<String, Function<ProductSearchDocument, Comparable<?>>> SORT_FIELDS = Map.of(
+            "name", ProductSearchDocument::getName,
+            "minPrice", ProductSearchDocument::getMinPrice,
+            "createdAt", ProductSearchDocument::getCreatedAt);
+
+    private static final Map<String, Function<ProductSearchDocument, Object>> FILTER_FIELDS = Map.of(
+            "slug", ProductSearchDocument::getSlug,
+            "categoryId", ProductSearchDocument::getCategoryId,
+            "categoryName", ProductSearchDocument::getCategoryName);
+
+    private final Map<String, ProductSearchDocument> index = new ConcurrentHashMap<>();
+
+    private final ProductRepository productRepository;
+    private final ProductSearchMapper productSearchMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void reindexAll() {
+        index.clear();
+        productRepository.findAll().forEach(product -> put(productSearchMapper.toDocument(product)));
+    }
+
+    @Override
+    public PageResponseDTO<ProductResponse> advancedSearch(AdvancedSearchRequest request) {
+        int page = request.getPage() != null ? Math.max(request.getPage(), 0) : 0;
+        int size = request.getSize() != null ? Math.max(request.getSize(), 1) : 20;
+
+        List<ProductSearchDocument> matches = index.values().stream()
+                .filter(doc -> Boolean.TRUE.equals(doc.getIsActive()))
+                .filter(keywordMatcher(request.getKeyword()))
+                .filter(filterMatcher(request))
+                .sorted(comparator(request))
+                .toList();
+
+        List<ProductResponse> content = matches.stream()
+                .skip((long) page * size)
+                .limit(size)
+                .map(productSearchMapper::toResponse)
+                .toList();
+
+        return PageResponseDTO.<ProductResponse>builder()
+                .content(content)
+                .totalElements(matches.size())
+                .totalPages((int) Math.ceil((double) matches.size() / size))
+                .pageNumber(page)
+                .pageSize(size)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void syncToElasticsearch(UUID productId) {
+        productRepository.findByIdWithCategoryAndVariants(productId)
+                .ifPresent(product -> put(productSearchMapper.toDocument(product)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void syncAllToElasticsearch(Collection<UUID> productIds) {
+        productRepository.findAllByIdInWithCategoryAndVariants(List.copyOf(productIds))
+                .forEach(product -> put(productSearchMapper.toDocument(product)));
+    }
+
+    private void put(ProductSearchDocument document) {
+        index.put(document.getId(), document);
+    }
+
+    private static Predicate<ProductSearchDocument> keywordMatcher(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return doc -> true;
+        }
+        List<String> terms = Arrays.stream(keyword.toLowerCase(Locale.ROOT).split("\\s+"))
+                .filter(StringUtils::hasText)
+                .toList();
+        return doc -> {
+            String text = (Objects.toString(doc.getName(), "") + " " + Objects.toString(doc.getDescription(), ""))
+                    .toLowerCase(Locale.ROOT);
+            return terms.stream().allMatch(text::contains);
+        };
+    }
+
+    private static Predicate<ProductSearchDocument> filterMatcher(AdvancedSearchRequest request) {
+        Predicate<ProductSearchDocument> matcher = doc -> true;
+        if (request.getFilters() != null) {
+            for (Map.Entry<String, String> filter : request.getFilters().entrySet()) {
+                Function<ProductSearchDocument, Object> field = FILTER_FIELDS.get(filter.getKey());
+                if (field != null && StringUtils.hasText(filter.getValue())) {
+                    matcher = matcher.and(doc -> filter.getValue().equals(Objects.toString(field.apply(doc), null)));
+                }
+            }
+        }
+        if (request.getRanges() != null && request.getRanges().containsKey("minPrice")) {
+            AdvancedSearchRequest.RangeValue range = request.getRanges().get("minPrice");
+            if (StringUtils.hasText(range.getFrom())) {
+                double from = Double.parseDouble(range.getFrom());
+                matcher = matcher.and(doc -> doc.getMinPrice() != null && doc.getMinPrice() >= from);
+            }
+            if (StringUtils.hasText(range.getTo())) {
+                double to = Double.parseDouble(range.getTo());
+                matcher = matcher.and(doc -> doc.getMinPrice() != null && doc.getMinPrice() <= to);
+            }
+        }
+        return matcher;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<ProductSearchDocument> comparator(AdvancedSearchRequest request) {
+        Function<ProductSearchDocument, Comparable<?>> field = SORT_FIELDS.getOrDefault(
+                request.getSortBy() != null ? request.getSortBy() : "createdAt", ProductSearchDocument::getCreatedAt);
+        Comparator<ProductSearchDocument> comparator = Comparator.comparing(
+                doc -> (Comparable) field.apply(doc), Comparator.nullsLast(Comparator.naturalOrder()));
+        return "Desc".equalsIgnoreCase(request.getSortDirection()) ? comparator.reversed() : comparator;
+    }
+}
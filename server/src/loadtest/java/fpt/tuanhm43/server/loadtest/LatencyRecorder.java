@@ -0,0 +1,82 @@
+package fpt.tuanhm43.server.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects every request latency per endpoint and turns them into exact percentiles.
+ * Samples are kept in full, which is fine for the few million requests a local run produces.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> byEndpoint = new ConcurrentHashMap<>();
+
+    /**
+     * @param endpoint     method and route template, e.g. {@code GET /api/v1/products/{id}}
+     * @param elapsedNanos time from sending the request to reading the full response
+     * @param success      2xx response
+     */
+    public void record(String endpoint, long elapsedNanos, boolean success) {
+        byEndpoint.computeIfAbsent(endpoint, key -> new Samples()).add(elapsedNanos, success);
+    }
+
+    public LoadReport report(Duration measured) {
+        double seconds = measured.toNanos() / 1e9;
+        List<LoadReport.EndpointResult> endpoints = byEndpoint.entrySet().stream()
+                .map(entry -> entry.getValue().summarize(entry.getKey(), seconds))
+                .sorted(Comparator.comparing(LoadReport.EndpointResult::endpoint))
+                .toList();
+        return new LoadReport(measured, endpoints);
+    }
+
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long elapsedNanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = elapsedNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized LoadReport.EndpointResult summarize(String endpoint, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new LoadReport.EndpointResult(
+                    endpoint,
+                    count,
+                    errors,
+                    count / seconds,
+                    millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.90)),
+                    millis(percentile(sorted, 0.95)),
+                    millis(percentile(sorted, 0.99)),
+                    millis(count == 0 ? 0 : sorted[count - 1]));
+        }
+
+        /**
+         * Nearest-rank percentile
+         */
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(rank - 1, 0)];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
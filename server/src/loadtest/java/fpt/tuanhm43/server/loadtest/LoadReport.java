@@ -0,0 +1,107 @@
+package fpt.tuanhm43.server.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Throughput and latency percentiles per endpoint for the measured window
+ */
+public record LoadReport(Duration measured, List<EndpointResult> endpoints) {
+
+    /**
+     * Latencies in milliseconds, throughput in requests per second
+     */
+    public record EndpointResult(
+            String endpoint,
+            long requests,
+            long errors,
+            double throughput,
+            double p50,
+            double p90,
+            double p95,
+            double p99,
+            double max) {
+    }
+
+    public long totalRequests() {
+        return endpoints.stream().mapToLong(EndpointResult::requests).sum();
+    }
+
+    public long totalErrors() {
+        return endpoints.stream().mapToLong(EndpointResult::errors).sum();
+    }
+
+    public double errorRate() {
+        long total = totalRequests();
+        return total == 0 ? 0 : (double) totalErrors() / total;
+    }
+
+    public String toTable() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%n%-48s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p95 ms", "p99 ms", "max ms"));
+        for (EndpointResult r : endpoints) {
+            table.append(String.format(Locale.ROOT, "%-48s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    r.endpoint(), r.requests(), r.errors(), r.throughput(), r.p50(), r.p90(), r.p95(), r.p99(), r.max()));
+        }
+        table.append(String.format(Locale.ROOT, "%-48s %9d %7d %9.1f   over %ds%n",
+                "TOTAL", totalRequests(), totalErrors(), totalRequests() / (measured.toNanos() / 1e9), measured.toSeconds()));
+        return table.toString();
+    }
+
+    /**
+     * Req/s and p99 per endpoint against {@code baseline}, e.g. a platform-thread run of the same mix
+     */
+    public String compareTable(LoadReport baseline) {
+        Map<String, EndpointResult> before = baseline.endpoints().stream()
+                .collect(Collectors.toMap(EndpointResult::endpoint, Function.identity()));
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%n%-48s %11s %9s %8s %11s %9s %8s%n",
+                "Endpoint", "base req/s", "req/s", "change", "base p99", "p99 ms", "change"));
+        for (EndpointResult r : endpoints) {
+            EndpointResult b = before.get(r.endpoint());
+            if (b == null) {
+                continue;
+            }
+            table.append(String.format(Locale.ROOT, "%-48s %11.1f %9.1f %7.1f%% %11.2f %9.2f %7.1f%%%n",
+                    r.endpoint(), b.throughput(), r.throughput(), change(b.throughput(), r.throughput()),
+                    b.p99(), r.p99(), change(b.p99(), r.p99())));
+        }
+        double baseRate = baseline.totalRequests() / (baseline.measured().toNanos() / 1e9);
+        double rate = totalRequests() / (measured.toNanos() / 1e9);
+        table.append(String.format(Locale.ROOT, "%-48s %11.1f %9.1f %7.1f%%%n",
+                "TOTAL", baseRate, rate, change(baseRate, rate)));
+        return table.toString();
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+
+    public void writeJson(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(file.toFile(), this);
+    }
+
+    public static LoadReport readJson(Path file) throws IOException {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(file.toFile(), LoadReport.class);
+    }
+}
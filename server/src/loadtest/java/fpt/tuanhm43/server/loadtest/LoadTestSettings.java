@@ -0,0 +1,78 @@
+package fpt.tuanhm43.server.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load-test knobs, read from {@code loadtest.*} system properties (set by the loadtest Maven profile)
+ *
+ * @param concurrency  number of virtual users, each with its own HTTP session
+ * @param warmup       traffic sent before measuring, discarded from the report
+ * @param duration     measured window
+ * @param mix          relative weight of each scenario
+ * @param products     catalog size seeded before the run
+ * @param maxErrorRate share of failed requests above which the run fails
+ * @param report       where the JSON report is written
+ * @param virtualThreads serve requests on virtual threads ({@code loadtest.threads=virtual}) instead of platform ones
+ * @param compareWith  earlier JSON report to print a side-by-side comparison against, or null
+ */
+public record LoadTestSettings(
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Scenario, Integer> mix,
+        int products,
+        double maxErrorRate,
+        Path report,
+        boolean virtualThreads,
+        Path compareWith) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.concurrency", 16),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+                parseMix(System.getProperty("loadtest.mix", "browse:50,search:25,cart:12,checkout:8,webhook:5")),
+                Integer.getInteger("loadtest.products", 200),
+                Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01")),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json")),
+                parseThreads(System.getProperty("loadtest.threads", "platform")),
+                parseOptionalPath(System.getProperty("loadtest.compareWith", "")));
+    }
+
+    static boolean parseThreads(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("loadtest.threads must be platform or virtual: " + value);
+        };
+    }
+
+    private static Path parseOptionalPath(String value) {
+        return value.isBlank() ? null : Path.of(value.trim());
+    }
+
+    /**
+     * Parses {@code browse:50,search:25,...}; scenarios left out get no traffic
+     */
+    static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Scenario.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no scenario with a positive weight");
+        }
+        return mix;
+    }
+}
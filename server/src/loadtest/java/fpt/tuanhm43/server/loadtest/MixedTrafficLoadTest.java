@@ -0,0 +1,232 @@
+package fpt.tuanhm43.server.loadtest;
+
+import fpt.tuanhm43.server.entities.Category;
+import fpt.tuanhm43.server.entities.Inventory;
+import fpt.tuanhm43.server.entities.Product;
+import fpt.tuanhm43.server.entities.ProductVariant;
+import fpt.tuanhm43.server.enums.PaymentMethod;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import fpt.tuanhm43.server.enums.WebhookEventStatus;
+import fpt.tuanhm43.server.mappers.ProductSearchMapper;
+import fpt.tuanhm43.server.repositories.ProductRepository;
+import fpt.tuanhm43.server.repositories.ProductSearchRepository;
+import fpt.tuanhm43.server.services.ProductSearchService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the whole app on a random port against {@link StandInServers} and the in-memory search
+ * index, seeds a catalog, then drives weighted browse/search/cart/checkout/webhook traffic over
+ * real HTTP. Prints throughput and latency percentiles per endpoint and writes them as JSON.
+ * Run through the loadtest Maven profile; see {@link LoadTestSettings} for the knobs.
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "loadtest"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MixedTrafficLoadTest {
+
+    private static final StandInServers STAND_INS = StandInServers.start();
+
+    private static final String[] COLORS = {"Black", "White", "Navy", "Olive", "Beige"};
+    private static final String[] ITEMS = {"Hoodie", "Tee", "Cargo Pants", "Sneaker", "Cap", "Jacket"};
+    private static final String[] SIZES = {"S", "M", "L"};
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class SearchStandIn {
+
+        @Bean
+        @Primary
+        ProductSearchService inMemoryProductSearchService(ProductRepository productRepository,
+                                                          ProductSearchMapper productSearchMapper) {
+            return new InMemoryProductSearchService(productRepository, productSearchMapper);
+        }
+    }
+
+    /** Keeps Spring Data from reaching for an Elasticsearch node when the repository is created */
+    @MockBean
+    private ProductSearchRepository productSearchRepository;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${app.payment.sepay.webhook-key}")
+    private String webhookKey;
+
+    @Autowired private EntityManager entityManager;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private ProductSearchService productSearchService;
+
+    @DynamicPropertySource
+    static void standInProperties(DynamicPropertyRegistry registry) {
+        STAND_INS.registerProperties(registry);
+        boolean virtualThreads = LoadTestSettings.parseThreads(System.getProperty("loadtest.threads", "platform"));
+        registry.add("spring.threads.virtual.enabled", () -> virtualThreads);
+    }
+
+    @AfterAll
+    void stopStandIns() throws Exception {
+        STAND_INS.close();
+    }
+
+    @Test
+    void mixedTraffic() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        SeededCatalog catalog = seedCatalog(settings.products());
+        productSearchService.reindexAll();
+
+        log.info("Load test: {} users on {} threads, warmup {}, measuring {}, mix {}",
+                settings.concurrency(), settings.virtualThreads() ? "virtual" : "platform",
+                settings.warmup(), settings.duration(), settings.mix());
+        drive(settings, catalog, settings.warmup(), new LatencyRecorder());
+        LatencyRecorder recorder = new LatencyRecorder();
+        drive(settings, catalog, settings.duration(), recorder);
+
+        LoadReport report = recorder.report(settings.duration());
+        report.writeJson(settings.report());
+        log.info("{}Mails received by the SMTP sink: {}. JSON report: {}",
+                report.toTable(), STAND_INS.receivedMails(), settings.report().toAbsolutePath());
+        if (settings.compareWith() != null) {
+            log.info("Compared with {}:{}", settings.compareWith().toAbsolutePath(),
+                    report.compareTable(LoadReport.readJson(settings.compareWith())));
+        }
+
+        assertWebhooksSettledOnce();
+
+        assertThat(report.totalRequests()).isPositive();
+        assertThat(report.errorRate())
+                .as("error rate over %d requests", report.totalRequests())
+                .isLessThanOrEqualTo(settings.maxErrorRate());
+    }
+
+    /**
+     * Each webhook is sent twice; every recorded one must settle exactly one SePay payment
+     */
+    private void assertWebhooksSettledOnce() throws InterruptedException {
+        Instant deadline = Instant.now().plusSeconds(30);
+        while (countEvents(WebhookEventStatus.RECEIVED) > 0 && Instant.now().isBefore(deadline)) {
+            Thread.sleep(200);
+        }
+        long processed = countEvents(WebhookEventStatus.PROCESSED);
+        long paid = transactionTemplate.execute(status -> entityManager.createQuery(
+                        "SELECT COUNT(pt) FROM PaymentTransaction pt WHERE pt.method = :method AND pt.status = :status", Long.class)
+                .setParameter("method", PaymentMethod.SEPAY)
+                .setParameter("status", PaymentStatus.PAID)
+                .getSingleResult());
+        log.info("Webhook events processed: {}, left unprocessed: {}, SePay payments settled: {}",
+                processed, countEvents(WebhookEventStatus.RECEIVED), paid);
+        assertThat(paid).as("SePay payments settled by webhooks").isEqualTo(processed);
+    }
+
+    private long countEvents(WebhookEventStatus eventStatus) {
+        return transactionTemplate.execute(status -> entityManager.createQuery(
+                        "SELECT COUNT(e) FROM PaymentWebhookEvent e WHERE e.status = :status", Long.class)
+                .setParameter("status", eventStatus)
+                .getSingleResult());
+    }
+
+    private void drive(LoadTestSettings settings, SeededCatalog catalog, Duration length,
+                       LatencyRecorder recorder) throws InterruptedException {
+        if (length.isZero()) {
+            return;
+        }
+        URI baseUrl = URI.create("http://127.0.0.1:" + port);
+        Instant deadline = Instant.now().plus(length);
+        ExecutorService users = Executors.newFixedThreadPool(settings.concurrency());
+        for (int i = 0; i < settings.concurrency(); i++) {
+            users.submit(new VirtualUser(baseUrl, catalog, settings.mix(), webhookKey, recorder, deadline));
+        }
+        users.shutdown();
+        if (!users.awaitTermination(length.toSeconds() + 60, TimeUnit.SECONDS)) {
+            users.shutdownNow();
+        }
+    }
+
+    /**
+     * {@code products} products spread over one category per item type, three sized variants each,
+     * with stock large enough that checkouts never run out during the run
+     */
+    private SeededCatalog seedCatalog(int products) {
+        return transactionTemplate.execute(status -> {
+            List<Category> categories = new ArrayList<>();
+            for (String item : ITEMS) {
+                Category category = Category.builder()
+                        .name("Load " + item)
+                        .slug("load-" + item.toLowerCase().replace(' ', '-'))
+                        .isActive(true)
+                        .build();
+                entityManager.persist(category);
+                categories.add(category);
+            }
+
+            List<UUID> productIds = new ArrayList<>();
+            List<String> slugs = new ArrayList<>();
+            List<UUID> variantIds = new ArrayList<>();
+            for (int i = 0; i < products; i++) {
+                String item = ITEMS[i % ITEMS.length];
+                String color = COLORS[(i / ITEMS.length) % COLORS.length];
+                Product product = Product.builder()
+                        .name(color + " " + item + " " + i)
+                        .slug("load-" + i)
+                        .description("Load-test " + item.toLowerCase() + " in " + color.toLowerCase())
+                        .basePrice(new BigDecimal(150000 + (i % 20) * 10000))
+                        .category(categories.get(i % ITEMS.length))
+                        .isActive(true)
+                        .build();
+                entityManager.persist(product);
+                for (String size : SIZES) {
+                    ProductVariant variant = ProductVariant.builder()
+                            .product(product)
+                            .sku("LOAD-" + i + "-" + size)
+                            .size(size)
+                            .color(color)
+                            .priceAdjustment(BigDecimal.ZERO)
+                            .isActive(true)
+                            .build();
+                    entityManager.persist(variant);
+                    product.getVariants().add(variant);
+                    entityManager.persist(Inventory.builder()
+                            .productVariant(variant)
+                            .quantityAvailable(1_000_000)
+                            .quantityReserved(0)
+                            .build());
+                    variantIds.add(variant.getId());
+                }
+                productIds.add(product.getId());
+                slugs.add(product.getSlug());
+            }
+
+            List<String> keywords = new ArrayList<>(List.of(ITEMS));
+            keywords.addAll(List.of(COLORS));
+            return new SeededCatalog(productIds, slugs, variantIds, keywords);
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package fpt.tuanhm43.server.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * User journeys a virtual user picks from on every iteration
+ */
+public enum Scenario {
+    /** Category list, then a product detail by id and by slug */
+    BROWSE("browse"),
+    /** Keyword search on the catalog */
+    SEARCH("search"),
+    /** Add a random variant to the session cart */
+    CART("cart"),
+    /** Add to cart, create the order from the cart and initiate a SePay payment */
+    CHECKOUT("checkout"),
+    /** Confirm one of the user's pending SePay payments through the webhook */
+    WEBHOOK("webhook");
+
+    private final String key;
+
+    Scenario(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Scenario fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.key.equalsIgnoreCase(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load-test scenario: " + key));
+    }
+}
@@ -0,0 +1,31 @@
+package fpt.tuanhm43.server.loadtest;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ids and search terms of the catalog seeded before the run, which virtual users pick from at random
+ */
+public record SeededCatalog(List<UUID> productIds, List<String> slugs, List<UUID> variantIds, List<String> keywords) {
+
+    public UUID randomProductId() {
+        return random(productIds);
+    }
+
+    public String randomSlug() {
+        return random(slugs);
+    }
+
+    public UUID randomVariantId() {
+        return random(variantIds);
+    }
+
+    public String randomKeyword() {
+        return random(keywords);
+    }
+
+    private static <T> T random(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+}
@@ -0,0 +1,69 @@
+package fpt.tuanhm43.server.loadtest;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+/**
+ * Local replacements for the external services the app talks to over the network:
+ * an embedded Redis server and a GreenMail SMTP sink that accepts and keeps every message.
+ * Both bind to free ports, so several runs can share a machine.
+ */
+public final class StandInServers implements AutoCloseable {
+
+    private final RedisServer redis;
+    private final int redisPort;
+    private final GreenMail smtp;
+
+    private StandInServers(RedisServer redis, int redisPort, GreenMail smtp) {
+        this.redis = redis;
+        this.redisPort = redisPort;
+        this.smtp = smtp;
+    }
+
+    public static StandInServers start() {
+        try {
+            int redisPort = freePort();
+            RedisServer redis = new RedisServer(redisPort);
+            redis.start();
+
+            GreenMail smtp = new GreenMail(new ServerSetup(freePort(), "127.0.0.1", ServerSetup.PROTOCOL_SMTP))
+                    .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+            smtp.start();
+
+            return new StandInServers(redis, redisPort, smtp);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start load-test stand-ins", e);
+        }
+    }
+
+    public void registerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", () -> "127.0.0.1");
+        registry.add("spring.data.redis.port", () -> redisPort);
+        registry.add("spring.mail.host", () -> "127.0.0.1");
+        registry.add("spring.mail.port", () -> smtp.getSmtp().getPort());
+    }
+
+    public int receivedMails() {
+        return smtp.getReceivedMessages().length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        smtp.stop();
+        redis.stop();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package fpt.tuanhm43.server.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One shopper: its own cookie jar (so its own cart session), looping over weighted scenarios
+ * until the deadline. Every HTTP call is timed into the shared {@link LatencyRecorder}.
+ */
+public class VirtualUser implements Runnable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String WEBHOOK_STATUS = "SUCCESS";
+
+    private final URI baseUrl;
+    private final SeededCatalog catalog;
+    private final Scenario[] scenarios;
+    private final int[] cumulativeWeights;
+    private final String webhookSignature;
+    private final LatencyRecorder recorder;
+    private final Instant deadline;
+    private final HttpClient client;
+
+    /** Orders with an initiated SePay payment, waiting for the webhook scenario */
+    private final Deque<PendingPayment> pendingPayments = new ArrayDeque<>();
+
+    public VirtualUser(URI baseUrl, SeededCatalog catalog, Map<Scenario, Integer> mix, String webhookKey,
+                       LatencyRecorder recorder, Instant deadline) {
+        this.baseUrl = baseUrl;
+        this.catalog = catalog;
+        this.scenarios = mix.keySet().toArray(Scenario[]::new);
+        this.cumulativeWeights = new int[scenarios.length];
+        int total = 0;
+        for (int i = 0; i < scenarios.length; i++) {
+            total += mix.get(scenarios[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.webhookSignature = sign(webhookKey, WEBHOOK_STATUS);
+        this.recorder = recorder;
+        this.deadline = deadline;
+        this.client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Override
+    public void run() {
+        while (Instant.now().isBefore(deadline) && !Thread.currentThread().isInterrupted()) {
+            switch (nextScenario()) {
+                case BROWSE -> browse();
+                case SEARCH -> search();
+                case CART -> addToCart();
+                case CHECKOUT -> checkout();
+                case WEBHOOK -> confirmPayment();
+            }
+        }
+        client.close();
+    }
+
+    private void browse() {
+        send("GET /api/v1/categories", get("/api/v1/categories"));
+        send("GET /api/v1/products/{id}", get("/api/v1/products/" + catalog.randomProductId()));
+        send("GET /api/v1/products/slug/{slug}", get("/api/v1/products/slug/" + catalog.randomSlug()));
+    }
+
+    private void search() {
+        send("POST /api/v1/products/search", post("/api/v1/products/search",
+                Map.of("keyword", catalog.randomKeyword(), "page", 0, "size", 20)));
+    }
+
+    private void addToCart() {
+        send("POST /api/v1/cart/add", post("/api/v1/cart/add",
+                Map.of("variantId", catalog.randomVariantId(), "quantity", 1)));
+    }
+
+    private void checkout() {
+        addToCart();
+        JsonNode order = send("POST /api/v1/orders/from-cart", post("/api/v1/orders/from-cart", Map.of(
+                "customerName", "Load Test",
+                "customerEmail", "loadtest@test.vn",
+                "customerPhone", "0988888888",
+                "shippingAddress", "Hanoi, Vietnam",
+                "paymentMethod", "SEPAY")));
+        if (order == null) {
+            return;
+        }
+        UUID orderId = UUID.fromString(order.path("data").path("id").asText());
+        JsonNode payment = send("POST /api/v1/payments/{orderId}/initiate",
+                post("/api/v1/payments/" + orderId + "/initiate?method=SEPAY", null));
+        if (payment != null) {
+            pendingPayments.add(new PendingPayment(orderId, payment.path("data").path("transactionId").asText()));
+        }
+    }
+
+    private void confirmPayment() {
+        if (pendingPayments.isEmpty()) {
+            checkout();
+        }
+        PendingPayment pending = pendingPayments.poll();
+        if (pending == null) {
+            return;
+        }
+        Map<String, Object> webhook = Map.of(
+                "transactionId", pending.transactionId(),
+                "orderId", pending.orderId(),
+                "status", WEBHOOK_STATUS,
+                "signature", webhookSignature);
+        // The provider retries until acknowledged; send the retry straight away to exercise deduplication
+        send("POST /api/v1/payments/webhook/sepay", post("/api/v1/payments/webhook/sepay", webhook));
+        send("POST /api/v1/payments/webhook/sepay", post("/api/v1/payments/webhook/sepay", webhook));
+    }
+
+    /**
+     * Sends and records the call; returns the parsed body of a 2xx response, otherwise null
+     */
+    private JsonNode send(String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean success = response.statusCode() / 100 == 2;
+            recorder.record(endpoint, System.nanoTime() - start, success);
+            return success ? MAPPER.readTree(response.body()) : null;
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(baseUrl.resolve(path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize request body for " + path, e);
+        }
+    }
+
+    private Scenario nextScenario() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return scenarios[i];
+            }
+        }
+        return scenarios[scenarios.length - 1];
+    }
+
+    /**
+     * Same HMAC-SHA256 the SePay webhook check expects; the service signs the status field
+     */
+    private static String sign(String key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Base64.getEncoder().encodeToString(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private record PendingPayment(UUID orderId, String transactionId) {
+    }
+}
@@ -0,0 +1,34 @@
+package fpt.tuanhm43.server.caches;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fpt.tuanhm43.server.utils.CacheLoadUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of order list totals, so cursor pages that ask for a total
+ * do not run COUNT(*) over the orders table on every request.
+ */
+@Component
+public class OrderCountCache {
+
+    private final AsyncCache<String, Long> counts;
+
+    public OrderCountCache(@Value("${app.cache.order-count.ttl-seconds:30}") long ttlSeconds) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .buildAsync();
+    }
+
+    /**
+     * Cached count for {@code key}, computed once per TTL by {@code counter}
+     */
+    public long get(String key, Supplier<Long> counter) {
+        return CacheLoadUtils.getOrLoad(counts, key, k -> counter.get());
+    }
+}
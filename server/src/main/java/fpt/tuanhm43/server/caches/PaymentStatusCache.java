@@ -0,0 +1,103 @@
+package fpt.tuanhm43.server.caches;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import fpt.tuanhm43.server.dtos.payment.PaymentStatusChange;
+import fpt.tuanhm43.server.dtos.payment.response.PaymentResponse;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import fpt.tuanhm43.server.utils.CacheLoadUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Node-local read-through cache of payment status by transaction ID, and of the latest payment of an order.
+ * An entry lives by its status: open (PENDING/PROCESSING) for {@code open-ttl-seconds}, final for
+ * {@code final-ttl-hours}; unknown IDs are cached empty for {@code negative-ttl-seconds}. Every committed
+ * change is applied through {@link #apply} on every node, so a final status is served without the database.
+ * Cached instances are shared between requests and must not be mutated.
+ */
+@Component
+public class PaymentStatusCache {
+
+    private final AsyncCache<String, Optional<PaymentStatus>> statuses;
+    private final AsyncCache<UUID, Optional<PaymentResponse>> latestByOrder;
+
+    public PaymentStatusCache(MeterRegistry meterRegistry,
+                              @Value("${app.cache.payment-status.max-size:100000}") long maxSize,
+                              @Value("${app.cache.payment-status.open-ttl-seconds:5}") long openTtlSeconds,
+                              @Value("${app.cache.payment-status.final-ttl-hours:24}") long finalTtlHours,
+                              @Value("${app.cache.payment-status.negative-ttl-seconds:5}") long negativeTtlSeconds) {
+        Duration openTtl = Duration.ofSeconds(openTtlSeconds);
+        Duration finalTtl = Duration.ofHours(finalTtlHours);
+        Duration negativeTtl = Duration.ofSeconds(negativeTtlSeconds);
+        this.statuses = build(maxSize, status -> ttl(status, openTtl, finalTtl, negativeTtl));
+        this.latestByOrder = build(maxSize,
+                payment -> ttl(payment.map(PaymentResponse::getStatus), openTtl, finalTtl, negativeTtl));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, statuses, "paymentStatus");
+        CaffeineCacheMetrics.monitor(meterRegistry, latestByOrder, "paymentByOrder");
+    }
+
+    /**
+     * Status of {@code transactionId}, loading through {@code loader} on miss; empty when there is no such transaction
+     */
+    public Optional<PaymentStatus> status(String transactionId, Function<String, Optional<PaymentStatus>> loader) {
+        return CacheLoadUtils.getOrLoad(statuses, transactionId, loader);
+    }
+
+    /**
+     * Latest payment of {@code orderId}, loading through {@code loader} on miss; empty when the order has none
+     */
+    public Optional<PaymentResponse> latestByOrder(UUID orderId, Function<UUID, Optional<PaymentResponse>> loader) {
+        return CacheLoadUtils.getOrLoad(latestByOrder, orderId, loader);
+    }
+
+    /**
+     * Apply a committed status change: the new status replaces the cached one (a load still in flight is
+     * discarded), and the order's latest payment is dropped to be re-read on next use
+     */
+    public void apply(PaymentStatusChange change) {
+        statuses.synchronous().put(change.transactionId(), Optional.of(change.status()));
+        if (change.orderId() != null) {
+            latestByOrder.synchronous().invalidate(change.orderId());
+        }
+    }
+
+    private static Duration ttl(Optional<PaymentStatus> status, Duration openTtl, Duration finalTtl, Duration negativeTtl) {
+        if (status.isEmpty()) {
+            return negativeTtl;
+        }
+        return status.get().isFinal() ? finalTtl : openTtl;
+    }
+
+    private static <K, V> AsyncCache<K, V> build(long maxSize, Function<V, Duration> ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<K, V>() {
+                    @Override
+                    public long expireAfterCreate(K key, V value, long currentTime) {
+                        return ttl.apply(value).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+}
@@ -0,0 +1,133 @@
+package fpt.tuanhm43.server.caches;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fpt.tuanhm43.server.dtos.product.response.ProductDetailResponse;
+import fpt.tuanhm43.server.utils.CacheLoadUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Two-tier read cache for product detail: node-local Caffeine (L1) backed by Redis (L2).
+ * Concurrent misses for the same product share one load, so a hot entry expiring does not
+ * stampede Redis or the database; the load runs outside the cache's lock (see {@link CacheLoadUtils}).
+ * Cached instances are shared between requests and must not be mutated.
+ */
+@Component
+@Slf4j
+public class ProductDetailCache {
+
+    private static final String KEY_PREFIX = "product:detail:";
+
+    private final AsyncCache<UUID, ProductDetailResponse> local;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration remoteTtl;
+
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+
+    public ProductDetailCache(StringRedisTemplate redisTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.cache.product-detail.max-size:5000}") long maxSize,
+                              @Value("${app.cache.product-detail.local-ttl-seconds:30}") long localTtlSeconds,
+                              @Value("${app.cache.product-detail.remote-ttl-seconds:300}") long remoteTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.remoteTtl = Duration.ofSeconds(remoteTtlSeconds);
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "productDetail.local");
+        this.remoteHits = Counter.builder("cache.gets")
+                .tag("cache", "productDetail.remote").tag("result", "hit")
+                .register(meterRegistry);
+        this.remoteMisses = Counter.builder("cache.gets")
+                .tag("cache", "productDetail.remote").tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get product detail, falling back to Redis and then {@code loader} on miss.
+     * Exceptions from the loader (e.g. not found) propagate and nothing is cached.
+     */
+    public ProductDetailResponse get(UUID id, Function<UUID, ProductDetailResponse> loader) {
+        return CacheLoadUtils.getOrLoad(local, id, key -> {
+            ProductDetailResponse cached = readRemote(key);
+            if (cached != null) {
+                remoteHits.increment();
+                return cached;
+            }
+            remoteMisses.increment();
+            ProductDetailResponse loaded = loader.apply(key);
+            writeRemote(key, loaded);
+            return loaded;
+        });
+    }
+
+    /**
+     * Drop both tiers once the surrounding transaction commits.
+     * Other nodes' L1 entries age out within the local TTL.
+     */
+    public void evict(UUID id) {
+        if (id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvict(id);
+                }
+            });
+        } else {
+            doEvict(id);
+        }
+    }
+
+    private void doEvict(UUID id) {
+        local.synchronous().invalidate(id);
+        try {
+            redisTemplate.delete(KEY_PREFIX + id);
+        } catch (Exception e) {
+            log.warn("Failed to evict product {} from Redis cache: {}", id, e.getMessage());
+        }
+    }
+
+    private ProductDetailResponse readRemote(UUID id) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + id);
+            return json != null ? objectMapper.readValue(json, ProductDetailResponse.class) : null;
+        } catch (Exception e) {
+            log.warn("Failed to read product {} from Redis cache: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(UUID id, ProductDetailResponse response) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + id, objectMapper.writeValueAsString(response), remoteTtl);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize product {} for Redis cache: {}", id, e.getMessage());
+        } catch (Exception e) {
+            log.warn("Failed to write product {} to Redis cache: {}", id, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package fpt.tuanhm43.server.caches;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import fpt.tuanhm43.server.utils.CacheLoadUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Node-local slug -> ID cache for products and categories.
+ * Unknown slugs are cached as a sentinel with a short TTL so crawler 404s do not hit the database.
+ */
+@Component
+@Slf4j
+public class SlugIdCache {
+
+    private static final UUID MISSING = new UUID(0L, 0L);
+
+    private final AsyncCache<String, UUID> productSlugs;
+    private final AsyncCache<String, UUID> categorySlugs;
+
+    public SlugIdCache(@Value("${app.cache.slug.max-size:10000}") long maxSize,
+                       @Value("${app.cache.slug.ttl-minutes:60}") long ttlMinutes,
+                       @Value("${app.cache.slug.negative-ttl-seconds:60}") long negativeTtlSeconds) {
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        Duration negativeTtl = Duration.ofSeconds(negativeTtlSeconds);
+        this.productSlugs = build(maxSize, ttl, negativeTtl);
+        this.categorySlugs = build(maxSize, ttl, negativeTtl);
+    }
+
+    /**
+     * Resolve product slug to ID, loading through {@code loader} on miss
+     */
+    public Optional<UUID> resolveProduct(String slug, Function<String, Optional<UUID>> loader) {
+        return resolve(productSlugs, slug, loader);
+    }
+
+    /**
+     * Resolve category slug to ID, loading through {@code loader} on miss
+     */
+    public Optional<UUID> resolveCategory(String slug, Function<String, Optional<UUID>> loader) {
+        return resolve(categorySlugs, slug, loader);
+    }
+
+    public void evictProduct(String slug) {
+        evictAfterCommit(productSlugs, slug);
+    }
+
+    public void evictCategory(String slug) {
+        evictAfterCommit(categorySlugs, slug);
+    }
+
+    private Optional<UUID> resolve(AsyncCache<String, UUID> cache, String slug, Function<String, Optional<UUID>> loader) {
+        if (slug == null) {
+            return Optional.empty();
+        }
+        UUID id = CacheLoadUtils.getOrLoad(cache, slug, key -> loader.apply(key).orElse(MISSING));
+        return MISSING.equals(id) ? Optional.empty() : Optional.ofNullable(id);
+    }
+
+    /**
+     * Evict once the surrounding transaction commits, so a concurrent reader
+     * cannot re-populate the entry from pre-commit state.
+     */
+    private void evictAfterCommit(AsyncCache<String, UUID> cache, String slug) {
+        if (slug == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().invalidate(slug);
+                }
+            });
+        } else {
+            cache.synchronous().invalidate(slug);
+        }
+        log.debug("Slug cache entry scheduled for eviction: {}", slug);
+    }
+
+    private static AsyncCache<String, UUID> build(long maxSize, Duration ttl, Duration negativeTtl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, UUID>() {
+                    @Override
+                    public long expireAfterCreate(String key, UUID value, long currentTime) {
+                        return (MISSING.equals(value) ? negativeTtl : ttl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, UUID value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, UUID value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .buildAsync();
+    }
+}
@@ -0,0 +1,202 @@
+package fpt.tuanhm43.server.caches;
+
+import fpt.tuanhm43.server.utils.TokenDigestUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked tokens, stored in Redis as {@code blacklist:<sha256>} and mirrored into a node-local Bloom filter.
+ * A filter miss proves the token was never revoked, so Redis is only asked on a filter hit
+ * (a real revocation or a rare false positive). Other nodes learn about revocations through
+ * {@link #CHANNEL}; the filter is also rebuilt from Redis on a schedule, which picks up lost
+ * messages and drops revocations whose TTL has passed. Until the first rebuild succeeds every
+ * lookup goes to Redis.
+ */
+@Component
+@Slf4j
+public class TokenBlacklist {
+
+    public static final String CHANNEL = "token-blacklist";
+
+    private static final String KEY_PREFIX = "blacklist:";
+    private static final int DIGEST_KEY_LENGTH = KEY_PREFIX.length() + 43;
+    private static final int SCAN_BATCH = 1000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    /** Filter being rebuilt; revocations arriving meanwhile go into both */
+    private volatile BloomFilter rebuilding;
+    private volatile boolean synced;
+
+    private final Counter filteredLookups;
+    private final Counter redisLookups;
+
+    public TokenBlacklist(StringRedisTemplate redisTemplate,
+                          RedisMessageListenerContainer listenerContainer,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.token-blacklist.expected-insertions:100000}") long expectedInsertions,
+                          @Value("${app.security.token-blacklist.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.redisTemplate = redisTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+
+        this.filteredLookups = Counter.builder("token.blacklist.lookups")
+                .tag("source", "filter")
+                .register(meterRegistry);
+        this.redisLookups = Counter.builder("token.blacklist.lookups")
+                .tag("source", "redis")
+                .register(meterRegistry);
+
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onRevoked(new String(message.getBody(), StandardCharsets.US_ASCII)),
+                new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Revoke {@code token} for {@code ttl}, locally at once and on other nodes via pub/sub
+     */
+    public void add(String token, Duration ttl) {
+        byte[] digest = TokenDigestUtils.sha256(token);
+        String encoded = TokenDigestUtils.encode(digest);
+        redisTemplate.opsForValue().set(KEY_PREFIX + encoded, "true", ttl);
+        put(digest);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, encoded);
+        } catch (Exception e) {
+            log.warn("Failed to publish token revocation, other nodes pick it up on resync: {}", e.getMessage());
+        }
+    }
+
+    public boolean contains(String token) {
+        byte[] digest = TokenDigestUtils.sha256(token);
+        if (synced && !filter.mightContain(digest)) {
+            filteredLookups.increment();
+            return false;
+        }
+        redisLookups.increment();
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + TokenDigestUtils.encode(digest)))
+                // Keys written before digests were used hold the raw token
+                || Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + token));
+    }
+
+    /**
+     * Revocation published by any node, payload is the encoded digest
+     */
+    public void onRevoked(String encodedDigest) {
+        try {
+            put(TokenDigestUtils.decode(encodedDigest));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed token revocation message");
+        }
+    }
+
+    /**
+     * Rebuild the filter from the keys currently in Redis
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.security.token-blacklist.resync-ms:300000}")
+    public void resync() {
+        BloomFilter fresh = new BloomFilter(expectedInsertions, falsePositiveRate);
+        rebuilding = fresh;
+        long count = 0;
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions()
+                .match(KEY_PREFIX + "*").count(SCAN_BATCH).build())) {
+            while (keys.hasNext()) {
+                fresh.put(digestOf(keys.next()));
+                count++;
+            }
+            filter = fresh;
+            synced = true;
+            log.debug("Token blacklist filter rebuilt with {} entries", count);
+        } catch (Exception e) {
+            log.warn("Token blacklist resync failed, keeping previous filter: {}", e.getMessage());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    /**
+     * Writes the filter being rebuilt before the live one. Done the other way round, a resync
+     * could swap in its filter and finish between the two writes, and the digest would only
+     * reach the discarded filter.
+     */
+    private void put(byte[] digest) {
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(digest);
+        }
+        filter.put(digest);
+    }
+
+    private static byte[] digestOf(String key) {
+        String suffix = key.substring(KEY_PREFIX.length());
+        return key.length() == DIGEST_KEY_LENGTH ? TokenDigestUtils.decode(suffix) : TokenDigestUtils.sha256(suffix);
+    }
+
+    /**
+     * Lock-free Bloom filter over SHA-256 digests. The digest is already uniform, so two of its
+     * longs drive the k probes (Kirsch-Mitzenmacher double hashing) instead of rehashing.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long n = Math.max(expectedInsertions, 1);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.max((m + 63) / 64, 1));
+            this.bits = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        }
+
+        void put(byte[] digest) {
+            ByteBuffer hash = ByteBuffer.wrap(digest);
+            long h1 = hash.getLong();
+            long h2 = hash.getLong();
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(byte[] digest) {
+            ByteBuffer hash = ByteBuffer.wrap(digest);
+            long h1 = hash.getLong();
+            long h2 = hash.getLong();
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package fpt.tuanhm43.server.caches;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import fpt.tuanhm43.server.utils.CacheLoadUtils;
+import fpt.tuanhm43.server.utils.TokenDigestUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Node-local cache of access tokens whose signature has already been verified.
+ * Keyed by the SHA-256 of the token packed into four longs, so raw tokens are never retained;
+ * each entry expires at the token's own {@code exp}. Blacklisted tokens must be {@link #evict evicted}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final AsyncCache<TokenDigest, VerifiedToken> verified;
+
+    public VerifiedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${app.cache.verified-token.max-size:100000}") long maxSize) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<TokenDigest, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(TokenDigest key, VerifiedToken value, long currentTime) {
+                        return Duration.ofMillis(Math.max(0, value.expiresAt() - System.currentTimeMillis())).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenDigest key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "verifiedToken");
+    }
+
+    /**
+     * Authentication for {@code token}, running {@code verifier} only on a miss.
+     * Verifier exceptions (invalid or expired token) propagate; a null result is not cached.
+     */
+    public Authentication get(String token, Function<String, VerifiedToken> verifier) {
+        VerifiedToken entry = CacheLoadUtils.getOrLoad(verified, TokenDigest.of(token), key -> verifier.apply(token));
+        return entry != null ? entry.toAuthentication(token) : null;
+    }
+
+    public void evict(String token) {
+        verified.synchronous().invalidate(TokenDigest.of(token));
+    }
+
+    /**
+     * Claims needed to rebuild the authentication; the principal is shared and must not be mutated
+     *
+     * @param expiresAt token {@code exp} in epoch millis
+     */
+    public record VerifiedToken(User principal, long expiresAt) {
+
+        Authentication toAuthentication(String token) {
+            return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
+        }
+    }
+
+    private record TokenDigest(long a, long b, long c, long d) {
+
+        static TokenDigest of(String token) {
+            ByteBuffer hash = ByteBuffer.wrap(TokenDigestUtils.sha256(token));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+}
@@ -1,9 +1,142 @@
 package fpt.tuanhm43.server.config;
 
+import fpt.tuanhm43.server.constants.AppConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * One bounded executor per async workload, so a slow SMTP server cannot hold the threads that
+ * keep the search index in sync. Each is configured under {@code app.async.<name>.*}:
+ * <ul>
+ *     <li>{@code core-size}, {@code max-size}, {@code queue-capacity}: threads grow past core only once the queue is full</li>
+ *     <li>{@code rejection-policy}: {@code ABORT} throws to the caller, {@code CALLER_RUNS} runs the task
+ *     on the submitting thread, {@code DISCARD} drops it; every rejection is logged and counted</li>
+ *     <li>{@code virtual-threads}: run the pool's workers as virtual threads, for blocking I/O;
+ *     they are cheap, so raise {@code core-size} with it. Defaults to {@code spring.threads.virtual.enabled}</li>
+ *     <li>{@code await-termination-seconds}: how long shutdown waits for queued tasks to drain</li>
+ * </ul>
+ * Pool gauges are published by Spring Boot's executor metrics under each bean name.
+ * Unqualified {@code @Async} methods run on {@code applicationTaskExecutor}.
+ */
 @Configuration
 @EnableAsync
-public class AsyncConfig {
-}
\ No newline at end of file
+@RequiredArgsConstructor
+@Slf4j
+public class AsyncConfig implements AsyncConfigurer {
+
+    private static final String PREFIX = "app.async.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    public enum RejectionPolicy {
+        ABORT, CALLER_RUNS, DISCARD
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor applicationTaskExecutor() {
+        return executor("default", "async-", 2, 4, 100, RejectionPolicy.ABORT, virtualThreadsEnabled());
+    }
+
+    /**
+     * Runs the {@code MailDispatcher} workers, one per core thread, each holding an SMTP connection per batch.
+     * Platform threads even in virtual-thread mode: Jakarta Mail's SMTPTransport connects and sends
+     * inside {@code synchronized} methods, which on Java 21 pins the carrier for the whole SMTP exchange
+     */
+    @Bean(AppConstants.EXECUTOR_MAIL)
+    public ThreadPoolTaskExecutor mailExecutor() {
+        return executor("mail", "mail-", 2, 2, 0, RejectionPolicy.ABORT, false);
+    }
+
+    /**
+     * Caller-runs by default: a full queue slows the committing request rather than losing an index update
+     */
+    @Bean(AppConstants.EXECUTOR_SEARCH_SYNC)
+    public ThreadPoolTaskExecutor searchSyncExecutor() {
+        return executor("search-sync", "search-sync-", 2, 4, 1000, RejectionPolicy.CALLER_RUNS, virtualThreadsEnabled());
+    }
+
+    @Bean(AppConstants.EXECUTOR_PAYMENT)
+    public ThreadPoolTaskExecutor paymentExecutor() {
+        return executor("payment", "payment-", 2, 8, 1000, RejectionPolicy.ABORT, virtualThreadsEnabled());
+    }
+
+    /**
+     * Handles Redis pub/sub messages (token revocations, payment status changes) for
+     * {@code RedisListenerConfig}'s container. Caller-runs by default: a full queue makes the
+     * subscription thread handle the message itself instead of dropping it
+     */
+    @Bean(AppConstants.EXECUTOR_REDIS_LISTENER)
+    public ThreadPoolTaskExecutor redisListenerExecutor() {
+        return executor("redis-listener", "redis-listener-", 1, 4, 1000, RejectionPolicy.CALLER_RUNS, virtualThreadsEnabled());
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return applicationTaskExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) -> log.error("Async {}.{} failed",
+                method.getDeclaringClass().getSimpleName(), method.getName(), e);
+    }
+
+    private ThreadPoolTaskExecutor executor(String name, String threadPrefix,
+                                            int coreSize, int maxSize, int queueCapacity,
+                                            RejectionPolicy rejectionPolicy, boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(property(name, "core-size", Integer.class, coreSize));
+        executor.setMaxPoolSize(property(name, "max-size", Integer.class, maxSize));
+        executor.setQueueCapacity(property(name, "queue-capacity", Integer.class, queueCapacity));
+        executor.setThreadNamePrefix(threadPrefix);
+        if (property(name, "virtual-threads", Boolean.class, virtualThreads)) {
+            executor.setThreadFactory(Thread.ofVirtual().name(threadPrefix, 1).factory());
+        }
+        executor.setRejectedExecutionHandler(rejectionHandler(name,
+                property(name, "rejection-policy", RejectionPolicy.class, rejectionPolicy)));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(property(name, "await-termination-seconds", Integer.class, 30));
+        return executor;
+    }
+
+    private boolean virtualThreadsEnabled() {
+        return environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+    }
+
+    private <T> T property(String executor, String key, Class<T> type, T defaultValue) {
+        return environment.getProperty(PREFIX + executor + "." + key, type, defaultValue);
+    }
+
+    private RejectedExecutionHandler rejectionHandler(String name, RejectionPolicy policy) {
+        RejectedExecutionHandler delegate = switch (policy) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+        };
+        Counter rejected = Counter.builder("executor.rejected.tasks")
+                .tag("name", name)
+                .tag("policy", policy.name())
+                .register(meterRegistry);
+
+        return (task, pool) -> {
+            rejected.increment();
+            log.warn("Executor {} saturated (active={}, queued={}), applying {}",
+                    name, pool.getActiveCount(), pool.getQueue().size(), policy);
+            delegate.rejectedExecution(task, pool);
+        };
+    }
+}
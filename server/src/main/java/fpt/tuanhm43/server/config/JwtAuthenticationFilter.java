@@ -4,6 +4,7 @@ import fpt.tuanhm43.server.constants.AppConstants;
 import fpt.tuanhm43.server.services.TokenService;
 import fpt.tuanhm43.server.services.impl.TokenServiceImpl;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -41,14 +42,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         return;
                     }
 
-
-                if (!tokenService.validateToken(jwtToken)) {
-                    log.warn("Invalid token for: {} {}",
-                            request.getMethod(), request.getRequestURI());
-                    filterChain.doFilter(request, response);
-                    return;
-                }
-
+                // Verifies and reads the claims in one parse; invalid tokens throw below
                 Authentication authentication = tokenService.getAuthenticationFromToken(jwtToken);
 
                 if (authentication != null) {
@@ -66,6 +60,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         } catch (ExpiredJwtException e) {
             log.warn("Expired JWT token for: {} {} - {}",
                     request.getMethod(), request.getRequestURI(), e.getMessage());
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Invalid token for: {} {} - {}",
+                    request.getMethod(), request.getRequestURI(), e.getMessage());
         } catch (Exception e) {
             log.error("Authentication error for: {} {} - {}",
                     request.getMethod(), request.getRequestURI(), e.getMessage());
@@ -96,10 +93,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 path.equals("/actuator/health") ||
                 path.equals("/actuator/info") ||
                 (path.startsWith("/api/v1/payments/") && path.contains("/webhook")) ||
-                ("GET".equalsIgnoreCase(method) &&
-                        (path.startsWith("/api/v1/products") || path.startsWith("/api/v1/categories"))) ||
                 path.startsWith("/api/v1/cart") ||
-                path.startsWith("/api/v1/orders/track/") ||
                 (path.equals("/api/v1/orders") && "POST".equalsIgnoreCase(method));
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package fpt.tuanhm43.server.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.MetricsRetryListener;
+
+/**
+ * Business metrics, scraped from {@code /actuator/prometheus}. Service latencies are {@code @Timed}
+ * (tags {@code class}, {@code method}, {@code exception}); results are counters or timers tagged
+ * {@code outcome}, and sub-steps such as row-lock waits are tagged {@code operation}. HikariCP pool,
+ * Hibernate statistics and {@code @Scheduled} run times are bound by Spring Boot.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * {@code spring.retry} timer per {@code @Retryable} call, tagged with its label, the number of
+     * retries it took and the final exception; every {@code @Retryable} picks up listener beans
+     */
+    @Bean
+    public MetricsRetryListener metricsRetryListener(MeterRegistry meterRegistry) {
+        return new MetricsRetryListener(meterRegistry);
+    }
+}
@@ -0,0 +1,60 @@
+package fpt.tuanhm43.server.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Anonymous catalog, search and order-tracking reads served by the public security chain.
+ * Patterns are parsed once at startup; none of these routes may carry method-level security,
+ * since the public chain never authenticates.
+ */
+public class PublicCatalogRequestMatcher implements RequestMatcher {
+
+    private static final List<PathPattern> GET_PATTERNS = parse(
+            "/api/v1/products/{id}",
+            "/api/v1/products/slug/{slug}",
+            "/api/v1/products/{productId}/variants",
+            "/api/v1/categories/**",
+            "/api/v1/orders/track/**",
+            "/uploads/**"
+    );
+
+    private static final List<PathPattern> POST_PATTERNS = parse(
+            "/api/v1/products/search"
+    );
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String method = request.getMethod();
+        List<PathPattern> patterns;
+        if (HttpMethod.GET.matches(method)) {
+            patterns = GET_PATTERNS;
+        } else if (HttpMethod.POST.matches(method)) {
+            patterns = POST_PATTERNS;
+        } else {
+            return false;
+        }
+
+        PathContainer path = RequestPath.parse(request.getRequestURI(), request.getContextPath())
+                .pathWithinApplication();
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<PathPattern> parse(String... patterns) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        return Arrays.stream(patterns).map(parser::parse).toList();
+    }
+}
@@ -0,0 +1,28 @@
+package fpt.tuanhm43.server.config;
+
+import fpt.tuanhm43.server.constants.AppConstants;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * The node's single Redis pub/sub subscription. Components register their channels on it
+ * ({@code TokenBlacklist}, {@code PaymentStatusStreams}), so all channels share one subscriber
+ * connection and messages are handled on the bounded {@code redisListenerExecutor}.
+ */
+@Configuration
+public class RedisListenerConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            @Qualifier(AppConstants.EXECUTOR_REDIS_LISTENER) ThreadPoolTaskExecutor listenerExecutor) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(listenerExecutor);
+        return container;
+    }
+}
@@ -0,0 +1,83 @@
+package fpt.tuanhm43.server.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import fpt.tuanhm43.server.constants.AppConstants;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for read-mostly reference and catalog entities (JCache over Caffeine).
+ * Every region is declared here with its own size and TTL; Hibernate is set to fail on any region
+ * not declared, so an entity cannot start caching by accident. Inventory is never cached.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Value("${app.cache.l2.role.max-size:100}")
+    private long roleMaxSize;
+
+    @Value("${app.cache.l2.role.ttl-minutes:60}")
+    private long roleTtlMinutes;
+
+    @Value("${app.cache.l2.category.max-size:1000}")
+    private long categoryMaxSize;
+
+    @Value("${app.cache.l2.category.ttl-minutes:30}")
+    private long categoryTtlMinutes;
+
+    @Value("${app.cache.l2.product.max-size:10000}")
+    private long productMaxSize;
+
+    @Value("${app.cache.l2.product.ttl-minutes:10}")
+    private long productTtlMinutes;
+
+    @Value("${app.cache.l2.product-variant.max-size:50000}")
+    private long variantMaxSize;
+
+    @Value("${app.cache.l2.product-variant.ttl-minutes:10}")
+    private long variantTtlMinutes;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        createRegion(cacheManager, AppConstants.CACHE_REGION_ROLE, roleMaxSize, roleTtlMinutes);
+        createRegion(cacheManager, AppConstants.CACHE_REGION_ROLE_NATURAL_ID, roleMaxSize, roleTtlMinutes);
+        createRegion(cacheManager, AppConstants.CACHE_REGION_CATEGORY, categoryMaxSize, categoryTtlMinutes);
+        createRegion(cacheManager, AppConstants.CACHE_REGION_PRODUCT, productMaxSize, productTtlMinutes);
+        createRegion(cacheManager, AppConstants.CACHE_REGION_PRODUCT_VARIANT, variantMaxSize, variantTtlMinutes);
+        createRegion(cacheManager, AppConstants.CACHE_REGION_PRODUCT_VARIANT_NATURAL_ID, variantMaxSize, variantTtlMinutes);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private void createRegion(CacheManager cacheManager, String region, long maxSize, long ttlMinutes) {
+        if (cacheManager.getCache(region) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.MINUTES, ttlMinutes)));
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -5,8 +5,10 @@ import fpt.tuanhm43.server.services.TokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -15,12 +17,16 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.access.AccessDeniedHandler;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -45,6 +51,12 @@ public class SecurityConfig {
     @Value("${app.cors.allowed-origins:http://localhost:3000,http://localhost:5173}")
     private String allowedOrigins;
 
+    @Value("${app.metrics.scrape.username:prometheus}")
+    private String scrapeUsername;
+
+    @Value("${app.metrics.scrape.password:}")
+    private String scrapePassword;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -68,6 +80,17 @@ public class SecurityConfig {
         return new JwtAuthenticationFilter(tokenService);
     }
 
+    /**
+     * The JWT filter runs only inside the main security chain, not as a servlet filter on every request
+     */
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(
+            JwtAuthenticationFilter jwtAuthenticationFilter) {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(jwtAuthenticationFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
@@ -93,7 +116,64 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * Prometheus scrapes over HTTP Basic with the scrape credential, which grants nothing else;
+     * without a configured password every scrape is rejected. The rest of /actuator stays ADMIN-only.
+     */
+    @Bean
+    @Order(0)
+    public SecurityFilterChain metricsScrapeFilterChain(HttpSecurity http) throws Exception {
+        InMemoryUserDetailsManager scrapers = new InMemoryUserDetailsManager();
+        if (!scrapePassword.isBlank()) {
+            scrapers.createUser(User.withUsername(scrapeUsername)
+                    .password(passwordEncoder().encode(scrapePassword))
+                    .roles(AppConstants.ROLE_METRICS)
+                    .build());
+        } else {
+            log.warn("app.metrics.scrape.password is not set, /actuator/prometheus rejects every scrape");
+        }
+        DaoAuthenticationProvider scrapeProvider = new DaoAuthenticationProvider(passwordEncoder());
+        scrapeProvider.setUserDetailsService(scrapers);
+
+        http
+                .securityMatcher(AppConstants.METRICS_SCRAPE_ENDPOINT)
+                .csrf(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .sessionManagement(session ->
+                        session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authenticationManager(new ProviderManager(scrapeProvider))
+                .httpBasic(basic -> basic.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeHttpRequests(auth -> auth.anyRequest().hasRole(AppConstants.ROLE_METRICS));
+
+        return http.build();
+    }
+
+    /**
+     * Anonymous catalog reads, the bulk of traffic: no authentication, session, CSRF, request cache
+     * or anonymous principal, only CORS and security headers. Authorization is implicit, every
+     * request matched here is allowed.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain publicCatalogFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher(new PublicCatalogRequestMatcher())
+                .csrf(AbstractHttpConfigurer::disable)
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .logout(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .securityContext(AbstractHttpConfigurer::disable)
+                .sessionManagement(AbstractHttpConfigurer::disable)
+                .anonymous(AbstractHttpConfigurer::disable)
+                .servletApi(AbstractHttpConfigurer::disable)
+                .exceptionHandling(AbstractHttpConfigurer::disable);
+
+        return http.build();
+    }
+
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
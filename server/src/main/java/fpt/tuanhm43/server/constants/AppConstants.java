@@ -13,6 +13,22 @@ public final class AppConstants {
     // --- ROLES ---
     public static final String ROLE_ADMIN = "ADMIN";
     public static final String ROLE_STAFF = "STAFF";
+    /** Held only by the Prometheus scrape credential, never by application users */
+    public static final String ROLE_METRICS = "METRICS";
+
+    // --- SECOND-LEVEL CACHE REGIONS ---
+    public static final String CACHE_REGION_ROLE = "role";
+    public static final String CACHE_REGION_ROLE_NATURAL_ID = "role-natural-id";
+    public static final String CACHE_REGION_CATEGORY = "category";
+    public static final String CACHE_REGION_PRODUCT = "product";
+    public static final String CACHE_REGION_PRODUCT_VARIANT = "product-variant";
+    public static final String CACHE_REGION_PRODUCT_VARIANT_NATURAL_ID = "product-variant-natural-id";
+
+    // --- ASYNC EXECUTORS ---
+    public static final String EXECUTOR_MAIL = "mailExecutor";
+    public static final String EXECUTOR_SEARCH_SYNC = "searchSyncExecutor";
+    public static final String EXECUTOR_PAYMENT = "paymentExecutor";
+    public static final String EXECUTOR_REDIS_LISTENER = "redisListenerExecutor";
 
     // --- CART CONFIGURATION ---
     public static final int CART_SESSION_TIMEOUT_HOURS = 24;
@@ -23,6 +39,7 @@ public final class AppConstants {
     public static final String API_ADMIN = "/api/v1/admin/**";
     public static final String API_ADMIN_ORDER = "/api/v1/admin/orders/**";
     public static final String API_ADMIN_INVENTORY = "/api/v1/admin/inventory/**";
+    public static final String METRICS_SCRAPE_ENDPOINT = "/actuator/prometheus";
 
     // --- PUBLIC ENDPOINTS ---
     public static final String[] PUBLIC_ENDPOINTS = {
@@ -1,6 +1,7 @@
 package fpt.tuanhm43.server.controllers;
 
 import fpt.tuanhm43.server.dtos.ApiResponseDTO;
+import fpt.tuanhm43.server.dtos.CursorPageResponseDTO;
 import fpt.tuanhm43.server.dtos.PageResponseDTO;
 import fpt.tuanhm43.server.dtos.order.request.CreateOrderRequest;
 import fpt.tuanhm43.server.dtos.order.request.OrderFilterRequest;
@@ -96,6 +97,31 @@ public class OrderController {
         return ResponseEntity.ok(ApiResponseDTO.success(response));
     }
 
+    @GetMapping("/user/my-orders/cursor")
+    @Operation(summary = "Get my orders (cursor)", description = "Keyset-paginated list of the current user's orders, newest first. Pass nextCursor from the previous response to continue.", security = @SecurityRequirement(name = "bearerAuth"))
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<ApiResponseDTO<CursorPageResponseDTO<OrderResponse>>> getUserOrdersByCursor(
+            @Parameter(description = "Cursor from the previous page, empty for the first page") @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Items per page") @RequestParam(name = "size", defaultValue = "10") int size,
+            @Parameter(description = "Include a (cached) total count") @RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        UUID userId = getCurrentUserId();
+        log.info("Fetching orders by cursor for user: {}", userId);
+        CursorPageResponseDTO<OrderResponse> response = orderService.getUserOrdersByCursor(userId, cursor, size, includeTotal);
+        return ResponseEntity.ok(ApiResponseDTO.success(response));
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Filter all orders by cursor (Admin)", description = "Keyset-paginated order list, newest first, filtered by status or payment status. No COUNT(*) unless includeTotal is set. Required role: ADMIN.", security = @SecurityRequirement(name = "bearerAuth"))
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponseDTO<CursorPageResponseDTO<OrderResponse>>> getAllOrdersByCursor(
+            @Valid OrderFilterRequest filter,
+            @Parameter(description = "Cursor from the previous page, empty for the first page") @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Include a (cached) total count") @RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal) {
+        log.info("Admin fetching orders by cursor with filter: {}", filter);
+        CursorPageResponseDTO<OrderResponse> response = orderService.getAllOrdersByCursor(filter, cursor, includeTotal);
+        return ResponseEntity.ok(ApiResponseDTO.success(response));
+    }
+
     @PutMapping("/{id}/status")
     @Operation(summary = "Update order status", description = "Change the order status (e.g., PENDING to SHIPPED). Required role: ADMIN.", security = @SecurityRequirement(name = "bearerAuth"))
     @PreAuthorize("hasRole('ADMIN')")
@@ -4,20 +4,28 @@ import fpt.tuanhm43.server.dtos.ApiResponseDTO;
 import fpt.tuanhm43.server.dtos.payment.request.SepayWebhookRequest;
 import fpt.tuanhm43.server.dtos.payment.response.PaymentResponse;
 import fpt.tuanhm43.server.dtos.payment.response.PaymentStatusResponse;
+import fpt.tuanhm43.server.dtos.payment.response.ReconciliationResponse;
 import fpt.tuanhm43.server.enums.PaymentMethod;
+import fpt.tuanhm43.server.services.PaymentReconciliationService;
 import fpt.tuanhm43.server.services.PaymentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @RestController
@@ -28,6 +36,7 @@ import java.util.UUID;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentReconciliationService reconciliationService;
 
     @PostMapping("/{orderId}/initiate")
     @Operation(summary = "Initiate payment", description = "Starts the payment process. Supports Guest Checkout.")
@@ -49,6 +58,15 @@ public class PaymentController {
         return ResponseEntity.ok(ApiResponseDTO.success(response));
     }
 
+    @GetMapping(value = "/status/{transactionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream payment status", description = "Server-Sent Events: a `status` event with the current status, then one per change. " +
+            "The stream closes once the payment is final or after a few minutes idle; EventSource reconnects by itself.")
+    public SseEmitter streamPaymentStatus(
+            @Parameter(description = "Transaction ID from payment gateway") @PathVariable("transactionId") String transactionId) {
+        log.debug("Streaming payment status for transaction: {}", transactionId);
+        return paymentService.streamPaymentStatus(transactionId);
+    }
+
     @GetMapping("/order/{orderId}")
     @Operation(summary = "Get payment by Order ID", description = "Fetch payment details for a specific order. Requires ADMIN role.")
     @PreAuthorize("hasRole('ADMIN')")
@@ -71,12 +89,12 @@ public class PaymentController {
 
     @PostMapping("/webhook/sepay")
     @Operation(summary = "SePay Webhook Listener", description = "Public endpoint used by SePay to notify our system about successful bank transfers. Do not call this manually unless testing.")
-    @ApiResponse(responseCode = "200", description = "Webhook received and processed")
+    @ApiResponse(responseCode = "200", description = "Webhook recorded (or already recorded); the payment is updated asynchronously")
     public ResponseEntity<ApiResponseDTO<Void>> handleSepayWebhook(
             @Valid @RequestBody SepayWebhookRequest request) {
         log.info("Received SePay webhook for transaction: {}", request.getTransactionId());
         paymentService.handleSepayWebhook(request);
-        return ResponseEntity.ok(ApiResponseDTO.success(null, "Webhook processed successfully"));
+        return ResponseEntity.ok(ApiResponseDTO.success(null, "Webhook received"));
     }
 
     @PostMapping("/verify-signature")
@@ -88,4 +106,39 @@ public class PaymentController {
         boolean isValid = paymentService.verifyWebhookSignature(signature, data);
         return ResponseEntity.ok(ApiResponseDTO.success(isValid));
     }
-}
\ No newline at end of file
+
+    @PostMapping(value = "/reconciliation", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Reconcile payments with a provider statement",
+            description = "Upload a SePay statement (CSV with header, JSON array or NDJSON; fields transactionId, status, amount, referenceCode) " +
+                    "to compare with the SePay transactions created in [from, to). Open transactions the provider failed or never saw are failed " +
+                    "and their stock released. Runs in the background; poll the returned job id. Required role: ADMIN.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponse(responseCode = "202", description = "Reconciliation job accepted")
+    @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponseDTO<ReconciliationResponse>> reconcile(
+            @RequestPart("file") MultipartFile file,
+            @Parameter(description = "Window start, inclusive", example = "2026-10-01T00:00:00")
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Window end, exclusive", example = "2026-10-02T00:00:00")
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Reconciling payments from {} to {} with statement {}", from, to, file.getOriginalFilename());
+        ReconciliationResponse response = reconciliationService.submit(file, from, to);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponseDTO.success(response, "Reconciliation job accepted"));
+    }
+
+    @GetMapping("/reconciliation/{jobId}")
+    @Operation(
+            summary = "Get reconciliation status",
+            description = "Progress counters, discrepancies and resolutions of a reconciliation job. Required role: ADMIN.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponseDTO<ReconciliationResponse>> getReconciliationStatus(
+            @PathVariable("jobId") UUID jobId) {
+        return ResponseEntity.ok(ApiResponseDTO.success(reconciliationService.getStatus(jobId)));
+    }
+}
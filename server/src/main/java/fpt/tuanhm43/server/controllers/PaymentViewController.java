@@ -21,7 +21,7 @@ public class PaymentViewController {
     @Operation(
             summary = "SePay Payment Demo View",
             description = "Includes a developer tool to simulate a successful webhook trigger and a client-side " +
-                    "polling script to check transaction status."
+                    "status stream (Server-Sent Events) that reports when the transaction settles."
     )
     @GetMapping("/payment-demo/sepay")
     @ResponseBody
@@ -106,16 +106,19 @@ public class PaymentViewController {
                         .catch(err => alert('Lỗi kết nối: ' + err));
                     }
 
-                    setInterval(() => {
-                        fetch('/api/v1/payments/status/' + '%s')
-                            .then(res => res.json())
-                            .then(data => {
-                                if (data.data.status === 'PAID') {
-                                    alert('Giao dịch hoàn tất! Cảm ơn bạn.');
-                                    // window.location.href = '/thank-you'; // Chuyển trang nếu muốn
-                                }
-                            });
-                    }, 3000);
+                    // Pushed by the server when the payment settles, instead of polling
+                    const statusStream = new EventSource('/api/v1/payments/status/' + '%s' + '/stream');
+                    statusStream.addEventListener('status', event => {
+                        const payment = JSON.parse(event.data);
+                        if (payment.status === 'PAID') {
+                            statusStream.close();
+                            alert('Giao dịch hoàn tất! Cảm ơn bạn.');
+                            // window.location.href = '/thank-you'; // Chuyển trang nếu muốn
+                        } else if (payment.status === 'FAILED') {
+                            statusStream.close();
+                            alert('Thanh toán thất bại. Vui lòng thử lại.');
+                        }
+                    });
                 </script>
             </body>
             </html>
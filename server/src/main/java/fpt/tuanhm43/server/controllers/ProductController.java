@@ -5,8 +5,10 @@ import fpt.tuanhm43.server.dtos.PageResponseDTO;
 import fpt.tuanhm43.server.dtos.product.request.CreateProductRequest;
 import fpt.tuanhm43.server.dtos.product.request.UpdateProductRequest;
 import fpt.tuanhm43.server.dtos.product.response.ProductDetailResponse;
+import fpt.tuanhm43.server.dtos.product.response.ProductImportResponse;
 import fpt.tuanhm43.server.dtos.product.response.ProductResponse;
 import fpt.tuanhm43.server.dtos.search.AdvancedSearchRequest;
+import fpt.tuanhm43.server.services.ProductImportService;
 import fpt.tuanhm43.server.services.ProductSearchService;
 import fpt.tuanhm43.server.services.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,9 +20,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.UUID;
 
@@ -33,6 +37,7 @@ public class ProductController {
 
     private final ProductService productService;
     private final ProductSearchService productSearchService;
+    private final ProductImportService productImportService;
 
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Fetch full product details including variants (size/color) and images by its UUID.")
@@ -109,4 +114,34 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponseDTO.success(null, "Product deleted successfully"));
     }
 
-}
\ No newline at end of file
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Bulk import products",
+            description = "Upload a CSV (with header) or NDJSON file, one variant per row. Rows sharing a productSlug form one product. " +
+                    "The import runs in the background; poll the returned job id for progress. Required role: ADMIN.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponse(responseCode = "202", description = "Import job accepted")
+    @ApiResponse(responseCode = "403", description = "Forbidden - Admin role required")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponseDTO<ProductImportResponse>> importProducts(
+            @RequestPart("file") MultipartFile file) {
+        log.info("Importing products from file: {}", file.getOriginalFilename());
+        ProductImportResponse response = productImportService.submit(file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponseDTO.success(response, "Import job accepted"));
+    }
+
+    @GetMapping("/import/{jobId}")
+    @Operation(
+            summary = "Get bulk import status",
+            description = "Progress counters and per-row errors of an import job. Required role: ADMIN.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponseDTO<ProductImportResponse>> getImportStatus(
+            @PathVariable("jobId") UUID jobId) {
+        return ResponseEntity.ok(ApiResponseDTO.success(productImportService.getStatus(jobId)));
+    }
+
+}
@@ -0,0 +1,45 @@
+package fpt.tuanhm43.server.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Cursor (keyset) paginated response wrapper")
+public class CursorPageResponseDTO<T> {
+
+    @Schema(description = "List of items in the current page")
+    private List<T> content;
+
+    @Schema(description = "Number of items requested per page", example = "10")
+    private int pageSize;
+
+    @Schema(description = "Whether there is a next page", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque cursor to pass as 'cursor' for the next page (absent on the last page)")
+    private String nextCursor;
+
+    @Schema(description = "Total number of elements, only when requested; may lag behind by a few seconds", example = "100")
+    private Long totalElements;
+
+    /**
+     * Creates a CursorPageResponseDTO from Spring's Slice object.
+     */
+    public static <T> CursorPageResponseDTO<T> from(org.springframework.data.domain.Slice<T> slice, String nextCursor, Long totalElements) {
+        return CursorPageResponseDTO.<T>builder()
+                .content(slice.getContent())
+                .pageSize(slice.getSize())
+                .hasNext(slice.hasNext())
+                .nextCursor(slice.hasNext() ? nextCursor : null)
+                .totalElements(totalElements)
+                .build();
+    }
+}
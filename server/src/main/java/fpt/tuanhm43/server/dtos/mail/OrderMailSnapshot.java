@@ -0,0 +1,24 @@
+package fpt.tuanhm43.server.dtos.mail;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Immutable copy of the order fields an email shows, taken while the order is still managed so that
+ * rendering never touches the persistence context
+ */
+public record OrderMailSnapshot(
+        String orderNumber,
+        String customerName,
+        String customerEmail,
+        String shippingAddress,
+        String paymentMethod,
+        BigDecimal subtotal,
+        BigDecimal shippingFee,
+        BigDecimal totalAmount,
+        String trackingUrl,
+        List<Line> lines) {
+
+    public record Line(String productName, String sku, Integer quantity, BigDecimal unitPrice, BigDecimal subtotal) {
+    }
+}
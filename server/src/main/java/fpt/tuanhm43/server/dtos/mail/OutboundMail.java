@@ -0,0 +1,32 @@
+package fpt.tuanhm43.server.dtos.mail;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Email waiting to be rendered and sent: the Thymeleaf template name and the variables it reads.
+ * {@code secrets} names the variables that grant access (e.g. a password-reset link) and must not
+ * be kept once the mail has left the queue.
+ */
+public record OutboundMail(String to, String subject, String template, Map<String, Object> variables, Set<String> secrets) {
+
+    private static final String REDACTED = "[redacted]";
+
+    public OutboundMail(String to, String subject, String template, Map<String, Object> variables) {
+        this(to, subject, template, variables, Set.of());
+    }
+
+    /**
+     * Copy with every secret variable masked, for the dead-letter list
+     */
+    public OutboundMail redacted() {
+        if (secrets.isEmpty()) {
+            return this;
+        }
+        Map<String, Object> visible = new LinkedHashMap<>(variables);
+        secrets.forEach(name -> visible.computeIfPresent(name, (key, value) -> REDACTED));
+        return new OutboundMail(to, subject, template, Collections.unmodifiableMap(visible), secrets);
+    }
+}
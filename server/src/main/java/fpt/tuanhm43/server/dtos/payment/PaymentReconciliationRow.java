@@ -0,0 +1,15 @@
+package fpt.tuanhm43.server.dtos.payment;
+
+import fpt.tuanhm43.server.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns reconciliation needs from a payment transaction and its order, read as a projection so
+ * streamed rows are never attached to a persistence context
+ */
+public record PaymentReconciliationRow(UUID id, String transactionId, PaymentStatus status, BigDecimal amount,
+                                       LocalDateTime createdAt, UUID orderId, PaymentStatus orderPaymentStatus) {
+}
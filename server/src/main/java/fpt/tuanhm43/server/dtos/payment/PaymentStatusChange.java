@@ -0,0 +1,12 @@
+package fpt.tuanhm43.server.dtos.payment;
+
+import fpt.tuanhm43.server.enums.PaymentStatus;
+
+import java.util.UUID;
+
+/**
+ * A committed payment transaction status, as broadcast to every node on
+ * {@link fpt.tuanhm43.server.services.impl.PaymentStatusStreams#CHANNEL}; also sent when a transaction is created
+ */
+public record PaymentStatusChange(String transactionId, UUID orderId, PaymentStatus status) {
+}
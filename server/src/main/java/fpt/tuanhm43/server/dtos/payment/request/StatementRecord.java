@@ -0,0 +1,32 @@
+package fpt.tuanhm43.server.dtos.payment.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One transaction of a provider statement (CSV column / JSON field names match the properties).
+ * {@code status} uses the webhook vocabulary: SUCCESS, FAILED, PENDING, REFUNDED.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatementRecord {
+
+    private long rowNumber;
+
+    @NotBlank(message = "Transaction ID is required")
+    private String transactionId;
+
+    @NotBlank(message = "Status is required")
+    private String status;
+
+    private BigDecimal amount;
+
+    private String referenceCode;
+}
@@ -22,4 +22,21 @@ public class PaymentStatusResponse {
     private String message;
     private String qrCodeUrl;
     private String paymentUrl;
-}
\ No newline at end of file
+
+    /**
+     * Current status of a transaction, as polled or pushed to the checkout page
+     */
+    public static PaymentStatusResponse of(String transactionId, PaymentStatus status) {
+        return PaymentStatusResponse.builder()
+                .transactionId(transactionId)
+                .status(status)
+                .message(switch (status) {
+                    case PENDING -> "Payment pending";
+                    case PROCESSING -> "Payment processing";
+                    case PAID -> "Payment completed successfully";
+                    case FAILED -> "Payment failed";
+                    case REFUNDED -> "Payment refunded";
+                })
+                .build();
+    }
+}
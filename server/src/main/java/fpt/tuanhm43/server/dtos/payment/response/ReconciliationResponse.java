@@ -0,0 +1,64 @@
+package fpt.tuanhm43.server.dtos.payment.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import fpt.tuanhm43.server.enums.DiscrepancyType;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import fpt.tuanhm43.server.enums.ReconciliationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Payment reconciliation job status / progress snapshot
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReconciliationResponse {
+
+    private UUID jobId;
+    private String fileName;
+    private ReconciliationStatus status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    private long localTransactions;
+    private long statementRecords;
+    private long matched;
+    private long resolved;
+
+    private long discrepancyCount;
+    private Map<DiscrepancyType, Long> discrepancyCounts;
+    private List<Discrepancy> discrepancies;
+    private boolean discrepanciesTruncated;
+
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Discrepancy {
+        private DiscrepancyType type;
+        private String transactionId;
+        private UUID orderId;
+        private PaymentStatus localStatus;
+        private String providerStatus;
+        private BigDecimal localAmount;
+        private BigDecimal providerAmount;
+        private boolean resolved;
+        private String message;
+    }
+}
@@ -0,0 +1,66 @@
+package fpt.tuanhm43.server.dtos.product.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a bulk product import (CSV column / NDJSON field names match the properties).
+ * Rows sharing a productSlug belong to the same product; product fields are taken from the first row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportRow {
+
+    @JsonIgnore
+    private long rowNumber;
+
+    @NotBlank(message = "Product slug is required")
+    @Size(max = 200, message = "Slug must not exceed 200 characters")
+    private String productSlug;
+
+    @Size(max = 200, message = "Product name must not exceed 200 characters")
+    private String productName;
+
+    @Size(max = 5000, message = "Description must not exceed 5000 characters")
+    private String description;
+
+    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+    private BigDecimal basePrice;
+
+    private String categorySlug;
+
+    private String productImageUrl;
+
+    @NotBlank(message = "SKU is required")
+    @Size(max = 50, message = "SKU must not exceed 50 characters")
+    @Pattern(regexp = "^[A-Z0-9-]+$", message = "SKU must contain only uppercase letters, numbers, and hyphens")
+    private String sku;
+
+    @Size(max = 20, message = "Size must not exceed 20 characters")
+    private String size;
+
+    @Size(max = 50, message = "Color must not exceed 50 characters")
+    private String color;
+
+    @Size(max = 50, message = "Material must not exceed 50 characters")
+    private String material;
+
+    private BigDecimal priceAdjustment;
+
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private Integer quantity;
+
+    private String imageUrl;
+}
@@ -0,0 +1,48 @@
+package fpt.tuanhm43.server.dtos.product.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import fpt.tuanhm43.server.enums.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk import job status / progress snapshot
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductImportResponse {
+
+    private UUID jobId;
+    private String fileName;
+    private ImportStatus status;
+
+    private long processedRows;
+    private long failedRows;
+    private long importedProducts;
+    private long importedVariants;
+
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    private String message;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String sku;
+        private String message;
+    }
+}
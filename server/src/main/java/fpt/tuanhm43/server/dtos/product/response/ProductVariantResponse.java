@@ -13,6 +13,8 @@ import java.util.UUID;
  * Product Variant Response DTO
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 @Builder
 public class ProductVariantResponse {
     private UUID id;
@@ -1,5 +1,6 @@
 package fpt.tuanhm43.server.entities;
 
+import fpt.tuanhm43.server.entities.generator.UuidV7;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
@@ -27,7 +28,7 @@ public abstract class BaseEntity implements Serializable {
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(updatable = false, nullable = false)
     private UUID id;
 
@@ -30,7 +30,7 @@ public class CartItem extends BaseEntity {
     private ShoppingCart cart;
 
     @NotNull
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_variant_id", nullable = false)
     private ProductVariant productVariant;
 
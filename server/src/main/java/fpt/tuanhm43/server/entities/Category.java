@@ -1,10 +1,13 @@
 package fpt.tuanhm43.server.entities;
 
+import fpt.tuanhm43.server.constants.AppConstants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,6 +23,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppConstants.CACHE_REGION_CATEGORY)
 public class Category extends BaseEntity {
 
     @NotBlank(message = "Category name is required")
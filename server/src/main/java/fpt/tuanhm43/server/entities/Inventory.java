@@ -18,6 +18,7 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
+@Cacheable(false) // stock must always be read from the database, never from the second-level cache
 public class Inventory extends BaseEntity {
 
     @NotNull
@@ -14,9 +14,9 @@ import java.time.LocalDateTime;
 @Table(name = "inventory_reservations", indexes = {
         @Index(name = "idx_reservation_variant", columnList = "product_variant_id"),
         @Index(name = "idx_reservation_order", columnList = "order_id"),
-        @Index(name = "idx_reservation_session", columnList = "session_id"),
-        @Index(name = "idx_reservation_status", columnList = "status"),
-        @Index(name = "idx_reservation_expires", columnList = "expires_at")
+        @Index(name = "idx_reservation_session_status", columnList = "session_id, status"),
+        // Migration V4 uses a partial index (expires_at) WHERE status = 'ACTIVE' instead
+        @Index(name = "idx_reservation_status_expires", columnList = "status, expires_at")
 })
 @Getter
 @Setter
@@ -17,10 +17,11 @@ import java.util.UUID;
 @Table(name = "orders", indexes = {
         @Index(name = "idx_order_number", columnList = "order_number"),
         @Index(name = "idx_order_tracking", columnList = "tracking_token"),
-        @Index(name = "idx_order_user", columnList = "user_id"),
-        @Index(name = "idx_order_status", columnList = "status"),
+        @Index(name = "idx_order_user_created", columnList = "user_id, created_at DESC, id DESC"),
+        @Index(name = "idx_order_status_created", columnList = "status, created_at DESC, id DESC"),
+        @Index(name = "idx_order_payment_status_created", columnList = "payment_status, created_at DESC, id DESC"),
         @Index(name = "idx_order_email", columnList = "customer_email"),
-        @Index(name = "idx_order_created", columnList = "created_at")
+        @Index(name = "idx_order_created_id", columnList = "created_at DESC, id DESC")
 })
 @Getter
 @Setter
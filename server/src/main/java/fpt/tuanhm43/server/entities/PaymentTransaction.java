@@ -18,7 +18,7 @@ import java.util.Map;
 
 @Entity
 @Table(name = "payment_transactions", indexes = {
-        @Index(name = "idx_payment_order", columnList = "order_id"),
+        @Index(name = "idx_payment_order_created", columnList = "order_id, created_at DESC"),
         @Index(name = "idx_payment_transaction_id", columnList = "transaction_id"),
         @Index(name = "idx_payment_status", columnList = "status"),
         @Index(name = "idx_payment_created", columnList = "created_at")
@@ -0,0 +1,54 @@
+package fpt.tuanhm43.server.entities;
+
+import fpt.tuanhm43.server.enums.WebhookEventStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Raw payment provider webhook, recorded before it is processed. One row per provider transaction:
+ * provider retries of the same webhook hit the unique key and are acknowledged without a second row.
+ */
+@Entity
+@Table(name = "payment_webhook_events",
+        uniqueConstraints = @UniqueConstraint(name = "uk_webhook_provider_transaction", columnNames = {"provider", "transaction_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class PaymentWebhookEvent extends BaseEntity {
+
+    @NotBlank
+    @Column(nullable = false, length = 20)
+    private String provider;
+
+    @NotBlank
+    @Column(name = "transaction_id", nullable = false, length = 100)
+    private String transactionId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private WebhookEventStatus status = WebhookEventStatus.RECEIVED;
+
+    @NotBlank
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /** Processing attempts started by the retry scheduler */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
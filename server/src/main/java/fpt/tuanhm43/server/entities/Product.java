@@ -1,9 +1,12 @@
 package fpt.tuanhm43.server.entities;
 
+import fpt.tuanhm43.server.constants.AppConstants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -21,6 +24,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppConstants.CACHE_REGION_PRODUCT)
 public class Product extends BaseEntity {
 
     @NotBlank(message = "Product name is required")
@@ -1,5 +1,6 @@
 package fpt.tuanhm43.server.entities;
 
+import fpt.tuanhm43.server.constants.AppConstants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -7,6 +8,10 @@ import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.math.BigDecimal;
 
@@ -21,6 +26,9 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppConstants.CACHE_REGION_PRODUCT_VARIANT)
+@NaturalIdCache(region = AppConstants.CACHE_REGION_PRODUCT_VARIANT_NATURAL_ID)
 public class ProductVariant extends BaseEntity {
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,6 +38,7 @@ public class ProductVariant extends BaseEntity {
     @NotBlank(message = "SKU is required")
     @Size(max = 50, message = "SKU must not exceed 50 characters")
     @Pattern(regexp = "^[A-Z0-9-]+$", message = "SKU must contain only uppercase letters, numbers, and hyphens")
+    @NaturalId
     @Column(nullable = false, unique = true, length = 50)
     private String sku;
 
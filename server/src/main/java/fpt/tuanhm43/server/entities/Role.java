@@ -1,10 +1,15 @@
 package fpt.tuanhm43.server.entities;
 
+import fpt.tuanhm43.server.constants.AppConstants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -22,10 +27,14 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppConstants.CACHE_REGION_ROLE)
+@NaturalIdCache(region = AppConstants.CACHE_REGION_ROLE_NATURAL_ID)
 public class Role extends BaseEntity {
 
     @NotBlank(message = "Role name is required")
     @Size(max = 50, message = "Role name must not exceed 50 characters")
+    @NaturalId
     @Column(nullable = false, unique = true, length = 50)
     private String name;
 
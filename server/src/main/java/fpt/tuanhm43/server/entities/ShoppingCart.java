@@ -19,6 +19,25 @@ import java.util.UUID;
         @Index(name = "idx_cart_user", columnList = "user_id"),
         @Index(name = "idx_cart_expires", columnList = "expires_at")
 })
+@NamedEntityGraph(
+        name = ShoppingCart.GRAPH_VIEW,
+        attributeNodes = @NamedAttributeNode(value = "items", subgraph = "items"),
+        subgraphs = {
+                @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode(value = "productVariant", subgraph = "variant")),
+                @NamedSubgraph(name = "variant", attributeNodes = {
+                        @NamedAttributeNode("product"),
+                        @NamedAttributeNode("inventory")
+                })
+        }
+)
+@NamedEntityGraph(
+        name = ShoppingCart.GRAPH_CHECKOUT,
+        attributeNodes = @NamedAttributeNode(value = "items", subgraph = "items"),
+        subgraphs = {
+                @NamedSubgraph(name = "items", attributeNodes = @NamedAttributeNode(value = "productVariant", subgraph = "variant")),
+                @NamedSubgraph(name = "variant", attributeNodes = @NamedAttributeNode("inventory"))
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,6 +45,12 @@ import java.util.UUID;
 @SuperBuilder
 public class ShoppingCart extends BaseEntity {
 
+    /** Items, variants, products and stock: everything the cart response renders */
+    public static final String GRAPH_VIEW = "ShoppingCart.view";
+
+    /** Items, variants and stock: what checkout and stock validation need */
+    public static final String GRAPH_CHECKOUT = "ShoppingCart.checkout";
+
     @Size(max = 100, message = "Session ID must not exceed 100 characters")
     @Column(name = "session_id", unique = true, length = 100)
     private String sessionId;
@@ -0,0 +1,39 @@
+package fpt.tuanhm43.server.entities.generator;
+
+import org.hibernate.boot.ResourceStreamLocator;
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.boot.spi.AdditionalMappingContributions;
+import org.hibernate.boot.spi.AdditionalMappingContributor;
+import org.hibernate.boot.spi.InFlightMetadataCollector;
+import org.hibernate.boot.spi.MetadataBuildingContext;
+
+/**
+ * Adds {@value #NAME} to the mapped schema, so Hibernate's schema tooling owns it like any
+ * id sequence: created by {@code ddl-auto=create|update}, checked by {@code validate}.
+ * Registered through {@code META-INF/services}; read by {@code OrderRepository.nextOrderNumber}.
+ */
+public class OrderNumberSequence implements AdditionalMappingContributor {
+
+    public static final String NAME = "order_number_seq";
+
+    @Override
+    public String getContributorName() {
+        return "orm";
+    }
+
+    @Override
+    public void contribute(AdditionalMappingContributions contributions,
+                           InFlightMetadataCollector metadata,
+                           ResourceStreamLocator resourceStreamLocator,
+                           MetadataBuildingContext buildingContext) {
+        Namespace namespace = metadata.getDatabase().getDefaultNamespace();
+        Identifier name = Identifier.toIdentifier(NAME);
+        if (namespace.locateSequence(name) == null) {
+            namespace.createSequence(name, physicalName -> new Sequence(getContributorName(),
+                    namespace.getPhysicalName().getCatalog(), namespace.getPhysicalName().getSchema(),
+                    physicalName, 1, 1));
+        }
+    }
+}
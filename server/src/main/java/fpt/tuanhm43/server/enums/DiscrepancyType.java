@@ -0,0 +1,21 @@
+package fpt.tuanhm43.server.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum DiscrepancyType {
+    MISSING_AT_PROVIDER("Có giao dịch nội bộ, không có trong sao kê"),
+    MISSING_LOCALLY("Có trong sao kê, không có giao dịch nội bộ"),
+    STATUS_MISMATCH("Trạng thái khác sao kê"),
+    AMOUNT_MISMATCH("Số tiền khác sao kê"),
+    ORDER_STATUS_MISMATCH("Giao dịch đã thanh toán nhưng đơn hàng chưa"),
+    STALE_UNSETTLED("Giao dịch treo quá hạn"),
+    DUPLICATE_AT_PROVIDER("Giao dịch lặp trong sao kê"),
+    MALFORMED_RECORD("Dòng sao kê không hợp lệ");
+
+    private final String displayName;
+
+    DiscrepancyType(String displayName) {
+        this.displayName = displayName;
+    }
+}
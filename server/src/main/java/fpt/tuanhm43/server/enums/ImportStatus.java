@@ -0,0 +1,21 @@
+package fpt.tuanhm43.server.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum ImportStatus {
+    PENDING("Đang chờ xử lý"),
+    RUNNING("Đang nhập dữ liệu"),
+    COMPLETED("Đã hoàn tất"),
+    FAILED("Thất bại");
+
+    private final String displayName;
+
+    ImportStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
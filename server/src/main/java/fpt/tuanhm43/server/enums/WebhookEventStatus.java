@@ -0,0 +1,17 @@
+package fpt.tuanhm43.server.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum WebhookEventStatus {
+    RECEIVED("Đã nhận, chờ xử lý"),
+    PROCESSED("Đã xử lý"),
+    IGNORED("Bỏ qua, giao dịch đã kết thúc"),
+    FAILED("Xử lý thất bại");
+
+    private final String displayName;
+
+    WebhookEventStatus(String displayName) {
+        this.displayName = displayName;
+    }
+}
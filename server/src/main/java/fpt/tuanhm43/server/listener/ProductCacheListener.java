@@ -0,0 +1,30 @@
+package fpt.tuanhm43.server.listener;
+
+import fpt.tuanhm43.server.caches.ProductDetailCache;
+import fpt.tuanhm43.server.events.ProductDeletedEvent;
+import fpt.tuanhm43.server.events.ProductSavedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheListener {
+
+    private final ProductDetailCache productDetailCache;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleProductSaved(ProductSavedEvent event) {
+        log.debug("Commited: Evicting cached detail for product {}", event.getProductId());
+        productDetailCache.evict(event.getProductId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleProductDeleted(ProductDeletedEvent event) {
+        log.debug("Commited: Evicting cached detail for deleted product {}", event.getProductId());
+        productDetailCache.evict(event.getProductId());
+    }
+}
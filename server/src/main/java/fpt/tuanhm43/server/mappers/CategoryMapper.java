@@ -5,6 +5,8 @@ import fpt.tuanhm43.server.dtos.category.response.CategoryResponse;
 import fpt.tuanhm43.server.dtos.category.response.CategoryTreeResponse;
 import fpt.tuanhm43.server.entities.Category;
 import fpt.tuanhm43.server.mappers.helper.CategoryMapperHelper;
+import fpt.tuanhm43.server.mappers.helper.CategoryProductCounts;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -12,33 +14,38 @@ import org.mapstruct.Named;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Product counts come from a {@link CategoryProductCounts} context prefetched with one grouped query
+ * ({@link CategoryMapperHelper#loadProductCounts}), never a COUNT per mapped category.
+ */
 @Mapper(componentModel = "spring", uses = {CategoryMapperHelper.class})
 public interface CategoryMapper {
 
     @Mapping(target = "parentId", source = "parent.id")
     @Mapping(target = "parentName", source = "parent.name")
     @Mapping(target = "productCount", source = "id", qualifiedByName = "countProducts")
-    CategoryResponse toResponse(Category category);
+    CategoryResponse toResponse(Category category, @Context CategoryProductCounts productCounts);
 
     @Mapping(target = "parentId", source = "parent.id")
     @Mapping(target = "parentName", source = "parent.name")
     @Mapping(target = "productCount", source = "id", qualifiedByName = "countProducts")
     @Mapping(target = "children", source = "children", qualifiedByName = "mapActiveChildren")
-    CategoryDetailResponse toDetailResponse(Category category);
+    CategoryDetailResponse toDetailResponse(Category category, @Context CategoryProductCounts productCounts);
 
     @Mapping(target = "productCount", source = "id", qualifiedByName = "countProducts")
     @Mapping(target = "children", expression = "java(new java.util.ArrayList<>())")
-    CategoryTreeResponse toTreeResponse(Category category);
+    CategoryTreeResponse toTreeResponse(Category category, @Context CategoryProductCounts productCounts);
 
     @Mapping(target = "productCount", source = "id", qualifiedByName = "countProducts")
-    CategoryDetailResponse.CategoryChildResponse toChildResponse(Category child);
+    CategoryDetailResponse.CategoryChildResponse toChildResponse(Category child, @Context CategoryProductCounts productCounts);
 
     @Named("mapActiveChildren")
-    default List<CategoryDetailResponse.CategoryChildResponse> mapActiveChildren(List<Category> children) {
+    default List<CategoryDetailResponse.CategoryChildResponse> mapActiveChildren(List<Category> children,
+                                                                                @Context CategoryProductCounts productCounts) {
         if (children == null) return new ArrayList<>();
         return children.stream()
                 .filter(child -> Boolean.FALSE.equals(child.getIsDeleted()))
-                .map(this::toChildResponse)
+                .map(child -> toChildResponse(child, productCounts))
                 .toList();
     }
 }
\ No newline at end of file
@@ -2,10 +2,14 @@ package fpt.tuanhm43.server.mappers.helper;
 
 import fpt.tuanhm43.server.repositories.CategoryRepository;
 import lombok.RequiredArgsConstructor;
+import org.mapstruct.Context;
 import org.mapstruct.Named;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -13,8 +17,20 @@ public class CategoryMapperHelper {
 
     private final CategoryRepository categoryRepository;
 
+    /**
+     * One grouped COUNT for every category about to be mapped
+     */
+    public CategoryProductCounts loadProductCounts(Collection<UUID> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return new CategoryProductCounts(Map.of());
+        }
+        return new CategoryProductCounts(categoryRepository.countProductsByCategoryIds(categoryIds).stream()
+                .collect(Collectors.toMap(CategoryRepository.CategoryProductCount::getCategoryId,
+                        CategoryRepository.CategoryProductCount::getProductCount)));
+    }
+
     @Named("countProducts")
-    public long countProducts(UUID categoryId) {
-        return categoryRepository.countProductsByCategoryId(categoryId);
+    public long countProducts(UUID categoryId, @Context CategoryProductCounts productCounts) {
+        return productCounts.get(categoryId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package fpt.tuanhm43.server.mappers.helper;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Product counts prefetched for a batch of categories, passed to {@code CategoryMapper} as mapping context
+ */
+public record CategoryProductCounts(Map<UUID, Long> counts) {
+
+    public long get(UUID categoryId) {
+        return counts.getOrDefault(categoryId, 0L);
+    }
+}
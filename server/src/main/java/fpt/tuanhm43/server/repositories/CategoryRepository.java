@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,6 +23,17 @@ public interface CategoryRepository extends JpaRepository<Category, UUID>, JpaSp
      */
     Optional<Category> findBySlugAndIsDeletedFalse(String slug);
 
+    /**
+     * Find by slugs (excluding deleted)
+     */
+    List<Category> findBySlugInAndIsDeletedFalse(Collection<String> slugs);
+
+    /**
+     * Resolve slug to ID (used by slug cache)
+     */
+    @Query("SELECT c.id FROM Category c WHERE c.slug = :slug AND c.isDeleted = false")
+    Optional<UUID> findIdBySlugAndIsDeletedFalse(@Param("slug") String slug);
+
     /**
      * Check if slug exists (excluding deleted)
      */
@@ -67,14 +79,29 @@ public interface CategoryRepository extends JpaRepository<Category, UUID>, JpaSp
     @Query("SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId AND p.isDeleted = false")
     long countProductsByCategoryId(@Param("categoryId") UUID categoryId);
 
+    /**
+     * Count products for many categories in one grouped query; categories without products are absent
+     */
+    @Query("SELECT p.category.id AS categoryId, COUNT(p) AS productCount FROM Product p " +
+            "WHERE p.category.id IN :categoryIds AND p.isDeleted = false GROUP BY p.category.id")
+    List<CategoryProductCount> countProductsByCategoryIds(@Param("categoryIds") Collection<UUID> categoryIds);
+
+    interface CategoryProductCount {
+        UUID getCategoryId();
+
+        long getProductCount();
+    }
+
     /**
      * Find all descendants of a category (recursive)
      */
-    @Query(value = "WITH RECURSIVE category_tree AS ( " +
-            "SELECT id, parent_id FROM categories WHERE id = :categoryId " +
-            "UNION ALL " +
-            "SELECT c.id, c.parent_id FROM categories c " +
-            "INNER JOIN category_tree ct ON c.parent_id = ct.id " +
-            ") SELECT id FROM category_tree", nativeQuery = true)
+    @Query("""
+            WITH category_tree AS (
+                SELECT c.id AS id FROM Category c WHERE c.id = :categoryId
+                UNION ALL
+                SELECT c.id AS id FROM Category c JOIN category_tree ct ON c.parent.id = ct.id
+            )
+            SELECT ct.id FROM category_tree ct
+            """)
     List<UUID> findAllDescendantIds(@Param("categoryId") UUID categoryId);
 }
\ No newline at end of file
@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,6 +33,14 @@ public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
     @Query("SELECT i FROM Inventory i WHERE i.productVariant.id = :variantId")
     Optional<Inventory> findByVariantIdWithLock(@Param("variantId") UUID variantId);
 
+    /**
+     * Find several variants' inventories WITH PESSIMISTIC LOCK, in one statement.
+     * Rows are locked in variant ID order so concurrent checkouts cannot deadlock
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.productVariant.id IN :variantIds ORDER BY i.productVariant.id")
+    List<Inventory> findAllByVariantIdsWithLock(@Param("variantIds") Collection<UUID> variantIds);
+
     /**
      * Check if variant has sufficient stock
      */
@@ -5,10 +5,13 @@ import fpt.tuanhm43.server.enums.OrderStatus;
 import fpt.tuanhm43.server.enums.PaymentStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -21,25 +24,114 @@ import java.util.UUID;
 public interface OrderRepository extends JpaRepository<Order, UUID> {
 
     /**
-     * Find by tracking token (guest tracking)
+     * Find by tracking token (guest tracking), with items for the detail view
      */
+    @EntityGraph(attributePaths = {"items", "items.productVariant", "items.productVariant.inventory"})
     Optional<Order> findByTrackingToken(UUID trackingToken);
 
+    /**
+     * Find by ID with items for the detail view
+     */
+    @EntityGraph(attributePaths = {"items", "items.productVariant", "items.productVariant.inventory"})
+    Optional<Order> findWithItemsById(UUID id);
+
     /**
      * Find by user
      */
     Page<Order> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
 
+    /**
+     * Find by user, first keyset page (no count query)
+     */
+    Slice<Order> findSliceByUserIdOrderByCreatedAtDescIdDesc(UUID userId, Pageable pageable);
+
+    /**
+     * Find by user, keyset page after (createdAt, id)
+     */
+    @Query("""
+        SELECT o FROM Order o
+        WHERE o.user.id = :userId
+          AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))
+        ORDER BY o.createdAt DESC, o.id DESC
+        """)
+    Slice<Order> findSliceByUserIdBefore(
+            @Param("userId") UUID userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable
+    );
+
     /**
      * Find by status
      */
     Page<Order> findByStatusOrderByCreatedAtDesc(OrderStatus status, Pageable pageable);
 
+    /**
+     * Find by status, first keyset page (no count query)
+     */
+    Slice<Order> findSliceByStatusOrderByCreatedAtDescIdDesc(OrderStatus status, Pageable pageable);
+
+    /**
+     * Find by status, keyset page after (createdAt, id)
+     */
+    @Query("""
+        SELECT o FROM Order o
+        WHERE o.status = :status
+          AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))
+        ORDER BY o.createdAt DESC, o.id DESC
+        """)
+    Slice<Order> findSliceByStatusBefore(
+            @Param("status") OrderStatus status,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable
+    );
+
     /**
      * Find by payment status
      */
     Page<Order> findByPaymentStatusOrderByCreatedAtDesc(PaymentStatus paymentStatus, Pageable pageable);
 
+    /**
+     * Find by payment status, first keyset page (no count query)
+     */
+    Slice<Order> findSliceByPaymentStatusOrderByCreatedAtDescIdDesc(PaymentStatus paymentStatus, Pageable pageable);
+
+    /**
+     * Find by payment status, keyset page after (createdAt, id)
+     */
+    @Query("""
+        SELECT o FROM Order o
+        WHERE o.paymentStatus = :paymentStatus
+          AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id))
+        ORDER BY o.createdAt DESC, o.id DESC
+        """)
+    Slice<Order> findSliceByPaymentStatusBefore(
+            @Param("paymentStatus") PaymentStatus paymentStatus,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable
+    );
+
+    /**
+     * All orders, first keyset page (no count query)
+     */
+    Slice<Order> findSliceByOrderByCreatedAtDescIdDesc(Pageable pageable);
+
+    /**
+     * All orders, keyset page after (createdAt, id)
+     */
+    @Query("""
+        SELECT o FROM Order o
+        WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)
+        ORDER BY o.createdAt DESC, o.id DESC
+        """)
+    Slice<Order> findSliceBefore(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Pageable pageable
+    );
+
     /**
      * Find orders created between dates
      */
@@ -58,5 +150,18 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
      * Count orders created after a specific date
      */
     long countByCreatedAtAfter(LocalDateTime dateTime);
+
+    /**
+     * Next value of order_number_seq. Read-write: PostgreSQL refuses nextval in a read-only transaction.
+     */
+    @Transactional
+    @Query(value = "SELECT nextval('order_number_seq')", nativeQuery = true)
+    long nextOrderNumber();
+
+    long countByUserId(UUID userId);
+
+    long countByStatus(OrderStatus status);
+
+    long countByPaymentStatus(PaymentStatus paymentStatus);
 }
 
@@ -1,11 +1,19 @@
 package fpt.tuanhm43.server.repositories;
 
+import fpt.tuanhm43.server.dtos.payment.PaymentReconciliationRow;
 import fpt.tuanhm43.server.entities.PaymentTransaction;
+import fpt.tuanhm43.server.enums.PaymentMethod;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,6 +28,12 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
      */
     Optional<PaymentTransaction> findByTransactionId(String transactionId);
 
+    /**
+     * Status alone, for status polls that have no use for the entity
+     */
+    @Query("SELECT pt.status FROM PaymentTransaction pt WHERE pt.transactionId = :transactionId")
+    Optional<PaymentStatus> findStatusByTransactionId(@Param("transactionId") String transactionId);
+
     /**
      * Find latest payment for order
      */
@@ -31,4 +45,52 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
    \s""")
     Optional<PaymentTransaction> findLatestByOrderId(@Param("orderId") UUID orderId);
 
+    /**
+     * Settle the transaction only while it is still open ({@code from}); the row lock taken by the
+     * update makes concurrent settlements of the same transaction return 0 for all but one caller
+     */
+    @Modifying
+    @Query("""
+        UPDATE PaymentTransaction pt
+        SET pt.status = :to, pt.providerReference = COALESCE(:reference, pt.providerReference),
+            pt.failureReason = :failureReason, pt.updatedAt = :now
+        WHERE pt.transactionId = :transactionId AND pt.status IN :from
+        """)
+    int transitionStatus(@Param("transactionId") String transactionId,
+                         @Param("from") Collection<PaymentStatus> from,
+                         @Param("to") PaymentStatus to,
+                         @Param("reference") String reference,
+                         @Param("failureReason") String failureReason,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * Reconciliation keyset page: transactions of {@code method} created in [from, to) with a transaction id
+     * after {@code after} ("" for the first page), in transaction id order. Both the keyset predicate and the
+     * sort compare ids under the "C" collation, i.e. byte-wise as {@link String#compareTo} does, whatever the
+     * column's own collation; V6 gives the column that collation so its unique index serves the scan.
+     */
+    @Query("""
+        SELECT new fpt.tuanhm43.server.dtos.payment.PaymentReconciliationRow(
+            pt.id, pt.transactionId, pt.status, pt.amount, pt.createdAt, o.id, o.paymentStatus)
+        FROM PaymentTransaction pt JOIN pt.order o
+        WHERE pt.method = :method AND pt.createdAt >= :from AND pt.createdAt < :to
+          AND collate(pt.transactionId as `C`) > :after
+        ORDER BY collate(pt.transactionId as `C`)
+        """)
+    List<PaymentReconciliationRow> findReconciliationPage(@Param("method") PaymentMethod method,
+                                                          @Param("from") LocalDateTime from,
+                                                          @Param("to") LocalDateTime to,
+                                                          @Param("after") String after,
+                                                          Pageable pageable);
+
+    /**
+     * Reconciliation rows of the given transactions, whatever their creation time; unknown ids are simply absent
+     */
+    @Query("""
+        SELECT new fpt.tuanhm43.server.dtos.payment.PaymentReconciliationRow(
+            pt.id, pt.transactionId, pt.status, pt.amount, pt.createdAt, o.id, o.paymentStatus)
+        FROM PaymentTransaction pt JOIN pt.order o
+        WHERE pt.transactionId IN :transactionIds
+        """)
+    List<PaymentReconciliationRow> findReconciliationRows(@Param("transactionIds") Collection<String> transactionIds);
 }
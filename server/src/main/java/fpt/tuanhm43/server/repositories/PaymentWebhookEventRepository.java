@@ -0,0 +1,67 @@
+package fpt.tuanhm43.server.repositories;
+
+import fpt.tuanhm43.server.entities.PaymentWebhookEvent;
+import fpt.tuanhm43.server.enums.WebhookEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Payment Webhook Event Repository
+ */
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, UUID> {
+
+    /**
+     * Record a webhook unless one already exists for the same provider transaction.
+     * Returns 1 when recorded, 0 for a duplicate; never fails on the unique key.
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO payment_webhook_events
+            (id, provider, transaction_id, status, payload, attempts, created_at, updated_at, version, is_deleted)
+        VALUES (:id, :provider, :transactionId, 'RECEIVED', :payload, 0, :now, :now, 0, false)
+        ON CONFLICT DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("id") UUID id,
+                       @Param("provider") String provider,
+                       @Param("transactionId") String transactionId,
+                       @Param("payload") String payload,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Move the event from {@code from} to {@code to}; 0 when another worker got there first
+     */
+    @Modifying
+    @Query("""
+        UPDATE PaymentWebhookEvent e
+        SET e.status = :to, e.lastError = :error, e.processedAt = :now, e.updatedAt = :now
+        WHERE e.id = :id AND e.status = :from
+        """)
+    int transition(@Param("id") UUID id,
+                   @Param("from") WebhookEventStatus from,
+                   @Param("to") WebhookEventStatus to,
+                   @Param("error") String error,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PaymentWebhookEvent e SET e.attempts = e.attempts + 1 WHERE e.id = :id")
+    void incrementAttempts(@Param("id") UUID id);
+
+    /**
+     * Events still waiting for processing since before {@code before}, oldest first
+     */
+    @Query("""
+        SELECT e FROM PaymentWebhookEvent e
+        WHERE e.status = fpt.tuanhm43.server.enums.WebhookEventStatus.RECEIVED AND e.createdAt < :before
+        ORDER BY e.createdAt
+        """)
+    List<PaymentWebhookEvent> findStale(@Param("before") LocalDateTime before, Pageable pageable);
+}
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,18 +23,40 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     Optional<Product> findBySlug(String slug);
 
     /**
-     * Find product with variants (fetch join)
+     * Find by slugs (bulk import)
      */
-    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.variants WHERE p.id = :id")
-    Optional<Product> findByIdWithVariants(@Param("id") UUID id);
+    List<Product> findBySlugIn(Collection<String> slugs);
 
     /**
-     * Find product with category and variants (fetch join)
+     * Resolve slug to ID (used by slug cache)
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.slug = :slug")
+    Optional<UUID> findIdBySlug(@Param("slug") String slug);
+
+    /**
+     * IDs of the category's products, to evict their cached details when the category changes
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.category.id = :categoryId")
+    List<UUID> findIdsByCategoryId(@Param("categoryId") UUID categoryId);
+
+    /**
+     * Find product with category, variants and their inventory (fetch join)
      */
     @Query("SELECT p FROM Product p " +
             "LEFT JOIN FETCH p.category " +
-            "LEFT JOIN FETCH p.variants " +
+            "LEFT JOIN FETCH p.variants v " +
+            "LEFT JOIN FETCH v.inventory " +
             "WHERE p.id = :id")
     Optional<Product> findByIdWithCategoryAndVariants(@Param("id") UUID id);
 
+    /**
+     * Find products with category, variants and their inventory by ids (bulk reindex)
+     */
+    @Query("SELECT DISTINCT p FROM Product p " +
+            "LEFT JOIN FETCH p.category " +
+            "LEFT JOIN FETCH p.variants v " +
+            "LEFT JOIN FETCH v.inventory " +
+            "WHERE p.id IN :ids")
+    List<Product> findAllByIdInWithCategoryAndVariants(@Param("ids") Collection<UUID> ids);
+
 }
\ No newline at end of file
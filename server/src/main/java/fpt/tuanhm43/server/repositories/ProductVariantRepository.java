@@ -2,9 +2,13 @@ package fpt.tuanhm43.server.repositories;
 
 import fpt.tuanhm43.server.entities.ProductVariant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -18,9 +22,21 @@ public interface ProductVariantRepository extends JpaRepository<ProductVariant,
      */
     boolean existsBySku(String sku);
 
+    /**
+     * Set-based SKU check (bulk import)
+     */
+    @Query("SELECT v.sku FROM ProductVariant v WHERE v.sku IN :skus")
+    Set<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
     /**
      * Find by product
      */
     List<ProductVariant> findByProductId(UUID productId);
 
+    /**
+     * Find several variants with product and inventory in one statement (direct order creation)
+     */
+    @Query("SELECT v FROM ProductVariant v JOIN FETCH v.product LEFT JOIN FETCH v.inventory WHERE v.id IN :ids")
+    List<ProductVariant> findAllWithProductByIdIn(@Param("ids") Collection<UUID> ids);
+
 }
\ No newline at end of file
@@ -11,7 +11,7 @@ import java.util.UUID;
  * Role Repository
  */
 @Repository
-public interface RoleRepository extends JpaRepository<Role, UUID> {
+public interface RoleRepository extends JpaRepository<Role, UUID>, RoleRepositoryCustom {
 
     /**
      * Find by name
@@ -0,0 +1,17 @@
+package fpt.tuanhm43.server.repositories;
+
+import fpt.tuanhm43.server.entities.Role;
+
+import java.util.Optional;
+
+/**
+ * Role lookups that go through Hibernate's natural-id API
+ */
+public interface RoleRepositoryCustom {
+
+    /**
+     * Find by name, served from the second-level natural-id cache when warm
+     */
+    Optional<Role> findByNaturalName(String name);
+
+}
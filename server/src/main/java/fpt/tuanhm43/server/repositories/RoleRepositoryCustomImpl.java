@@ -0,0 +1,21 @@
+package fpt.tuanhm43.server.repositories;
+
+import fpt.tuanhm43.server.entities.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+public class RoleRepositoryCustomImpl implements RoleRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Role> findByNaturalName(String name) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Role.class)
+                .loadOptional(name);
+    }
+}
@@ -1,6 +1,7 @@
 package fpt.tuanhm43.server.repositories;
 
 import fpt.tuanhm43.server.entities.ShoppingCart;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -28,19 +29,24 @@ public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, UUID
     Optional<ShoppingCart> findByUserId(UUID userId);
 
     /**
-     * Find cart with items (fetch join)
+     * Find cart with everything the cart response renders (single select)
      */
-    @Query("""
-    SELECT DISTINCT c FROM ShoppingCart c
-    LEFT JOIN FETCH c.items ci
-    LEFT JOIN FETCH ci.productVariant pv
-    LEFT JOIN FETCH pv.product p
-    LEFT JOIN FETCH pv.inventory i
-    WHERE c.sessionId = :sessionId
-    AND c.isDeleted = false
-""")
+    @EntityGraph(ShoppingCart.GRAPH_VIEW)
+    @Query("SELECT c FROM ShoppingCart c WHERE c.sessionId = :sessionId AND c.isDeleted = false")
     Optional<ShoppingCart> findBySessionIdWithItems(@Param("sessionId") String sessionId);
 
+    /**
+     * Find guest cart with items, variants and stock for checkout
+     */
+    @EntityGraph(ShoppingCart.GRAPH_CHECKOUT)
+    Optional<ShoppingCart> findForCheckoutBySessionId(String sessionId);
+
+    /**
+     * Find user cart with items, variants and stock for checkout
+     */
+    @EntityGraph(ShoppingCart.GRAPH_CHECKOUT)
+    Optional<ShoppingCart> findForCheckoutByUserId(UUID userId);
+
     /**
      * Delete expired carts
      */
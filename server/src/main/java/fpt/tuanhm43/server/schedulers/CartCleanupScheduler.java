@@ -1,20 +1,31 @@
 package fpt.tuanhm43.server.schedulers;
 
 import fpt.tuanhm43.server.repositories.ShoppingCartRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class CartCleanupScheduler {
 
     private final ShoppingCartRepository cartRepository;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong totalCarts = new AtomicLong();
+
+    public CartCleanupScheduler(ShoppingCartRepository cartRepository, MeterRegistry meterRegistry) {
+        this.cartRepository = cartRepository;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("carts.total", totalCarts, AtomicLong::get)
+                .description("Carts in the database at the last statistics run")
+                .register(meterRegistry);
+    }
 
     /**
      * Clean up expired carts
@@ -28,6 +39,7 @@ public class CartCleanupScheduler {
         try {
             LocalDateTime now = LocalDateTime.now();
             int deletedCount = cartRepository.deleteExpiredCarts(now);
+            meterRegistry.counter("cart.cleanup.deleted").increment(deletedCount);
 
             if (deletedCount > 0) {
                 log.info("Cart cleanup completed - Deleted {} expired cart(s)", deletedCount);
@@ -46,8 +58,9 @@ public class CartCleanupScheduler {
     @Scheduled(cron = "0 0 2 * * *")
     public void logCartStatistics() {
         try {
-            long totalCarts = cartRepository.count();
-            log.info("Cart statistics - Total active carts: {}", totalCarts);
+            long count = cartRepository.count();
+            totalCarts.set(count);
+            log.info("Cart statistics - Total active carts: {}", count);
         } catch (Exception e) {
             log.error("Error logging cart statistics: {}", e.getMessage(), e);
         }
@@ -1,6 +1,7 @@
 package fpt.tuanhm43.server.schedulers;
 
 import fpt.tuanhm43.server.services.InventoryService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -12,6 +13,7 @@ import org.springframework.stereotype.Component;
 public class InventoryCleanupScheduler {
 
     private final InventoryService inventoryService;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Periodically cleans up expired inventory reservations.
@@ -24,6 +26,7 @@ public class InventoryCleanupScheduler {
 
         try {
             int cleanedCount = inventoryService.cleanupExpiredReservations();
+            meterRegistry.counter("inventory.reservations", "outcome", "expired").increment(cleanedCount);
 
             if (cleanedCount > 0) {
                 log.info("InventoryCleanupScheduler: Successfully released stock for {} expired reservations.", cleanedCount);
@@ -0,0 +1,95 @@
+package fpt.tuanhm43.server.schedulers;
+
+import fpt.tuanhm43.server.entities.PaymentWebhookEvent;
+import fpt.tuanhm43.server.enums.WebhookEventStatus;
+import fpt.tuanhm43.server.repositories.PaymentWebhookEventRepository;
+import fpt.tuanhm43.server.services.impl.PaymentWebhookProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@Slf4j
+public class PaymentWebhookRetryScheduler {
+
+    private final PaymentWebhookEventRepository webhookEventRepository;
+    private final PaymentWebhookProcessor webhookProcessor;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long staleAfterSeconds;
+    private final int maxAttempts;
+    private final int batchSize;
+
+    public PaymentWebhookRetryScheduler(PaymentWebhookEventRepository webhookEventRepository,
+                                        PaymentWebhookProcessor webhookProcessor,
+                                        TransactionTemplate transactionTemplate,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.payment.webhook.stale-after-seconds:30}") long staleAfterSeconds,
+                                        @Value("${app.payment.webhook.max-attempts:5}") int maxAttempts,
+                                        @Value("${app.payment.webhook.retry-batch-size:100}") int batchSize) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.webhookProcessor = webhookProcessor;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.staleAfterSeconds = staleAfterSeconds;
+        this.maxAttempts = maxAttempts;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Re-submits webhooks still RECEIVED after {@code stale-after-seconds}: the first attempt failed,
+     * was rejected by a saturated executor, or the node stopped before running it.
+     * Gives up (FAILED) after {@code max-attempts}.
+     */
+    @Scheduled(fixedDelayString = "${app.payment.webhook.retry-ms:60000}", initialDelay = 10000)
+    public void retryStaleWebhooks() {
+        try {
+            List<PaymentWebhookEvent> stale = webhookEventRepository.findStale(
+                    LocalDateTime.now().minusSeconds(staleAfterSeconds), PageRequest.of(0, batchSize));
+            for (PaymentWebhookEvent event : stale) {
+                if (!resubmit(event)) {
+                    break;
+                }
+            }
+            if (!stale.isEmpty()) {
+                log.info("PaymentWebhookRetryScheduler: Re-submitted {} pending webhooks", stale.size());
+            }
+        } catch (Exception e) {
+            log.error("PaymentWebhookRetryScheduler: Failed to retry webhooks: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean resubmit(PaymentWebhookEvent event) {
+        if (event.getAttempts() >= maxAttempts) {
+            log.error("Webhook {} for transaction {} still failing after {} attempts, giving up",
+                    event.getId(), event.getTransactionId(), event.getAttempts());
+            transactionTemplate.executeWithoutResult(status -> webhookEventRepository.transition(event.getId(),
+                    WebhookEventStatus.RECEIVED, WebhookEventStatus.FAILED,
+                    "Gave up after " + event.getAttempts() + " attempts", LocalDateTime.now()));
+            retried("gave_up");
+            return true;
+        }
+        transactionTemplate.executeWithoutResult(status -> webhookEventRepository.incrementAttempts(event.getId()));
+        try {
+            webhookProcessor.process(event.getId());
+            retried("resubmitted");
+            return true;
+        } catch (TaskRejectedException e) {
+            log.warn("Payment executor saturated, resuming webhook retries on the next run");
+            retried("deferred");
+            return false;
+        }
+    }
+
+    private void retried(String outcome) {
+        meterRegistry.counter("payment.webhook.retries", "outcome", outcome).increment();
+    }
+}
@@ -3,7 +3,8 @@ package fpt.tuanhm43.server.services;
 import fpt.tuanhm43.server.entities.Order;
 
 /**
- * Email Service Interface
+ * Email Service Interface. Order fields are copied when a method is called; the email itself is queued
+ * only once the caller's transaction commits
  */
 public interface MailService {
 
@@ -1,5 +1,6 @@
 package fpt.tuanhm43.server.services;
 
+import fpt.tuanhm43.server.dtos.CursorPageResponseDTO;
 import fpt.tuanhm43.server.dtos.PageResponseDTO;
 import fpt.tuanhm43.server.dtos.order.request.CreateOrderRequest;
 import fpt.tuanhm43.server.dtos.order.request.OrderFilterRequest;
@@ -44,6 +45,16 @@ public interface OrderService {
      */
     PageResponseDTO<OrderResponse> getAllOrders(OrderFilterRequest filter);
 
+    /**
+     * Get user orders, keyset paginated (total only when requested, cached)
+     */
+    CursorPageResponseDTO<OrderResponse> getUserOrdersByCursor(UUID userId, String cursor, int size, boolean includeTotal);
+
+    /**
+     * Get all orders with filter, keyset paginated (Admin)
+     */
+    CursorPageResponseDTO<OrderResponse> getAllOrdersByCursor(OrderFilterRequest filter, String cursor, boolean includeTotal);
+
     /**
      * Update order status (Admin)
      */
@@ -0,0 +1,29 @@
+package fpt.tuanhm43.server.services;
+
+import fpt.tuanhm43.server.dtos.payment.response.ReconciliationResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface PaymentReconciliationService {
+
+    /**
+     * Accepts a provider statement (CSV with header, JSON array or NDJSON) and starts a background job
+     * reconciling it against the SePay transactions created in [from, to).
+     *
+     * @param statement The uploaded statement file.
+     * @param from      Start of the window, inclusive.
+     * @param to        End of the window, exclusive.
+     * @return The initial {@link ReconciliationResponse} holding the job id to poll
+     */
+    ReconciliationResponse submit(MultipartFile statement, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Returns the latest progress snapshot of a reconciliation job, including discrepancies found so far.
+     *
+     * @param jobId The id returned by {@link #submit(MultipartFile, LocalDateTime, LocalDateTime)}.
+     * @return The current {@link ReconciliationResponse}
+     */
+    ReconciliationResponse getStatus(UUID jobId);
+}
@@ -5,6 +5,8 @@ import fpt.tuanhm43.server.dtos.payment.response.PaymentResponse;
 import fpt.tuanhm43.server.dtos.payment.response.PaymentStatusResponse;
 import fpt.tuanhm43.server.enums.PaymentMethod;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 import java.util.UUID;
 
 /**
@@ -18,7 +20,7 @@ public interface PaymentService {
     PaymentStatusResponse initiatePayment(UUID orderId, PaymentMethod method);
 
     /**
-     * Handle SePay webhook
+     * Record SePay webhook and acknowledge it; the payment is updated asynchronously
      */
     void handleSepayWebhook(SepayWebhookRequest request);
 
@@ -27,6 +29,12 @@ public interface PaymentService {
      */
     PaymentStatusResponse getPaymentStatus(String transactionId);
 
+    /**
+     * Stream payment status changes (Server-Sent Events), starting with the current status;
+     * the stream ends once the payment is final
+     */
+    SseEmitter streamPaymentStatus(String transactionId);
+
     /**
      * Get payment by order
      */
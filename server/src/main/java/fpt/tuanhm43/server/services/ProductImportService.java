@@ -0,0 +1,25 @@
+package fpt.tuanhm43.server.services;
+
+import fpt.tuanhm43.server.dtos.product.response.ProductImportResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.UUID;
+
+public interface ProductImportService {
+
+    /**
+     * Accepts a CSV or NDJSON file (one variant per row) and starts a background import job.
+     *
+     * @param file The uploaded import file.
+     * @return The initial {@link ProductImportResponse} holding the job id to poll
+     */
+    ProductImportResponse submit(MultipartFile file);
+
+    /**
+     * Returns the latest progress snapshot of an import job, including per-row errors.
+     *
+     * @param jobId The id returned by {@link #submit(MultipartFile)}.
+     * @return The current {@link ProductImportResponse}
+     */
+    ProductImportResponse getStatus(UUID jobId);
+}
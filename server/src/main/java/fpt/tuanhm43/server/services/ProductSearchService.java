@@ -4,6 +4,7 @@ import fpt.tuanhm43.server.dtos.PageResponseDTO;
 import fpt.tuanhm43.server.dtos.product.response.ProductResponse;
 import fpt.tuanhm43.server.dtos.search.AdvancedSearchRequest;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface ProductSearchService {
@@ -13,4 +14,6 @@ public interface ProductSearchService {
     PageResponseDTO<ProductResponse> advancedSearch(AdvancedSearchRequest request);
 
     void syncToElasticsearch(UUID productId);
+
+    void syncAllToElasticsearch(Collection<UUID> productIds);
 }
@@ -23,7 +23,8 @@ public interface TokenService {
     boolean validateToken(String token);
 
     /**
-     * Get authentication from token
+     * Verify token and get authentication from its claims in a single parse.
+     * Throws JwtException when the token is invalid or expired.
      */
     Authentication getAuthenticationFromToken(String token);
 
@@ -88,7 +88,7 @@ public class AuthServiceImpl implements AuthService {
             throw new BadRequestException("Email already exists");
         }
 
-        Role userRole = roleRepository.findByName("ROLE_CUSTOMER")
+        Role userRole = roleRepository.findByNaturalName("ROLE_CUSTOMER")
                 .orElseGet(() -> roleRepository.save(Role.builder().name("ROLE_CUSTOMER").build()));
 
         User user = User.builder()
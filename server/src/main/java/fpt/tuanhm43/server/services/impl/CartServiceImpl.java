@@ -16,6 +16,7 @@ import fpt.tuanhm43.server.repositories.InventoryRepository;
 import fpt.tuanhm43.server.repositories.ProductVariantRepository;
 import fpt.tuanhm43.server.repositories.ShoppingCartRepository;
 import fpt.tuanhm43.server.services.CartService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,6 +28,7 @@ import java.util.UUID;
 
 @Service
 @Transactional
+@Timed("cart.operation")
 @RequiredArgsConstructor
 @Slf4j
 public class CartServiceImpl implements CartService {
@@ -151,7 +153,7 @@ public class CartServiceImpl implements CartService {
 
     @Override
     public boolean validateCartStock(String sessionId) {
-        return cartRepository.findBySessionIdWithItems(sessionId)
+        return cartRepository.findForCheckoutBySessionId(sessionId)
                 .map(ShoppingCart::validateStock)
                 .orElse(true);
     }
@@ -162,7 +164,7 @@ public class CartServiceImpl implements CartService {
     }
 
     private ShoppingCart getOrCreateCart(String sessionId) {
-        return cartRepository.findBySessionId(sessionId)
+        return cartRepository.findBySessionIdWithItems(sessionId)
                 .orElseGet(() -> {
                     log.info("Creating new cart for session: {}", sessionId);
                     return cartRepository.save(ShoppingCart.builder()
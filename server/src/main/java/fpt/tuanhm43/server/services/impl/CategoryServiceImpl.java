@@ -1,5 +1,7 @@
 package fpt.tuanhm43.server.services.impl;
 
+import fpt.tuanhm43.server.caches.ProductDetailCache;
+import fpt.tuanhm43.server.caches.SlugIdCache;
 import fpt.tuanhm43.server.dtos.PageResponseDTO;
 import fpt.tuanhm43.server.dtos.category.request.CategoryFilterRequest;
 import fpt.tuanhm43.server.dtos.category.request.CreateCategoryRequest;
@@ -11,6 +13,8 @@ import fpt.tuanhm43.server.entities.Category;
 import fpt.tuanhm43.server.exceptions.BadRequestException;
 import fpt.tuanhm43.server.exceptions.ResourceNotFoundException;
 import fpt.tuanhm43.server.mappers.CategoryMapper;
+import fpt.tuanhm43.server.mappers.helper.CategoryMapperHelper;
+import fpt.tuanhm43.server.mappers.helper.CategoryProductCounts;
 import fpt.tuanhm43.server.repositories.CategoryRepository;
 import fpt.tuanhm43.server.repositories.ProductRepository;
 import fpt.tuanhm43.server.specifications.CategorySpecification;
@@ -38,6 +42,9 @@ public class CategoryServiceImpl implements fpt.tuanhm43.server.services.Categor
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
     private final CategoryMapper categoryMapper; // Inject Mapper
+    private final CategoryMapperHelper categoryMapperHelper;
+    private final SlugIdCache slugIdCache;
+    private final ProductDetailCache productDetailCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -54,31 +61,36 @@ public class CategoryServiceImpl implements fpt.tuanhm43.server.services.Categor
         );
 
         Page<Category> categories = categoryRepository.findAll(spec, pageable);
-        // Sử dụng Mapper
-        return PageResponseDTO.from(categories.map(categoryMapper::toResponse));
+        CategoryProductCounts productCounts = productCounts(categories.getContent());
+        return PageResponseDTO.from(categories.map(category -> categoryMapper.toResponse(category, productCounts)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public CategoryDetailResponse getById(UUID id) {
         return categoryRepository.findByIdWithChildren(id)
-                .map(categoryMapper::toDetailResponse)
+                .map(this::toDetailResponse)
                 .orElseThrow(() -> new ResourceNotFoundException(CATEGORY, "id", id));
     }
 
     @Override
     @Transactional(readOnly = true)
     public CategoryDetailResponse getBySlug(String slug) {
-        return categoryRepository.findBySlugAndIsDeletedFalse(slug)
-                .map(categoryMapper::toDetailResponse)
+        UUID id = slugIdCache.resolveCategory(slug, categoryRepository::findIdBySlugAndIsDeletedFalse)
+                .orElseThrow(() -> new ResourceNotFoundException(CATEGORY, "slug", slug));
+
+        return categoryRepository.findByIdWithChildren(id)
+                .map(this::toDetailResponse)
                 .orElseThrow(() -> new ResourceNotFoundException(CATEGORY, "slug", slug));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CategoryResponse> getRootCategories() {
-        return categoryRepository.findAllRootCategories().stream()
-                .map(categoryMapper::toResponse)
+        List<Category> roots = categoryRepository.findAllRootCategories();
+        CategoryProductCounts productCounts = productCounts(roots);
+        return roots.stream()
+                .map(category -> categoryMapper.toResponse(category, productCounts))
                 .toList();
     }
 
@@ -89,12 +101,13 @@ public class CategoryServiceImpl implements fpt.tuanhm43.server.services.Categor
                 .and(CategorySpecification.isNotDeleted());
 
         List<Category> allCategories = categoryRepository.findAll(spec);
+        CategoryProductCounts productCounts = productCounts(allCategories);
         Map<UUID, CategoryTreeResponse> categoryMap = new HashMap<>();
         List<CategoryTreeResponse> roots = new ArrayList<>();
 
         // Bước 1: Map tất cả sang node phẳng
         for (Category category : allCategories) {
-            categoryMap.put(category.getId(), categoryMapper.toTreeResponse(category));
+            categoryMap.put(category.getId(), categoryMapper.toTreeResponse(category, productCounts));
         }
 
         // Bước 2: Xây dựng cấu trúc cây
@@ -116,8 +129,10 @@ public class CategoryServiceImpl implements fpt.tuanhm43.server.services.Categor
         if (!categoryRepository.existsById(parentId)) {
             throw new ResourceNotFoundException(CATEGORY, "id", parentId);
         }
-        return categoryRepository.findChildrenByParentId(parentId).stream()
-                .map(categoryMapper::toResponse)
+        List<Category> children = categoryRepository.findChildrenByParentId(parentId);
+        CategoryProductCounts productCounts = productCounts(children);
+        return children.stream()
+                .map(category -> categoryMapper.toResponse(category, productCounts))
                 .toList();
     }
 
@@ -146,7 +161,9 @@ public class CategoryServiceImpl implements fpt.tuanhm43.server.services.Categor
             category.setParent(parent);
         }
 
-        return categoryMapper.toResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        slugIdCache.evictCategory(saved.getSlug());
+        return categoryMapper.toResponse(saved, productCounts(List.of()));
     }
 
     @Override
@@ -157,11 +174,15 @@ public class CategoryServiceImpl implements fpt.tuanhm43.server.services.Categor
 
         if (Boolean.TRUE.equals(category.getIsDeleted())) throw new BadRequestException("Deleted category");
 
+        // Cached product details embed the category, so a rename or (de)activation must not be served stale
+        boolean productDetailsStale = false;
+
         if (request.getName() != null && !category.getName().equals(request.getName())) {
             if (categoryRepository.existsByNameIgnoreCaseAndIsDeletedFalse(request.getName())) {
                 throw new BadRequestException("Name exists");
             }
             category.setName(request.getName());
+            productDetailsStale = true;
         }
 
         if (request.getParentId() != null) {
@@ -176,35 +197,43 @@ public class CategoryServiceImpl implements fpt.tuanhm43.server.services.Categor
 
         if (request.getDescription() != null) category.setDescription(request.getDescription());
         if (request.getDisplayOrder() != null) category.setDisplayOrder(request.getDisplayOrder());
-        if (request.getIsActive() != null) category.setIsActive(request.getIsActive());
+        if (request.getIsActive() != null && !request.getIsActive().equals(category.getIsActive())) {
+            category.setIsActive(request.getIsActive());
+            productDetailsStale = true;
+        }
 
-        return categoryMapper.toResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        if (productDetailsStale) {
+            productRepository.findIdsByCategoryId(id).forEach(productDetailCache::evict);
+        }
+        return categoryMapper.toResponse(saved, productCounts(List.of(saved)));
     }
 
     @Override
     @Transactional
     public void delete(UUID id) {
+        // The recursive query includes the category itself
         List<UUID> descendantIds = categoryRepository.findAllDescendantIds(id);
-        descendantIds.add(id);
-
-        for (UUID categoryId : descendantIds) {
-            categoryRepository.findById(categoryId).ifPresent(cat -> {
-                if (Boolean.FALSE.equals(cat.getIsDeleted())) {
-                    cat.setIsDeleted(true);
-                    cat.setDeletedAt(LocalDateTime.now());
-                    cat.setIsActive(false);
-                    categoryRepository.save(cat);
-
-                    cat.getProducts().forEach(product -> {
-                        if (Boolean.FALSE.equals(product.getIsDeleted())) {
-                            product.setIsDeleted(true);
-                            product.setDeletedAt(LocalDateTime.now());
-                            product.setIsActive(false);
-                            productRepository.save(product);
-                        }
-                    });
-                }
-            });
+
+        for (Category cat : categoryRepository.findAllById(descendantIds)) {
+            if (Boolean.FALSE.equals(cat.getIsDeleted())) {
+                cat.setIsDeleted(true);
+                cat.setDeletedAt(LocalDateTime.now());
+                cat.setIsActive(false);
+                categoryRepository.save(cat);
+                slugIdCache.evictCategory(cat.getSlug());
+
+                cat.getProducts().forEach(product -> {
+                    if (Boolean.FALSE.equals(product.getIsDeleted())) {
+                        product.setIsDeleted(true);
+                        product.setDeletedAt(LocalDateTime.now());
+                        product.setIsActive(false);
+                        productRepository.save(product);
+                        slugIdCache.evictProduct(product.getSlug());
+                        productDetailCache.evict(product.getId());
+                    }
+                });
+            }
         }
     }
 
@@ -217,11 +246,20 @@ public class CategoryServiceImpl implements fpt.tuanhm43.server.services.Categor
     @Override
     @Transactional(readOnly = true)
     public long countProducts(UUID id) {
-        List<UUID> descendantIds = categoryRepository.findAllDescendantIds(id);
-        long totalCount = categoryRepository.countProductsByCategoryId(id);
-        for (UUID descendantId : descendantIds) {
-            totalCount += categoryRepository.countProductsByCategoryId(descendantId);
-        }
-        return totalCount;
+        // The recursive query includes the category itself, so it is counted exactly once
+        List<UUID> categoryIds = categoryRepository.findAllDescendantIds(id);
+        return categoryMapperHelper.loadProductCounts(categoryIds).counts().values().stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    private CategoryDetailResponse toDetailResponse(Category category) {
+        List<Category> withChildren = new ArrayList<>(category.getChildren());
+        withChildren.add(category);
+        return categoryMapper.toDetailResponse(category, productCounts(withChildren));
+    }
+
+    private CategoryProductCounts productCounts(Collection<Category> categories) {
+        return categoryMapperHelper.loadProductCounts(categories.stream().map(Category::getId).toList());
     }
 }
\ No newline at end of file
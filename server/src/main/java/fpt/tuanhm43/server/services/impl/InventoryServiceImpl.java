@@ -11,6 +11,9 @@ import fpt.tuanhm43.server.repositories.InventoryRepository;
 import fpt.tuanhm43.server.repositories.InventoryReservationRepository;
 import fpt.tuanhm43.server.repositories.OrderRepository;
 import fpt.tuanhm43.server.services.InventoryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,7 +24,11 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,10 +37,15 @@ public class InventoryServiceImpl implements InventoryService {
 
     private static final String INVENTORY_RESOURCE = "Inventory";
     private static final String VARIANT_ID_FIELD = "variantId";
+    private static final String OPERATION_RESERVE = "reserve";
+    private static final String OPERATION_RELEASE = "release";
+    private static final String OPERATION_DEDUCT = "deduct";
+    private static final String OPERATION_EXPIRE = "expire";
 
     private final InventoryRepository inventoryRepository;
     private final InventoryReservationRepository reservationRepository;
     private final OrderRepository orderRepository;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
@@ -49,34 +61,44 @@ public class InventoryServiceImpl implements InventoryService {
         List<ReservationItem> sortedItems = new ArrayList<>(items);
         sortedItems.sort(Comparator.comparing(ReservationItem::variantId));
 
+        // Lock every row up front in one statement, in variant ID order
+        List<UUID> variantIds = sortedItems.stream().map(ReservationItem::variantId).distinct().toList();
+        Map<UUID, Inventory> inventories = locking(OPERATION_RESERVE,
+                () -> inventoryRepository.findAllByVariantIdsWithLock(variantIds))
+                .stream()
+                .collect(Collectors.toMap(i -> i.getProductVariant().getId(), Function.identity()));
+
+        List<InventoryReservation> reservations = new ArrayList<>(sortedItems.size());
         for (ReservationItem item : sortedItems) {
-            Inventory inventory = inventoryRepository
-                    .findByVariantIdWithLock(item.variantId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            INVENTORY_RESOURCE, VARIANT_ID_FIELD, item.variantId()));
+            Inventory inventory = inventories.get(item.variantId());
+            if (inventory == null) {
+                throw new ResourceNotFoundException(INVENTORY_RESOURCE, VARIANT_ID_FIELD, item.variantId());
+            }
 
             if (!inventory.canFulfill(item.quantity())) {
+                reservations("insufficient_stock").increment();
                 throw new InsufficientStockException(
                         item.variantId(), item.quantity(), inventory.getQuantityAvailable());
             }
 
             inventory.reserve(item.quantity());
-            inventoryRepository.save(inventory);
 
-            InventoryReservation reservation = InventoryReservation.builder()
+            reservations.add(InventoryReservation.builder()
                     .productVariant(inventory.getProductVariant())
                     .order(order)
                     .sessionId(sessionId)
                     .quantity(item.quantity())
                     .status(ReservationStatus.ACTIVE)
                     .expiresAt(expiresAt)
-                    .build();
-
-            reservationRepository.save(reservation);
+                    .build());
 
             log.debug("Reserved {} units of variant {} for order {}",
                     item.quantity(), item.variantId(), order.getOrderNumber());
         }
+
+        // Inventories are managed and flush as a batch with the reservations
+        reservationRepository.saveAll(reservations);
+        reservations("reserved").increment();
     }
 
     @Override
@@ -89,8 +111,8 @@ public class InventoryServiceImpl implements InventoryService {
 
         for (InventoryReservation reservation : reservations) {
             // Get inventory with lock
-            Inventory inventory = inventoryRepository
-                    .findByVariantIdWithLock(reservation.getProductVariant().getId())
+            Inventory inventory = locking(OPERATION_RELEASE,
+                    () -> inventoryRepository.findByVariantIdWithLock(reservation.getProductVariant().getId()))
                     .orElseThrow(() -> new ResourceNotFoundException(
                             INVENTORY_RESOURCE, VARIANT_ID_FIELD, reservation.getProductVariant().getId()));
 
@@ -119,8 +141,8 @@ public class InventoryServiceImpl implements InventoryService {
 
         for (InventoryReservation reservation : reservations) {
             if (reservation.canRelease()) {
-                Inventory inventory = inventoryRepository
-                        .findByVariantIdWithLock(reservation.getProductVariant().getId())
+                Inventory inventory = locking(OPERATION_RELEASE,
+                        () -> inventoryRepository.findByVariantIdWithLock(reservation.getProductVariant().getId()))
                         .orElseThrow(() -> new ResourceNotFoundException(
                                 INVENTORY_RESOURCE, VARIANT_ID_FIELD, reservation.getProductVariant().getId()));
 
@@ -147,8 +169,8 @@ public class InventoryServiceImpl implements InventoryService {
 
         for (InventoryReservation reservation : reservations) {
             if (reservation.getStatus() == ReservationStatus.ACTIVE) {
-                Inventory inventory = inventoryRepository
-                        .findByVariantIdWithLock(reservation.getProductVariant().getId())
+                Inventory inventory = locking(OPERATION_DEDUCT,
+                        () -> inventoryRepository.findByVariantIdWithLock(reservation.getProductVariant().getId()))
                         .orElseThrow(() -> new ResourceNotFoundException(
                                 INVENTORY_RESOURCE, VARIANT_ID_FIELD, reservation.getProductVariant().getId()));
 
@@ -222,8 +244,8 @@ public class InventoryServiceImpl implements InventoryService {
         for (InventoryReservation reservation : expiredReservations) {
             try {
                 // Get inventory with lock
-                Inventory inventory = inventoryRepository
-                        .findByVariantIdWithLock(reservation.getProductVariant().getId())
+                Inventory inventory = locking(OPERATION_EXPIRE,
+                        () -> inventoryRepository.findByVariantIdWithLock(reservation.getProductVariant().getId()))
                         .orElse(null);
 
                 if (inventory != null) {
@@ -251,4 +273,20 @@ public class InventoryServiceImpl implements InventoryService {
         log.info("Cleanup completed - {} expired reservation(s) cleaned", cleanedCount);
         return cleanedCount;
     }
-}
\ No newline at end of file
+
+    /**
+     * Run a row-locking read, recording in {@code inventory.lock.wait} how long it took to get the locks;
+     * under checkout contention this is mostly time spent waiting on other transactions
+     */
+    private <T> T locking(String operation, Supplier<T> lockingRead) {
+        return Timer.builder("inventory.lock.wait")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(lockingRead);
+    }
+
+    private Counter reservations(String outcome) {
+        return meterRegistry.counter("inventory.reservations", "outcome", outcome);
+    }
+}
@@ -0,0 +1,347 @@
+package fpt.tuanhm43.server.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.constants.AppConstants;
+import fpt.tuanhm43.server.dtos.mail.OutboundMail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.exceptions.TemplateEngineException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queues outgoing mail and sends it in batches: each batch is rendered from Thymeleaf's cache of parsed
+ * templates and handed to {@code JavaMailSender.send(MimeMessage...)}, which delivers the whole batch over
+ * one SMTP connection. One worker per core thread of the mail executor, so {@code app.async.mail.core-size}
+ * is the number of concurrent SMTP connections. Sends are paced to {@code rate-per-second} across workers.
+ * A transient failure is retried with exponential backoff; a rejected address, a template that cannot be
+ * rendered, exhausted attempts, a full queue or a shutdown with mail still queued land in the Redis list
+ * {@link #DEAD_LETTER_KEY} for inspection and replay, with {@link OutboundMail#secrets() secret} variables masked.
+ */
+@Component
+@Slf4j
+public class MailDispatcher {
+
+    public static final String DEAD_LETTER_KEY = "mail:dead-letter";
+
+    private static final String TEMPLATE_PATTERN = "classpath:templates/*.html";
+
+    private final JavaMailSender mailSender;
+    private final TemplateEngine templateEngine;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor mailExecutor;
+    private final String from;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long deadLetterMax;
+    /** Nanos between two sends, 0 for no limit */
+    private final long sendIntervalNanos;
+
+    private final DelayQueue<Pending> queue = new DelayQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong nextSendSlot = new AtomicLong(System.nanoTime());
+    private volatile boolean running;
+    private volatile CountDownLatch stopped = new CountDownLatch(0);
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    public MailDispatcher(JavaMailSender mailSender,
+                          TemplateEngine templateEngine,
+                          StringRedisTemplate redisTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Qualifier(AppConstants.EXECUTOR_MAIL) ThreadPoolTaskExecutor mailExecutor,
+                          @Value("${app.mail.from}") String fromEmail,
+                          @Value("${app.mail.from-name}") String fromName,
+                          @Value("${app.mail.dispatch.batch-size:50}") int batchSize,
+                          @Value("${app.mail.dispatch.queue-capacity:10000}") int queueCapacity,
+                          @Value("${app.mail.dispatch.rate-per-second:20}") double ratePerSecond,
+                          @Value("${app.mail.dispatch.max-attempts:5}") int maxAttempts,
+                          @Value("${app.mail.dispatch.initial-backoff-ms:2000}") long initialBackoffMs,
+                          @Value("${app.mail.dispatch.max-backoff-ms:300000}") long maxBackoffMs,
+                          @Value("${app.mail.dispatch.dead-letter-max:10000}") long deadLetterMax) {
+        this.mailSender = mailSender;
+        this.templateEngine = templateEngine;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.mailExecutor = mailExecutor;
+        this.from = fromName + " <" + fromEmail + ">";
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.deadLetterMax = deadLetterMax;
+        this.sendIntervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+
+        this.sent = outcome(meterRegistry, "sent");
+        this.retried = outcome(meterRegistry, "retried");
+        this.deadLettered = outcome(meterRegistry, "dead_lettered");
+        Gauge.builder("mail.dispatch.queue.size", queued, AtomicInteger::get).register(meterRegistry);
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("mail.dispatch.messages").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    /**
+     * Queue {@code mail} for sending; never blocks, a full queue dead-letters it
+     */
+    public void enqueue(OutboundMail mail) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            deadLetter(mail, 0, "queue full");
+            return;
+        }
+        queue.add(new Pending(mail, 1, System.nanoTime()));
+    }
+
+    public int queueSize() {
+        return queued.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        warmTemplates();
+        int workers = mailExecutor.getCorePoolSize();
+        running = true;
+        stopped = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            mailExecutor.execute(this::work);
+        }
+        log.info("Mail dispatcher started: {} SMTP connections, batches of {}", workers, batchSize);
+    }
+
+    /**
+     * Parse every mail template once so the first sends of a burst hit Thymeleaf's template cache.
+     * Rendering without variables may fail; the parsed template is cached before it is processed.
+     */
+    private void warmTemplates() {
+        try {
+            Resource[] templates = new PathMatchingResourcePatternResolver().getResources(TEMPLATE_PATTERN);
+            for (Resource template : templates) {
+                String name = StringUtils.stripFilenameExtension(template.getFilename());
+                try {
+                    templateEngine.process(name, new Context());
+                } catch (TemplateEngineException e) {
+                    log.trace("Template {} needs variables to render, parsed only", name);
+                }
+            }
+            log.debug("Warmed {} mail templates", templates.length);
+        } catch (IOException e) {
+            log.warn("Could not list mail templates to warm: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (!stopped.await(30, TimeUnit.SECONDS)) {
+            log.warn("Mail workers still sending after 30s");
+        }
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        // drainTo only takes due entries; retries still backing off are removed explicitly
+        left.addAll(queue);
+        queue.clear();
+        left.forEach(pending -> deadLetter(pending.mail(), pending.attempt() - 1, "shutdown"));
+    }
+
+    private void work() {
+        try {
+            while (running) {
+                try {
+                    dispatchBatch(Duration.ofMillis(500));
+                } catch (RuntimeException e) {
+                    // A worker that died here would silently take one SMTP connection's worth of throughput with it
+                    log.error("Mail batch failed unexpectedly, worker continues", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Send up to one batch of due mail, waiting at most {@code wait} for the first; returns how many were taken
+     */
+    public int dispatchBatch(Duration wait) throws InterruptedException {
+        Pending first = queue.poll(wait.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return 0;
+        }
+        List<Pending> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        queued.addAndGet(-batch.size());
+
+        Map<MimeMessage, Pending> messages = new IdentityHashMap<>();
+        for (Pending pending : batch) {
+            try {
+                messages.put(render(pending.mail()), pending);
+            } catch (MessagingException | RuntimeException e) {
+                deadLetter(pending.mail(), pending.attempt(), "cannot build message: " + e.getMessage());
+            }
+        }
+        if (!messages.isEmpty()) {
+            pace(messages.size());
+            send(messages);
+        }
+        return batch.size();
+    }
+
+    private MimeMessage render(OutboundMail mail) throws MessagingException {
+        Context context = new Context();
+        context.setVariables(mail.variables());
+        String html = templateEngine.process(mail.template(), context);
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        helper.setTo(mail.to());
+        helper.setSubject(mail.subject());
+        helper.setText(html, true);
+        return message;
+    }
+
+    private void send(Map<MimeMessage, Pending> messages) {
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            sent.increment(messages.size());
+            log.debug("Sent batch of {} emails", messages.size());
+        } catch (MailSendException e) {
+            // Messages missing from a non-empty failure map were accepted by the server
+            Map<Object, Exception> failures = e.getFailedMessages();
+            messages.forEach((message, pending) -> {
+                Exception failure = failures.isEmpty() ? e : failures.get(message);
+                if (failure == null) {
+                    sent.increment();
+                } else {
+                    failed(pending, failure);
+                }
+            });
+        } catch (RuntimeException e) {
+            // MailException, or anything unexpected from the sender: retried like a transient failure
+            messages.values().forEach(pending -> failed(pending, e));
+        }
+    }
+
+    private void failed(Pending pending, Exception failure) {
+        OutboundMail mail = pending.mail();
+        if (isPermanent(failure) || pending.attempt() >= maxAttempts) {
+            deadLetter(mail, pending.attempt(), failure.getMessage());
+            return;
+        }
+        long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(pending.attempt() - 1, 20));
+        log.warn("Email to {} failed (attempt {}), retrying in {} ms: {}",
+                mail.to(), pending.attempt(), backoffMs, failure.getMessage());
+        retried.increment();
+        queued.incrementAndGet();
+        queue.add(new Pending(mail, pending.attempt() + 1, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs)));
+    }
+
+    /**
+     * Rejected recipients and malformed messages fail the same way on every attempt
+     */
+    private static boolean isPermanent(Exception failure) {
+        if (failure instanceof MailParseException || failure instanceof MailPreparationException) {
+            return true;
+        }
+        return failure instanceof SendFailedException rejected
+                && rejected.getInvalidAddresses() != null && rejected.getInvalidAddresses().length > 0;
+    }
+
+    /**
+     * Block until {@code count} sends fit under the rate limit; slots are reserved atomically across workers.
+     * The batch goes out in one call, so it waits for the last of its slots, not the first.
+     */
+    private void pace(int count) throws InterruptedException {
+        if (sendIntervalNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long start = nextSendSlot.getAndAccumulate(count * sendIntervalNanos,
+                (slot, cost) -> Math.max(slot, now) + cost);
+        long lastSlot = Math.max(start, now) + (count - 1) * sendIntervalNanos;
+        long waitNanos = lastSlot - now;
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void deadLetter(OutboundMail mail, int attempts, String reason) {
+        deadLettered.increment();
+        log.error("Email to {} with template {} dead-lettered after {} attempts: {}",
+                mail.to(), mail.template(), attempts, reason);
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("mail", mail.redacted());
+        entry.put("attempts", attempts);
+        entry.put("reason", reason);
+        entry.put("failedAt", Instant.now().toString());
+        try {
+            redisTemplate.opsForList().leftPush(DEAD_LETTER_KEY, objectMapper.writeValueAsString(entry));
+            redisTemplate.opsForList().trim(DEAD_LETTER_KEY, 0, deadLetterMax - 1);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Failed to store dead-lettered email to {}: {}", mail.to(), e.getMessage());
+        }
+    }
+
+    private record Pending(OutboundMail mail, int attempt, long dueNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Pending) other).dueNanos);
+        }
+    }
+}
@@ -1,139 +1,176 @@
 package fpt.tuanhm43.server.services.impl;
 
+import fpt.tuanhm43.server.dtos.mail.OrderMailSnapshot;
+import fpt.tuanhm43.server.dtos.mail.OutboundMail;
 import fpt.tuanhm43.server.entities.Order;
 import fpt.tuanhm43.server.services.MailService;
-import jakarta.mail.internet.MimeMessage;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+/**
+ * Snapshots the order on the caller's thread, inside its transaction, and hands the email to
+ * {@link MailDispatcher} after commit; mail workers only ever see immutable values, never entities
+ */
 @Service
 @RequiredArgsConstructor
-@Slf4j
 public class MailServiceImpl implements MailService {
 
     private static final String PARAM_CUSTOMER_NAME = "customerName";
     private static final String PARAM_ORDER_NUMBER = "orderNumber";
     private static final String PARAM_TRACKING_URL = "trackingUrl";
     private static final String PARAM_TOTAL_AMOUNT = "totalAmount";
+    private static final String PARAM_RESET_URL = "resetUrl";
     private static final String PARAM_SHIPPING_ADDR = "shippingAddress";
     private static final String PARAM_CANCEL_REASON = "cancelReason";
+    private static final String PARAM_ITEMS = "items";
+    private static final DateTimeFormatter PAYMENT_TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm dd/MM/yyyy");
 
-    private final JavaMailSender mailSender;
-    private final TemplateEngine templateEngine;
-
-    @Value("${app.mail.from}")
-    private String fromEmail;
-
-    @Value("${app.mail.from-name}")
-    private String fromName;
+    private final MailDispatcher mailDispatcher;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.backend.url:http://localhost:5173}")
     private String backendUrl;
 
-    @Override @Async
+    @Override
     public void sendOrderConfirmation(Order order) {
-        Map<String, Object> props = new HashMap<>();
-        props.put(PARAM_CUSTOMER_NAME, order.getCustomerName());
-        props.put(PARAM_ORDER_NUMBER, order.getOrderNumber());
-        props.put(PARAM_TOTAL_AMOUNT, order.getTotalAmount());
-        props.put(PARAM_SHIPPING_ADDR, order.getShippingAddress());
-        props.put(PARAM_TRACKING_URL, buildTrackingUrl(order));
-
-        sendHtmlEmail(order.getCustomerEmail(), "Xác nhận đơn hàng #" + order.getOrderNumber(), "order-confirmation", props);
+        OrderMailSnapshot snapshot = snapshot(order, true);
+        Map<String, Object> props = orderProps(snapshot);
+        props.put(PARAM_TOTAL_AMOUNT, snapshot.totalAmount());
+        props.put(PARAM_SHIPPING_ADDR, snapshot.shippingAddress());
+        props.put(PARAM_TRACKING_URL, snapshot.trackingUrl());
+        props.put(PARAM_ITEMS, snapshot.lines());
+        props.put("subtotal", snapshot.subtotal());
+        props.put("shippingFee", snapshot.shippingFee());
+
+        sendHtmlEmail(snapshot.customerEmail(), "Xác nhận đơn hàng #" + snapshot.orderNumber(), "order-confirmation", props);
     }
 
-    @Override @Async
+    @Override
     public void sendOrderShipped(Order order) {
-        Map<String, Object> props = new HashMap<>();
-        props.put(PARAM_CUSTOMER_NAME, order.getCustomerName());
-        props.put(PARAM_ORDER_NUMBER, order.getOrderNumber());
-        props.put(PARAM_TRACKING_URL, buildTrackingUrl(order));
+        OrderMailSnapshot snapshot = snapshot(order, false);
+        Map<String, Object> props = orderProps(snapshot);
+        props.put(PARAM_TRACKING_URL, snapshot.trackingUrl());
 
-        sendHtmlEmail(order.getCustomerEmail(), "Đơn hàng đang giao #" + order.getOrderNumber(), "order-shipped", props);
+        sendHtmlEmail(snapshot.customerEmail(), "Đơn hàng đang giao #" + snapshot.orderNumber(), "order-shipped", props);
     }
 
-    @Override @Async
+    @Override
     public void sendOrderDelivered(Order order) {
-        Map<String, Object> props = new HashMap<>();
-        props.put(PARAM_CUSTOMER_NAME, order.getCustomerName());
-        props.put(PARAM_ORDER_NUMBER, order.getOrderNumber());
+        OrderMailSnapshot snapshot = snapshot(order, false);
+        Map<String, Object> props = orderProps(snapshot);
 
-        sendHtmlEmail(order.getCustomerEmail(), "Giao hàng thành công #" + order.getOrderNumber(), "order-delivered", props);
+        sendHtmlEmail(snapshot.customerEmail(), "Giao hàng thành công #" + snapshot.orderNumber(), "order-delivered", props);
     }
 
-    @Override @Async
+    @Override
     public void sendOrderCancelled(Order order, String reason) {
-        Map<String, Object> props = new HashMap<>();
-        props.put(PARAM_CUSTOMER_NAME, order.getCustomerName());
-        props.put(PARAM_ORDER_NUMBER, order.getOrderNumber());
+        OrderMailSnapshot snapshot = snapshot(order, false);
+        Map<String, Object> props = orderProps(snapshot);
         props.put(PARAM_CANCEL_REASON, reason);
 
-        sendHtmlEmail(order.getCustomerEmail(), "Thông báo hủy đơn hàng #" + order.getOrderNumber(), "order-cancelled", props);
+        sendHtmlEmail(snapshot.customerEmail(), "Thông báo hủy đơn hàng #" + snapshot.orderNumber(), "order-cancelled", props);
     }
 
-    @Override @Async
+    @Override
     public void sendPaymentConfirmation(Order order) {
-        Map<String, Object> props = new HashMap<>();
-        props.put(PARAM_CUSTOMER_NAME, order.getCustomerName());
-        props.put(PARAM_ORDER_NUMBER, order.getOrderNumber());
-        props.put(PARAM_TOTAL_AMOUNT, order.getTotalAmount());
+        OrderMailSnapshot snapshot = snapshot(order, false);
+        Map<String, Object> props = orderProps(snapshot);
+        props.put(PARAM_TOTAL_AMOUNT, snapshot.totalAmount());
 
-        props.put("paymentMethod", order.getPaymentMethod() != null ? order.getPaymentMethod().name() : "Chuyển khoản");
-        props.put("paymentTime", java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("HH:mm dd/MM/yyyy")));
-        props.put(PARAM_TRACKING_URL, buildTrackingUrl(order));
+        props.put("paymentMethod", snapshot.paymentMethod() != null ? snapshot.paymentMethod() : "Chuyển khoản");
+        props.put("paymentTime", LocalDateTime.now().format(PAYMENT_TIME_FORMAT));
+        props.put(PARAM_TRACKING_URL, snapshot.trackingUrl());
 
-        sendHtmlEmail(order.getCustomerEmail(),
-                "HUNG HYPEBEAST - Xác nhận thanh toán đơn hàng #" + order.getOrderNumber(),
+        sendHtmlEmail(snapshot.customerEmail(),
+                "HUNG HYPEBEAST - Xác nhận thanh toán đơn hàng #" + snapshot.orderNumber(),
                 "payment-confirmation",
                 props);
     }
 
     @Override
-    @Async
     public void sendPasswordResetEmail(String name, String to, String token) {
         String resetUrl = backendUrl + "/reset-password?token=" + token;
 
         Map<String, Object> props = new HashMap<>();
         props.put(PARAM_CUSTOMER_NAME, name);
-        props.put("resetUrl", resetUrl);
+        props.put(PARAM_RESET_URL, resetUrl);
         props.put("expiryTime", "15 minutes");
 
-        sendHtmlEmail(to, "Reset Your Password - HUNG HYPEBEAST", "password-reset", props);
+        // The link carries the reset token, so it is masked if the mail ends up dead-lettered
+        sendHtmlEmail(to, "Reset Your Password - HUNG HYPEBEAST", "password-reset", props, Set.of(PARAM_RESET_URL));
+    }
+
+    /**
+     * Copy what the templates need out of {@code order}; line items only where the email lists them,
+     * since reading them may load the collection
+     */
+    private OrderMailSnapshot snapshot(Order order, boolean withLines) {
+        List<OrderMailSnapshot.Line> lines = withLines
+                ? order.getItems().stream()
+                        .map(item -> new OrderMailSnapshot.Line(item.getProductName(), item.getSku(),
+                                item.getQuantity(), item.getUnitPrice(), item.getSubtotal()))
+                        .toList()
+                : List.of();
+        return new OrderMailSnapshot(
+                order.getOrderNumber(),
+                order.getCustomerName(),
+                order.getCustomerEmail(),
+                order.getShippingAddress(),
+                order.getPaymentMethod() != null ? order.getPaymentMethod().name() : null,
+                order.getSubtotal(),
+                order.getShippingFee(),
+                order.getTotalAmount(),
+                backendUrl + "/track/" + order.getTrackingToken(),
+                lines);
     }
 
-    private String buildTrackingUrl(Order order) {
-        return backendUrl + "/track/" + order.getTrackingToken();
+    private static Map<String, Object> orderProps(OrderMailSnapshot snapshot) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(PARAM_CUSTOMER_NAME, snapshot.customerName());
+        props.put(PARAM_ORDER_NUMBER, snapshot.orderNumber());
+        return props;
     }
 
+    /**
+     * Queue the email once the surrounding transaction commits, so a rolled-back order sends nothing;
+     * queued straight away outside a transaction
+     */
     private void sendHtmlEmail(String to, String subject, String templateName, Map<String, Object> properties) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, StandardCharsets.UTF_8.name());
-
-            Context context = new Context();
-            context.setVariables(properties);
-            String html = templateEngine.process(templateName, context);
-
-            helper.setFrom(fromName + " <" + fromEmail + ">");
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(html, true);
-
-            mailSender.send(message);
-            log.info("Email sent to {} with template {}", to, templateName);
-        } catch (Exception e) {
-            log.error("Failed to send email to {}: {}", to, e.getMessage());
+        sendHtmlEmail(to, subject, templateName, properties, Set.of());
+    }
+
+    private void sendHtmlEmail(String to, String subject, String templateName, Map<String, Object> properties,
+                               Set<String> secrets) {
+        OutboundMail mail = new OutboundMail(to, subject, templateName, Collections.unmodifiableMap(properties), secrets);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(mail);
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(mail);
+            }
+        });
+    }
+
+    /**
+     * Hand over to the dispatcher, counted per template; its queue depth is {@code mail.dispatch.queue.size}
+     */
+    private void enqueue(OutboundMail mail) {
+        meterRegistry.counter("mail.queued", "template", mail.template()).increment();
+        mailDispatcher.enqueue(mail);
     }
-}
\ No newline at end of file
+}
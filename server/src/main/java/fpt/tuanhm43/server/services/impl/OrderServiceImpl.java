@@ -1,5 +1,7 @@
 package fpt.tuanhm43.server.services.impl;
 
+import fpt.tuanhm43.server.caches.OrderCountCache;
+import fpt.tuanhm43.server.dtos.CursorPageResponseDTO;
 import fpt.tuanhm43.server.dtos.PageResponseDTO;
 import fpt.tuanhm43.server.dtos.inventory.ReservationItem;
 import fpt.tuanhm43.server.dtos.order.request.CreateOrderRequest;
@@ -18,13 +20,16 @@ import fpt.tuanhm43.server.repositories.*;
 import fpt.tuanhm43.server.services.InventoryService;
 import fpt.tuanhm43.server.services.MailService;
 import fpt.tuanhm43.server.services.OrderService;
+import fpt.tuanhm43.server.utils.CursorUtils;
 import fpt.tuanhm43.server.utils.SecurityUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.retry.annotation.Backoff;
@@ -37,14 +42,19 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
-    private static final String ORDER_NUMBER_FORMAT = "ORD-%s-%05d";
+    private static final String ORDER_NUMBER_FORMAT = "ORD-%s-%07d";
+    /** Keeps the suffix at 7 digits, so the number fits order_number (20 chars) */
+    private static final long ORDER_NUMBER_MODULUS = 10_000_000L;
     private static final String RESOURCE_NAME = "Order";
     private static final int MAX_PAGE_SIZE = 10;
 
@@ -54,17 +64,24 @@ public class OrderServiceImpl implements OrderService {
     private final UserRepository userRepository;
     private final InventoryService inventoryService;
     private final MailService mailService;
+    private final OrderCountCache orderCountCache;
 
     // Inject Mapper
     private final OrderMapper orderMapper;
 
+    /**
+     * Timed per attempt: a retried checkout records its failed attempts with their exception, and the
+     * {@code spring.retry} timer labelled {@code order.createFromCart} counts how many retries each call took
+     */
     @Override
     @Transactional
     @Retryable(
+            label = "order.createFromCart",
             retryFor = { ObjectOptimisticLockingFailureException.class, ConcurrencyFailureException.class },
             maxAttempts = 10,
             backoff = @Backoff(delay = 100, multiplier = 2)
     )
+    @Timed(value = "order.create", extraTags = { "source", "cart" }, histogram = true)
     public OrderDetailResponse createOrderFromCart(String sessionId, CreateOrderRequest request) {
         log.info("Creating order from cart - Session: {}", sessionId);
 
@@ -72,11 +89,11 @@ public class OrderServiceImpl implements OrderService {
         ShoppingCart cart;
 
         if (currentUserId != null) {
-            cart = cartRepository.findByUserId(currentUserId)
-                    .orElseGet(() -> cartRepository.findBySessionId(sessionId)
+            cart = cartRepository.findForCheckoutByUserId(currentUserId)
+                    .orElseGet(() -> cartRepository.findForCheckoutBySessionId(sessionId)
                             .orElseThrow(() -> new BadRequestException("Cart not found or expired")));
         } else {
-            cart = cartRepository.findBySessionId(sessionId)
+            cart = cartRepository.findForCheckoutBySessionId(sessionId)
                     .orElseThrow(() -> new BadRequestException("Cart not found or expired"));
         }
 
@@ -119,6 +136,7 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional
+    @Timed(value = "order.create", extraTags = { "source", "direct" }, histogram = true)
     public OrderDetailResponse createOrder(CreateOrderRequest request) {
         log.info("Creating order directly - Customer: {}", request.getCustomerName());
 
@@ -129,9 +147,16 @@ public class OrderServiceImpl implements OrderService {
         Order order = buildBaseOrder(request);
         List<ReservationItem> reservationItems = new ArrayList<>();
 
+        Map<UUID, ProductVariant> variants = variantRepository.findAllWithProductByIdIn(
+                        request.getItems().stream().map(OrderItemRequest::getVariantId).toList())
+                .stream()
+                .collect(Collectors.toMap(ProductVariant::getId, Function.identity()));
+
         for (OrderItemRequest itemRequest : request.getItems()) {
-            ProductVariant variant = variantRepository.findById(itemRequest.getVariantId())
-                    .orElseThrow(() -> new ResourceNotFoundException("ProductVariant", "id", itemRequest.getVariantId()));
+            ProductVariant variant = variants.get(itemRequest.getVariantId());
+            if (variant == null) {
+                throw new ResourceNotFoundException("ProductVariant", "id", itemRequest.getVariantId());
+            }
 
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
@@ -163,7 +188,7 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     public OrderDetailResponse getOrderById(UUID id) {
-        return orderRepository.findById(id)
+        return orderRepository.findWithItemsById(id)
                 .map(orderMapper::toDetailResponse)
                 .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_NAME, "id", id));
     }
@@ -207,10 +232,59 @@ public class OrderServiceImpl implements OrderService {
         return PageResponseDTO.from(orders.map(orderMapper::toResponse));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<OrderResponse> getUserOrdersByCursor(UUID userId, String cursor, int size, boolean includeTotal) {
+        if (!userRepository.existsById(userId)) throw new ResourceNotFoundException("User", "id", userId);
+
+        CursorUtils.Cursor position = CursorUtils.decode(cursor);
+        Pageable pageable = PageRequest.of(0, Math.clamp(size, 1, MAX_PAGE_SIZE));
+        Slice<Order> orders = position == null
+                ? orderRepository.findSliceByUserIdOrderByCreatedAtDescIdDesc(userId, pageable)
+                : orderRepository.findSliceByUserIdBefore(userId, position.createdAt(), position.id(), pageable);
+
+        Long total = includeTotal
+                ? orderCountCache.get("user:" + userId, () -> orderRepository.countByUserId(userId))
+                : null;
+        return toCursorPage(orders, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<OrderResponse> getAllOrdersByCursor(OrderFilterRequest filter, String cursor, boolean includeTotal) {
+        int size = filter.getSize() != null ? Math.clamp(filter.getSize(), 1, MAX_PAGE_SIZE) : 10;
+        CursorUtils.Cursor position = CursorUtils.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size);
+
+        Slice<Order> orders;
+        Long total = null;
+
+        if (filter.getStatus() != null) {
+            OrderStatus status = filter.getStatus();
+            orders = position == null
+                    ? orderRepository.findSliceByStatusOrderByCreatedAtDescIdDesc(status, pageable)
+                    : orderRepository.findSliceByStatusBefore(status, position.createdAt(), position.id(), pageable);
+            if (includeTotal) total = orderCountCache.get("status:" + status, () -> orderRepository.countByStatus(status));
+        } else if (filter.getPaymentStatus() != null) {
+            PaymentStatus paymentStatus = filter.getPaymentStatus();
+            orders = position == null
+                    ? orderRepository.findSliceByPaymentStatusOrderByCreatedAtDescIdDesc(paymentStatus, pageable)
+                    : orderRepository.findSliceByPaymentStatusBefore(paymentStatus, position.createdAt(), position.id(), pageable);
+            if (includeTotal) total = orderCountCache.get("payment:" + paymentStatus, () -> orderRepository.countByPaymentStatus(paymentStatus));
+        } else {
+            orders = position == null
+                    ? orderRepository.findSliceByOrderByCreatedAtDescIdDesc(pageable)
+                    : orderRepository.findSliceBefore(position.createdAt(), position.id(), pageable);
+            if (includeTotal) total = orderCountCache.get("all", orderRepository::count);
+        }
+
+        return toCursorPage(orders, total);
+    }
+
     @Override
     @Transactional
     public OrderDetailResponse updateOrderStatus(UUID orderId, UpdateOrderStatusRequest request) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_NAME, "id", orderId));
 
         if (!order.canTransitionTo(request.getNewStatus())) {
@@ -235,7 +309,7 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional
     public OrderDetailResponse cancelOrder(UUID orderId, String reason) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException(RESOURCE_NAME, "id", orderId));
 
         if (!order.canCancel()) throw new BadRequestException("Cannot cancel order");
@@ -253,11 +327,15 @@ public class OrderServiceImpl implements OrderService {
         return orderMapper.toDetailResponse(cancelledOrder);
     }
 
+    /**
+     * Today's date and the next value of the database order-number sequence, modulo 10^7: unique across
+     * instances and restarts unless one day sees ten million orders, with gaps where a checkout rolled back.
+     * Always 7 digits, so it never equals a legacy 5-digit daily count.
+     */
     @Override
     public String generateOrderNumber() {
-        String dateStr = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long countToday = orderRepository.countByCreatedAtAfter(LocalDate.now().atStartOfDay());
-        return String.format(ORDER_NUMBER_FORMAT, dateStr, countToday + 1);
+        return String.format(ORDER_NUMBER_FORMAT, LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")),
+                orderRepository.nextOrderNumber() % ORDER_NUMBER_MODULUS);
     }
 
     private Order buildBaseOrder(CreateOrderRequest request) {
@@ -281,4 +359,12 @@ public class OrderServiceImpl implements OrderService {
         catch (Exception e) { log.warn("Email failed for order {}", order.getOrderNumber()); }
     }
 
-}
\ No newline at end of file
+    private CursorPageResponseDTO<OrderResponse> toCursorPage(Slice<Order> orders, Long total) {
+        String nextCursor = null;
+        if (orders.hasContent()) {
+            Order last = orders.getContent().get(orders.getNumberOfElements() - 1);
+            nextCursor = CursorUtils.encode(last.getCreatedAt(), last.getId());
+        }
+        return CursorPageResponseDTO.from(orders.map(orderMapper::toResponse), nextCursor, total);
+    }
+}
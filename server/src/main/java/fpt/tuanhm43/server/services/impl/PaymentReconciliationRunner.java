@@ -0,0 +1,579 @@
+package fpt.tuanhm43.server.services.impl;
+
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.dtos.payment.PaymentReconciliationRow;
+import fpt.tuanhm43.server.dtos.payment.request.StatementRecord;
+import fpt.tuanhm43.server.dtos.payment.response.ReconciliationResponse;
+import fpt.tuanhm43.server.dtos.payment.response.ReconciliationResponse.Discrepancy;
+import fpt.tuanhm43.server.enums.DiscrepancyType;
+import fpt.tuanhm43.server.enums.PaymentMethod;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import fpt.tuanhm43.server.enums.ReconciliationStatus;
+import fpt.tuanhm43.server.repositories.PaymentTransactionRepository;
+import fpt.tuanhm43.server.services.InventoryService;
+import fpt.tuanhm43.server.utils.CsvUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reconciles SePay transactions created in a time window against a provider statement with a sort-merge
+ * join on transaction id, in constant memory: transactions are streamed as keyset pages of projections,
+ * the statement is parsed row by row and external-sorted ({@link StatementSorter}).
+ * <p>
+ * Every difference is reported as a {@link Discrepancy}. Open (PENDING/PROCESSING) transactions the
+ * provider failed, or that have no provider record after {@code stale-after-minutes}, are resolved:
+ * moved to FAILED and their reservations released, {@code resolve-batch-size} per transaction.
+ * A transaction paid at the provider but still open here is only reported; replaying its webhook settles it.
+ */
+@Component
+@Slf4j
+public class PaymentReconciliationRunner {
+
+    private static final int MAX_REPORTED_DISCREPANCIES = 1000;
+    private static final List<PaymentStatus> OPEN_STATUSES = List.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING);
+
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PaymentStatusStreams statusStreams;
+    private final int pageSize;
+    private final int sortChunkSize;
+    private final int resolveBatchSize;
+    private final Duration staleAfter;
+
+    public enum Format {
+        CSV, JSON
+    }
+
+    public PaymentReconciliationRunner(PaymentTransactionRepository paymentTransactionRepository,
+                                       InventoryService inventoryService,
+                                       TransactionTemplate transactionTemplate,
+                                       ObjectMapper objectMapper,
+                                       Validator validator,
+                                       PaymentStatusStreams statusStreams,
+                                       @Value("${app.payment.reconciliation.page-size:500}") int pageSize,
+                                       @Value("${app.payment.reconciliation.sort-chunk-size:10000}") int sortChunkSize,
+                                       @Value("${app.payment.reconciliation.resolve-batch-size:100}") int resolveBatchSize,
+                                       @Value("${app.payment.reconciliation.stale-after-minutes:60}") long staleAfterMinutes) {
+        this.paymentTransactionRepository = paymentTransactionRepository;
+        this.inventoryService = inventoryService;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.statusStreams = statusStreams;
+        this.pageSize = pageSize;
+        this.sortChunkSize = sortChunkSize;
+        this.resolveBatchSize = resolveBatchSize;
+        this.staleAfter = Duration.ofMinutes(staleAfterMinutes);
+    }
+
+    /**
+     * Run the reconciliation in the background; the uploaded temp file is deleted when done
+     */
+    @Async
+    public void run(ReconciliationResponse job, Path statement, Format format, Consumer<ReconciliationResponse> progress) {
+        try (Reader reader = Files.newBufferedReader(statement, StandardCharsets.UTF_8)) {
+            reconcile(job, reader, format, progress);
+        } catch (IOException e) {
+            log.error("Reconciliation {} failed to read statement", job.getJobId(), e);
+            progress.accept(job.toBuilder()
+                    .status(ReconciliationStatus.FAILED)
+                    .message("Could not read statement file: " + e.getMessage())
+                    .finishedAt(LocalDateTime.now())
+                    .build());
+        } finally {
+            try {
+                Files.deleteIfExists(statement);
+            } catch (IOException e) {
+                log.warn("Could not delete statement temp file {}", statement);
+            }
+        }
+    }
+
+    /**
+     * Reconcile the whole statement synchronously and return the final job state
+     */
+    public ReconciliationResponse reconcile(ReconciliationResponse job, Reader source, Format format,
+                                            Consumer<ReconciliationResponse> progress) {
+        Progress state = new Progress(job);
+        progress.accept(state.snapshot(ReconciliationStatus.RUNNING, null));
+        LocalDateTime staleBefore = LocalDateTime.now().minus(staleAfter);
+
+        try (BufferedReader reader = new BufferedReader(source);
+             CloseableIterator<StatementRecord> statement = new StatementSorter(objectMapper, sortChunkSize)
+                     .sort(new StatementParser(reader, format, state))) {
+            merge(new LocalTransactions(job.getFrom(), job.getTo(), state, progress), statement, state, staleBefore);
+        } catch (IOException | RuntimeException e) {
+            log.error("Reconciliation {} aborted", job.getJobId(), e);
+            resolve(state);
+            ReconciliationResponse failed = state.snapshot(ReconciliationStatus.FAILED, "Reconciliation aborted: " + e.getMessage());
+            progress.accept(failed);
+            return failed;
+        }
+
+        resolve(state);
+        ReconciliationResponse done = state.snapshot(ReconciliationStatus.COMPLETED, null);
+        progress.accept(done);
+        log.info("Reconciliation {} finished: {} transactions, {} statement records, {} matched, {} discrepancies, {} resolved",
+                job.getJobId(), done.getLocalTransactions(), done.getStatementRecords(), done.getMatched(),
+                done.getDiscrepancyCount(), done.getResolved());
+        return done;
+    }
+
+    private void merge(Iterator<PaymentReconciliationRow> local, Iterator<StatementRecord> statement,
+                       Progress state, LocalDateTime staleBefore) {
+        PaymentReconciliationRow row = local.hasNext() ? local.next() : null;
+        StatementRecord record = nextRecord(statement, null, state);
+
+        while (row != null || record != null) {
+            int order;
+            if (row == null) {
+                order = 1;
+            } else if (record == null) {
+                order = -1;
+            } else {
+                order = row.transactionId().compareTo(record.getTransactionId());
+            }
+
+            if (order < 0) {
+                localOnly(row, state, staleBefore);
+                row = local.hasNext() ? local.next() : null;
+            } else if (order > 0) {
+                statementOnly(record, state);
+                record = nextRecord(statement, record, state);
+            } else {
+                compare(row, record, state);
+                row = local.hasNext() ? local.next() : null;
+                record = nextRecord(statement, record, state);
+            }
+        }
+        lookUpStatementOnly(state);
+    }
+
+    /**
+     * Next statement record, skipping (and reporting) repeats of the previous transaction id
+     */
+    private StatementRecord nextRecord(Iterator<StatementRecord> statement, StatementRecord previous, Progress state) {
+        while (statement.hasNext()) {
+            StatementRecord record = statement.next();
+            state.statementRecords++;
+            if (previous == null || !previous.getTransactionId().equals(record.getTransactionId())) {
+                return record;
+            }
+            state.report(Discrepancy.builder()
+                    .type(DiscrepancyType.DUPLICATE_AT_PROVIDER)
+                    .transactionId(record.getTransactionId())
+                    .providerStatus(record.getStatus())
+                    .providerAmount(record.getAmount())
+                    .message("Repeated at statement row " + record.getRowNumber())
+                    .build());
+        }
+        return null;
+    }
+
+    private void localOnly(PaymentReconciliationRow row, Progress state, LocalDateTime staleBefore) {
+        if (OPEN_STATUSES.contains(row.status())) {
+            if (row.createdAt().isBefore(staleBefore)) {
+                queueResolution(row, null, DiscrepancyType.STALE_UNSETTLED,
+                        "No provider record after " + staleAfter.toMinutes() + " minutes", state);
+            }
+        } else if (row.status() != PaymentStatus.FAILED) {
+            state.report(discrepancy(DiscrepancyType.MISSING_AT_PROVIDER, row, null, "Not on the provider statement"));
+        }
+        checkOrder(row, state);
+    }
+
+    /**
+     * A statement record with no transaction in the window: the transaction may still exist outside it.
+     * Records are looked up {@code page-size} at a time.
+     */
+    private void statementOnly(StatementRecord record, Progress state) {
+        state.statementOnly.add(record);
+        if (state.statementOnly.size() >= pageSize) {
+            lookUpStatementOnly(state);
+        }
+    }
+
+    private void lookUpStatementOnly(Progress state) {
+        if (state.statementOnly.isEmpty()) {
+            return;
+        }
+        List<StatementRecord> batch = List.copyOf(state.statementOnly);
+        state.statementOnly.clear();
+        Map<String, PaymentReconciliationRow> rows = paymentTransactionRepository.findReconciliationRows(
+                        batch.stream().map(StatementRecord::getTransactionId).toList()).stream()
+                .collect(Collectors.toMap(PaymentReconciliationRow::transactionId, Function.identity()));
+        for (StatementRecord record : batch) {
+            PaymentReconciliationRow row = rows.get(record.getTransactionId());
+            if (row != null) {
+                compare(row, record, state);
+            } else {
+                state.report(Discrepancy.builder()
+                        .type(DiscrepancyType.MISSING_LOCALLY)
+                        .transactionId(record.getTransactionId())
+                        .providerStatus(record.getStatus())
+                        .providerAmount(record.getAmount())
+                        .message("No payment transaction with this id")
+                        .build());
+            }
+        }
+    }
+
+    private void compare(PaymentReconciliationRow row, StatementRecord record, Progress state) {
+        boolean clean = true;
+        if (record.getAmount() != null && row.amount().compareTo(record.getAmount()) != 0) {
+            state.report(discrepancy(DiscrepancyType.AMOUNT_MISMATCH, row, record, "Amount differs from the statement"));
+            clean = false;
+        }
+
+        PaymentStatus providerStatus = providerStatus(record.getStatus());
+        if (OPEN_STATUSES.contains(row.status())) {
+            if (providerStatus == PaymentStatus.FAILED) {
+                queueResolution(row, record, DiscrepancyType.STATUS_MISMATCH, "Failed at provider", state);
+                clean = false;
+            } else if (providerStatus == PaymentStatus.PAID) {
+                state.report(discrepancy(DiscrepancyType.STATUS_MISMATCH, row, record,
+                        "Paid at provider but not settled; replay the webhook"));
+                clean = false;
+            }
+        } else if (providerStatus != row.status()) {
+            state.report(discrepancy(DiscrepancyType.STATUS_MISMATCH, row, record, "Status differs from the statement"));
+            clean = false;
+        }
+
+        if (checkOrder(row, state) && clean) {
+            state.matched++;
+        }
+    }
+
+    /**
+     * A paid transaction whose order is not marked paid. The reverse is not drift: an order paid by a
+     * retry still has its earlier failed transactions.
+     */
+    private boolean checkOrder(PaymentReconciliationRow row, Progress state) {
+        if (row.status() == PaymentStatus.PAID && row.orderPaymentStatus() != PaymentStatus.PAID) {
+            state.report(discrepancy(DiscrepancyType.ORDER_STATUS_MISMATCH, row, null,
+                    "Order payment status is " + row.orderPaymentStatus()));
+            return false;
+        }
+        return true;
+    }
+
+    private static PaymentStatus providerStatus(String status) {
+        return switch (status.trim().toUpperCase(Locale.ROOT)) {
+            case "SUCCESS", "PAID" -> PaymentStatus.PAID;
+            case "PENDING", "PROCESSING" -> PaymentStatus.PROCESSING;
+            case "REFUNDED" -> PaymentStatus.REFUNDED;
+            default -> PaymentStatus.FAILED;
+        };
+    }
+
+    private static Discrepancy discrepancy(DiscrepancyType type, PaymentReconciliationRow row,
+                                           StatementRecord record, String message) {
+        return Discrepancy.builder()
+                .type(type)
+                .transactionId(row.transactionId())
+                .orderId(row.orderId())
+                .localStatus(row.status())
+                .localAmount(row.amount())
+                .providerStatus(record != null ? record.getStatus() : null)
+                .providerAmount(record != null ? record.getAmount() : null)
+                .message(message)
+                .build();
+    }
+
+    private void queueResolution(PaymentReconciliationRow row, StatementRecord record, DiscrepancyType type,
+                                 String reason, Progress state) {
+        state.pending.add(new Resolution(row, discrepancy(type, row, record, reason)));
+        if (state.pending.size() >= resolveBatchSize) {
+            resolve(state);
+        }
+    }
+
+    /**
+     * Fail the queued open transactions and release their reservations in one transaction. The
+     * conditional status update skips any that a webhook settled meanwhile.
+     */
+    private void resolve(Progress state) {
+        if (state.pending.isEmpty()) {
+            return;
+        }
+        List<Resolution> batch = List.copyOf(state.pending);
+        state.pending.clear();
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                LocalDateTime now = LocalDateTime.now();
+                for (Resolution resolution : batch) {
+                    Discrepancy discrepancy = resolution.discrepancy();
+                    boolean failed = paymentTransactionRepository.transitionStatus(resolution.row().transactionId(),
+                            OPEN_STATUSES, PaymentStatus.FAILED, null,
+                            "Reconciliation: " + discrepancy.getMessage(), now) == 1;
+                    if (failed) {
+                        inventoryService.releaseReservationByOrder(resolution.row().orderId());
+                        statusStreams.publish(resolution.row().transactionId(), resolution.row().orderId(),
+                                PaymentStatus.FAILED);
+                    }
+                    discrepancy.setResolved(failed);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Reconciliation batch of {} resolutions rolled back: {}", batch.size(), e.getMessage());
+            batch.forEach(resolution -> {
+                resolution.discrepancy().setResolved(false);
+                resolution.discrepancy().setMessage(resolution.discrepancy().getMessage() + "; not resolved: " + e.getMessage());
+            });
+        }
+        for (Resolution resolution : batch) {
+            if (resolution.discrepancy().isResolved()) {
+                state.resolved++;
+            }
+            state.report(resolution.discrepancy());
+        }
+    }
+
+    private record Resolution(PaymentReconciliationRow row, Discrepancy discrepancy) {
+    }
+
+    /**
+     * SePay transactions in [from, to), one keyset page in memory at a time
+     */
+    private final class LocalTransactions implements Iterator<PaymentReconciliationRow> {
+
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final Progress state;
+        private final Consumer<ReconciliationResponse> progress;
+        private Iterator<PaymentReconciliationRow> page = List.<PaymentReconciliationRow>of().iterator();
+        private String after = "";
+        private boolean lastPage;
+
+        private LocalTransactions(LocalDateTime from, LocalDateTime to, Progress state,
+                                  Consumer<ReconciliationResponse> progress) {
+            this.from = from;
+            this.to = to;
+            this.state = state;
+            this.progress = progress;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!page.hasNext() && !lastPage) {
+                List<PaymentReconciliationRow> rows = paymentTransactionRepository.findReconciliationPage(
+                        PaymentMethod.SEPAY, from, to, after, PageRequest.of(0, pageSize));
+                lastPage = rows.size() < pageSize;
+                page = rows.iterator();
+                if (state.localTransactions > 0) {
+                    progress.accept(state.snapshot(ReconciliationStatus.RUNNING, null));
+                }
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public PaymentReconciliationRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            PaymentReconciliationRow row = page.next();
+            // The merge is only correct if the database orders ids as String.compareTo does
+            if (row.transactionId().compareTo(after) <= 0) {
+                throw new IllegalStateException("Transactions not returned in transaction id order at "
+                        + row.transactionId() + "; does the database honour COLLATE \"C\"?");
+            }
+            after = row.transactionId();
+            state.localTransactions++;
+            return row;
+        }
+    }
+
+    /**
+     * Statement records in file order; malformed rows are reported and skipped
+     */
+    private final class StatementParser implements Iterator<StatementRecord> {
+
+        private final BufferedReader reader;
+        private final Progress state;
+        private final MappingIterator<StatementRecord> json;
+        private List<String> header;
+        private long rowNumber;
+        private StatementRecord next;
+
+        private StatementParser(BufferedReader reader, Format format, Progress state) throws IOException {
+            this.reader = reader;
+            this.state = state;
+            // Reads both a top-level JSON array and one object per line, streaming either way
+            this.json = format == Format.JSON ? objectMapper.readerFor(StatementRecord.class).readValues(reader) : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    StatementRecord record = json != null ? readJson() : readCsv();
+                    if (record == null) {
+                        return false;
+                    }
+                    next = validate(record);
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public StatementRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            StatementRecord record = next;
+            next = null;
+            return record;
+        }
+
+        /**
+         * Next JSON record; an element that does not map to a record is reported like a malformed CSV row.
+         * Syntax errors still abort, the parser cannot find the next element after one.
+         */
+        private StatementRecord readJson() throws IOException {
+            while (json.hasNextValue()) {
+                rowNumber++;
+                try {
+                    StatementRecord record = json.nextValue();
+                    if (record != null) {
+                        record.setRowNumber(rowNumber);
+                        return record;
+                    }
+                    state.malformed(rowNumber, null, "Malformed record: null");
+                } catch (DatabindException e) {
+                    state.malformed(rowNumber, null, "Malformed record: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        }
+
+        private StatementRecord readCsv() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (header == null) {
+                    header = CsvUtils.parseLine(line.replace("\uFEFF", ""));
+                    continue;
+                }
+                try {
+                    List<String> values = CsvUtils.parseLine(line);
+                    Map<String, String> fields = new HashMap<>();
+                    for (int i = 0; i < header.size() && i < values.size(); i++) {
+                        fields.put(header.get(i), values.get(i));
+                    }
+                    StatementRecord record = objectMapper.convertValue(fields, StatementRecord.class);
+                    record.setRowNumber(rowNumber);
+                    return record;
+                } catch (RuntimeException e) {
+                    state.malformed(rowNumber, null, "Malformed row: " + e.getMessage());
+                }
+            }
+            return null;
+        }
+
+        private StatementRecord validate(StatementRecord record) {
+            Set<ConstraintViolation<StatementRecord>> violations = validator.validate(record);
+            if (violations.isEmpty()) {
+                return record;
+            }
+            state.malformed(record.getRowNumber(), record.getTransactionId(), violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+    }
+
+    /**
+     * Mutable counters owned by the reconciliation thread; readers only see snapshots
+     */
+    private static class Progress {
+        private final ReconciliationResponse job;
+        private final Map<DiscrepancyType, Long> counts = new EnumMap<>(DiscrepancyType.class);
+        private final List<Discrepancy> discrepancies = new ArrayList<>();
+        private final List<Resolution> pending = new ArrayList<>();
+        private final List<StatementRecord> statementOnly = new ArrayList<>();
+        private long discrepancyCount;
+        private long localTransactions;
+        private long statementRecords;
+        private long matched;
+        private long resolved;
+
+        Progress(ReconciliationResponse job) {
+            this.job = job;
+        }
+
+        void report(Discrepancy discrepancy) {
+            discrepancyCount++;
+            counts.merge(discrepancy.getType(), 1L, Long::sum);
+            if (discrepancies.size() < MAX_REPORTED_DISCREPANCIES) {
+                discrepancies.add(discrepancy);
+            }
+        }
+
+        void malformed(long rowNumber, String transactionId, String message) {
+            report(Discrepancy.builder()
+                    .type(DiscrepancyType.MALFORMED_RECORD)
+                    .transactionId(transactionId)
+                    .message("Statement row " + rowNumber + ": " + message)
+                    .build());
+        }
+
+        ReconciliationResponse snapshot(ReconciliationStatus status, String message) {
+            return job.toBuilder()
+                    .status(status)
+                    .localTransactions(localTransactions)
+                    .statementRecords(statementRecords)
+                    .matched(matched)
+                    .resolved(resolved)
+                    .discrepancyCount(discrepancyCount)
+                    .discrepancyCounts(Map.copyOf(counts))
+                    .discrepancies(List.copyOf(discrepancies))
+                    .discrepanciesTruncated(discrepancyCount > discrepancies.size())
+                    .message(message)
+                    .finishedAt(status.isFinished() ? LocalDateTime.now() : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package fpt.tuanhm43.server.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fpt.tuanhm43.server.dtos.payment.response.ReconciliationResponse;
+import fpt.tuanhm43.server.enums.ReconciliationStatus;
+import fpt.tuanhm43.server.exceptions.BadRequestException;
+import fpt.tuanhm43.server.exceptions.ResourceNotFoundException;
+import fpt.tuanhm43.server.services.PaymentReconciliationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentReconciliationServiceImpl implements PaymentReconciliationService {
+
+    private final PaymentReconciliationRunner reconciliationRunner;
+
+    /**
+     * Recent job snapshots, kept for status polling
+     */
+    private final Cache<UUID, ReconciliationResponse> jobs = Caffeine.newBuilder()
+            .maximumSize(200)
+            .expireAfterWrite(Duration.ofHours(24))
+            .build();
+
+    @Override
+    public ReconciliationResponse submit(MultipartFile statement, LocalDateTime from, LocalDateTime to) {
+        if (statement == null || statement.isEmpty()) {
+            throw new BadRequestException("Statement file is empty");
+        }
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Reconciliation window start must be before its end");
+        }
+        PaymentReconciliationRunner.Format format = detectFormat(statement);
+
+        Path tempFile;
+        try {
+            // The multipart upload is cleaned up when the request ends, the job outlives it
+            tempFile = Files.createTempFile("payment-statement-", "." + format.name().toLowerCase(Locale.ROOT));
+            statement.transferTo(tempFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store statement file", e);
+        }
+
+        ReconciliationResponse job = ReconciliationResponse.builder()
+                .jobId(UUID.randomUUID())
+                .fileName(statement.getOriginalFilename())
+                .status(ReconciliationStatus.PENDING)
+                .from(from)
+                .to(to)
+                .startedAt(LocalDateTime.now())
+                .build();
+        jobs.put(job.getJobId(), job);
+        log.info("Payment reconciliation {} accepted: {} ({} bytes, {}) for [{}, {})",
+                job.getJobId(), job.getFileName(), statement.getSize(), format, from, to);
+
+        reconciliationRunner.run(job, tempFile, format, snapshot -> jobs.put(snapshot.getJobId(), snapshot));
+        return job;
+    }
+
+    @Override
+    public ReconciliationResponse getStatus(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId))
+                .orElseThrow(() -> new ResourceNotFoundException("Reconciliation job", "id", jobId));
+    }
+
+    private PaymentReconciliationRunner.Format detectFormat(MultipartFile file) {
+        String name = Optional.ofNullable(file.getOriginalFilename()).orElse("").toLowerCase(Locale.ROOT);
+        String contentType = Optional.ofNullable(file.getContentType()).orElse("");
+
+        if (name.endsWith(".csv") || contentType.startsWith("text/csv")) {
+            return PaymentReconciliationRunner.Format.CSV;
+        }
+        if (name.endsWith(".json") || name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                || contentType.startsWith("application/json") || contentType.startsWith("application/x-ndjson")) {
+            return PaymentReconciliationRunner.Format.JSON;
+        }
+        throw new BadRequestException("Unsupported statement format, expected .csv, .json or .ndjson");
+    }
+}
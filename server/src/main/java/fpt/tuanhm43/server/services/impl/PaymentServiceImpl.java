@@ -1,5 +1,8 @@
 package fpt.tuanhm43.server.services.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.caches.PaymentStatusCache;
 import fpt.tuanhm43.server.dtos.payment.request.SepayWebhookRequest;
 import fpt.tuanhm43.server.dtos.payment.response.PaymentResponse;
 import fpt.tuanhm43.server.dtos.payment.response.PaymentStatusResponse;
@@ -11,19 +14,24 @@ import fpt.tuanhm43.server.exceptions.BadRequestException;
 import fpt.tuanhm43.server.exceptions.ResourceNotFoundException;
 import fpt.tuanhm43.server.repositories.OrderRepository;
 import fpt.tuanhm43.server.repositories.PaymentTransactionRepository;
+import fpt.tuanhm43.server.repositories.PaymentWebhookEventRepository;
 import fpt.tuanhm43.server.services.InventoryService;
 import fpt.tuanhm43.server.services.MailService;
 import fpt.tuanhm43.server.services.PaymentService;
+import fpt.tuanhm43.server.utils.UuidUtils;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Service
@@ -31,19 +39,26 @@ import java.util.UUID;
 @Slf4j
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final String PROVIDER_SEPAY = "SEPAY";
+
     private final OrderRepository orderRepository;
     private final PaymentTransactionRepository paymentTransactionRepository;
     private final InventoryService inventoryService;
     private final MailService mailService;
-
-    @Value("${app.payment.sepay.webhook-key:}")
-    private String sepayWebhookKey;
+    private final PaymentWebhookEventRepository webhookEventRepository;
+    private final PaymentWebhookProcessor webhookProcessor;
+    private final ObjectMapper objectMapper;
+    private final WebhookSignatureVerifier signatureVerifier;
+    private final PaymentStatusStreams statusStreams;
+    private final PaymentStatusCache statusCache;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.frontend.url:http://localhost:8080/payment-demo}")
     private String frontendUrl;
 
     @Override
     @Transactional
+    @Timed(value = "payment.initiate", histogram = true)
     public PaymentStatusResponse initiatePayment(UUID orderId, PaymentMethod method) {
         log.info("Initiating payment for order: {}, Method: {}", orderId, method);
 
@@ -67,6 +82,7 @@ public class PaymentServiceImpl implements PaymentService {
                 .build();
 
         paymentTransactionRepository.save(transaction);
+        statusStreams.publish(transactionId, orderId, PaymentStatus.PENDING);
 
         // Based on payment method, prepare response
         if (method == PaymentMethod.COD) {
@@ -91,6 +107,10 @@ public class PaymentServiceImpl implements PaymentService {
         throw new BadRequestException("Unsupported payment method: " + method);
     }
 
+    /**
+     * Verify and record the webhook, then acknowledge; {@link PaymentWebhookProcessor} applies it
+     * after commit. A provider retry of a recorded webhook is acknowledged without a second record.
+     */
     @Override
     @Transactional
     public void handleSepayWebhook(SepayWebhookRequest request) {
@@ -103,113 +123,76 @@ public class PaymentServiceImpl implements PaymentService {
             String dataJson = request.getStatus();
             if (!verifyWebhookSignature(request.getSignature(), dataJson)) {
                 log.warn("Invalid webhook signature for transaction: {}", request.getTransactionId());
+                webhookReceived("rejected");
                 throw new BadRequestException("Invalid webhook signature");
             }
         }
 
-        // Find payment transaction
-        PaymentTransaction transaction = paymentTransactionRepository
-                .findByTransactionId(request.getTransactionId())
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "PaymentTransaction", "transactionId", request.getTransactionId()));
-
-        // Check idempotency - if already processed, skip
-        if (transaction.getStatus() == PaymentStatus.PAID
-                || transaction.getStatus() == PaymentStatus.FAILED) {
-            log.debug("Webhook already finalized for transaction: {}", request.getTransactionId());
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Unreadable webhook payload");
+        }
+        UUID eventId = UuidUtils.randomV7();
+        int recorded = webhookEventRepository.insertIfAbsent(eventId, PROVIDER_SEPAY,
+                request.getTransactionId(), payload, LocalDateTime.now());
+        if (recorded == 0) {
+            log.debug("Duplicate webhook acknowledged for transaction: {}", request.getTransactionId());
+            webhookReceived("duplicate");
             return;
         }
-
-
-        Order order = transaction.getOrder();
-
-        // Handle based on status
-        if ("SUCCESS".equalsIgnoreCase(request.getStatus())) {
-            // Payment successful
-            log.info("Payment successful for transaction: {}", request.getTransactionId());
-
-            transaction.setStatus(PaymentStatus.PAID);
-
-            // Extract reference code from data if available
-            if (request.getData() != null && request.getData().containsKey("referenceCode")) {
-                transaction.setProviderReference((String) request.getData().get("referenceCode"));
-            }
-
-            paymentTransactionRepository.save(transaction);
-
-            order.markAsPaid();
-            orderRepository.save(order);
-
-            // Deduct reserved inventory
-            try {
-                inventoryService.deductReservedStock(order.getId());
-                log.info("Inventory deducted for order: {}", order.getId());
-            } catch (Exception e) {
-                log.error("Failed to deduct inventory for order: {}", order.getId(), e);
-            }
-
-            // Send payment confirmation email
-            try {
-                mailService.sendPaymentConfirmation(order);
-            } catch (Exception e) {
-                log.warn("Failed to send payment confirmation email for order: {}", order.getId(), e);
-            }
-        } else {
-            // Payment failed
-            log.warn("Payment failed for transaction: {} - Status: {}",
-                    request.getTransactionId(), request.getStatus());
-
-            transaction.setStatus(PaymentStatus.FAILED);
-
-            // Extract failure reason from data if available
-            if (request.getData() != null && request.getData().containsKey("message")) {
-                transaction.setFailureReason((String) request.getData().get("message"));
-            }
-
-            paymentTransactionRepository.save(transaction);
-
-            // Release inventory reservation
-            try {
-                inventoryService.releaseReservationByOrder(order.getId());
-                log.info("Inventory released for failed payment order: {}", order.getId());
-            } catch (Exception e) {
-                log.warn("Failed to release inventory for order: {}", order.getId(), e);
+        webhookReceived("recorded");
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    webhookProcessor.process(eventId);
+                } catch (TaskRejectedException e) {
+                    log.warn("Payment executor saturated, webhook {} left for the retry sweep", eventId);
+                }
             }
-        }
+        });
     }
 
+    /**
+     * Served from {@link PaymentStatusCache}; not transactional, so a cache hit does not take a connection
+     */
     @Override
-    @Transactional(readOnly = true)
     public PaymentStatusResponse getPaymentStatus(String transactionId) {
-        log.info("Getting payment status for transaction: {}", transactionId);
+        log.debug("Getting payment status for transaction: {}", transactionId);
 
-        PaymentTransaction transaction = paymentTransactionRepository
-                .findByTransactionId(transactionId)
+        PaymentStatus status = statusCache
+                .status(transactionId, paymentTransactionRepository::findStatusByTransactionId)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "PaymentTransaction", "transactionId", transactionId));
 
-        return PaymentStatusResponse.builder()
-                .transactionId(transactionId)
-                .status(transaction.getStatus())
-                .message(getStatusMessage(transaction.getStatus()))
-                .build();
+        return PaymentStatusResponse.of(transactionId, status);
+    }
+
+    @Override
+    public SseEmitter streamPaymentStatus(String transactionId) {
+        return statusStreams.subscribe(transactionId, () -> getPaymentStatus(transactionId));
     }
 
+    /**
+     * Served from {@link PaymentStatusCache}, like {@link #getPaymentStatus}
+     */
     @Override
-    @Transactional(readOnly = true)
     public PaymentResponse getPaymentByOrder(UUID orderId) {
-        log.info("Getting payment for order: {}", orderId);
+        log.debug("Getting payment for order: {}", orderId);
 
-        PaymentTransaction transaction = paymentTransactionRepository
-                .findLatestByOrderId(orderId)
+        return statusCache
+                .latestByOrder(orderId, id -> paymentTransactionRepository.findLatestByOrderId(id)
+                        .map(this::mapToPaymentResponse))
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "PaymentTransaction", "orderId", orderId));
-
-        return mapToPaymentResponse(transaction);
     }
 
     @Override
     @Transactional
+    @Timed("payment.cod")
     public void processCODPayment(UUID orderId) {
         log.info("Processing COD payment for order: {}", orderId);
 
@@ -241,6 +224,7 @@ public class PaymentServiceImpl implements PaymentService {
 
         order.markAsPaid();
         orderRepository.save(order);
+        statusStreams.publish(transaction.getTransactionId(), orderId, PaymentStatus.PAID);
 
         // Deduct reserved inventory
         try {
@@ -262,24 +246,11 @@ public class PaymentServiceImpl implements PaymentService {
 
     @Override
     public boolean verifyWebhookSignature(String signature, String data) {
-        try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(
-                    sepayWebhookKey.getBytes(StandardCharsets.UTF_8),
-                    0,
-                    sepayWebhookKey.getBytes(StandardCharsets.UTF_8).length,
-                    "HmacSHA256"
-            );
-            mac.init(secretKeySpec);
-
-            byte[] hash = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
-            String computedSignature = Base64.getEncoder().encodeToString(hash);
-
-            return computedSignature.equals(signature);
-        } catch (Exception e) {
-            log.error("Error verifying webhook signature: {}", e.getMessage(), e);
-            return false;
-        }
+        return signatureVerifier.verify(signature, data);
+    }
+
+    private void webhookReceived(String outcome) {
+        meterRegistry.counter("payment.webhook.received", "outcome", outcome).increment();
     }
 
     /**
@@ -297,19 +268,6 @@ public class PaymentServiceImpl implements PaymentService {
                 frontendUrl, transactionId, order.getId(), order.getTotalAmount());
     }
 
-    /**
-     * Get status message
-     */
-    private String getStatusMessage(PaymentStatus status) {
-        return switch (status) {
-            case PENDING -> "Payment pending";
-            case PROCESSING -> "Payment processing";
-            case PAID -> "Payment completed successfully";
-            case FAILED -> "Payment failed";
-            case REFUNDED -> "Payment refunded";
-        };
-    }
-
     /**
      * Map PaymentTransaction entity to PaymentResponse DTO
      */
@@ -0,0 +1,195 @@
+package fpt.tuanhm43.server.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.caches.PaymentStatusCache;
+import fpt.tuanhm43.server.dtos.payment.PaymentStatusChange;
+import fpt.tuanhm43.server.dtos.payment.response.PaymentStatusResponse;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Live payment status for open checkout pages, as Server-Sent Events. Status changes are published on
+ * {@link #CHANNEL} after commit and every node, the publisher included, applies them to its
+ * {@link PaymentStatusCache} and pushes them to the streams it holds for that transaction, so a page is
+ * told whichever node it is connected to. A stream ends after a final status or {@code timeout-ms}
+ * (the browser's EventSource then reconnects).
+ * <p>
+ * An idle stream costs no thread: the request thread is released once the emitter is returned
+ * (servlet async) and Tomcat's NIO connector parks the socket until something is written.
+ */
+@Component
+@Slf4j
+public class PaymentStatusStreams {
+
+    public static final String CHANNEL = "payment-status";
+
+    private static final String EVENT_STATUS = "status";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final PaymentStatusCache statusCache;
+    private final long timeoutMs;
+    private final Map<String, Set<SseEmitter>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+
+    public PaymentStatusStreams(StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer,
+                                ObjectMapper objectMapper,
+                                PaymentStatusCache statusCache,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.payment.status-stream.timeout-ms:300000}") long timeoutMs) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.statusCache = statusCache;
+        this.timeoutMs = timeoutMs;
+        Gauge.builder("payment.status.streams", open, AtomicInteger::get)
+                .description("Open payment status streams on this node")
+                .register(meterRegistry);
+
+        listenerContainer.addMessageListener(
+                (message, pattern) -> onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Open a stream for {@code transactionId} and send {@code current} as its first event. The stream is
+     * registered before {@code current} is read, so a change committed in between is still pushed.
+     * Exceptions from {@code current} (e.g. unknown transaction) propagate and nothing stays registered.
+     */
+    public SseEmitter subscribe(String transactionId, Supplier<PaymentStatusResponse> current) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // Added under the map's per-key lock, so it cannot land in a set that remove() just dropped
+        streams.compute(transactionId, (id, listeners) -> {
+            Set<SseEmitter> set = listeners != null ? listeners : ConcurrentHashMap.newKeySet();
+            set.add(emitter);
+            return set;
+        });
+        open.incrementAndGet();
+        Runnable unregister = () -> remove(transactionId, emitter);
+        emitter.onCompletion(unregister);
+        emitter.onTimeout(unregister);
+        emitter.onError(e -> unregister.run());
+
+        PaymentStatusResponse status;
+        try {
+            status = current.get();
+        } catch (RuntimeException e) {
+            unregister.run();
+            throw e;
+        }
+        deliver(transactionId, emitter, status);
+        return emitter;
+    }
+
+    /**
+     * Announce a new or changed transaction status once the surrounding transaction commits, straight away
+     * outside a transaction. This node's cache is updated before the broadcast, so a read here never
+     * sees the old status after the change commits.
+     */
+    public void publish(String transactionId, UUID orderId, PaymentStatus status) {
+        PaymentStatusChange change = new PaymentStatusChange(transactionId, orderId, status);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committed(change);
+            }
+        });
+    }
+
+    /**
+     * Status change published by any node
+     */
+    public void onMessage(String payload) {
+        PaymentStatusChange change;
+        try {
+            change = objectMapper.readValue(payload, PaymentStatusChange.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed payment status message");
+            return;
+        }
+        statusCache.apply(change);
+        dispatch(change);
+    }
+
+    /**
+     * Comment line on every open stream, so proxies do not drop idle connections; also detects
+     * clients that went away without closing
+     */
+    @Scheduled(fixedDelayString = "${app.payment.status-stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        streams.forEach((transactionId, listeners) -> listeners.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                remove(transactionId, emitter);
+            }
+        }));
+    }
+
+    private void committed(PaymentStatusChange change) {
+        statusCache.apply(change);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(change));
+        } catch (Exception e) {
+            log.warn("Failed to publish payment status of {}, notifying this node only: {}",
+                    change.transactionId(), e.getMessage());
+            dispatch(change);
+        }
+    }
+
+    private void dispatch(PaymentStatusChange change) {
+        Set<SseEmitter> listeners = streams.get(change.transactionId());
+        if (listeners != null) {
+            PaymentStatusResponse event = PaymentStatusResponse.of(change.transactionId(), change.status());
+            listeners.forEach(emitter -> deliver(change.transactionId(), emitter, event));
+        }
+    }
+
+    private void deliver(String transactionId, SseEmitter emitter, PaymentStatusResponse status) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_STATUS).data(status));
+            if (status.getStatus().isFinal()) {
+                // Unregister now rather than on the completion callback, which waits for the async dispatch
+                remove(transactionId, emitter);
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client gone, or the stream already ended
+            remove(transactionId, emitter);
+        }
+    }
+
+    private void remove(String transactionId, SseEmitter emitter) {
+        streams.computeIfPresent(transactionId, (id, listeners) -> {
+            if (listeners.remove(emitter)) {
+                open.decrementAndGet();
+            }
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+}
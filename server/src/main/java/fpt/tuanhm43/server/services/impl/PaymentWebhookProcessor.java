@@ -0,0 +1,143 @@
+package fpt.tuanhm43.server.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.constants.AppConstants;
+import fpt.tuanhm43.server.dtos.payment.request.SepayWebhookRequest;
+import fpt.tuanhm43.server.entities.Order;
+import fpt.tuanhm43.server.entities.PaymentTransaction;
+import fpt.tuanhm43.server.entities.PaymentWebhookEvent;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import fpt.tuanhm43.server.enums.WebhookEventStatus;
+import fpt.tuanhm43.server.repositories.OrderRepository;
+import fpt.tuanhm43.server.repositories.PaymentTransactionRepository;
+import fpt.tuanhm43.server.repositories.PaymentWebhookEventRepository;
+import fpt.tuanhm43.server.services.InventoryService;
+import fpt.tuanhm43.server.services.MailService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Applies recorded webhooks to payments, orders and inventory. Exactly once per event: the event is
+ * claimed with a conditional update, so a second worker (a retry sweep racing the first attempt) blocks
+ * on the row and then finds nothing to claim. Exactly once per payment: the transaction only moves
+ * out of PENDING/PROCESSING through {@link PaymentTransactionRepository#transitionStatus}, so a
+ * finalized payment is never settled, deducted or mailed twice. A failure rolls everything back,
+ * claim included, and the event is retried by {@code PaymentWebhookRetryScheduler}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentWebhookProcessor {
+
+    private static final List<PaymentStatus> OPEN_STATUSES = List.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING);
+
+    private final PaymentWebhookEventRepository webhookEventRepository;
+    private final PaymentTransactionRepository paymentTransactionRepository;
+    private final OrderRepository orderRepository;
+    private final InventoryService inventoryService;
+    private final MailService mailService;
+    private final ObjectMapper objectMapper;
+    private final PaymentStatusStreams statusStreams;
+    private final MeterRegistry meterRegistry;
+
+    @Async(AppConstants.EXECUTOR_PAYMENT)
+    @Transactional
+    @Timed(value = "payment.webhook.processing", histogram = true)
+    public void process(UUID eventId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (webhookEventRepository.transition(eventId, WebhookEventStatus.RECEIVED, WebhookEventStatus.PROCESSED, null, now) == 0) {
+            log.debug("Webhook event {} already processed", eventId);
+            outcome("already_processed");
+            return;
+        }
+        Optional<PaymentWebhookEvent> event = webhookEventRepository.findById(eventId);
+        if (event.isEmpty()) {
+            return;
+        }
+        SepayWebhookRequest request;
+        try {
+            request = objectMapper.readValue(event.get().getPayload(), SepayWebhookRequest.class);
+        } catch (JsonProcessingException e) {
+            finish(eventId, WebhookEventStatus.FAILED, "Unreadable payload: " + e.getOriginalMessage());
+            return;
+        }
+        apply(eventId, request);
+    }
+
+    private void apply(UUID eventId, SepayWebhookRequest request) {
+        String transactionId = request.getTransactionId();
+        boolean success = "SUCCESS".equalsIgnoreCase(request.getStatus());
+        Map<String, Object> data = request.getData() != null ? request.getData() : Map.of();
+
+        int settled = paymentTransactionRepository.transitionStatus(transactionId, OPEN_STATUSES,
+                success ? PaymentStatus.PAID : PaymentStatus.FAILED,
+                (String) data.get("referenceCode"),
+                success ? null : (String) data.get("message"),
+                LocalDateTime.now());
+        Optional<PaymentTransaction> transaction = paymentTransactionRepository.findByTransactionId(transactionId);
+        if (transaction.isEmpty()) {
+            log.warn("Webhook for unknown transaction: {}", transactionId);
+            finish(eventId, WebhookEventStatus.FAILED, "Unknown transaction " + transactionId);
+            return;
+        }
+        if (settled == 0) {
+            log.debug("Webhook for already finalized transaction: {} ({})", transactionId, transaction.get().getStatus());
+            finish(eventId, WebhookEventStatus.IGNORED, "Transaction already " + transaction.get().getStatus());
+            return;
+        }
+
+        Order order = transaction.get().getOrder();
+        statusStreams.publish(transactionId, order.getId(), success ? PaymentStatus.PAID : PaymentStatus.FAILED);
+        outcome(success ? "paid" : "payment_failed");
+        if (success) {
+            log.info("Payment successful for transaction: {}", transactionId);
+            order.markAsPaid();
+            orderRepository.save(order);
+
+            try {
+                inventoryService.deductReservedStock(order.getId());
+                log.info("Inventory deducted for order: {}", order.getId());
+            } catch (Exception e) {
+                log.error("Failed to deduct inventory for order: {}", order.getId(), e);
+            }
+
+            try {
+                mailService.sendPaymentConfirmation(order);
+            } catch (Exception e) {
+                log.warn("Failed to send payment confirmation email for order: {}", order.getId(), e);
+            }
+        } else {
+            log.warn("Payment failed for transaction: {} - Status: {}", transactionId, request.getStatus());
+            try {
+                inventoryService.releaseReservationByOrder(order.getId());
+                log.info("Inventory released for failed payment order: {}", order.getId());
+            } catch (Exception e) {
+                log.warn("Failed to release inventory for order: {}", order.getId(), e);
+            }
+        }
+    }
+
+    private void finish(UUID eventId, WebhookEventStatus outcome, String reason) {
+        webhookEventRepository.transition(eventId, WebhookEventStatus.PROCESSED, outcome, reason, LocalDateTime.now());
+        outcome(outcome.name().toLowerCase());
+    }
+
+    /**
+     * Count what a webhook did to its payment; an attempt that rolls back is counted but retried later
+     */
+    private void outcome(String outcome) {
+        meterRegistry.counter("payment.webhook.events", "outcome", outcome).increment();
+    }
+}
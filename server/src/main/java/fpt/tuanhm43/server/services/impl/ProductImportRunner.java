@@ -0,0 +1,232 @@
+package fpt.tuanhm43.server.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.dtos.product.request.ProductImportRow;
+import fpt.tuanhm43.server.dtos.product.response.ProductImportResponse;
+import fpt.tuanhm43.server.dtos.product.response.ProductImportResponse.RowError;
+import fpt.tuanhm43.server.enums.ImportStatus;
+import fpt.tuanhm43.server.services.ProductSearchService;
+import fpt.tuanhm43.server.utils.CsvUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Streams an import file row by row, validates each row, and hands fixed-size chunks to
+ * {@link ProductImportWriter}. One bulk search reindex runs after the last chunk.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportRunner {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ProductImportWriter importWriter;
+    private final ProductSearchService productSearchService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    /**
+     * Run the import in the background; the uploaded temp file is deleted when done
+     */
+    @Async
+    public void run(ProductImportResponse job, Path file, Format format, Consumer<ProductImportResponse> progress) {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            importStream(job, reader, format, progress);
+        } catch (IOException e) {
+            log.error("Import {} failed to read file", job.getJobId(), e);
+            progress.accept(job.toBuilder()
+                    .status(ImportStatus.FAILED)
+                    .message("Could not read import file: " + e.getMessage())
+                    .finishedAt(LocalDateTime.now())
+                    .build());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import temp file {}", file);
+            }
+        }
+    }
+
+    /**
+     * Process the whole stream synchronously and return the final job state
+     */
+    public ProductImportResponse importStream(ProductImportResponse job, Reader source, Format format,
+                                              Consumer<ProductImportResponse> progress) {
+        Progress state = new Progress(job);
+        progress.accept(state.snapshot(ImportStatus.RUNNING, null));
+
+        try (BufferedReader reader = new BufferedReader(source)) {
+            List<String> header = null;
+            List<ProductImportRow> chunk = new ArrayList<>(chunkSize);
+            Set<String> seenSkus = new HashSet<>();
+            String line;
+            long lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && header == null) {
+                    header = CsvUtils.parseLine(line.replace("\uFEFF", ""));
+                    continue;
+                }
+
+                state.processedRows++;
+                ProductImportRow row = parseRow(line, lineNumber, header, format, state);
+                if (row == null) {
+                    continue;
+                }
+                if (!seenSkus.add(row.getSku())) {
+                    state.addError(new RowError(lineNumber, row.getSku(), "Duplicate SKU in file"));
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    flush(chunk, state);
+                    progress.accept(state.snapshot(ImportStatus.RUNNING, null));
+                }
+            }
+            flush(chunk, state);
+        } catch (IOException e) {
+            log.error("Import {} aborted while reading", job.getJobId(), e);
+            ProductImportResponse failed = state.snapshot(ImportStatus.FAILED, "Import aborted: " + e.getMessage());
+            progress.accept(failed);
+            reindex(state.productIds);
+            return failed;
+        }
+
+        reindex(state.productIds);
+        ProductImportResponse done = state.snapshot(ImportStatus.COMPLETED, null);
+        progress.accept(done);
+        log.info("Import {} finished: {} rows, {} products, {} variants, {} failed",
+                job.getJobId(), done.getProcessedRows(), done.getImportedProducts(),
+                done.getImportedVariants(), done.getFailedRows());
+        return done;
+    }
+
+    private ProductImportRow parseRow(String line, long lineNumber, List<String> header, Format format, Progress state) {
+        ProductImportRow row;
+        try {
+            if (format == Format.CSV) {
+                List<String> values = CsvUtils.parseLine(line);
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < header.size() && i < values.size(); i++) {
+                    fields.put(header.get(i), values.get(i));
+                }
+                row = objectMapper.convertValue(fields, ProductImportRow.class);
+            } else {
+                row = objectMapper.readValue(line, ProductImportRow.class);
+            }
+        } catch (Exception e) {
+            state.addError(new RowError(lineNumber, null, "Malformed row: " + e.getMessage()));
+            return null;
+        }
+        row.setRowNumber(lineNumber);
+
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            state.addError(new RowError(lineNumber, row.getSku(), message));
+            return null;
+        }
+        return row;
+    }
+
+    private void flush(List<ProductImportRow> chunk, Progress state) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            ProductImportWriter.ChunkResult result = importWriter.writeChunk(chunk);
+            state.productIds.addAll(result.productIds());
+            state.importedProducts += result.importedProducts();
+            state.importedVariants += result.importedVariants();
+            result.errors().forEach(state::addError);
+        } catch (Exception e) {
+            log.warn("Import chunk of {} rows rolled back: {}", chunk.size(), e.getMessage());
+            chunk.forEach(row -> state.addError(new RowError(row.getRowNumber(), row.getSku(),
+                    "Chunk rolled back: " + e.getMessage())));
+        }
+        chunk.clear();
+    }
+
+    private void reindex(Set<UUID> productIds) {
+        if (!productIds.isEmpty()) {
+            productSearchService.syncAllToElasticsearch(productIds);
+        }
+    }
+
+    /**
+     * Mutable counters owned by the import thread; readers only see snapshots
+     */
+    private static class Progress {
+        private final ProductImportResponse job;
+        private final Set<UUID> productIds = new HashSet<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private long processedRows;
+        private long failedRows;
+        private long importedProducts;
+        private long importedVariants;
+
+        Progress(ProductImportResponse job) {
+            this.job = job;
+        }
+
+        void addError(RowError error) {
+            failedRows++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        ProductImportResponse snapshot(ImportStatus status, String message) {
+            return job.toBuilder()
+                    .status(status)
+                    .processedRows(processedRows)
+                    .failedRows(failedRows)
+                    .importedProducts(importedProducts)
+                    .importedVariants(importedVariants)
+                    .errors(List.copyOf(errors))
+                    .errorsTruncated(failedRows > errors.size())
+                    .message(message)
+                    .finishedAt(status.isFinished() ? LocalDateTime.now() : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package fpt.tuanhm43.server.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fpt.tuanhm43.server.dtos.product.response.ProductImportResponse;
+import fpt.tuanhm43.server.enums.ImportStatus;
+import fpt.tuanhm43.server.exceptions.BadRequestException;
+import fpt.tuanhm43.server.exceptions.ResourceNotFoundException;
+import fpt.tuanhm43.server.services.ProductImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private final ProductImportRunner importRunner;
+
+    /**
+     * Recent job snapshots, kept for status polling
+     */
+    private final Cache<UUID, ProductImportResponse> jobs = Caffeine.newBuilder()
+            .maximumSize(200)
+            .expireAfterWrite(Duration.ofHours(24))
+            .build();
+
+    @Override
+    public ProductImportResponse submit(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("Import file is empty");
+        }
+        ProductImportRunner.Format format = detectFormat(file);
+
+        Path tempFile;
+        try {
+            // The multipart upload is cleaned up when the request ends, the job outlives it
+            tempFile = Files.createTempFile("product-import-", "." + format.name().toLowerCase(Locale.ROOT));
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store import file", e);
+        }
+
+        ProductImportResponse job = ProductImportResponse.builder()
+                .jobId(UUID.randomUUID())
+                .fileName(file.getOriginalFilename())
+                .status(ImportStatus.PENDING)
+                .startedAt(LocalDateTime.now())
+                .build();
+        jobs.put(job.getJobId(), job);
+        log.info("Product import {} accepted: {} ({} bytes, {})", job.getJobId(), job.getFileName(), file.getSize(), format);
+
+        importRunner.run(job, tempFile, format, snapshot -> jobs.put(snapshot.getJobId(), snapshot));
+        return job;
+    }
+
+    @Override
+    public ProductImportResponse getStatus(UUID jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId))
+                .orElseThrow(() -> new ResourceNotFoundException("Import job", "id", jobId));
+    }
+
+    private ProductImportRunner.Format detectFormat(MultipartFile file) {
+        String name = Optional.ofNullable(file.getOriginalFilename()).orElse("").toLowerCase(Locale.ROOT);
+        String contentType = Optional.ofNullable(file.getContentType()).orElse("");
+
+        if (name.endsWith(".csv") || contentType.startsWith("text/csv")) {
+            return ProductImportRunner.Format.CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || contentType.startsWith("application/x-ndjson")) {
+            return ProductImportRunner.Format.NDJSON;
+        }
+        throw new BadRequestException("Unsupported import format, expected .csv or .ndjson");
+    }
+}
@@ -0,0 +1,157 @@
+package fpt.tuanhm43.server.services.impl;
+
+import fpt.tuanhm43.server.caches.ProductDetailCache;
+import fpt.tuanhm43.server.caches.SlugIdCache;
+import fpt.tuanhm43.server.dtos.product.request.ProductImportRow;
+import fpt.tuanhm43.server.dtos.product.response.ProductImportResponse.RowError;
+import fpt.tuanhm43.server.entities.Category;
+import fpt.tuanhm43.server.entities.Inventory;
+import fpt.tuanhm43.server.entities.Product;
+import fpt.tuanhm43.server.entities.ProductVariant;
+import fpt.tuanhm43.server.repositories.CategoryRepository;
+import fpt.tuanhm43.server.repositories.ProductRepository;
+import fpt.tuanhm43.server.repositories.ProductVariantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes one bulk-import chunk in its own transaction.
+ * Lookups are set-based (one query per chunk for SKUs, products and categories);
+ * inserts rely on Hibernate JDBC batching (hibernate.jdbc.batch_size / order_inserts).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportWriter {
+
+    private final ProductRepository productRepository;
+    private final ProductVariantRepository variantRepository;
+    private final CategoryRepository categoryRepository;
+    private final SlugIdCache slugIdCache;
+    private final ProductDetailCache productDetailCache;
+
+    public record ChunkResult(Set<UUID> productIds, int importedProducts, int importedVariants, List<RowError> errors) {
+    }
+
+    @Transactional
+    public ChunkResult writeChunk(List<ProductImportRow> rows) {
+        List<RowError> errors = new ArrayList<>();
+
+        Set<String> existingSkus = variantRepository.findExistingSkus(
+                rows.stream().map(ProductImportRow::getSku).collect(Collectors.toSet()));
+
+        Map<String, Product> products = new HashMap<>(productRepository.findBySlugIn(
+                        rows.stream().map(ProductImportRow::getProductSlug).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Product::getSlug, Function.identity())));
+        Set<String> existingSlugs = new HashSet<>(products.keySet());
+
+        Set<String> categorySlugs = rows.stream()
+                .map(ProductImportRow::getCategorySlug)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Category> categories = categorySlugs.isEmpty() ? Map.of()
+                : categoryRepository.findBySlugInAndIsDeletedFalse(categorySlugs).stream()
+                        .collect(Collectors.toMap(Category::getSlug, Function.identity()));
+
+        List<Product> newProducts = new ArrayList<>();
+        List<ProductVariant> variantsOfExisting = new ArrayList<>();
+        Set<Product> touchedExisting = new HashSet<>();
+
+        for (ProductImportRow row : rows) {
+            if (existingSkus.contains(row.getSku())) {
+                errors.add(new RowError(row.getRowNumber(), row.getSku(), "SKU " + row.getSku() + " already exists"));
+                continue;
+            }
+
+            Product product = products.get(row.getProductSlug());
+            if (product == null) {
+                if (!StringUtils.hasText(row.getProductName()) || row.getBasePrice() == null) {
+                    errors.add(new RowError(row.getRowNumber(), row.getSku(),
+                            "Product name and base price are required for new product " + row.getProductSlug()));
+                    continue;
+                }
+                Category category = null;
+                if (row.getCategorySlug() != null) {
+                    category = categories.get(row.getCategorySlug());
+                    if (category == null) {
+                        errors.add(new RowError(row.getRowNumber(), row.getSku(),
+                                "Category " + row.getCategorySlug() + " not found"));
+                        continue;
+                    }
+                }
+                product = Product.builder()
+                        .name(row.getProductName())
+                        .slug(row.getProductSlug())
+                        .description(row.getDescription())
+                        .basePrice(row.getBasePrice())
+                        .category(category)
+                        .imageUrl(row.getProductImageUrl())
+                        .isActive(true)
+                        .build();
+                products.put(product.getSlug(), product);
+                newProducts.add(product);
+            }
+
+            ProductVariant variant = toVariant(row, product);
+            if (existingSlugs.contains(product.getSlug())) {
+                variantsOfExisting.add(variant);
+                touchedExisting.add(product);
+            } else {
+                product.getVariants().add(variant);
+            }
+        }
+
+        productRepository.saveAll(newProducts);
+        variantRepository.saveAll(variantsOfExisting);
+
+        Set<UUID> productIds = new HashSet<>();
+        newProducts.forEach(p -> {
+            productIds.add(p.getId());
+            slugIdCache.evictProduct(p.getSlug());
+        });
+        touchedExisting.forEach(p -> {
+            productIds.add(p.getId());
+            productDetailCache.evict(p.getId());
+        });
+
+        int importedVariants = variantsOfExisting.size()
+                + newProducts.stream().mapToInt(p -> p.getVariants().size()).sum();
+        return new ChunkResult(productIds, newProducts.size(), importedVariants, errors);
+    }
+
+    private ProductVariant toVariant(ProductImportRow row, Product product) {
+        ProductVariant variant = ProductVariant.builder()
+                .product(product)
+                .sku(row.getSku())
+                .size(row.getSize())
+                .color(row.getColor())
+                .material(row.getMaterial())
+                .priceAdjustment(row.getPriceAdjustment() != null ? row.getPriceAdjustment() : BigDecimal.ZERO)
+                .imageUrl(row.getImageUrl())
+                .isActive(true)
+                .build();
+
+        variant.setInventory(Inventory.builder()
+                .productVariant(variant)
+                .quantityAvailable(row.getQuantity() != null ? row.getQuantity() : 0)
+                .quantityReserved(0)
+                .build());
+        return variant;
+    }
+}
@@ -1,5 +1,6 @@
 package fpt.tuanhm43.server.services.impl;
 
+import fpt.tuanhm43.server.constants.AppConstants;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
 import co.elastic.clients.json.JsonData;
@@ -11,6 +12,9 @@ import fpt.tuanhm43.server.mappers.ProductSearchMapper;
 import fpt.tuanhm43.server.repositories.ProductRepository;
 import fpt.tuanhm43.server.repositories.ProductSearchRepository;
 import fpt.tuanhm43.server.services.ProductSearchService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -24,6 +28,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -32,6 +37,8 @@ import java.util.UUID;
 @Slf4j
 public class ProductSearchServiceImpl implements ProductSearchService {
 
+    private static final int REINDEX_BATCH_SIZE = 500;
+
     private final ElasticsearchOperations esOps;
     private final ProductSearchRepository searchRepository;
     private final ProductRepository productRepository;
@@ -39,8 +46,12 @@ public class ProductSearchServiceImpl implements ProductSearchService {
     // Inject Mapper
     private final ProductSearchMapper productSearchMapper;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "search.sync", extraTags = { "mode", "reindex" })
     public void reindexAll() {
         log.info("Starting Reindex All products to Elasticsearch...");
         searchRepository.deleteAll();
@@ -54,6 +65,7 @@ public class ProductSearchServiceImpl implements ProductSearchService {
     }
 
     @Override
+    @Timed(value = "search.query", histogram = true)
     public PageResponseDTO<ProductResponse> advancedSearch(AdvancedSearchRequest request) {
         int page = request.getPage() != null ? Math.max(request.getPage(), 0) : 0;
         int size = request.getSize() != null ? Math.max(request.getSize(), 1) : 20;
@@ -88,9 +100,10 @@ public class ProductSearchServiceImpl implements ProductSearchService {
                 .build();
     }
 
-    @Async
+    @Async(AppConstants.EXECUTOR_SEARCH_SYNC)
     @Override
     @Transactional(readOnly = true)
+    @Timed(value = "search.sync", extraTags = { "mode", "single" })
     public void syncToElasticsearch(UUID productId) {
         log.info("Async Thread starting sync for product: {}", productId);
 
@@ -108,6 +121,26 @@ public class ProductSearchServiceImpl implements ProductSearchService {
         );
     }
 
+    @Async(AppConstants.EXECUTOR_SEARCH_SYNC)
+    @Override
+    @Transactional(readOnly = true)
+    @Timed(value = "search.sync", extraTags = { "mode", "bulk" })
+    public void syncAllToElasticsearch(Collection<UUID> productIds) {
+        List<UUID> ids = List.copyOf(productIds);
+        log.info("Async Thread starting bulk sync for {} products", ids.size());
+
+        for (int from = 0; from < ids.size(); from += REINDEX_BATCH_SIZE) {
+            List<UUID> batch = ids.subList(from, Math.min(from + REINDEX_BATCH_SIZE, ids.size()));
+            List<ProductSearchDocument> documents = productRepository.findAllByIdInWithCategoryAndVariants(batch).stream()
+                    .map(productSearchMapper::toDocument)
+                    .toList();
+            searchRepository.saveAll(documents);
+            // Detach the indexed batch, otherwise every product and variant stays managed until the sync ends
+            entityManager.clear();
+        }
+        log.info("Successfully bulk synced {} products to ES", ids.size());
+    }
+
     private void applySearchFilters(AdvancedSearchRequest request, BoolQuery.Builder boolQuery) {
         if (StringUtils.hasText(request.getKeyword())) {
             List<String> fields = (request.getSearchableFields() != null && !request.getSearchableFields().isEmpty())
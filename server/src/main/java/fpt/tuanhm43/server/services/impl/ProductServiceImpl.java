@@ -1,5 +1,7 @@
 package fpt.tuanhm43.server.services.impl;
 
+import fpt.tuanhm43.server.caches.ProductDetailCache;
+import fpt.tuanhm43.server.caches.SlugIdCache;
 import fpt.tuanhm43.server.dtos.PageResponseDTO;
 import fpt.tuanhm43.server.dtos.product.request.CreateProductRequest;
 import fpt.tuanhm43.server.dtos.product.request.ProductFilterRequest;
@@ -21,6 +23,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
@@ -40,6 +43,8 @@ public class ProductServiceImpl implements ProductService {
     private final CategoryRepository categoryRepository;
     private final ProductSearchService productSearchService;
     private final ApplicationEventPublisher eventPublisher;
+    private final SlugIdCache slugIdCache;
+    private final ProductDetailCache productDetailCache;
 
     private final ProductMapper productMapper;
 
@@ -81,24 +86,30 @@ public class ProductServiceImpl implements ProductService {
                 .build());
     }
 
+    /**
+     * SUPPORTS: cache hits do not check out a connection; a miss still shares one session for the load
+     */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ProductDetailResponse getById(UUID id) {
         log.info("Getting product by id: {}", id);
-        return productRepository.findByIdWithVariants(id)
+        return productDetailCache.get(id, key -> productRepository.findByIdWithCategoryAndVariants(key)
                 .filter(p -> Boolean.TRUE.equals(p.getIsActive()))
                 .map(productMapper::toDetailResponse)
-                .orElseThrow(() -> new ResourceNotFoundException(PRODUCT, "id", id));
+                .orElseThrow(() -> new ResourceNotFoundException(PRODUCT, "id", key)));
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ProductDetailResponse getBySlug(String slug) {
         log.info("Getting product by slug: {}", slug);
-        return productRepository.findBySlug(slug)
+        UUID id = slugIdCache.resolveProduct(slug, productRepository::findIdBySlug)
+                .orElseThrow(() -> new ResourceNotFoundException(PRODUCT, "slug", slug));
+
+        return productDetailCache.get(id, key -> productRepository.findByIdWithCategoryAndVariants(key)
                 .filter(p -> Boolean.TRUE.equals(p.getIsActive()))
                 .map(productMapper::toDetailResponse)
-                .orElseThrow(() -> new ResourceNotFoundException(PRODUCT, "slug", slug));
+                .orElseThrow(() -> new ResourceNotFoundException(PRODUCT, "slug", slug)));
     }
 
     @Override
@@ -118,6 +129,9 @@ public class ProductServiceImpl implements ProductService {
 
         Product savedProduct = productRepository.save(product);
 
+        // Drop any cached 404 for this slug
+        slugIdCache.evictProduct(savedProduct.getSlug());
+
         // Sync to Elasticsearch async
         eventPublisher.publishEvent(new ProductSavedEvent(savedProduct.getId()));
 
@@ -150,6 +164,7 @@ public class ProductServiceImpl implements ProductService {
 
         product.setIsActive(false);
         productRepository.save(product);
+        slugIdCache.evictProduct(product.getSlug());
 
         eventPublisher.publishEvent(new ProductDeletedEvent(id));
     }
@@ -1,5 +1,6 @@
 package fpt.tuanhm43.server.services.impl;
 
+import fpt.tuanhm43.server.caches.ProductDetailCache;
 import fpt.tuanhm43.server.dtos.product.request.CreateProductVariantRequest;
 import fpt.tuanhm43.server.dtos.product.response.ProductVariantResponse;
 import fpt.tuanhm43.server.entities.Inventory;
@@ -29,6 +30,7 @@ public class ProductVariantServiceImpl implements ProductVariantService {
     private final ProductVariantRepository variantRepository;
     private final ProductRepository productRepository;
     private final ProductSearchService productSearchService;
+    private final ProductDetailCache productDetailCache;
 
     private final ProductVariantMapper variantMapper;
 
@@ -65,6 +67,7 @@ public class ProductVariantServiceImpl implements ProductVariantService {
         ProductVariant savedVariant = variantRepository.save(variant);
 
         productSearchService.syncToElasticsearch(productId);
+        productDetailCache.evict(productId);
 
         return variantMapper.toResponse(savedVariant);
     }
@@ -0,0 +1,195 @@
+package fpt.tuanhm43.server.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.dtos.payment.request.StatementRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.util.CloseableIterator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * External merge sort of a provider statement by transaction id, in memory bounded by {@code chunkSize}:
+ * records are sorted a chunk at a time, each chunk is spilled to a temporary NDJSON run, and the runs
+ * are merged at most {@link #MERGE_FAN_IN} at a time. A statement that fits in one chunk never touches disk.
+ */
+@Slf4j
+final class StatementSorter {
+
+    private static final int MERGE_FAN_IN = 64;
+    private static final Comparator<StatementRecord> BY_TRANSACTION_ID =
+            Comparator.comparing(StatementRecord::getTransactionId);
+
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    StatementSorter(ObjectMapper objectMapper, int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Records in transaction id order; closing the iterator deletes the temporary runs
+     */
+    CloseableIterator<StatementRecord> sort(Iterator<StatementRecord> records) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        List<StatementRecord> chunk = new ArrayList<>();
+        try {
+            while (records.hasNext()) {
+                chunk.add(records.next());
+                if (chunk.size() >= chunkSize) {
+                    runs.add(spill(chunk));
+                    chunk.clear();
+                }
+            }
+            if (runs.isEmpty()) {
+                chunk.sort(BY_TRANSACTION_ID);
+                Iterator<StatementRecord> sorted = chunk.iterator();
+                return new CloseableIterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return sorted.hasNext();
+                    }
+
+                    @Override
+                    public StatementRecord next() {
+                        return sorted.next();
+                    }
+
+                    @Override
+                    public void close() {
+                        // Nothing spilled
+                    }
+                };
+            }
+            if (!chunk.isEmpty()) {
+                runs.add(spill(chunk));
+                chunk.clear();
+            }
+            while (runs.size() > MERGE_FAN_IN) {
+                List<Path> group = new ArrayList<>(runs.subList(0, MERGE_FAN_IN));
+                runs.subList(0, MERGE_FAN_IN).clear();
+                runs.add(mergeToRun(group));
+            }
+            return new MergedRuns(runs);
+        } catch (IOException | RuntimeException e) {
+            runs.forEach(StatementSorter::delete);
+            throw e;
+        }
+    }
+
+    private Path spill(List<StatementRecord> chunk) throws IOException {
+        chunk.sort(BY_TRANSACTION_ID);
+        Path run = Files.createTempFile("statement-run-", ".ndjson");
+        try (BufferedWriter writer = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+            for (StatementRecord record : chunk) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            delete(run);
+            throw e;
+        }
+        return run;
+    }
+
+    private Path mergeToRun(List<Path> group) throws IOException {
+        Path run = Files.createTempFile("statement-run-", ".ndjson");
+        try (MergedRuns merged = new MergedRuns(group);
+             BufferedWriter writer = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+            while (merged.hasNext()) {
+                writer.write(objectMapper.writeValueAsString(merged.next()));
+                writer.newLine();
+            }
+        } catch (IOException | RuntimeException e) {
+            delete(run);
+            throw e;
+        }
+        return run;
+    }
+
+    private static void delete(Path run) {
+        try {
+            Files.deleteIfExists(run);
+        } catch (IOException e) {
+            log.warn("Could not delete statement sort run {}", run);
+        }
+    }
+
+    private record Head(StatementRecord record, BufferedReader reader) {
+    }
+
+    /**
+     * K-way merge of sorted runs, holding one record per run; closing deletes the runs
+     */
+    private final class MergedRuns implements CloseableIterator<StatementRecord> {
+
+        private final List<Path> runs;
+        private final List<BufferedReader> readers = new ArrayList<>();
+        private final PriorityQueue<Head> heads = new PriorityQueue<>(
+                Comparator.comparing(Head::record, BY_TRANSACTION_ID));
+
+        private MergedRuns(List<Path> runs) throws IOException {
+            this.runs = runs;
+            try {
+                for (Path run : runs) {
+                    BufferedReader reader = Files.newBufferedReader(run, StandardCharsets.UTF_8);
+                    readers.add(reader);
+                    advance(reader);
+                }
+            } catch (IOException | UncheckedIOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private void advance(BufferedReader reader) throws IOException {
+            String line = reader.readLine();
+            if (line != null) {
+                heads.add(new Head(objectMapper.readValue(line, StatementRecord.class), reader));
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public StatementRecord next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            try {
+                advance(head.reader());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return head.record();
+        }
+
+        @Override
+        public void close() {
+            for (BufferedReader reader : readers) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    log.debug("Could not close statement sort run", e);
+                }
+            }
+            runs.forEach(StatementSorter::delete);
+        }
+    }
+}
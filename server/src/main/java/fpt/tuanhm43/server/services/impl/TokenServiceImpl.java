@@ -1,15 +1,16 @@
 package fpt.tuanhm43.server.services.impl;
 
+import fpt.tuanhm43.server.caches.TokenBlacklist;
+import fpt.tuanhm43.server.caches.VerifiedTokenCache;
 import fpt.tuanhm43.server.services.TokenService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -21,6 +22,8 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,11 +42,22 @@ public class TokenServiceImpl implements TokenService {
     private long refreshExpiration;
 
     private static final String AUTHORITIES_KEY = "auth";
-    private final StringRedisTemplate redisTemplate;
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private final TokenBlacklist tokenBlacklist;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    /** One shared list per distinct "auth" claim, a handful of role combinations in practice */
+    private final Map<String, List<SimpleGrantedAuthority>> authorityLists = new ConcurrentHashMap<>();
+
+    /** Decoded once; SecretKey and JwtParser are immutable and thread-safe */
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     @Override
@@ -57,7 +71,7 @@ public class TokenServiceImpl implements TokenService {
                 .claim(AUTHORITIES_KEY, authorities)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + accessExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -67,17 +81,14 @@ public class TokenServiceImpl implements TokenService {
                 .subject(authentication.getName())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + refreshExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     @Override
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            jwtParser.parseSignedClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
@@ -85,13 +96,18 @@ public class TokenServiceImpl implements TokenService {
         return false;
     }
 
+    /**
+     * Verifies the token and builds the authentication in one parse; invalid or expired tokens
+     * throw {@link JwtException}, so callers need no separate {@link #validateToken} call.
+     * A token already verified on this node is served from {@link VerifiedTokenCache}.
+     */
     @Override
     public Authentication getAuthenticationFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return verifiedTokenCache.get(token, this::verify);
+    }
+
+    private VerifiedTokenCache.VerifiedToken verify(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
 
         Object authoritiesClaim = claims.get(AUTHORITIES_KEY);
         if (authoritiesClaim == null) {
@@ -99,47 +115,44 @@ public class TokenServiceImpl implements TokenService {
             return null;
         }
 
-        List<SimpleGrantedAuthority> authorities =
-                Arrays.stream(authoritiesClaim.toString().split(","))
+        List<SimpleGrantedAuthority> authorities = authorityLists.computeIfAbsent(authoritiesClaim.toString(),
+                claim -> Arrays.stream(claim.split(","))
                         .filter(auth -> !auth.trim().isEmpty())
                         .map(SimpleGrantedAuthority::new)
-                        .toList();
+                        .toList());
 
         User principal = new User(claims.getSubject(), "", authorities);
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+        return new VerifiedTokenCache.VerifiedToken(principal, claims.getExpiration().getTime());
     }
 
     @Override
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
+        return jwtParser.parseSignedClaims(token)
                 .getPayload()
                 .getSubject();
     }
 
     @Override
     public Long getExpirationTime(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
+        return jwtParser.parseSignedClaims(token)
                 .getPayload()
                 .getExpiration()
                 .getTime();
     }
 
     public void blacklistToken(String token, long expirationTimeInMillis) {
-        String key = "blacklist:" + token;
         long ttl = expirationTimeInMillis - System.currentTimeMillis();
 
         if (ttl > 0) {
-            redisTemplate.opsForValue().set(key, "true", Duration.ofMillis(ttl));
+            tokenBlacklist.add(token, Duration.ofMillis(ttl));
         }
+        verifiedTokenCache.evict(token);
     }
 
+    /**
+     * Answered by the local {@link TokenBlacklist} filter; Redis is only asked on a filter hit
+     */
     public boolean isBlacklisted(String token) {
-        return Boolean.TRUE.equals(redisTemplate.hasKey("blacklist:" + token));
+        return tokenBlacklist.contains(token);
     }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package fpt.tuanhm43.server.services.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * HMAC-SHA256 signatures of provider webhooks (Base64 of the raw MAC).
+ * <p>
+ * Each key becomes a {@link SecretKeySpec} once, and its initialised {@link Mac}s are pooled and reused
+ * ({@code doFinal} resets them). A pool rather than a {@code ThreadLocal}: in virtual-thread mode every
+ * request runs on a fresh thread, so a per-thread {@code Mac} would be rebuilt on every webhook.
+ * <p>
+ * Rotation: {@code app.payment.sepay.webhook-key} is the current key and the only one used to sign;
+ * {@code app.payment.sepay.webhook-previous-keys} (comma-separated) are still accepted until the
+ * provider has switched, then dropped. With no key configured every signature is rejected.
+ */
+@Component
+@Slf4j
+public class WebhookSignatureVerifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SigningKey current;
+    private final List<SigningKey> keys = new ArrayList<>();
+
+    public WebhookSignatureVerifier(@Value("${app.payment.sepay.webhook-key:}") String currentKey,
+                                    @Value("${app.payment.sepay.webhook-previous-keys:}") String previousKeys) {
+        current = currentKey.isBlank() ? null : new SigningKey(currentKey);
+        if (current != null) {
+            keys.add(current);
+        }
+        Arrays.stream(previousKeys.split(","))
+                .map(String::trim)
+                .filter(key -> !key.isEmpty() && !key.equals(currentKey))
+                .forEach(key -> keys.add(new SigningKey(key)));
+
+        if (current == null) {
+            log.warn("No webhook signing key configured (app.payment.sepay.webhook-key); signed webhooks will be rejected");
+        }
+    }
+
+    /**
+     * Whether {@code signature} is the Base64 HMAC of {@code data} under any active key.
+     * Malformed Base64 is simply invalid; the MAC bytes are compared in constant time.
+     */
+    public boolean verify(String signature, String data) {
+        if (signature == null || data == null || keys.isEmpty()) {
+            return false;
+        }
+        byte[] provided;
+        try {
+            provided = Base64.getDecoder().decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        byte[] message = data.getBytes(StandardCharsets.UTF_8);
+        for (SigningKey key : keys) {
+            if (MessageDigest.isEqual(key.mac(message), provided)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Base64 HMAC of {@code data} under the current key
+     */
+    public String sign(String data) {
+        if (current == null) {
+            throw new IllegalStateException("No webhook signing key configured");
+        }
+        return Base64.getEncoder().encodeToString(current.mac(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static final class SigningKey {
+
+        private final SecretKeySpec spec;
+        private final Queue<Mac> pool = new ConcurrentLinkedQueue<>();
+
+        private SigningKey(String key) {
+            this.spec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        }
+
+        private byte[] mac(byte[] message) {
+            Mac mac = pool.poll();
+            if (mac == null) {
+                mac = newMac();
+            }
+            try {
+                return mac.doFinal(message);
+            } finally {
+                pool.offer(mac);
+            }
+        }
+
+        private Mac newMac() {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(spec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package fpt.tuanhm43.server.utils;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CacheLoadUtils {
+
+    /**
+     * Cached value for {@code key}, running {@code loader} on the calling thread on a miss.
+     * Concurrent misses for the same key still share one load, but the load runs outside the
+     * cache's per-key lock ({@code Cache.get(key, loader)} holds a {@code synchronized} map bin for
+     * the whole load, which pins virtual threads during Redis/JDBC I/O); other callers wait on the
+     * future instead. A null result or a loader exception is not cached, and exceptions reach every
+     * waiting caller unwrapped.
+     */
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> pending);
+        if (future != pending) {
+            return join(future);
+        }
+        try {
+            V value = loader.apply(key);
+            pending.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package fpt.tuanhm43.server.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CsvUtils {
+
+    /**
+     * Split one CSV line (RFC 4180 quoting, no embedded line breaks). Values are trimmed; empty values become null.
+     */
+    public static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(toValue(current));
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        values.add(toValue(current));
+        return values;
+    }
+
+    private static String toValue(StringBuilder raw) {
+        String value = raw.toString().trim();
+        return value.isEmpty() ? null : value;
+    }
+}
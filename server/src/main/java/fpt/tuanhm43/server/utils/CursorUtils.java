@@ -0,0 +1,41 @@
+package fpt.tuanhm43.server.utils;
+
+import fpt.tuanhm43.server.exceptions.BadRequestException;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CursorUtils {
+
+    /**
+     * Keyset position: the (createdAt, id) of the last row already returned
+     */
+    public record Cursor(LocalDateTime createdAt, UUID id) {
+    }
+
+    public static String encode(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque cursor; blank means "first page" and returns null
+     */
+    public static Cursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package fpt.tuanhm43.server.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class TokenDigestUtils {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    /**
+     * MessageDigest is not thread-safe and costly to look up on every request, so instances are pooled
+     * ({@code digest} resets them). Not a {@code ThreadLocal}: with virtual threads each request gets a fresh thread.
+     */
+    private static final Queue<MessageDigest> SHA_256 = new ConcurrentLinkedQueue<>();
+
+    /**
+     * SHA-256 of the token, used wherever a token has to be stored or looked up without keeping the raw JWT
+     */
+    public static byte[] sha256(String token) {
+        MessageDigest digest = SHA_256.poll();
+        if (digest == null) {
+            digest = newSha256();
+        }
+        try {
+            return digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+        } finally {
+            SHA_256.offer(digest);
+        }
+    }
+
+    /**
+     * 43-char URL-safe form of a digest, for Redis keys and messages
+     */
+    public static String encode(byte[] digest) {
+        return ENCODER.encodeToString(digest);
+    }
+
+    public static byte[] decode(String encoded) {
+        return DECODER.decode(encoded);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
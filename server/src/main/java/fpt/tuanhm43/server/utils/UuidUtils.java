@@ -0,0 +1,27 @@
+package fpt.tuanhm43.server.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class UuidUtils {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * RFC 9562 UUIDv7: 48-bit Unix epoch millis followed by 74 random bits.
+     * Keys generated later sort later, so primary key inserts append to the right edge of the B-tree.
+     */
+    public static UUID randomV7() {
+        long timestamp = System.currentTimeMillis();
+        long randA = RANDOM.nextInt(1 << 12);
+        long randB = RANDOM.nextLong();
+
+        long msb = (timestamp << 16) | 0x7000L | randA;
+        long lsb = (randB & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+}
@@ -0,0 +1,16 @@
+-- V1 drifted from the JPA entities. Align the columns that the query-shape indexes (V4) and
+-- the repositories depend on; remaining entity-only columns are still owned by the entities.
+
+-- Orders: guest tracking uses a UUID token (Order.trackingToken), not tracking_id
+DROP INDEX IF EXISTS idx_orders_tracking_id;
+ALTER TABLE orders RENAME COLUMN tracking_id TO tracking_token;
+ALTER TABLE orders ALTER COLUMN tracking_token TYPE UUID USING tracking_token::uuid;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS payment_status VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+
+-- Reservations: guest checkout reserves stock by session
+ALTER TABLE inventory_reservations ADD COLUMN IF NOT EXISTS session_id VARCHAR(100);
+
+-- Cart items belong to a cart (CartItem.cart), not directly to a user
+DROP INDEX IF EXISTS idx_cart_items_user_id;
+ALTER TABLE cart_items ADD COLUMN IF NOT EXISTS cart_id UUID;
+ALTER TABLE cart_items ALTER COLUMN user_id DROP NOT NULL;
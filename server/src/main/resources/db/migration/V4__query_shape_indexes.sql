@@ -0,0 +1,35 @@
+-- Composite and partial indexes matching the hot repository queries.
+-- Runs outside a transaction (V4__query_shape_indexes.sql.conf) so CONCURRENTLY does not block writes.
+
+-- OrderRepository: findByUserIdOrderByCreatedAtDesc, findSliceByUserId* (keyset on created_at, id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_user_created ON orders (user_id, created_at DESC, id DESC);
+
+-- OrderRepository: findByStatusOrderByCreatedAtDesc, findSliceByStatus*
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_status_created ON orders (status, created_at DESC, id DESC);
+
+-- OrderRepository: findByPaymentStatusOrderByCreatedAtDesc, findSliceByPaymentStatus*
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_payment_status_created ON orders (payment_status, created_at DESC, id DESC);
+
+-- OrderRepository: unfiltered admin listing, findByDateRange
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_order_created_id ON orders (created_at DESC, id DESC);
+
+-- InventoryReservationRepository.findExpiredReservations: only ACTIVE rows are ever scanned
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservation_active_expires ON inventory_reservations (expires_at) WHERE status = 'ACTIVE';
+
+-- InventoryReservationRepository.findBySessionIdAndStatus
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_reservation_session_status ON inventory_reservations (session_id, status);
+
+-- PaymentTransactionRepository.findLatestByOrderId
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payment_order_created ON payment_transactions (order_id, created_at DESC);
+
+-- Single-column indexes now covered by the leftmost column of a composite above
+DROP INDEX CONCURRENTLY IF EXISTS idx_orders_user_id;
+DROP INDEX CONCURRENTLY IF EXISTS idx_orders_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_order_user;
+DROP INDEX CONCURRENTLY IF EXISTS idx_order_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_order_created;
+DROP INDEX CONCURRENTLY IF EXISTS idx_reservation_session;
+DROP INDEX CONCURRENTLY IF EXISTS idx_reservation_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_reservation_expires;
+DROP INDEX CONCURRENTLY IF EXISTS idx_payment_order;
+DROP INDEX CONCURRENTLY IF EXISTS idx_payment_transactions_order_id;
@@ -0,0 +1,24 @@
+-- Raw SePay webhooks, recorded before processing (PaymentWebhookEvent). The unique key absorbs
+-- provider retries: PaymentWebhookEventRepository.insertIfAbsent inserts with ON CONFLICT DO NOTHING.
+CREATE TABLE IF NOT EXISTS payment_webhook_events (
+    id UUID PRIMARY KEY,
+    provider VARCHAR(20) NOT NULL,
+    transaction_id VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payload TEXT NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error TEXT,
+    processed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by VARCHAR(100),
+    updated_by VARCHAR(100),
+    version BIGINT,
+    is_deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    deleted_at TIMESTAMP,
+    deleted_by VARCHAR(100),
+    CONSTRAINT uk_webhook_provider_transaction UNIQUE (provider, transaction_id)
+);
+
+-- PaymentWebhookEventRepository.findStale: only RECEIVED rows are swept
+CREATE INDEX IF NOT EXISTS idx_webhook_received_created ON payment_webhook_events (created_at) WHERE status = 'RECEIVED';
@@ -0,0 +1,5 @@
+-- Payment reconciliation merges transactions read in transaction_id order
+-- (PaymentTransactionRepository.findReconciliationPage) with a provider statement sorted in Java.
+-- The query compares and sorts ids under COLLATE "C" (byte-wise, as String.compareTo does); giving the
+-- column that collation rebuilds its unique index in the same order, so the index serves the keyset scan.
+ALTER TABLE payment_transactions ALTER COLUMN transaction_id TYPE VARCHAR(255) COLLATE "C";
@@ -0,0 +1,4 @@
+-- Order numbers are ORD-<yyyyMMdd>-<nextval mod 10^7, 7 digits> (OrderServiceImpl.generateOrderNumber).
+-- Hibernate creates the sequence itself under ddl-auto=create/update (entities.generator.OrderNumberSequence);
+-- apply this by hand only where the schema is managed without Hibernate, e.g. under ddl-auto=validate.
+CREATE SEQUENCE IF NOT EXISTS order_number_seq START WITH 1 INCREMENT BY 1;
@@ -0,0 +1,122 @@
+package fpt.tuanhm43.server.integration;
+
+import fpt.tuanhm43.server.dtos.cart.request.AddToCartRequest;
+import fpt.tuanhm43.server.dtos.cart.request.UpdateCartItemRequest;
+import fpt.tuanhm43.server.dtos.cart.response.CartResponse;
+import fpt.tuanhm43.server.entities.ProductVariant;
+import fpt.tuanhm43.server.integration.support.QueryBudgetFixtures;
+import fpt.tuanhm43.server.integration.support.QueryBudgetTest;
+import fpt.tuanhm43.server.integration.support.QueryCountHarness;
+import fpt.tuanhm43.server.mappers.CartMapperImpl;
+import fpt.tuanhm43.server.services.CartService;
+import fpt.tuanhm43.server.services.impl.CartServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static fpt.tuanhm43.server.integration.support.QueryBudget.exactly;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query budgets for every {@link CartService} operation, with three items in the cart.
+ * Statement counts are pinned exactly, so both an N+1 regression and a change in query
+ * shape (e.g. a lost fetch join made up by a later lazy load) fail here.
+ */
+@QueryBudgetTest
+@Import({CartServiceImpl.class, CartMapperImpl.class})
+class CartServiceQueryBudgetIT {
+
+    private static final String SESSION_ID = "query-budget-session";
+    private static final int ITEMS = 3;
+
+    @Autowired private CartService cartService;
+    @Autowired private QueryCountHarness harness;
+    @Autowired private QueryBudgetFixtures fixtures;
+
+    private final List<ProductVariant> variants = new ArrayList<>();
+    private ProductVariant extraVariant;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ITEMS; i++) {
+            variants.add(fixtures.variant(null, "QB-CART-" + i));
+        }
+        extraVariant = fixtures.variant(null, "QB-CART-EXTRA");
+        fixtures.cart(SESSION_ID, variants);
+    }
+
+    @AfterEach
+    void tearDown() {
+        harness.resetDatabase();
+    }
+
+    @Test
+    @DisplayName("GET /cart: 1 select theo graph + 1 update gia hạn")
+    void getBySessionId() {
+        CartResponse response = harness.assertWithin("CartService.getBySessionId", exactly(2).rows(ITEMS),
+                () -> cartService.getBySessionId(SESSION_ID));
+
+        assertThat(response.getItems()).hasSize(ITEMS)
+                .allSatisfy(item -> assertThat(item.getProductName()).isNotNull());
+    }
+
+    @Test
+    @DisplayName("GET /cart/count: 1 câu aggregate")
+    void getCartItemCount() {
+        int total = harness.assertWithin("CartService.getCartItemCount", exactly(1).rows(1),
+                () -> cartService.getCartItemCount(SESSION_ID));
+
+        assertThat(total).isEqualTo(ITEMS);
+    }
+
+    @Test
+    @DisplayName("GET /cart/validate: 1 select theo graph checkout")
+    void validateCartStock() {
+        boolean valid = harness.assertWithin("CartService.validateCartStock", exactly(1).rows(ITEMS),
+                () -> cartService.validateCartStock(SESSION_ID));
+
+        assertThat(valid).isTrue();
+    }
+
+    @Test
+    @DisplayName("POST /cart/add: số câu lệnh không phụ thuộc số item trong giỏ")
+    void addToCart() {
+        CartResponse response = harness.assertWithin("CartService.addToCart", exactly(6),
+                () -> cartService.addToCart(SESSION_ID, new AddToCartRequest(extraVariant.getId(), 1)));
+
+        assertThat(response.getItems()).hasSize(ITEMS + 1);
+    }
+
+    @Test
+    @DisplayName("PUT /cart/items/{variantId}: select giỏ, select tồn kho, update item + giỏ")
+    void update() {
+        CartResponse response = harness.assertWithin("CartService.update", exactly(4),
+                () -> cartService.update(SESSION_ID, variants.get(0).getId(), new UpdateCartItemRequest(2)));
+
+        assertThat(response.getTotalItems()).isEqualTo(ITEMS + 1);
+    }
+
+    @Test
+    @DisplayName("DELETE /cart/items/{variantId}: select giỏ, delete item, update giỏ")
+    void remove() {
+        CartResponse response = harness.assertWithin("CartService.remove", exactly(3),
+                () -> cartService.remove(SESSION_ID, variants.get(0).getId()));
+
+        assertThat(response.getItems()).hasSize(ITEMS - 1);
+    }
+
+    @Test
+    @DisplayName("DELETE /cart: xóa items bằng 1 câu bulk delete")
+    void clear() {
+        harness.assertWithin("CartService.clear", exactly(4),
+                () -> cartService.clear(SESSION_ID));
+
+        assertThat(cartService.getCartItemCount(SESSION_ID)).isZero();
+    }
+}
@@ -0,0 +1,181 @@
+package fpt.tuanhm43.server.integration;
+
+import fpt.tuanhm43.server.caches.ProductDetailCache;
+import fpt.tuanhm43.server.caches.SlugIdCache;
+import fpt.tuanhm43.server.dtos.PageResponseDTO;
+import fpt.tuanhm43.server.dtos.category.request.CategoryFilterRequest;
+import fpt.tuanhm43.server.dtos.category.request.CreateCategoryRequest;
+import fpt.tuanhm43.server.dtos.category.request.UpdateCategoryRequest;
+import fpt.tuanhm43.server.dtos.category.response.CategoryDetailResponse;
+import fpt.tuanhm43.server.dtos.category.response.CategoryResponse;
+import fpt.tuanhm43.server.dtos.category.response.CategoryTreeResponse;
+import fpt.tuanhm43.server.entities.Category;
+import fpt.tuanhm43.server.integration.support.QueryBudgetFixtures;
+import fpt.tuanhm43.server.integration.support.QueryBudgetTest;
+import fpt.tuanhm43.server.integration.support.QueryCountHarness;
+import fpt.tuanhm43.server.mappers.CategoryMapperImpl;
+import fpt.tuanhm43.server.mappers.helper.CategoryMapperHelper;
+import fpt.tuanhm43.server.services.CategoryService;
+import fpt.tuanhm43.server.services.impl.CategoryServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static fpt.tuanhm43.server.integration.support.QueryBudget.statements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query budgets for every {@link CategoryService} operation, over one root category with
+ * several children that each hold products. Product counts must come from one grouped query.
+ */
+@QueryBudgetTest
+@Import({CategoryServiceImpl.class, CategoryMapperImpl.class, CategoryMapperHelper.class, SlugIdCache.class})
+class CategoryServiceQueryBudgetIT {
+
+    private static final int CHILDREN = 4;
+    private static final int PRODUCTS_PER_CHILD = 2;
+
+    @Autowired private CategoryService categoryService;
+    @Autowired private QueryCountHarness harness;
+    @Autowired private QueryBudgetFixtures fixtures;
+
+    @MockBean private ProductDetailCache productDetailCache;
+
+    private Category root;
+    private Category firstChild;
+
+    @BeforeEach
+    void setUp() {
+        root = fixtures.category("qb-root", null);
+        for (int i = 0; i < CHILDREN; i++) {
+            Category child = fixtures.category("qb-child-" + i, root);
+            if (firstChild == null) {
+                firstChild = child;
+            }
+            for (int p = 0; p < PRODUCTS_PER_CHILD; p++) {
+                fixtures.variant(child, "QB-CAT-" + i + "-" + p);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        harness.resetDatabase();
+    }
+
+    @Test
+    @DisplayName("Danh sách có filter: page + count + 1 câu đếm sản phẩm")
+    void getAllWithFilter() {
+        PageResponseDTO<CategoryResponse> page = harness.assertWithin("CategoryService.getAllWithFilter", statements(3),
+                () -> categoryService.getAllWithFilter(new CategoryFilterRequest()));
+
+        assertThat(page.getContent()).hasSize(CHILDREN + 1);
+    }
+
+    @Test
+    @DisplayName("Chi tiết theo id: category + children, 1 câu đếm sản phẩm")
+    void getById() {
+        CategoryDetailResponse response = harness.assertWithin("CategoryService.getById", statements(2),
+                () -> categoryService.getById(root.getId()));
+
+        assertThat(response.getChildren()).hasSize(CHILDREN);
+    }
+
+    @Test
+    @DisplayName("Chi tiết theo slug: resolve slug + chi tiết")
+    void getBySlug() {
+        CategoryDetailResponse response = harness.assertWithin("CategoryService.getBySlug", statements(3),
+                () -> categoryService.getBySlug(root.getSlug()));
+
+        assertThat(response.getChildren()).hasSize(CHILDREN);
+    }
+
+    @Test
+    @DisplayName("Danh mục gốc: 1 select + 1 câu đếm sản phẩm")
+    void getRootCategories() {
+        List<CategoryResponse> roots = harness.assertWithin("CategoryService.getRootCategories", statements(2),
+                () -> categoryService.getRootCategories());
+
+        assertThat(roots).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Cây danh mục: 1 select + 1 câu đếm sản phẩm cho cả cây")
+    void getCategoryTree() {
+        List<CategoryTreeResponse> tree = harness.assertWithin("CategoryService.getCategoryTree", statements(2),
+                () -> categoryService.getCategoryTree());
+
+        assertThat(tree).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Danh mục con: exists + select + 1 câu đếm sản phẩm + parent dùng chung")
+    void getChildrenByParentId() {
+        List<CategoryResponse> children = harness.assertWithin("CategoryService.getChildrenByParentId", statements(4),
+                () -> categoryService.getChildrenByParentId(root.getId()));
+
+        assertThat(children).hasSize(CHILDREN)
+                .allSatisfy(child -> assertThat(child.getProductCount()).isEqualTo(PRODUCTS_PER_CHILD));
+    }
+
+    @Test
+    @DisplayName("Tạo danh mục: 2 câu kiểm tra trùng, load parent, insert")
+    void create() {
+        CreateCategoryRequest request = CreateCategoryRequest.builder()
+                .name("Query Budget New")
+                .slug("qb-new")
+                .parentId(root.getId())
+                .build();
+
+        CategoryResponse response = harness.assertWithin("CategoryService.create", statements(4),
+                () -> categoryService.create(request));
+
+        assertThat(response.getSlug()).isEqualTo("qb-new");
+    }
+
+    @Test
+    @DisplayName("Đổi tên danh mục: load, kiểm tra trùng tên, id sản phẩm cần xoá cache, update, đếm sản phẩm")
+    void update() {
+        UpdateCategoryRequest request = UpdateCategoryRequest.builder()
+                .name("Renamed child")
+                .build();
+
+        CategoryResponse response = harness.assertWithin("CategoryService.update", statements(6),
+                () -> categoryService.update(firstChild.getId(), request));
+
+        assertThat(response.getProductCount()).isEqualTo(PRODUCTS_PER_CHILD);
+    }
+
+    @Test
+    @DisplayName("Xóa danh mục: 1 câu đệ quy, load theo batch, update theo batch")
+    void delete() {
+        harness.assertWithin("CategoryService.delete", statements(5),
+                () -> categoryService.delete(root.getId()));
+
+        assertThat(categoryService.hasProducts(firstChild.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Kiểm tra có sản phẩm: 1 câu count")
+    void hasProducts() {
+        boolean hasProducts = harness.assertWithin("CategoryService.hasProducts", statements(1).rows(1),
+                () -> categoryService.hasProducts(firstChild.getId()));
+
+        assertThat(hasProducts).isTrue();
+    }
+
+    @Test
+    @DisplayName("Đếm sản phẩm cả nhánh: 1 câu đệ quy + 1 câu đếm gộp")
+    void countProducts() {
+        long count = harness.assertWithin("CategoryService.countProducts", statements(2),
+                () -> categoryService.countProducts(root.getId()));
+
+        assertThat(count).isEqualTo((long) CHILDREN * PRODUCTS_PER_CHILD);
+    }
+}
@@ -0,0 +1,195 @@
+package fpt.tuanhm43.server.integration;
+
+import fpt.tuanhm43.server.caches.OrderCountCache;
+import fpt.tuanhm43.server.dtos.CursorPageResponseDTO;
+import fpt.tuanhm43.server.dtos.PageResponseDTO;
+import fpt.tuanhm43.server.dtos.order.request.CreateOrderRequest;
+import fpt.tuanhm43.server.dtos.order.request.OrderFilterRequest;
+import fpt.tuanhm43.server.dtos.order.request.OrderItemRequest;
+import fpt.tuanhm43.server.dtos.order.request.UpdateOrderStatusRequest;
+import fpt.tuanhm43.server.dtos.order.response.OrderDetailResponse;
+import fpt.tuanhm43.server.dtos.order.response.OrderResponse;
+import fpt.tuanhm43.server.entities.Order;
+import fpt.tuanhm43.server.entities.ProductVariant;
+import fpt.tuanhm43.server.entities.User;
+import fpt.tuanhm43.server.enums.OrderStatus;
+import fpt.tuanhm43.server.enums.PaymentMethod;
+import fpt.tuanhm43.server.integration.support.QueryBudgetFixtures;
+import fpt.tuanhm43.server.integration.support.QueryBudgetTest;
+import fpt.tuanhm43.server.integration.support.QueryCountHarness;
+import fpt.tuanhm43.server.mappers.OrderMapperImpl;
+import fpt.tuanhm43.server.services.MailService;
+import fpt.tuanhm43.server.services.OrderService;
+import fpt.tuanhm43.server.services.impl.InventoryServiceImpl;
+import fpt.tuanhm43.server.services.impl.OrderServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static fpt.tuanhm43.server.integration.support.QueryBudget.statements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query budgets for every {@link OrderService} operation. Orders carry three items each and
+ * list pages hold several orders; budgets must not grow with either.
+ */
+@QueryBudgetTest
+@Import({OrderServiceImpl.class, OrderMapperImpl.class, InventoryServiceImpl.class, OrderCountCache.class})
+class OrderServiceQueryBudgetIT {
+
+    private static final String SESSION_ID = "query-budget-checkout";
+    private static final int ITEMS = 3;
+    private static final int ORDERS = 4;
+
+    @Autowired private OrderService orderService;
+    @Autowired private QueryCountHarness harness;
+    @Autowired private QueryBudgetFixtures fixtures;
+
+    @MockBean private MailService mailService;
+
+    private final List<ProductVariant> variants = new ArrayList<>();
+    private User user;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ITEMS; i++) {
+            variants.add(fixtures.variant(null, "QB-ORDER-" + i));
+        }
+        user = fixtures.user("query-budget-user");
+        for (int i = 0; i < ORDERS; i++) {
+            order = fixtures.order(user, variants, OrderStatus.PENDING);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        harness.resetDatabase();
+    }
+
+    @Test
+    @DisplayName("Checkout từ giỏ: khóa tồn kho 1 câu, insert/update theo batch")
+    void createOrderFromCart() {
+        fixtures.cart(SESSION_ID, variants);
+
+        OrderDetailResponse response = harness.assertWithin("OrderService.createOrderFromCart", statements(10),
+                () -> orderService.createOrderFromCart(SESSION_ID, checkoutRequest(null)));
+
+        assertThat(response.getItems()).hasSize(ITEMS);
+    }
+
+    @Test
+    @DisplayName("Tạo đơn trực tiếp: load variant 1 câu, insert/update theo batch")
+    void createOrder() {
+        List<OrderItemRequest> items = variants.stream()
+                .map(v -> new OrderItemRequest(v.getId(), 1))
+                .toList();
+
+        OrderDetailResponse response = harness.assertWithin("OrderService.createOrder", statements(8),
+                () -> orderService.createOrder(checkoutRequest(items)));
+
+        assertThat(response.getItems()).hasSize(ITEMS);
+    }
+
+    @Test
+    @DisplayName("Chi tiết đơn (admin): items + variant + tồn kho trong 1 câu, lịch sử 1 câu")
+    void getOrderById() {
+        OrderDetailResponse response = harness.assertWithin("OrderService.getOrderById", statements(2),
+                () -> orderService.getOrderById(order.getId()));
+
+        assertThat(response.getItems()).hasSize(ITEMS);
+    }
+
+    @Test
+    @DisplayName("Tra cứu đơn bằng tracking token: items + variant + tồn kho trong 1 câu")
+    void getOrderByTrackingToken() {
+        OrderDetailResponse response = harness.assertWithin("OrderService.getOrderByTrackingToken", statements(2),
+                () -> orderService.getOrderByTrackingToken(order.getTrackingToken()));
+
+        assertThat(response.getItems()).hasSize(ITEMS);
+    }
+
+    @Test
+    @DisplayName("Danh sách đơn của user: exists + page + count")
+    void getUserOrders() {
+        PageResponseDTO<OrderResponse> page = harness.assertWithin("OrderService.getUserOrders", statements(3),
+                () -> orderService.getUserOrders(user.getId(), 0, 10));
+
+        assertThat(page.getContent()).hasSize(ORDERS);
+    }
+
+    @Test
+    @DisplayName("Danh sách đơn (admin): page + count")
+    void getAllOrders() {
+        PageResponseDTO<OrderResponse> page = harness.assertWithin("OrderService.getAllOrders", statements(2),
+                () -> orderService.getAllOrders(new OrderFilterRequest()));
+
+        assertThat(page.getContent()).hasSize(ORDERS);
+    }
+
+    @Test
+    @DisplayName("Danh sách đơn của user theo cursor: exists + slice + count")
+    void getUserOrdersByCursor() {
+        CursorPageResponseDTO<OrderResponse> page = harness.assertWithin("OrderService.getUserOrdersByCursor", statements(3),
+                () -> orderService.getUserOrdersByCursor(user.getId(), null, 10, true));
+
+        assertThat(page.getContent()).hasSize(ORDERS);
+    }
+
+    @Test
+    @DisplayName("Danh sách đơn (admin) theo cursor: slice + count")
+    void getAllOrdersByCursor() {
+        CursorPageResponseDTO<OrderResponse> page = harness.assertWithin("OrderService.getAllOrdersByCursor", statements(2),
+                () -> orderService.getAllOrdersByCursor(new OrderFilterRequest(), null, true));
+
+        assertThat(page.getContent()).hasSize(ORDERS);
+    }
+
+    @Test
+    @DisplayName("Cập nhật trạng thái: không load lại từng item")
+    void updateOrderStatus() {
+        UpdateOrderStatusRequest request = new UpdateOrderStatusRequest(OrderStatus.CONFIRMED, "ok", "admin");
+
+        OrderDetailResponse response = harness.assertWithin("OrderService.updateOrderStatus", statements(4),
+                () -> orderService.updateOrderStatus(order.getId(), request));
+
+        assertThat(response.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    @DisplayName("Hủy đơn: giải phóng reservation theo đơn, không load lại từng item")
+    void cancelOrder() {
+        OrderDetailResponse response = harness.assertWithin("OrderService.cancelOrder", statements(5),
+                () -> orderService.cancelOrder(order.getId(), "changed my mind"));
+
+        assertThat(response.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Sinh mã đơn: 1 câu nextval trên sequence do Hibernate tạo cùng schema")
+    void generateOrderNumber() {
+        String orderNumber = harness.assertWithin("OrderService.generateOrderNumber", statements(1).rows(1),
+                () -> orderService.generateOrderNumber());
+
+        assertThat(orderNumber).matches("ORD-\\d{8}-\\d{7}");
+        assertThat(orderService.generateOrderNumber()).isNotEqualTo(orderNumber);
+    }
+
+    private static CreateOrderRequest checkoutRequest(List<OrderItemRequest> items) {
+        return CreateOrderRequest.builder()
+                .customerName("Query Budget")
+                .customerEmail("checkout@test.vn")
+                .customerPhone("0900000000")
+                .shippingAddress("HCM")
+                .paymentMethod(PaymentMethod.COD)
+                .items(items)
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package fpt.tuanhm43.server.integration;
+
+import fpt.tuanhm43.server.caches.ProductDetailCache;
+import fpt.tuanhm43.server.caches.SlugIdCache;
+import fpt.tuanhm43.server.dtos.PageResponseDTO;
+import fpt.tuanhm43.server.dtos.product.request.CreateProductRequest;
+import fpt.tuanhm43.server.dtos.product.request.ProductFilterRequest;
+import fpt.tuanhm43.server.dtos.product.request.UpdateProductRequest;
+import fpt.tuanhm43.server.dtos.product.response.ProductDetailResponse;
+import fpt.tuanhm43.server.dtos.product.response.ProductResponse;
+import fpt.tuanhm43.server.entities.Category;
+import fpt.tuanhm43.server.entities.Product;
+import fpt.tuanhm43.server.integration.support.QueryBudgetFixtures;
+import fpt.tuanhm43.server.integration.support.QueryBudgetTest;
+import fpt.tuanhm43.server.integration.support.QueryCountHarness;
+import fpt.tuanhm43.server.mappers.ProductMapperImpl;
+import fpt.tuanhm43.server.services.ProductSearchService;
+import fpt.tuanhm43.server.services.ProductService;
+import fpt.tuanhm43.server.services.impl.ProductServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static fpt.tuanhm43.server.integration.support.QueryBudget.statements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Query budgets for every {@link ProductService} operation. The detail cache is bypassed so every
+ * read reaches the database; list and search go to Elasticsearch and must not touch it at all.
+ */
+@QueryBudgetTest
+@Import({ProductServiceImpl.class, ProductMapperImpl.class, SlugIdCache.class})
+class ProductServiceQueryBudgetIT {
+
+    private static final int VARIANTS = 4;
+
+    @Autowired private ProductService productService;
+    @Autowired private QueryCountHarness harness;
+    @Autowired private QueryBudgetFixtures fixtures;
+
+    @MockBean private ProductSearchService productSearchService;
+    @MockBean private ProductDetailCache productDetailCache;
+
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        category = fixtures.category("qb-products", null);
+        product = fixtures.product(category, "QB-PRODUCT", VARIANTS);
+
+        when(productDetailCache.get(any(UUID.class), any(Function.class)))
+                .thenAnswer(invocation -> invocation.<Function<UUID, ProductDetailResponse>>getArgument(1)
+                        .apply(invocation.getArgument(0)));
+        when(productSearchService.advancedSearch(any())).thenReturn(PageResponseDTO.<ProductResponse>builder().build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        harness.resetDatabase();
+    }
+
+    @Test
+    @DisplayName("Danh sách có filter: đọc từ Elasticsearch, không chạm DB")
+    void getAllWithFilter() {
+        harness.assertWithin("ProductService.getAllWithFilter", statements(0),
+                () -> productService.getAllWithFilter(new ProductFilterRequest()));
+    }
+
+    @Test
+    @DisplayName("Tìm theo từ khóa: đọc từ Elasticsearch, không chạm DB")
+    void searchByKeyword() {
+        harness.assertWithin("ProductService.searchByKeyword", statements(0),
+                () -> productService.searchByKeyword("áo", 0, 20));
+    }
+
+    @Test
+    @DisplayName("Lọc theo danh mục: đọc từ Elasticsearch, không chạm DB")
+    void getByCategory() {
+        harness.assertWithin("ProductService.getByCategory", statements(0),
+                () -> productService.getByCategory(category.getId(), 0, 20));
+    }
+
+    @Test
+    @DisplayName("Chi tiết theo id (cache miss): product + category + variants + tồn kho trong 1 câu")
+    void getById() {
+        ProductDetailResponse response = harness.assertWithin("ProductService.getById", statements(1),
+                () -> productService.getById(product.getId()));
+
+        assertThat(response.getVariants()).hasSize(VARIANTS);
+    }
+
+    @Test
+    @DisplayName("Chi tiết theo slug (cache miss): resolve slug + product/category/variants/tồn kho")
+    void getBySlug() {
+        ProductDetailResponse response = harness.assertWithin("ProductService.getBySlug", statements(2),
+                () -> productService.getBySlug(product.getSlug()));
+
+        assertThat(response.getCategoryName()).isEqualTo(category.getName());
+        assertThat(response.getVariants()).hasSize(VARIANTS);
+    }
+
+    @Test
+    @DisplayName("Tạo sản phẩm: load category + insert")
+    void create() {
+        CreateProductRequest request = CreateProductRequest.builder()
+                .name("Query Budget New")
+                .slug("qb-product-new")
+                .basePrice(new BigDecimal("150000"))
+                .categoryId(category.getId())
+                .build();
+
+        ProductResponse response = harness.assertWithin("ProductService.create", statements(2),
+                () -> productService.create(request));
+
+        assertThat(response.getSlug()).isEqualTo("qb-product-new");
+    }
+
+    @Test
+    @DisplayName("Cập nhật sản phẩm: load, category + variants cho response, update")
+    void update() {
+        UpdateProductRequest request = UpdateProductRequest.builder()
+                .name("Renamed product")
+                .build();
+
+        ProductResponse response = harness.assertWithin("ProductService.update", statements(4),
+                () -> productService.update(product.getId(), request));
+
+        assertThat(response.getName()).isEqualTo("Renamed product");
+    }
+
+    @Test
+    @DisplayName("Xóa mềm sản phẩm: load + update")
+    void delete() {
+        harness.assertWithin("ProductService.delete", statements(2),
+                () -> productService.delete(product.getId()));
+    }
+}
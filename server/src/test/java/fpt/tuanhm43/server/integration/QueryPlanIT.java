@@ -0,0 +1,185 @@
+package fpt.tuanhm43.server.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * EXPLAIN regression suite for the hot repository queries: each must be served by an index, never a
+ * sequential scan, on a seeded dataset. The SQL mirrors what Hibernate generates for the repository methods.
+ * PostgreSQL only (H2 has a different planner); run with a postgres datasource, e.g.
+ * -Dspring.datasource.url=jdbc:postgresql://localhost:5432/plan_test -Dspring.datasource.driver-class-name=org.postgresql.Driver
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class QueryPlanIT {
+
+    private static final int ORDERS = 50_000;
+    private static final int USERS = 200;
+    private static boolean seeded;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private DataSource dataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void seed() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assumeTrue("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()),
+                    "Query plan assertions need PostgreSQL");
+        }
+        if (seeded) {
+            return;
+        }
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V4__query_shape_indexes.sql")).execute(dataSource);
+
+        jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, password, enabled, is_deleted, created_at, updated_at, version)
+                SELECT gen_random_uuid(), 'plan-user-' || g, 'plan-user-' || g || '@test.vn', 'x', true, false, now(), now(), 0
+                FROM generate_series(1, ?) g
+                """, USERS);
+        jdbcTemplate.update("""
+                WITH u AS (SELECT array_agg(id) AS ids FROM users WHERE username LIKE 'plan-user-%')
+                INSERT INTO orders (id, order_number, tracking_token, user_id, customer_name, customer_email, customer_phone,
+                                    shipping_address, payment_method, payment_status, status, total_amount, currency,
+                                    is_deleted, created_at, updated_at, version)
+                SELECT gen_random_uuid(), 'PLAN-' || g, gen_random_uuid(), u.ids[1 + g % array_length(u.ids, 1)],
+                       'Plan Customer', 'plan' || g || '@test.vn', '0900000000', 'HCM', 'COD',
+                       (ARRAY['PENDING','PAID','FAILED','REFUNDED'])[1 + g % 4],
+                       (ARRAY['PENDING','CONFIRMED','PAID','SHIPPING','DELIVERED','CANCELLED'])[1 + g % 6],
+                       100000, 'VND', false, now() - make_interval(mins => g), now(), 0
+                FROM generate_series(1, ?) g, u
+                """, ORDERS);
+        jdbcTemplate.update("""
+                INSERT INTO payment_transactions (id, order_id, amount, method, status, transaction_id, provider_name,
+                                                  is_deleted, created_at, updated_at, version)
+                SELECT gen_random_uuid(), o.id, o.total_amount, 'SEPAY', o.payment_status, 'PLAN-TX-' || o.order_number,
+                       'SEPAY', false, o.created_at, now(), 0
+                FROM orders o WHERE o.order_number LIKE 'PLAN-%'
+                """);
+
+        UUID productId = UUID.randomUUID();
+        UUID variantId = UUID.randomUUID();
+        jdbcTemplate.update("""
+                INSERT INTO products (id, name, slug, base_price, is_active, is_deleted, created_at, updated_at, version)
+                VALUES (?, 'Plan Product', 'plan-product', 100000, true, false, now(), now(), 0)
+                """, productId);
+        jdbcTemplate.update("""
+                INSERT INTO product_variants (id, product_id, sku, price_adjustment, is_active, is_deleted, created_at, updated_at, version)
+                VALUES (?, ?, 'PLAN-SKU', 0, true, false, now(), now(), 0)
+                """, variantId, productId);
+        jdbcTemplate.update("""
+                INSERT INTO inventory_reservations (id, product_variant_id, session_id, quantity, status, expires_at,
+                                                    is_deleted, created_at, updated_at, version)
+                SELECT gen_random_uuid(), ?, 'plan-session-' || (g % 5000), 1,
+                       CASE WHEN g % 100 = 0 THEN 'ACTIVE' WHEN g % 2 = 0 THEN 'COMPLETED' ELSE 'EXPIRED' END,
+                       now() - make_interval(mins => g % 600), false, now(), now(), 0
+                FROM generate_series(1, ?) g
+                """, variantId, ORDERS);
+
+        jdbcTemplate.execute("ANALYZE");
+        seeded = true;
+    }
+
+    @Test
+    @DisplayName("findByUserIdOrderByCreatedAtDesc dùng index (user_id, created_at)")
+    void userOrders_UseUserCreatedIndex() {
+        UUID userId = jdbcTemplate.queryForObject(
+                "SELECT id FROM users WHERE username = 'plan-user-1'", UUID.class);
+
+        assertIndexScan("SELECT * FROM orders WHERE user_id = '" + userId + "' ORDER BY created_at DESC LIMIT 10",
+                "idx_order_user_created");
+    }
+
+    @Test
+    @DisplayName("findByStatusOrderByCreatedAtDesc dùng index (status, created_at)")
+    void ordersByStatus_UseStatusCreatedIndex() {
+        assertIndexScan("SELECT * FROM orders WHERE status = 'PAID' ORDER BY created_at DESC LIMIT 10",
+                "idx_order_status_created");
+    }
+
+    @Test
+    @DisplayName("findByPaymentStatusOrderByCreatedAtDesc dùng index (payment_status, created_at)")
+    void ordersByPaymentStatus_UsePaymentStatusCreatedIndex() {
+        assertIndexScan("SELECT * FROM orders WHERE payment_status = 'PENDING' ORDER BY created_at DESC LIMIT 10",
+                "idx_order_payment_status_created");
+    }
+
+    @Test
+    @DisplayName("Keyset findSliceByStatusBefore dùng index (status, created_at, id)")
+    void keysetByStatus_UsesStatusCreatedIndex() {
+        assertIndexScan("""
+                SELECT * FROM orders WHERE status = 'PAID'
+                  AND (created_at < now() - interval '1 day' OR (created_at = now() - interval '1 day' AND id < '%s'))
+                ORDER BY created_at DESC, id DESC LIMIT 11
+                """.formatted(UUID.randomUUID()), "idx_order_status_created");
+    }
+
+    @Test
+    @DisplayName("findExpiredReservations dùng partial index trên ACTIVE")
+    void expiredReservations_UsePartialIndex() {
+        assertIndexScan("SELECT * FROM inventory_reservations WHERE status = 'ACTIVE' AND expires_at < now()",
+                "idx_reservation_active_expires", "idx_reservation_status_expires");
+    }
+
+    @Test
+    @DisplayName("findBySessionIdAndStatus dùng index (session_id, status)")
+    void reservationsBySession_UseSessionStatusIndex() {
+        assertIndexScan("SELECT * FROM inventory_reservations WHERE session_id = 'plan-session-42' AND status = 'ACTIVE'",
+                "idx_reservation_session_status");
+    }
+
+    @Test
+    @DisplayName("findLatestByOrderId dùng index (order_id, created_at)")
+    void latestPayment_UsesOrderCreatedIndex() {
+        UUID orderId = jdbcTemplate.queryForObject(
+                "SELECT id FROM orders WHERE order_number = 'PLAN-42'", UUID.class);
+
+        assertIndexScan("SELECT * FROM payment_transactions WHERE order_id = '" + orderId + "' ORDER BY created_at DESC LIMIT 1",
+                "idx_payment_order_created");
+    }
+
+    private void assertIndexScan(String sql, String... expectedIndexes) {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class);
+        List<JsonNode> nodes = new ArrayList<>();
+        try {
+            collect(objectMapper.readTree(json).get(0).get("Plan"), nodes);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable plan: " + json, e);
+        }
+        log.info("Plan for [{}]: {}", sql.strip(), nodes.stream().map(n -> n.path("Node Type").asText()
+                + (n.has("Index Name") ? "(" + n.get("Index Name").asText() + ")" : "")).toList());
+
+        assertThat(nodes).noneMatch(n -> "Seq Scan".equals(n.path("Node Type").asText()));
+        assertThat(nodes)
+                .filteredOn(n -> n.has("Index Name"))
+                .extracting(n -> n.get("Index Name").asText())
+                .containsAnyOf(expectedIndexes);
+    }
+
+    private void collect(JsonNode plan, List<JsonNode> nodes) {
+        nodes.add(plan);
+        plan.path("Plans").forEach(child -> collect(child, nodes));
+    }
+}
@@ -0,0 +1,83 @@
+package fpt.tuanhm43.server.integration;
+
+import fpt.tuanhm43.server.utils.UuidUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput and primary key index size for random (v4) vs time-ordered (v7) keys,
+ * using the same batched statement shape as order creation.
+ * Index size is only reported on PostgreSQL: run with a postgres datasource to compare bloat.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class UuidInsertBenchmarkIT {
+
+    private static final int ROWS = 100_000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_uuid_keys");
+    }
+
+    @Test
+    @DisplayName("Benchmark: UUIDv7 insert nhanh hơn / index nhỏ hơn UUIDv4")
+    void compareV4AndV7Inserts() {
+        Result v4 = run("v4", UUID::randomUUID);
+        Result v7 = run("v7", UuidUtils::randomV7);
+
+        log.info("UUID insert benchmark ({} rows, batch {}): v4 {} rows/s, pk {} bytes | v7 {} rows/s, pk {} bytes",
+                ROWS, BATCH_SIZE, v4.rowsPerSecond(), v4.indexBytes(), v7.rowsPerSecond(), v7.indexBytes());
+
+        assertThat(v7.rowsPerSecond()).isPositive();
+        if (v4.indexBytes() > 0) {
+            assertThat(v7.indexBytes()).isLessThanOrEqualTo(v4.indexBytes());
+        }
+    }
+
+    private Result run(String label, Supplier<UUID> keys) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_uuid_keys");
+        jdbcTemplate.execute("CREATE TABLE bench_uuid_keys (id UUID PRIMARY KEY, order_number VARCHAR(50), total DECIMAL(12,2))");
+
+        long start = System.nanoTime();
+        for (int from = 0; from < ROWS; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < from + BATCH_SIZE; i++) {
+                batch.add(new Object[]{keys.get(), label + "-" + i, 100_000 + i});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO bench_uuid_keys (id, order_number, total) VALUES (?, ?, ?)", batch);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        return new Result(ROWS * 1_000_000_000L / Math.max(elapsedNanos, 1), indexSize());
+    }
+
+    private long indexSize() {
+        try {
+            Long size = jdbcTemplate.queryForObject("SELECT pg_relation_size('bench_uuid_keys_pkey')", Long.class);
+            return size != null ? size : -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private record Result(long rowsPerSecond, long indexBytes) {
+    }
+}
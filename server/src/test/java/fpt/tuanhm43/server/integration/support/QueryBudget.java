@@ -0,0 +1,34 @@
+package fpt.tuanhm43.server.integration.support;
+
+import java.time.Duration;
+
+/**
+ * Limits for a single service call: SQL statements executed, rows read back from result sets,
+ * and wall time of the call (which spans the service transaction). Statements are an upper
+ * bound, or with {@link #exactly(int)} a pinned count that also fails when a call issues fewer.
+ */
+public record QueryBudget(int minStatements, int maxStatements, long maxRows, Duration maxDuration) {
+
+    private static final long DEFAULT_MAX_ROWS = 1_000;
+    private static final Duration DEFAULT_MAX_DURATION = Duration.ofSeconds(2);
+
+    public static QueryBudget statements(int maxStatements) {
+        return new QueryBudget(0, maxStatements, DEFAULT_MAX_ROWS, DEFAULT_MAX_DURATION);
+    }
+
+    public static QueryBudget exactly(int statements) {
+        return new QueryBudget(statements, statements, DEFAULT_MAX_ROWS, DEFAULT_MAX_DURATION);
+    }
+
+    public QueryBudget rows(long maxRows) {
+        return new QueryBudget(minStatements, maxStatements, maxRows, maxDuration);
+    }
+
+    public QueryBudget within(Duration maxDuration) {
+        return new QueryBudget(minStatements, maxStatements, maxRows, maxDuration);
+    }
+
+    public boolean exact() {
+        return minStatements == maxStatements;
+    }
+}
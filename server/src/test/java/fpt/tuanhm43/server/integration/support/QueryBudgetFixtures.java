@@ -0,0 +1,146 @@
+package fpt.tuanhm43.server.integration.support;
+
+import fpt.tuanhm43.server.entities.CartItem;
+import fpt.tuanhm43.server.entities.Category;
+import fpt.tuanhm43.server.entities.Inventory;
+import fpt.tuanhm43.server.entities.Order;
+import fpt.tuanhm43.server.entities.OrderItem;
+import fpt.tuanhm43.server.entities.Product;
+import fpt.tuanhm43.server.entities.ProductVariant;
+import fpt.tuanhm43.server.entities.ShoppingCart;
+import fpt.tuanhm43.server.entities.User;
+import fpt.tuanhm43.server.enums.OrderStatus;
+import fpt.tuanhm43.server.enums.PaymentMethod;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Commits test data in its own transactions, since query-budget tests run without one
+ */
+@RequiredArgsConstructor
+public class QueryBudgetFixtures {
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public Category category(String slug, Category parent) {
+        return persist(Category.builder()
+                .name("Category " + slug)
+                .slug(slug)
+                .parent(parent)
+                .build());
+    }
+
+    /**
+     * Product with one variant and 10 units of stock
+     */
+    public ProductVariant variant(Category category, String sku) {
+        return product(category, sku, 1).getVariants().get(0);
+    }
+
+    /**
+     * Product with {@code variants} variants (SKUs {@code sku-0..n}), each with 10 units of stock
+     */
+    public Product product(Category category, String sku, int variants) {
+        return transactionTemplate.execute(status -> {
+            Product product = Product.builder()
+                    .name("Product " + sku)
+                    .slug(sku.toLowerCase())
+                    .basePrice(new BigDecimal("100000"))
+                    .category(category != null ? entityManager.getReference(Category.class, category.getId()) : null)
+                    .build();
+            entityManager.persist(product);
+            for (int i = 0; i < variants; i++) {
+                ProductVariant variant = ProductVariant.builder()
+                        .product(product)
+                        .sku(variants == 1 ? sku : sku + "-" + i)
+                        .build();
+                entityManager.persist(variant);
+                product.getVariants().add(variant);
+                entityManager.persist(Inventory.builder()
+                        .productVariant(variant)
+                        .quantityAvailable(10)
+                        .build());
+            }
+            return product;
+        });
+    }
+
+    public ShoppingCart cart(String sessionId, List<ProductVariant> variants) {
+        return transactionTemplate.execute(status -> {
+            ShoppingCart cart = ShoppingCart.builder()
+                    .sessionId(sessionId)
+                    .expiresAt(LocalDateTime.now().plusHours(1))
+                    .build();
+            entityManager.persist(cart);
+            for (ProductVariant variant : variants) {
+                ProductVariant managed = entityManager.find(ProductVariant.class, variant.getId());
+                CartItem item = CartItem.builder()
+                        .productVariant(managed)
+                        .quantity(1)
+                        .unitPrice(managed.getFinalPrice())
+                        .build();
+                item.calculateSubtotal();
+                cart.addItem(item);
+                entityManager.persist(item);
+            }
+            return cart;
+        });
+    }
+
+    public User user(String username) {
+        return persist(User.builder()
+                .username(username)
+                .email(username + "@test.vn")
+                .password("x")
+                .build());
+    }
+
+    public Order order(User user, List<ProductVariant> variants, OrderStatus orderStatus) {
+        return transactionTemplate.execute(status -> {
+            int n = sequence.incrementAndGet();
+            Order order = Order.builder()
+                    .orderNumber("QB-" + n)
+                    .trackingToken(UUID.randomUUID())
+                    .user(user != null ? entityManager.getReference(User.class, user.getId()) : null)
+                    .customerName("Query Budget")
+                    .customerEmail("qb" + n + "@test.vn")
+                    .customerPhone("0900000000")
+                    .shippingAddress("HCM")
+                    .paymentMethod(PaymentMethod.COD)
+                    .paymentStatus(PaymentStatus.PENDING)
+                    .status(orderStatus)
+                    .currency("VND")
+                    .build();
+            for (ProductVariant variant : variants) {
+                ProductVariant managed = entityManager.find(ProductVariant.class, variant.getId());
+                order.addItem(OrderItem.builder()
+                        .order(order)
+                        .productVariant(managed)
+                        .quantity(1)
+                        .unitPrice(managed.getFinalPrice())
+                        .subtotal(managed.getFinalPrice())
+                        .build());
+            }
+            order.calculateTotals();
+            entityManager.persist(order);
+            return order;
+        });
+    }
+
+    private <T> T persist(T entity) {
+        return transactionTemplate.execute(status -> {
+            entityManager.persist(entity);
+            return entity;
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package fpt.tuanhm43.server.integration.support;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JPA slice for query-budget tests: H2, no test-managed transaction, second-level cache off
+ * so budgets describe the query shapes, and a {@link QueryCountHarness} bean to assert with.
+ * Import the service under test and its mappers on the test class.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@Import(QueryCountTestConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public @interface QueryBudgetTest {
+}
@@ -0,0 +1,73 @@
+package fpt.tuanhm43.server.integration.support;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Runs a service call under a {@link QueryBudget} and fails with the full list of
+ * statements it issued when the call goes over (or, for an exact budget, under). Tests using it are not transactional,
+ * so the service's own transaction (including its flush and commit) is what gets measured.
+ */
+@RequiredArgsConstructor
+public class QueryCountHarness {
+
+    private final QueryCountingDataSource recorder;
+    private final JdbcTemplate jdbcTemplate;
+
+    public <T> T assertWithin(String label, QueryBudget budget, Supplier<T> call) {
+        recorder.start();
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = call.get();
+        } finally {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            check(label, budget, recorder.stop(), elapsed);
+        }
+        return result;
+    }
+
+    public void assertWithin(String label, QueryBudget budget, Runnable call) {
+        assertWithin(label, budget, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Empty every table, for use between tests that commit
+     */
+    public void resetDatabase() {
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = 'PUBLIC' AND table_type = 'BASE TABLE'",
+                String.class);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        tables.forEach(table -> jdbcTemplate.execute("TRUNCATE TABLE " + table));
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    private void check(String label, QueryBudget budget, List<RecordedStatement> statements, Duration elapsed) {
+        long rows = statements.stream().mapToLong(RecordedStatement::rows).sum();
+        boolean outside = statements.size() > budget.maxStatements()
+                || statements.size() < budget.minStatements()
+                || rows > budget.maxRows()
+                || elapsed.compareTo(budget.maxDuration()) > 0;
+        if (!outside) {
+            return;
+        }
+        String report = statements.stream()
+                .map(s -> "  " + s)
+                .collect(Collectors.joining("\n"));
+        fail(String.format("%s is outside its query budget%n"
+                        + "  statements: %d (%s %d)%n  rows: %d (max %d)%n  time: %d ms (max %d ms)%n%s",
+                label, statements.size(), budget.exact() ? "expected" : "max", budget.maxStatements(),
+                rows, budget.maxRows(), elapsed.toMillis(), budget.maxDuration().toMillis(), report));
+    }
+}
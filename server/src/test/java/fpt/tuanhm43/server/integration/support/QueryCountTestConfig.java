@@ -0,0 +1,53 @@
+package fpt.tuanhm43.server.integration.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+@TestConfiguration(proxyBeanMethods = false)
+public class QueryCountTestConfig {
+
+    @Bean
+    public static QueryCountingDataSource queryCountingDataSource() {
+        return new QueryCountingDataSource();
+    }
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor(QueryCountingDataSource recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? recorder.wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    /**
+     * The JPA slice has no metrics auto-configuration; instrumented services still need a registry
+     */
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public QueryCountHarness queryCountHarness(QueryCountingDataSource recorder, DataSource dataSource) {
+        return new QueryCountHarness(recorder, new JdbcTemplate(dataSource));
+    }
+
+    @Bean
+    public QueryBudgetFixtures queryBudgetFixtures(EntityManagerFactory entityManagerFactory,
+                                                   PlatformTransactionManager transactionManager) {
+        return new QueryBudgetFixtures(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory),
+                new TransactionTemplate(transactionManager));
+    }
+}
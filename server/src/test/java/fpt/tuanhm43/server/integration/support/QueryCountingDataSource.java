@@ -0,0 +1,139 @@
+package fpt.tuanhm43.server.integration.support;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal JDBC proxy that records every statement executed while recording is on:
+ * its SQL, batch size, execution time and the number of rows read from its result sets.
+ */
+public class QueryCountingDataSource {
+
+    private final List<Entry> entries = new CopyOnWriteArrayList<>();
+    private volatile boolean recording;
+
+    public DataSource wrap(DataSource target) {
+        return proxy(DataSource.class, target, (method, args) -> {
+            Object result = method.invoke(target, args);
+            return result instanceof Connection connection ? wrapConnection(connection) : result;
+        });
+    }
+
+    public void start() {
+        entries.clear();
+        recording = true;
+    }
+
+    public List<RecordedStatement> stop() {
+        recording = false;
+        return entries.stream()
+                .map(e -> new RecordedStatement(e.sql, e.batchSize, e.rows.get(), e.nanos))
+                .toList();
+    }
+
+    private Connection wrapConnection(Connection target) {
+        return proxy(Connection.class, target, (method, args) -> {
+            Object result = method.invoke(target, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            if (result instanceof CallableStatement statement) {
+                return wrapStatement(CallableStatement.class, statement, sql);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrapStatement(PreparedStatement.class, statement, sql);
+            }
+            if (result instanceof Statement statement) {
+                return wrapStatement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private <S extends Statement> S wrapStatement(Class<S> type, S target, String preparedSql) {
+        int[] pendingBatch = {0};
+        Entry[] last = {null};
+        return proxy(type, target, (method, args) -> {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                pendingBatch[0]++;
+                return method.invoke(target, args);
+            }
+            if (!name.startsWith("execute")) {
+                Object result = method.invoke(target, args);
+                if (result instanceof ResultSet resultSet && name.equals("getResultSet") && last[0] != null) {
+                    return wrapResultSet(resultSet, last[0]);
+                }
+                return result;
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            long start = System.nanoTime();
+            Object result = method.invoke(target, args);
+            long nanos = System.nanoTime() - start;
+
+            int batchSize = name.contains("Batch") ? Math.max(pendingBatch[0], 1) : 1;
+            if (name.contains("Batch")) {
+                pendingBatch[0] = 0;
+            }
+            Entry entry = new Entry(sql != null ? sql : "<unknown>", batchSize, nanos);
+            if (recording) {
+                entries.add(entry);
+            }
+            last[0] = entry;
+            return result instanceof ResultSet resultSet ? wrapResultSet(resultSet, entry) : result;
+        });
+    }
+
+    private ResultSet wrapResultSet(ResultSet target, Entry entry) {
+        return proxy(ResultSet.class, target, (method, args) -> {
+            Object result = method.invoke(target, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                entry.rows.incrementAndGet();
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Invoker invoker) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getName().equals("unwrap") && args != null && args[0] instanceof Class<?> c && c.isInstance(proxy)) {
+                return proxy;
+            }
+            try {
+                return invoker.invoke(method, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    @FunctionalInterface
+    private interface Invoker {
+        Object invoke(Method method, Object[] args) throws Exception;
+    }
+
+    private static final class Entry {
+        private final String sql;
+        private final int batchSize;
+        private final long nanos;
+        private final AtomicLong rows = new AtomicLong();
+
+        private Entry(String sql, int batchSize, long nanos) {
+            this.sql = sql;
+            this.batchSize = batchSize;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package fpt.tuanhm43.server.integration.support;
+
+/**
+ * One JDBC execution as seen by {@link QueryCountingDataSource}
+ */
+public record RecordedStatement(String sql, int batchSize, long rows, long nanos) {
+
+    @Override
+    public String toString() {
+        String batch = batchSize > 1 ? " [batch x" + batchSize + "]" : "";
+        return String.format("%6.2f ms %5d rows%s  %s", nanos / 1_000_000.0, rows, batch, sql.strip());
+    }
+}
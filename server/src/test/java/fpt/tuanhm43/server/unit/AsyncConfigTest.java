@@ -0,0 +1,122 @@
+package fpt.tuanhm43.server.unit;
+
+import fpt.tuanhm43.server.config.AsyncConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncConfigTest {
+
+    private final MockEnvironment environment = new MockEnvironment();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<ThreadPoolTaskExecutor> executors = new ArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        environment.setProperty("app.async.mail.core-size", "1");
+        environment.setProperty("app.async.mail.max-size", "1");
+        environment.setProperty("app.async.mail.queue-capacity", "1");
+        environment.setProperty("app.async.search-sync.core-size", "1");
+        environment.setProperty("app.async.search-sync.max-size", "1");
+        environment.setProperty("app.async.search-sync.queue-capacity", "1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executors.forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    private ThreadPoolTaskExecutor start(ThreadPoolTaskExecutor executor) {
+        executor.initialize();
+        executors.add(executor);
+        return executor;
+    }
+
+    private void saturate(ThreadPoolTaskExecutor executor) {
+        Runnable blocked = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        executor.execute(blocked);
+        executor.execute(blocked);
+    }
+
+    private double rejected(String name) {
+        return meterRegistry.get("executor.rejected.tasks").tag("name", name).counter().count();
+    }
+
+    @Test
+    @DisplayName("Mail đầy hàng đợi: từ chối ngay (ABORT) và đếm metric")
+    void mailExecutor_AbortsWhenSaturated() {
+        ThreadPoolTaskExecutor mail = start(new AsyncConfig(environment, meterRegistry).mailExecutor());
+        saturate(mail);
+
+        assertThatThrownBy(() -> mail.execute(() -> { })).isInstanceOf(TaskRejectedException.class);
+        assertThat(rejected("mail")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Search sync đầy hàng đợi: chạy trên thread gọi, không mất cập nhật")
+    void searchSyncExecutor_RunsOnCallerWhenSaturated() {
+        ThreadPoolTaskExecutor searchSync = start(new AsyncConfig(environment, meterRegistry).searchSyncExecutor());
+        saturate(searchSync);
+
+        Thread caller = Thread.currentThread();
+        List<Thread> ranOn = new ArrayList<>();
+        searchSync.execute(() -> ranOn.add(Thread.currentThread()));
+
+        assertThat(ranOn).containsExactly(caller);
+        assertThat(rejected("search-sync")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Bật virtual-threads cho mail: mail chạy virtual thread, mail nghẽn không chặn search sync")
+    void virtualThreads_IsolatedPerWorkload() throws Exception {
+        environment.setProperty("app.async.mail.virtual-threads", "true");
+        environment.setProperty("app.async.mail.core-size", "2");
+        environment.setProperty("app.async.mail.max-size", "2");
+        AsyncConfig config = new AsyncConfig(environment, meterRegistry);
+        ThreadPoolTaskExecutor mail = start(config.mailExecutor());
+        ThreadPoolTaskExecutor searchSync = start(config.searchSyncExecutor());
+
+        CompletableFuture<Thread> mailWorker = CompletableFuture.supplyAsync(Thread::currentThread, mail);
+        assertThat(mailWorker.get(1, TimeUnit.SECONDS).isVirtual()).isTrue();
+
+        saturate(mail);
+        Thread searchWorker = CompletableFuture.supplyAsync(Thread::currentThread, searchSync).get(1, TimeUnit.SECONDS);
+
+        assertThat(searchWorker.isVirtual()).isFalse();
+        assertThat(searchWorker.getName()).startsWith("search-sync-");
+    }
+
+    @Test
+    @DisplayName("Bật spring.threads.virtual.enabled: search sync chạy virtual thread, mail vẫn platform thread")
+    void globalVirtualThreads_KeepsMailOnPlatformThreads() throws Exception {
+        environment.setProperty("spring.threads.virtual.enabled", "true");
+        AsyncConfig config = new AsyncConfig(environment, meterRegistry);
+        ThreadPoolTaskExecutor mail = start(config.mailExecutor());
+        ThreadPoolTaskExecutor searchSync = start(config.searchSyncExecutor());
+
+        assertThat(CompletableFuture.supplyAsync(Thread::currentThread, searchSync).get(1, TimeUnit.SECONDS).isVirtual()).isTrue();
+        assertThat(CompletableFuture.supplyAsync(Thread::currentThread, mail).get(1, TimeUnit.SECONDS).isVirtual()).isFalse();
+    }
+}
@@ -0,0 +1,86 @@
+package fpt.tuanhm43.server.unit;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fpt.tuanhm43.server.exceptions.ResourceNotFoundException;
+import fpt.tuanhm43.server.utils.CacheLoadUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CacheLoadUtilsTest {
+
+    private final AsyncCache<String, String> cache = Caffeine.newBuilder().buildAsync();
+
+    @Test
+    @DisplayName("Nhiều virtual thread cùng miss một key: chỉ load một lần, load không giữ khóa của cache")
+    void concurrentMisses_LoadOnceOutsideLock() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = threads.submit(() -> CacheLoadUtils.getOrLoad(cache, "k", key -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "v";
+            }));
+            loading.await(1, TimeUnit.SECONDS);
+
+            List<Future<String>> waiters = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                waiters.add(threads.submit(() -> CacheLoadUtils.getOrLoad(cache, "k", key -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            // A different key is not blocked by the load in flight
+            assertThat(CacheLoadUtils.getOrLoad(cache, "k2", key -> "v2")).isEqualTo("v2");
+
+            release.countDown();
+            assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("v");
+            for (Future<String> waiter : waiters) {
+                assertThat(waiter.get(1, TimeUnit.SECONDS)).isEqualTo("v");
+            }
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Loader ném lỗi: lỗi đến nguyên vẹn, không cache, lần sau load lại")
+    void loaderException_PropagatesAndIsNotCached() {
+        assertThatThrownBy(() -> CacheLoadUtils.getOrLoad(cache, "k", key -> {
+            throw new ResourceNotFoundException("Product", "slug", key);
+        })).isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(CacheLoadUtils.getOrLoad(cache, "k", key -> "v")).isEqualTo("v");
+    }
+
+    @Test
+    @DisplayName("Loader trả null: không cache")
+    void nullResult_IsNotCached() {
+        assertThat(CacheLoadUtils.getOrLoad(cache, "k", key -> null)).isNull();
+
+        assertThat(cache.getIfPresent("k")).isNull();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -78,7 +78,7 @@ class CartServiceTest {
     void addToCart_Success() {
         AddToCartRequest request = new AddToCartRequest(variantId, 2);
 
-        when(cartRepository.findBySessionId(sessionId)).thenReturn(Optional.of(mockCart));
+        when(cartRepository.findBySessionIdWithItems(sessionId)).thenReturn(Optional.of(mockCart));
         when(cartRepository.save(any(ShoppingCart.class))).thenReturn(mockCart);
         when(variantRepository.findById(variantId)).thenReturn(Optional.of(mockVariant));
         when(inventoryRepository.findByProductVariantId(variantId)).thenReturn(Optional.of(mockInventory));
@@ -107,7 +107,7 @@ class CartServiceTest {
     void addToCart_InsufficientStock() {
         AddToCartRequest request = new AddToCartRequest(variantId, 10);
 
-        when(cartRepository.findBySessionId(sessionId)).thenReturn(Optional.of(mockCart));
+        when(cartRepository.findBySessionIdWithItems(sessionId)).thenReturn(Optional.of(mockCart));
         when(variantRepository.findById(variantId)).thenReturn(Optional.of(mockVariant));
         when(inventoryRepository.findByProductVariantId(variantId)).thenReturn(Optional.of(mockInventory));
 
@@ -0,0 +1,97 @@
+package fpt.tuanhm43.server.unit;
+
+import fpt.tuanhm43.server.caches.ProductDetailCache;
+import fpt.tuanhm43.server.caches.SlugIdCache;
+import fpt.tuanhm43.server.dtos.category.request.UpdateCategoryRequest;
+import fpt.tuanhm43.server.entities.Category;
+import fpt.tuanhm43.server.mappers.CategoryMapper;
+import fpt.tuanhm43.server.mappers.helper.CategoryMapperHelper;
+import fpt.tuanhm43.server.repositories.CategoryRepository;
+import fpt.tuanhm43.server.repositories.ProductRepository;
+import fpt.tuanhm43.server.services.impl.CategoryServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryServiceTest {
+
+    @Mock private CategoryRepository categoryRepository;
+    @Mock private ProductRepository productRepository;
+    @Mock private CategoryMapper categoryMapper;
+    @Mock private CategoryMapperHelper categoryMapperHelper;
+    @Mock private SlugIdCache slugIdCache;
+    @Mock private ProductDetailCache productDetailCache;
+
+    @InjectMocks private CategoryServiceImpl categoryService;
+
+    private final UUID categoryId = UUID.randomUUID();
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setId(categoryId);
+        category.setName("Áo thun");
+        category.setIsActive(true);
+        category.setIsDeleted(false);
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        when(categoryRepository.save(any(Category.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("Đổi tên danh mục: xoá cache chi tiết của mọi sản phẩm thuộc danh mục")
+    void update_Rename_EvictsProductDetails() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(categoryRepository.existsByNameIgnoreCaseAndIsDeletedFalse(anyString())).thenReturn(false);
+        when(productRepository.findIdsByCategoryId(categoryId)).thenReturn(List.of(first, second));
+        UpdateCategoryRequest request = new UpdateCategoryRequest();
+        request.setName("Áo polo");
+
+        categoryService.update(categoryId, request);
+
+        verify(productDetailCache).evict(first);
+        verify(productDetailCache).evict(second);
+    }
+
+    @Test
+    @DisplayName("Ngừng kích hoạt danh mục: xoá cache chi tiết sản phẩm")
+    void update_Deactivate_EvictsProductDetails() {
+        UUID productId = UUID.randomUUID();
+        when(productRepository.findIdsByCategoryId(categoryId)).thenReturn(List.of(productId));
+        UpdateCategoryRequest request = new UpdateCategoryRequest();
+        request.setIsActive(false);
+
+        categoryService.update(categoryId, request);
+
+        verify(productDetailCache).evict(productId);
+    }
+
+    @Test
+    @DisplayName("Chỉ sửa mô tả: không đụng tới cache sản phẩm")
+    void update_DescriptionOnly_KeepsProductDetails() {
+        UpdateCategoryRequest request = new UpdateCategoryRequest();
+        request.setDescription("Mô tả mới");
+        request.setIsActive(true);
+
+        categoryService.update(categoryId, request);
+
+        verify(productRepository, never()).findIdsByCategoryId(any());
+        verify(productDetailCache, never()).evict(any());
+    }
+}
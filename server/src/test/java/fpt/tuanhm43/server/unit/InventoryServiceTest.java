@@ -9,12 +9,14 @@ import fpt.tuanhm43.server.repositories.OrderRepository;
 import fpt.tuanhm43.server.repositories.ProductVariantRepository;
 import fpt.tuanhm43.server.services.InventoryService;
 import fpt.tuanhm43.server.services.impl.InventoryServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
@@ -32,6 +34,7 @@ class InventoryServiceTest {
     @Mock private InventoryReservationRepository reservationRepository;
     @Mock private ProductVariantRepository variantRepository;
     @Mock private OrderRepository orderRepository;
+    @Spy private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks private InventoryServiceImpl inventoryService;
 
@@ -65,13 +68,15 @@ class InventoryServiceTest {
         );
 
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(mockOrder));
-        when(inventoryRepository.findByVariantIdWithLock(variantId)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.findAllByVariantIdsWithLock(List.of(variantId))).thenReturn(List.of(inventory));
 
         inventoryService.reserveStock("session-123", orderId, items, 15);
 
         assertThat(inventory.getQuantityAvailable()).isEqualTo(8);
         assertThat(inventory.getQuantityReserved()).isEqualTo(2);
-        verify(reservationRepository, times(1)).save(any(InventoryReservation.class));
+        verify(reservationRepository, times(1)).saveAll(argThat(r -> r.iterator().hasNext()));
+        assertThat(meterRegistry.get("inventory.lock.wait").tag("operation", "reserve").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("inventory.reservations").tag("outcome", "reserved").counter().count()).isEqualTo(1);
     }
 
     @Test
@@ -82,12 +87,14 @@ class InventoryServiceTest {
         );
 
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(mockOrder));
-        when(inventoryRepository.findByVariantIdWithLock(variantId)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.findAllByVariantIdsWithLock(List.of(variantId))).thenReturn(List.of(inventory));
 
         assertThatThrownBy(() -> inventoryService.reserveStock("session-123", orderId, items, 15))
                 .isInstanceOf(InsufficientStockException.class);
 
-        verify(reservationRepository, never()).save(any());
+        verify(reservationRepository, never()).saveAll(any());
+        assertThat(meterRegistry.get("inventory.reservations").tag("outcome", "insufficient_stock").counter().count())
+                .isEqualTo(1);
     }
 
     @Test
@@ -0,0 +1,212 @@
+package fpt.tuanhm43.server.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.dtos.mail.OutboundMail;
+import fpt.tuanhm43.server.services.impl.MailDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class MailDispatcherTest {
+
+    @Mock private JavaMailSender mailSender;
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ListOperations<String, String> listOperations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        Session session = Session.getInstance(new Properties());
+        lenient().when(mailSender.createMimeMessage()).thenAnswer(inv -> new MimeMessage(session));
+        lenient().when(redisTemplate.opsForList()).thenReturn(listOperations);
+        // Without a resolver configured, the engine resolves the template name as the template itself
+        dispatcher = new MailDispatcher(mailSender, new SpringTemplateEngine(), redisTemplate, new ObjectMapper(),
+                meterRegistry, new ThreadPoolTaskExecutor(), "noreply@test.com", "TestStore",
+                3, 10, 0, 2, 0, 0, 100);
+    }
+
+    private static OutboundMail mail(String to) {
+        return new OutboundMail(to, "Xác nhận đơn hàng", "<p th:text=\"${orderNumber}\"></p>", Map.of("orderNumber", "ORD-1"));
+    }
+
+    /** Messages per {@code send(MimeMessage...)} call, i.e. per SMTP connection */
+    private List<MimeMessage[]> batches() {
+        return mockingDetails(mailSender).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("send"))
+                .map(invocation -> (MimeMessage[]) invocation.getRawArguments()[0])
+                .toList();
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("mail.dispatch.messages").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("Nhiều email trong hàng đợi: gửi theo lô trên một kết nối SMTP")
+    void dispatchBatch_SendsUpToBatchSizeInOneCall() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            dispatcher.enqueue(mail("user" + i + "@test.com"));
+        }
+
+        assertThat(dispatcher.dispatchBatch(Duration.ZERO)).isEqualTo(3);
+        assertThat(dispatcher.dispatchBatch(Duration.ZERO)).isEqualTo(2);
+
+        assertThat(batches()).extracting(batch -> batch.length).containsExactly(3, 2);
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        batches().get(0)[0].writeTo(raw);
+        assertThat(raw.toString(StandardCharsets.UTF_8)).contains("<p>ORD-1</p>");
+        assertThat(outcome("sent")).isEqualTo(5);
+        assertThat(dispatcher.queueSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Lỗi tạm thời: chỉ gửi lại email lỗi, hết số lần thử thì vào dead-letter")
+    void transientFailure_RetriesFailedMessagesThenDeadLetters() throws Exception {
+        doAnswer(inv -> {
+            throw new MailSendException(Map.of(inv.getArgument(0), new MailSendException("421 try again later")));
+        }).doNothing().when(mailSender).send(any(MimeMessage[].class));
+        dispatcher.enqueue(mail("a@test.com"));
+        dispatcher.enqueue(mail("b@test.com"));
+
+        dispatcher.dispatchBatch(Duration.ZERO);
+        assertThat(outcome("sent")).isEqualTo(1);
+        assertThat(outcome("retried")).isEqualTo(1);
+
+        dispatcher.dispatchBatch(Duration.ZERO);
+        assertThat(outcome("sent")).isEqualTo(2);
+        verify(listOperations, never()).leftPush(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Lỗi tạm thời kéo dài: vào dead-letter sau max-attempts")
+    void transientFailure_DeadLettersAfterMaxAttempts() throws Exception {
+        doAnswer(inv -> {
+            throw new MailSendException("Connection refused");
+        }).when(mailSender).send(any(MimeMessage[].class));
+        dispatcher.enqueue(mail("a@test.com"));
+
+        dispatcher.dispatchBatch(Duration.ZERO);
+        dispatcher.dispatchBatch(Duration.ZERO);
+
+        assertThat(batches()).hasSize(2);
+        verify(listOperations).leftPush(eq(MailDispatcher.DEAD_LETTER_KEY), anyString());
+        assertThat(outcome("dead_lettered")).isEqualTo(1);
+        assertThat(dispatcher.queueSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Địa chỉ bị server từ chối: vào dead-letter ngay, không gửi lại")
+    void rejectedAddress_DeadLettersWithoutRetry() throws Exception {
+        doAnswer(inv -> {
+            SendFailedException rejected = new SendFailedException("550 no such user", null, null,
+                    null, new InternetAddress[]{new InternetAddress("ghost@test.com")});
+            throw new MailSendException(Map.of(inv.getArgument(0), rejected));
+        }).when(mailSender).send(any(MimeMessage[].class));
+        dispatcher.enqueue(mail("ghost@test.com"));
+
+        dispatcher.dispatchBatch(Duration.ZERO);
+
+        assertThat(outcome("retried")).isZero();
+        verify(listOperations).leftPush(eq(MailDispatcher.DEAD_LETTER_KEY), anyString());
+        assertThat(dispatcher.dispatchBatch(Duration.ZERO)).isZero();
+    }
+
+    @Test
+    @DisplayName("Hàng đợi đầy: email mới vào dead-letter, không chặn thread gọi")
+    void fullQueue_DeadLettersInsteadOfBlocking() {
+        for (int i = 0; i < 11; i++) {
+            dispatcher.enqueue(mail("user" + i + "@test.com"));
+        }
+
+        assertThat(dispatcher.queueSize()).isEqualTo(10);
+        verify(listOperations).leftPush(eq(MailDispatcher.DEAD_LETTER_KEY), anyString());
+    }
+
+    @Test
+    @DisplayName("Lỗi không lường trước khi gửi: email được thử lại, không làm hỏng worker")
+    void unexpectedSendFailure_RetriesInsteadOfThrowing() throws Exception {
+        doAnswer(inv -> {
+            throw new IllegalStateException("connection pool closed");
+        }).doNothing().when(mailSender).send(any(MimeMessage[].class));
+        dispatcher.enqueue(mail("a@test.com"));
+
+        dispatcher.dispatchBatch(Duration.ZERO);
+        assertThat(outcome("retried")).isEqualTo(1);
+
+        dispatcher.dispatchBatch(Duration.ZERO);
+        assertThat(outcome("sent")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Dead-letter email đặt lại mật khẩu: link chứa token bị che")
+    void deadLetter_RedactsSecretVariables() throws Exception {
+        OutboundMail reset = new OutboundMail("a@test.com", "Reset", "<a th:href=\"${resetUrl}\"></a>",
+                Map.of("resetUrl", "https://shop.test/reset-password?token=secret-token", "customerName", "An"),
+                Set.of("resetUrl"));
+        doAnswer(inv -> {
+            throw new MailSendException("Connection refused");
+        }).when(mailSender).send(any(MimeMessage[].class));
+        dispatcher.enqueue(reset);
+
+        dispatcher.dispatchBatch(Duration.ZERO);
+        dispatcher.dispatchBatch(Duration.ZERO);
+
+        ArgumentCaptor<String> entry = ArgumentCaptor.forClass(String.class);
+        verify(listOperations).leftPush(eq(MailDispatcher.DEAD_LETTER_KEY), entry.capture());
+        assertThat(entry.getValue()).doesNotContain("secret-token").contains("[redacted]", "An");
+    }
+
+    @Test
+    @DisplayName("Giới hạn tốc độ: cả lô chờ tới suất gửi cuối cùng nó giữ chỗ")
+    void pace_WaitsForLastReservedSlot() throws Exception {
+        MailDispatcher paced = new MailDispatcher(mailSender, new SpringTemplateEngine(), redisTemplate, new ObjectMapper(),
+                meterRegistry, new ThreadPoolTaskExecutor(), "noreply@test.com", "TestStore",
+                3, 10, 10, 2, 0, 0, 100);
+        for (int i = 0; i < 3; i++) {
+            paced.enqueue(mail("user" + i + "@test.com"));
+        }
+
+        long start = System.nanoTime();
+        paced.dispatchBatch(Duration.ZERO);
+
+        // 10/s: three sends take the slots at 0, 100 and 200 ms
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    }
+}
@@ -0,0 +1,134 @@
+package fpt.tuanhm43.server.unit;
+
+import fpt.tuanhm43.server.dtos.mail.OrderMailSnapshot;
+import fpt.tuanhm43.server.dtos.mail.OutboundMail;
+import fpt.tuanhm43.server.entities.BaseEntity;
+import fpt.tuanhm43.server.entities.Order;
+import fpt.tuanhm43.server.entities.OrderItem;
+import fpt.tuanhm43.server.enums.PaymentMethod;
+import fpt.tuanhm43.server.services.impl.MailDispatcher;
+import fpt.tuanhm43.server.services.impl.MailServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class MailServiceTest {
+
+    @Mock private MailDispatcher mailDispatcher;
+    @Spy private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks private MailServiceImpl mailService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(mailService, "backendUrl", "http://shop.test");
+        order = Order.builder()
+                .orderNumber("ORD-1")
+                .trackingToken(UUID.fromString("6f1c2a44-5a7e-4d0b-9a55-0b4c1d2e3f40"))
+                .customerName("Nguyễn Văn A")
+                .customerEmail("a@test.com")
+                .shippingAddress("Hà Nội")
+                .paymentMethod(PaymentMethod.COD)
+                .subtotal(new BigDecimal("500000"))
+                .shippingFee(new BigDecimal("30000"))
+                .totalAmount(new BigDecimal("530000"))
+                .build();
+        order.getItems().add(OrderItem.builder().order(order).productName("Áo thun basic").sku("AT-BASIC-L")
+                .quantity(2).unitPrice(new BigDecimal("250000")).subtotal(new BigDecimal("500000")).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private OutboundMail queued() {
+        ArgumentCaptor<OutboundMail> mail = ArgumentCaptor.forClass(OutboundMail.class);
+        verify(mailDispatcher).enqueue(mail.capture());
+        return mail.getValue();
+    }
+
+    @Test
+    @DisplayName("Email xác nhận đơn: chỉ chứa snapshot bất biến, không giữ entity JPA")
+    void sendOrderConfirmation_QueuesSnapshotWithoutEntities() {
+        mailService.sendOrderConfirmation(order);
+
+        OutboundMail mail = queued();
+        assertThat(mail.to()).isEqualTo("a@test.com");
+        assertThat(mail.variables()).containsEntry("trackingUrl", "http://shop.test/track/6f1c2a44-5a7e-4d0b-9a55-0b4c1d2e3f40");
+        assertThat(mail.variables().get("items")).asInstanceOf(InstanceOfAssertFactories.LIST)
+                .containsExactly(new OrderMailSnapshot.Line("Áo thun basic", "AT-BASIC-L", 2,
+                        new BigDecimal("250000"), new BigDecimal("500000")));
+        assertThat(mail.variables().values())
+                .allSatisfy(value -> assertThat(value).isNotInstanceOf(BaseEntity.class))
+                .filteredOn(Collection.class::isInstance)
+                .allSatisfy(values -> assertThat((Collection<?>) values).doesNotHaveAnyElementsOfTypes(BaseEntity.class));
+    }
+
+    @Test
+    @DisplayName("Trong transaction: chỉ đưa email vào hàng đợi sau khi commit, rollback thì không gửi")
+    void insideTransaction_QueuesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        mailService.sendOrderShipped(order);
+        mailService.sendOrderCancelled(order, "Hết hàng");
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        verify(mailDispatcher, never()).enqueue(any());
+        synchronizations.get(1).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        synchronizations.get(0).afterCommit();
+
+        OutboundMail mail = queued();
+        assertThat(mail.template()).isEqualTo("order-shipped");
+        assertThat(meterRegistry.get("mail.queued").tag("template", "order-shipped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("mail.queued").tag("template", "order-cancelled").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Render template xác nhận đơn từ snapshot: có dòng sản phẩm và phí vận chuyển")
+    void orderConfirmationTemplate_RendersSnapshotLines() {
+        mailService.sendOrderConfirmation(order);
+        OutboundMail mail = queued();
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        Context context = new Context();
+        context.setVariables(mail.variables());
+
+        String html = engine.process(mail.template(), context);
+
+        assertThat(html).contains("Áo thun basic", "AT-BASIC-L", "500,000", "30,000", "530,000");
+    }
+}
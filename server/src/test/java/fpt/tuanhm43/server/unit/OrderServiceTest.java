@@ -1,8 +1,12 @@
 package fpt.tuanhm43.server.unit;
 
+import fpt.tuanhm43.server.caches.OrderCountCache;
+import fpt.tuanhm43.server.dtos.CursorPageResponseDTO;
 import fpt.tuanhm43.server.dtos.order.request.CreateOrderRequest;
+import fpt.tuanhm43.server.dtos.order.request.OrderFilterRequest;
 import fpt.tuanhm43.server.dtos.order.request.OrderItemRequest;
 import fpt.tuanhm43.server.dtos.order.response.OrderDetailResponse;
+import fpt.tuanhm43.server.dtos.order.response.OrderResponse;
 import fpt.tuanhm43.server.entities.*;
 import fpt.tuanhm43.server.enums.OrderStatus;
 import fpt.tuanhm43.server.exceptions.ResourceNotFoundException;
@@ -13,14 +17,20 @@ import fpt.tuanhm43.server.repositories.ShoppingCartRepository;
 import fpt.tuanhm43.server.services.InventoryService;
 import fpt.tuanhm43.server.services.MailService;
 import fpt.tuanhm43.server.services.impl.OrderServiceImpl;
+import fpt.tuanhm43.server.utils.CursorUtils;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +39,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,6 +55,8 @@ class OrderServiceTest {
 
     @Mock private OrderMapper orderMapper;
 
+    @Spy private OrderCountCache orderCountCache = new OrderCountCache(30);
+
     @InjectMocks private OrderServiceImpl orderService;
 
     @Test
@@ -65,9 +79,9 @@ class OrderServiceTest {
 
         ShoppingCart cart = ShoppingCart.builder().sessionId(sessionId).items(List.of(item)).build();
 
-        when(cartRepository.findBySessionId(sessionId)).thenReturn(Optional.of(cart));
+        when(cartRepository.findForCheckoutBySessionId(sessionId)).thenReturn(Optional.of(cart));
 
-        when(orderRepository.countByCreatedAtAfter(any())).thenReturn(0L);
+        when(orderRepository.nextOrderNumber()).thenReturn(1L);
 
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order o = invocation.getArgument(0);
@@ -95,9 +109,9 @@ class OrderServiceTest {
         CreateOrderRequest request = new CreateOrderRequest();
         request.setItems(List.of(new OrderItemRequest(variantId, 1)));
 
-        when(variantRepository.findById(variantId)).thenReturn(Optional.of(variant));
+        when(variantRepository.findAllWithProductByIdIn(List.of(variantId))).thenReturn(List.of(variant));
 
-        when(orderRepository.countByCreatedAtAfter(any())).thenReturn(0L);
+        when(orderRepository.nextOrderNumber()).thenReturn(1L);
 
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order o = invocation.getArgument(0);
@@ -112,6 +126,15 @@ class OrderServiceTest {
         verify(inventoryService).reserveStock(anyString(), eq(orderId), anyList(), eq(15));
     }
 
+    @Test
+    @DisplayName("Mã đơn: hậu tố luôn 7 chữ số, vừa cột order_number (20 ký tự) kể cả khi sequence vượt 10^7")
+    void generateOrderNumber_BoundsSuffixToSevenDigits() {
+        when(orderRepository.nextOrderNumber()).thenReturn(12_345_678_901L, 42L);
+
+        assertThat(orderService.generateOrderNumber()).matches("ORD-\\d{8}-5678901");
+        assertThat(orderService.generateOrderNumber()).matches("ORD-\\d{8}-0000042").hasSize(20);
+    }
+
     @Test
     @DisplayName("Track đơn hàng: Thành công khi mã Token hợp lệ")
     void getOrderByTrackingToken_Success() {
@@ -147,4 +170,45 @@ class OrderServiceTest {
         assertThatThrownBy(() -> orderService.getOrderByTrackingToken(invalidToken))
                 .isInstanceOf(ResourceNotFoundException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Admin phân trang cursor: trang đầu không COUNT, nextCursor trỏ vào đơn cuối")
+    void getAllOrdersByCursor_FirstPageReturnsNextCursorWithoutCount() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 1, 15, 10, 30);
+        Order newer = Order.builder().id(UUID.randomUUID()).createdAt(createdAt.plusMinutes(5)).build();
+        Order older = Order.builder().id(UUID.randomUUID()).createdAt(createdAt).build();
+
+        when(orderRepository.findSliceByOrderByCreatedAtDescIdDesc(PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(newer, older), PageRequest.of(0, 2), true));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+
+        CursorPageResponseDTO<OrderResponse> page = orderService.getAllOrdersByCursor(
+                OrderFilterRequest.builder().size(2).build(), null, false);
+
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getTotalElements()).isNull();
+        assertThat(CursorUtils.decode(page.getNextCursor())).isEqualTo(new CursorUtils.Cursor(createdAt, older.getId()));
+        verify(orderRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Admin phân trang cursor: trang sau dùng keyset (createdAt, id), total được cache")
+    void getAllOrdersByCursor_NextPageUsesKeysetAndCachedCount() {
+        UUID lastId = UUID.randomUUID();
+        LocalDateTime lastCreatedAt = LocalDateTime.of(2026, 1, 15, 10, 30);
+        String cursor = CursorUtils.encode(lastCreatedAt, lastId);
+
+        when(orderRepository.findSliceByStatusBefore(eq(OrderStatus.PAID), eq(lastCreatedAt), eq(lastId), any()))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), false));
+        when(orderRepository.countByStatus(OrderStatus.PAID)).thenReturn(1_250_000L);
+
+        OrderFilterRequest filter = OrderFilterRequest.builder().status(OrderStatus.PAID).build();
+        orderService.getAllOrdersByCursor(filter, cursor, true);
+        CursorPageResponseDTO<OrderResponse> page = orderService.getAllOrdersByCursor(filter, cursor, true);
+
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getTotalElements()).isEqualTo(1_250_000L);
+        verify(orderRepository, times(1)).countByStatus(OrderStatus.PAID);
+    }
+}
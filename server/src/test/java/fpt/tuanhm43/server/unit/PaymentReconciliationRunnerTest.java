@@ -0,0 +1,274 @@
+package fpt.tuanhm43.server.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.dtos.payment.PaymentReconciliationRow;
+import fpt.tuanhm43.server.dtos.payment.response.ReconciliationResponse;
+import fpt.tuanhm43.server.dtos.payment.response.ReconciliationResponse.Discrepancy;
+import fpt.tuanhm43.server.enums.DiscrepancyType;
+import fpt.tuanhm43.server.enums.PaymentMethod;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import fpt.tuanhm43.server.enums.ReconciliationStatus;
+import fpt.tuanhm43.server.repositories.PaymentTransactionRepository;
+import fpt.tuanhm43.server.services.InventoryService;
+import fpt.tuanhm43.server.services.impl.PaymentReconciliationRunner;
+import fpt.tuanhm43.server.services.impl.PaymentStatusStreams;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PaymentReconciliationRunnerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Mock private PaymentTransactionRepository paymentTransactionRepository;
+    @Mock private InventoryService inventoryService;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private PaymentStatusStreams statusStreams;
+
+    private PaymentReconciliationRunner runner;
+    private final List<PaymentReconciliationRow> local = new ArrayList<>();
+    /** Transactions created outside the reconciled window */
+    private final List<PaymentReconciliationRow> outsideWindow = new ArrayList<>();
+    private final List<Integer> pageSizes = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        runner = new PaymentReconciliationRunner(paymentTransactionRepository, inventoryService, transactionTemplate,
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                statusStreams, 2, 2, 2, 60);
+
+        // Keyset pages over the rows in transaction id order, as the database returns them
+        when(paymentTransactionRepository.findReconciliationPage(eq(PaymentMethod.SEPAY), any(), any(), anyString(), any()))
+                .thenAnswer(inv -> {
+                    String after = inv.getArgument(3);
+                    Pageable pageable = inv.getArgument(4);
+                    List<PaymentReconciliationRow> page = local.stream()
+                            .sorted(Comparator.comparing(PaymentReconciliationRow::transactionId))
+                            .filter(row -> row.transactionId().compareTo(after) > 0)
+                            .limit(pageable.getPageSize())
+                            .toList();
+                    pageSizes.add(page.size());
+                    return page;
+                });
+        when(paymentTransactionRepository.findReconciliationRows(anyCollection())).thenAnswer(inv -> {
+            Collection<String> ids = inv.getArgument(0);
+            return outsideWindow.stream().filter(row -> ids.contains(row.transactionId())).toList();
+        });
+        when(paymentTransactionRepository.transitionStatus(anyString(), any(), eq(PaymentStatus.FAILED), isNull(), anyString(), any()))
+                .thenReturn(1);
+        doAnswer(inv -> {
+            inv.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static PaymentReconciliationRow row(String transactionId, PaymentStatus status, String amount,
+                                                LocalDateTime createdAt, PaymentStatus orderPaymentStatus) {
+        return new PaymentReconciliationRow(UUID.randomUUID(), transactionId, status, new BigDecimal(amount),
+                createdAt, UUID.randomUUID(), orderPaymentStatus);
+    }
+
+    private static ReconciliationResponse job() {
+        return ReconciliationResponse.builder()
+                .jobId(UUID.randomUUID())
+                .status(ReconciliationStatus.PENDING)
+                .from(NOW.minusDays(1))
+                .to(NOW.plusMinutes(1))
+                .build();
+    }
+
+    private static List<DiscrepancyType> types(ReconciliationResponse result) {
+        return result.getDiscrepancies().stream().map(Discrepancy::getType).toList();
+    }
+
+    private static Discrepancy discrepancy(ReconciliationResponse result, String transactionId, DiscrepancyType type) {
+        return result.getDiscrepancies().stream()
+                .filter(d -> transactionId.equals(d.getTransactionId()) && d.getType() == type)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Đối soát CSV chưa sắp xếp: ghép đúng theo transactionId, báo từng loại chênh lệch")
+    void reconcileCsv_ReportsEveryKindOfDiscrepancy() {
+        PaymentReconciliationRow stale = row("TXN-B", PaymentStatus.PENDING, "100", NOW.minusHours(2), PaymentStatus.PENDING);
+        PaymentReconciliationRow failedAtProvider = row("TXN-D", PaymentStatus.PROCESSING, "100", NOW, PaymentStatus.PENDING);
+        local.addAll(List.of(
+                row("TXN-A", PaymentStatus.PAID, "100", NOW, PaymentStatus.PAID),
+                stale,
+                row("TXN-C", PaymentStatus.PROCESSING, "100", NOW, PaymentStatus.PENDING),
+                failedAtProvider,
+                row("TXN-E", PaymentStatus.PAID, "200", NOW, PaymentStatus.PAID),
+                row("TXN-F", PaymentStatus.PAID, "100", NOW, PaymentStatus.PENDING),
+                row("TXN-G", PaymentStatus.PAID, "100", NOW, PaymentStatus.PAID),
+                row("TXN-I", PaymentStatus.PENDING, "100", NOW, PaymentStatus.PENDING)));
+        outsideWindow.add(row("TXN-H", PaymentStatus.PAID, "100", NOW.minusDays(3), PaymentStatus.PAID));
+
+        String csv = """
+                transactionId,status,amount,referenceCode
+                TXN-Z,SUCCESS,100,REF-Z
+                TXN-F,SUCCESS,100,REF-F
+                TXN-A,SUCCESS,100,REF-A
+                TXN-I,SUCCESS,100,REF-I
+                ,SUCCESS,100,REF-X
+                TXN-E,SUCCESS,150,REF-E
+                TXN-H,SUCCESS,100,REF-H
+                TXN-D,FAILED,100,
+                TXN-A,SUCCESS,100,REF-A
+                """;
+
+        ReconciliationResponse result = runner.reconcile(job(), new StringReader(csv),
+                PaymentReconciliationRunner.Format.CSV, snapshot -> { });
+
+        assertThat(result.getStatus()).isEqualTo(ReconciliationStatus.COMPLETED);
+        assertThat(result.getLocalTransactions()).isEqualTo(8);
+        assertThat(result.getStatementRecords()).isEqualTo(8);
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(types(result)).containsExactlyInAnyOrder(
+                DiscrepancyType.MALFORMED_RECORD,
+                DiscrepancyType.DUPLICATE_AT_PROVIDER,
+                DiscrepancyType.AMOUNT_MISMATCH,
+                DiscrepancyType.ORDER_STATUS_MISMATCH,
+                DiscrepancyType.MISSING_AT_PROVIDER,
+                DiscrepancyType.STATUS_MISMATCH,
+                DiscrepancyType.STATUS_MISMATCH,
+                DiscrepancyType.STALE_UNSETTLED,
+                DiscrepancyType.MISSING_LOCALLY);
+        assertThat(result.getDiscrepancyCounts()).containsEntry(DiscrepancyType.STATUS_MISMATCH, 2L);
+        assertThat(discrepancy(result, "TXN-G", DiscrepancyType.MISSING_AT_PROVIDER).isResolved()).isFalse();
+        assertThat(discrepancy(result, "TXN-Z", DiscrepancyType.MISSING_LOCALLY).getProviderStatus()).isEqualTo("SUCCESS");
+        assertThat(discrepancy(result, "TXN-I", DiscrepancyType.STATUS_MISMATCH).isResolved()).isFalse();
+
+        // Only the stale transaction and the one failed at the provider are resolved, in one batch
+        assertThat(result.getResolved()).isEqualTo(2);
+        assertThat(discrepancy(result, "TXN-B", DiscrepancyType.STALE_UNSETTLED).isResolved()).isTrue();
+        assertThat(discrepancy(result, "TXN-D", DiscrepancyType.STATUS_MISMATCH).isResolved()).isTrue();
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        verify(inventoryService).releaseReservationByOrder(stale.orderId());
+        verify(inventoryService).releaseReservationByOrder(failedAtProvider.orderId());
+        verify(paymentTransactionRepository, never()).transitionStatus(eq("TXN-C"), any(), any(), any(), any(), any());
+
+        // Streamed two rows at a time
+        assertThat(pageSizes).containsExactly(2, 2, 2, 2, 0);
+    }
+
+    @Test
+    @DisplayName("Sao kê JSON lớn hơn 1 chunk: sắp xếp ngoài bộ nhớ, khớp toàn bộ")
+    void reconcileJson_ExternalSortMatchesAll() {
+        IntStream.range(0, 25).forEach(i ->
+                local.add(row("TXN-%03d".formatted(i), PaymentStatus.PAID, "100", NOW, PaymentStatus.PAID)));
+        String json = IntStream.range(0, 25).map(i -> 24 - i)
+                .mapToObj(i -> "{\"transactionId\":\"TXN-%03d\",\"status\":\"SUCCESS\",\"amount\":100}".formatted(i))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        ReconciliationResponse result = runner.reconcile(job(), new StringReader(json),
+                PaymentReconciliationRunner.Format.JSON, snapshot -> { });
+
+        assertThat(result.getStatus()).isEqualTo(ReconciliationStatus.COMPLETED);
+        assertThat(result.getMatched()).isEqualTo(25);
+        assertThat(result.getDiscrepancyCount()).isZero();
+        verify(paymentTransactionRepository, never()).findReconciliationRows(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Webhook đã chốt giao dịch trước khi xử lý: không giải phóng kho, báo chưa xử lý")
+    void resolve_SkipsTransactionsSettledMeanwhile() {
+        PaymentReconciliationRow stale = row("TXN-B", PaymentStatus.PENDING, "100", NOW.minusHours(2), PaymentStatus.PENDING);
+        local.add(stale);
+        when(paymentTransactionRepository.transitionStatus(eq("TXN-B"), any(), any(), any(), any(), any())).thenReturn(0);
+
+        ReconciliationResponse result = runner.reconcile(job(), new StringReader("transactionId,status,amount\n"),
+                PaymentReconciliationRunner.Format.CSV, snapshot -> { });
+
+        assertThat(result.getResolved()).isZero();
+        assertThat(discrepancy(result, "TXN-B", DiscrepancyType.STALE_UNSETTLED).isResolved()).isFalse();
+        verify(inventoryService, never()).releaseReservationByOrder(any());
+    }
+
+    @Test
+    @DisplayName("CSDL trả về sai thứ tự transactionId: dừng job thay vì ghép sai")
+    void reconcile_FailsWhenDatabaseOrderDiffers() {
+        when(paymentTransactionRepository.findReconciliationPage(any(), any(), any(), anyString(), any()))
+                .thenReturn(List.of(row("TXN-b", PaymentStatus.PAID, "100", NOW, PaymentStatus.PAID),
+                        row("TXN-B", PaymentStatus.PAID, "100", NOW, PaymentStatus.PAID)));
+
+        ReconciliationResponse result = runner.reconcile(job(), new StringReader("transactionId,status,amount\n"),
+                PaymentReconciliationRunner.Format.CSV, snapshot -> { });
+
+        assertThat(result.getStatus()).isEqualTo(ReconciliationStatus.FAILED);
+        assertThat(result.getMessage()).contains("transaction id order");
+    }
+
+    @Test
+    @DisplayName("Bản ghi sao kê không có trong khoảng thời gian: tra cứu theo lô, không từng bản ghi")
+    void reconcile_LooksUpStatementOnlyRecordsInBatches() {
+        outsideWindow.add(row("TXN-3", PaymentStatus.PAID, "100", NOW.minusDays(3), PaymentStatus.PAID));
+        String csv = IntStream.range(1, 6)
+                .mapToObj(i -> "TXN-%d,SUCCESS,100".formatted(i))
+                .collect(Collectors.joining("\n", "transactionId,status,amount\n", "\n"));
+
+        ReconciliationResponse result = runner.reconcile(job(), new StringReader(csv),
+                PaymentReconciliationRunner.Format.CSV, snapshot -> { });
+
+        // page-size 2: five records in three lookups
+        verify(paymentTransactionRepository, times(3)).findReconciliationRows(anyCollection());
+        assertThat(result.getMatched()).isEqualTo(1);
+        assertThat(result.getDiscrepancyCounts()).containsEntry(DiscrepancyType.MISSING_LOCALLY, 4L);
+    }
+
+    @Test
+    @DisplayName("Phần tử JSON sai kiểu: báo MALFORMED_RECORD và đối soát tiếp, như CSV")
+    void reconcileJson_ReportsUnmappableElementsAndContinues() {
+        local.add(row("TXN-A", PaymentStatus.PAID, "100", NOW, PaymentStatus.PAID));
+        local.add(row("TXN-C", PaymentStatus.PAID, "100", NOW, PaymentStatus.PAID));
+        String json = """
+                [{"transactionId":"TXN-A","status":"SUCCESS","amount":100},
+                 {"transactionId":"TXN-B","status":"SUCCESS","amount":"một trăm","extra":{"nested":[1,2]}},
+                 null,
+                 {"transactionId":"TXN-C","status":"SUCCESS","amount":100}]
+                """;
+
+        ReconciliationResponse result = runner.reconcile(job(), new StringReader(json),
+                PaymentReconciliationRunner.Format.JSON, snapshot -> { });
+
+        assertThat(result.getStatus()).isEqualTo(ReconciliationStatus.COMPLETED);
+        assertThat(result.getMatched()).isEqualTo(2);
+        assertThat(types(result)).containsExactly(DiscrepancyType.MALFORMED_RECORD, DiscrepancyType.MALFORMED_RECORD);
+    }
+}
@@ -1,5 +1,7 @@
 package fpt.tuanhm43.server.unit;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.caches.PaymentStatusCache;
 import fpt.tuanhm43.server.dtos.payment.request.SepayWebhookRequest;
 import fpt.tuanhm43.server.dtos.payment.response.PaymentStatusResponse;
 import fpt.tuanhm43.server.entities.Order;
@@ -7,25 +9,38 @@ import fpt.tuanhm43.server.entities.PaymentTransaction;
 import fpt.tuanhm43.server.enums.PaymentMethod;
 import fpt.tuanhm43.server.enums.PaymentStatus;
 import fpt.tuanhm43.server.repositories.OrderRepository;
+import fpt.tuanhm43.server.exceptions.BadRequestException;
+import fpt.tuanhm43.server.exceptions.ResourceNotFoundException;
 import fpt.tuanhm43.server.repositories.PaymentTransactionRepository;
+import fpt.tuanhm43.server.repositories.PaymentWebhookEventRepository;
 import fpt.tuanhm43.server.services.InventoryService;
 import fpt.tuanhm43.server.services.MailService;
 import fpt.tuanhm43.server.services.impl.PaymentServiceImpl;
+import fpt.tuanhm43.server.services.impl.PaymentStatusStreams;
+import fpt.tuanhm43.server.services.impl.PaymentWebhookProcessor;
+import fpt.tuanhm43.server.services.impl.WebhookSignatureVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +50,13 @@ class PaymentServiceTest {
     @Mock private PaymentTransactionRepository paymentTransactionRepository;
     @Mock private InventoryService inventoryService;
     @Mock private MailService mailService;
+    @Mock private PaymentWebhookEventRepository webhookEventRepository;
+    @Mock private PaymentWebhookProcessor webhookProcessor;
+    @Mock private WebhookSignatureVerifier signatureVerifier;
+    @Mock private PaymentStatusStreams statusStreams;
+    @Spy private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy private PaymentStatusCache statusCache = new PaymentStatusCache(new SimpleMeterRegistry(), 100, 5, 24, 5);
 
     @InjectMocks private PaymentServiceImpl paymentService;
 
@@ -44,7 +66,6 @@ class PaymentServiceTest {
     @BeforeEach
     void setUp() {
         orderId = UUID.randomUUID();
-        ReflectionTestUtils.setField(paymentService, "sepayWebhookKey", "test-secret-key");
 
         mockOrder = Order.builder()
                 .id(orderId)
@@ -67,31 +88,90 @@ class PaymentServiceTest {
         assertThat(response.getStatus()).isEqualTo(PaymentStatus.PROCESSING);
         assertThat(response.getPaymentUrl()).contains("transactionId=");
         verify(paymentTransactionRepository).save(any(PaymentTransaction.class));
+        verify(statusStreams).publish(eq(response.getTransactionId()), eq(orderId), eq(PaymentStatus.PENDING));
     }
 
     @Test
-    @DisplayName("Webhook thành công: Phải đổi trạng thái đơn hàng và TRỪ KHO THẬT")
-    void handleSepayWebhook_Success() {
+    @DisplayName("Poll trạng thái đã PAID: Chỉ truy vấn DB lần đầu, các lần sau lấy từ cache")
+    void getPaymentStatus_FinalStatusServedFromCache() {
+        when(paymentTransactionRepository.findStatusByTransactionId("TXN-1")).thenReturn(Optional.of(PaymentStatus.PAID));
+
+        paymentService.getPaymentStatus("TXN-1");
+        PaymentStatusResponse response = paymentService.getPaymentStatus("TXN-1");
+
+        assertThat(response.getStatus()).isEqualTo(PaymentStatus.PAID);
+        verify(paymentTransactionRepository, times(1)).findStatusByTransactionId("TXN-1");
+    }
+
+    @Test
+    @DisplayName("Poll mã giao dịch không tồn tại: Trả 404 và cache kết quả rỗng")
+    void getPaymentStatus_UnknownIsNegativelyCached() {
+        when(paymentTransactionRepository.findStatusByTransactionId("TXN-404")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> paymentService.getPaymentStatus("TXN-404")).isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> paymentService.getPaymentStatus("TXN-404")).isInstanceOf(ResourceNotFoundException.class);
+
+        verify(paymentTransactionRepository, times(1)).findStatusByTransactionId("TXN-404");
+    }
+
+    @Test
+    @DisplayName("Webhook hợp lệ: Phải lưu bản ghi thô, phản hồi ngay và chỉ xử lý sau commit")
+    void handleSepayWebhook_RecordsAndProcessesAfterCommit() {
         PaymentServiceImpl spyPaymentService = spy(paymentService);
+        SepayWebhookRequest request = webhookRequest("TXN-123");
+        doReturn(true).when(spyPaymentService).verifyWebhookSignature(anyString(), anyString());
+        when(webhookEventRepository.insertIfAbsent(any(), eq("SEPAY"), eq("TXN-123"), contains("TXN-123"), any()))
+                .thenReturn(1);
 
-        String txnId = "TXN-123";
-        PaymentTransaction transaction = PaymentTransaction.builder()
-                .transactionId(txnId).order(mockOrder).status(PaymentStatus.PENDING).build();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            spyPaymentService.handleSepayWebhook(request);
 
-        SepayWebhookRequest request = new SepayWebhookRequest();
-        request.setTransactionId(txnId);
-        request.setStatus("SUCCESS");
-        request.setSignature("dummy-signature");
+            verifyNoInteractions(webhookProcessor, inventoryService, mailService);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(webhookProcessor).process(any(UUID.class));
+    }
 
+    @Test
+    @DisplayName("Webhook gửi lại (trùng transactionId): Chỉ phản hồi, KHÔNG xử lý lần hai")
+    void handleSepayWebhook_DuplicateIsAcknowledgedOnly() {
+        PaymentServiceImpl spyPaymentService = spy(paymentService);
         doReturn(true).when(spyPaymentService).verifyWebhookSignature(anyString(), anyString());
+        when(webhookEventRepository.insertIfAbsent(any(), any(), any(), any(), any())).thenReturn(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            spyPaymentService.handleSepayWebhook(webhookRequest("TXN-123"));
+
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verifyNoInteractions(webhookProcessor);
+        assertThat(meterRegistry.get("payment.webhook.received").tag("outcome", "duplicate").counter().count()).isEqualTo(1);
+    }
 
-        when(paymentTransactionRepository.findByTransactionId(txnId)).thenReturn(Optional.of(transaction));
+    @Test
+    @DisplayName("Webhook sai chữ ký: Từ chối, không lưu bản ghi")
+    void handleSepayWebhook_InvalidSignatureRejected() {
+        SepayWebhookRequest request = webhookRequest("TXN-123");
 
-        spyPaymentService.handleSepayWebhook(request);
+        assertThatThrownBy(() -> paymentService.handleSepayWebhook(request))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(webhookEventRepository, webhookProcessor);
+    }
 
-        assertThat(transaction.getStatus()).isEqualTo(PaymentStatus.PAID);
-        verify(inventoryService).deductReservedStock(orderId);
-        verify(mailService).sendPaymentConfirmation(any());
+    private static SepayWebhookRequest webhookRequest(String txnId) {
+        SepayWebhookRequest request = new SepayWebhookRequest();
+        request.setTransactionId(txnId);
+        request.setOrderId(UUID.randomUUID());
+        request.setStatus("SUCCESS");
+        request.setSignature("dummy-signature");
+        return request;
     }
 
     @Test
@@ -110,5 +190,6 @@ class PaymentServiceTest {
         assertThat(mockOrder.getPaymentStatus()).isEqualTo(PaymentStatus.PAID);
         verify(inventoryService).deductReservedStock(orderId);
         verify(paymentTransactionRepository, atLeastOnce()).save(any());
+        verify(statusStreams).publish(anyString(), eq(orderId), eq(PaymentStatus.PAID));
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package fpt.tuanhm43.server.unit;
+
+import fpt.tuanhm43.server.caches.PaymentStatusCache;
+import fpt.tuanhm43.server.dtos.payment.PaymentStatusChange;
+import fpt.tuanhm43.server.dtos.payment.response.PaymentResponse;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentStatusCacheTest {
+
+    private static final String TXN = "TXN-123";
+
+    /**
+     * Open statuses expire immediately, so every read of one goes back to the loader
+     */
+    private final PaymentStatusCache cache = new PaymentStatusCache(new SimpleMeterRegistry(), 100, 0, 24, 60);
+
+    private Optional<PaymentStatus> read(AtomicInteger loads, PaymentStatus stored) {
+        return cache.status(TXN, id -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(stored);
+        });
+    }
+
+    @Test
+    @DisplayName("Trạng thái cuối (PAID): Chỉ đọc DB 1 lần, trạng thái đang mở thì hết hạn theo TTL ngắn")
+    void status_FinalCachedLongOpenShort() {
+        AtomicInteger loads = new AtomicInteger();
+
+        read(loads, PaymentStatus.PENDING);
+        read(loads, PaymentStatus.PENDING);
+        assertThat(loads).hasValue(2);
+
+        cache.apply(new PaymentStatusChange(TXN, null, PaymentStatus.PAID));
+        assertThat(read(loads, PaymentStatus.PENDING)).contains(PaymentStatus.PAID);
+        assertThat(read(loads, PaymentStatus.PENDING)).contains(PaymentStatus.PAID);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Mã giao dịch không tồn tại: Cache rỗng, giao dịch được tạo thì ghi đè ngay")
+    void status_UnknownCachedUntilCreated() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(read(loads, null)).isEmpty();
+        assertThat(read(loads, null)).isEmpty();
+        assertThat(loads).hasValue(1);
+
+        cache.apply(new PaymentStatusChange(TXN, UUID.randomUUID(), PaymentStatus.FAILED));
+        assertThat(read(loads, null)).contains(PaymentStatus.FAILED);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Đổi trạng thái: Bỏ payment mới nhất của đơn để đọc lại lần sau")
+    void apply_DropsLatestPaymentOfOrder() {
+        UUID orderId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        PaymentResponse paid = PaymentResponse.builder().orderId(orderId).transactionId(TXN)
+                .status(PaymentStatus.PAID).build();
+
+        cache.latestByOrder(orderId, id -> {
+            loads.incrementAndGet();
+            return Optional.of(paid);
+        });
+        cache.latestByOrder(orderId, id -> {
+            loads.incrementAndGet();
+            return Optional.of(paid);
+        });
+        assertThat(loads).hasValue(1);
+
+        cache.apply(new PaymentStatusChange(TXN, orderId, PaymentStatus.REFUNDED));
+        cache.latestByOrder(orderId, id -> {
+            loads.incrementAndGet();
+            return Optional.of(paid);
+        });
+        assertThat(loads).hasValue(2);
+    }
+}
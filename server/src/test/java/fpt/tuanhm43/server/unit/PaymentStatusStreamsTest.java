@@ -0,0 +1,149 @@
+package fpt.tuanhm43.server.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.caches.PaymentStatusCache;
+import fpt.tuanhm43.server.controllers.PaymentController;
+import fpt.tuanhm43.server.dtos.payment.PaymentStatusChange;
+import fpt.tuanhm43.server.dtos.payment.response.PaymentStatusResponse;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import fpt.tuanhm43.server.exceptions.ResourceNotFoundException;
+import fpt.tuanhm43.server.services.PaymentReconciliationService;
+import fpt.tuanhm43.server.services.PaymentService;
+import fpt.tuanhm43.server.services.impl.PaymentStatusStreams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStatusStreamsTest {
+
+    private static final String TXN = "TXN-123";
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private RedisMessageListenerContainer listenerContainer;
+    @Mock private PaymentService paymentService;
+    @Mock private PaymentReconciliationService reconciliationService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PaymentStatusCache statusCache = new PaymentStatusCache(meterRegistry, 100, 5, 24, 5);
+    private PaymentStatusStreams streams;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        streams = new PaymentStatusStreams(redisTemplate, listenerContainer, objectMapper, statusCache, meterRegistry, 60_000);
+        mockMvc = MockMvcBuilders.standaloneSetup(new PaymentController(paymentService, reconciliationService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private MockHttpServletResponse open(PaymentStatus current) throws Exception {
+        Supplier<PaymentStatusResponse> status = () -> PaymentStatusResponse.of(TXN, current);
+        when(paymentService.streamPaymentStatus(TXN)).thenAnswer(inv -> streams.subscribe(TXN, status));
+        return mockMvc.perform(get("/api/v1/payments/status/{transactionId}/stream", TXN))
+                .andReturn().getResponse();
+    }
+
+    private double openStreams() {
+        return meterRegistry.get("payment.status.streams").gauge().value();
+    }
+
+    @Test
+    @DisplayName("Mở stream: Gửi ngay trạng thái hiện tại và giữ kết nối khi còn PENDING")
+    void subscribe_SendsCurrentStatus() throws Exception {
+        MockHttpServletResponse response = open(PaymentStatus.PENDING);
+
+        assertThat(response.getContentAsString()).contains("event:status").contains("\"status\":\"PENDING\"");
+        assertThat(openStreams()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Trạng thái thay đổi trên node bất kỳ: Đẩy tới stream và đóng khi đã PAID")
+    void onMessage_PushesAndCompletesOnFinalStatus() throws Exception {
+        MockHttpServletResponse response = open(PaymentStatus.PENDING);
+
+        streams.onMessage(objectMapper.writeValueAsString(
+                new PaymentStatusChange(TXN, UUID.randomUUID(), PaymentStatus.PAID)));
+
+        assertThat(response.getContentAsString()).contains("\"status\":\"PAID\"");
+        assertThat(openStreams()).isZero();
+        assertThat(statusCache.status(TXN, id -> Optional.empty())).contains(PaymentStatus.PAID);
+    }
+
+    @Test
+    @DisplayName("Thanh toán đã kết thúc khi mở stream: Gửi trạng thái rồi đóng luôn")
+    void subscribe_AlreadyFinal_Completes() throws Exception {
+        MockHttpServletResponse response = open(PaymentStatus.FAILED);
+
+        assertThat(response.getContentAsString()).contains("\"status\":\"FAILED\"");
+        assertThat(openStreams()).isZero();
+    }
+
+    @Test
+    @DisplayName("Giao dịch không tồn tại: Ném lỗi và không giữ stream nào")
+    void subscribe_UnknownTransaction_Unregisters() {
+        assertThatThrownBy(() -> streams.subscribe("TXN-404", () -> {
+            throw new ResourceNotFoundException("PaymentTransaction", "transactionId", "TXN-404");
+        })).isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(openStreams()).isZero();
+    }
+
+    @Test
+    @DisplayName("Publish trong transaction: Cập nhật cache và phát lên Redis chỉ sau khi commit")
+    void publish_BroadcastsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        streams.publish(TXN, UUID.randomUUID(), PaymentStatus.PAID);
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+        assertThat(statusCache.status(TXN, id -> Optional.empty())).isEmpty();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(redisTemplate).convertAndSend(eq(PaymentStatusStreams.CHANNEL), anyString());
+        assertThat(statusCache.status(TXN, id -> Optional.empty())).contains(PaymentStatus.PAID);
+    }
+
+    @Test
+    @DisplayName("Redis lỗi khi publish: Vẫn đẩy tới stream trên node hiện tại")
+    void publish_RedisDown_NotifiesLocalStreams() throws Exception {
+        MockHttpServletResponse response = open(PaymentStatus.PENDING);
+        doThrow(new IllegalStateException("Redis down")).when(redisTemplate).convertAndSend(anyString(), anyString());
+
+        streams.publish(TXN, UUID.randomUUID(), PaymentStatus.PAID);
+
+        assertThat(response.getContentAsString()).contains("\"status\":\"PAID\"");
+        assertThat(openStreams()).isZero();
+    }
+}
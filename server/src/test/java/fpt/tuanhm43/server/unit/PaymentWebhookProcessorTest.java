@@ -0,0 +1,152 @@
+package fpt.tuanhm43.server.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.dtos.payment.request.SepayWebhookRequest;
+import fpt.tuanhm43.server.entities.Order;
+import fpt.tuanhm43.server.entities.PaymentTransaction;
+import fpt.tuanhm43.server.entities.PaymentWebhookEvent;
+import fpt.tuanhm43.server.enums.PaymentMethod;
+import fpt.tuanhm43.server.enums.PaymentStatus;
+import fpt.tuanhm43.server.enums.WebhookEventStatus;
+import fpt.tuanhm43.server.repositories.OrderRepository;
+import fpt.tuanhm43.server.repositories.PaymentTransactionRepository;
+import fpt.tuanhm43.server.repositories.PaymentWebhookEventRepository;
+import fpt.tuanhm43.server.services.InventoryService;
+import fpt.tuanhm43.server.services.MailService;
+import fpt.tuanhm43.server.services.impl.PaymentStatusStreams;
+import fpt.tuanhm43.server.services.impl.PaymentWebhookProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentWebhookProcessorTest {
+
+    @Mock private PaymentWebhookEventRepository webhookEventRepository;
+    @Mock private PaymentTransactionRepository paymentTransactionRepository;
+    @Mock private OrderRepository orderRepository;
+    @Mock private InventoryService inventoryService;
+    @Mock private MailService mailService;
+    @Mock private PaymentStatusStreams statusStreams;
+    @Spy private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks private PaymentWebhookProcessor processor;
+
+    private final UUID eventId = UUID.randomUUID();
+    private Order order;
+    private PaymentTransaction transaction;
+
+    @BeforeEach
+    void setUp() {
+        order = Order.builder()
+                .id(UUID.randomUUID())
+                .totalAmount(new BigDecimal("1000000"))
+                .paymentStatus(PaymentStatus.PENDING)
+                .paymentMethod(PaymentMethod.SEPAY)
+                .build();
+        transaction = PaymentTransaction.builder()
+                .transactionId("TXN-123").order(order).status(PaymentStatus.PENDING).build();
+    }
+
+    private void recorded(String status, Map<String, Object> data) throws Exception {
+        SepayWebhookRequest request = SepayWebhookRequest.builder()
+                .transactionId("TXN-123").orderId(order.getId()).status(status).data(data).signature("sig").build();
+        String payload = objectMapper.writeValueAsString(request);
+        when(webhookEventRepository.transition(eq(eventId), eq(WebhookEventStatus.RECEIVED), eq(WebhookEventStatus.PROCESSED), isNull(), any()))
+                .thenReturn(1);
+        when(webhookEventRepository.findById(eventId)).thenReturn(Optional.of(PaymentWebhookEvent.builder()
+                .id(eventId).provider("SEPAY").transactionId("TXN-123")
+                .payload(payload).build()));
+        when(paymentTransactionRepository.findByTransactionId("TXN-123")).thenReturn(Optional.of(transaction));
+    }
+
+    @Test
+    @DisplayName("Webhook SUCCESS lần đầu: Chuyển PAID có điều kiện, đánh dấu đơn đã trả và TRỪ KHO")
+    void process_Success_SettlesOnce() throws Exception {
+        recorded("SUCCESS", Map.of("referenceCode", "FT123"));
+        when(paymentTransactionRepository.transitionStatus(eq("TXN-123"), anyCollection(), eq(PaymentStatus.PAID),
+                eq("FT123"), isNull(), any())).thenReturn(1);
+
+        processor.process(eventId);
+
+        assertThat(order.getPaymentStatus()).isEqualTo(PaymentStatus.PAID);
+        verify(inventoryService).deductReservedStock(order.getId());
+        verify(mailService).sendPaymentConfirmation(order);
+        verify(statusStreams).publish(transaction.getTransactionId(), order.getId(), PaymentStatus.PAID);
+        assertThat(meterRegistry.get("payment.webhook.events").tag("outcome", "paid").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Giao dịch đã kết thúc (webhook khác đã xử lý): Bỏ qua, KHÔNG trừ kho lần hai")
+    void process_AlreadyFinalized_IgnoredWithoutSideEffects() throws Exception {
+        recorded("SUCCESS", null);
+        transaction.setStatus(PaymentStatus.PAID);
+        when(paymentTransactionRepository.transitionStatus(any(), anyCollection(), any(), any(), any(), any())).thenReturn(0);
+
+        processor.process(eventId);
+
+        verifyNoInteractions(inventoryService, mailService, orderRepository);
+        verify(webhookEventRepository).transition(eq(eventId), eq(WebhookEventStatus.PROCESSED),
+                eq(WebhookEventStatus.IGNORED), eq("Transaction already PAID"), any());
+        assertThat(meterRegistry.get("payment.webhook.events").tag("outcome", "ignored").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Webhook FAILED: Chuyển FAILED và trả lại hàng giữ chỗ")
+    void process_Failure_ReleasesReservation() throws Exception {
+        recorded("FAILED", Map.of("message", "Insufficient funds"));
+        when(paymentTransactionRepository.transitionStatus(eq("TXN-123"), anyCollection(), eq(PaymentStatus.FAILED),
+                isNull(), eq("Insufficient funds"), any())).thenReturn(1);
+
+        processor.process(eventId);
+
+        verify(inventoryService).releaseReservationByOrder(order.getId());
+        verify(inventoryService, never()).deductReservedStock(any());
+    }
+
+    @Test
+    @DisplayName("Sự kiện đã được worker khác nhận: Không làm gì")
+    void process_ClaimLost_DoesNothing() {
+        when(webhookEventRepository.transition(eq(eventId), eq(WebhookEventStatus.RECEIVED), eq(WebhookEventStatus.PROCESSED), isNull(), any()))
+                .thenReturn(0);
+
+        processor.process(eventId);
+
+        verifyNoInteractions(paymentTransactionRepository, inventoryService, mailService);
+    }
+
+    @Test
+    @DisplayName("Giao dịch không tồn tại: Đánh dấu sự kiện FAILED")
+    void process_UnknownTransaction_MarksFailed() throws Exception {
+        recorded("SUCCESS", null);
+        when(paymentTransactionRepository.findByTransactionId("TXN-123")).thenReturn(Optional.empty());
+
+        processor.process(eventId);
+
+        verify(webhookEventRepository).transition(eq(eventId), eq(WebhookEventStatus.PROCESSED),
+                eq(WebhookEventStatus.FAILED), eq("Unknown transaction TXN-123"), any());
+        verifyNoInteractions(inventoryService);
+    }
+}
@@ -0,0 +1,122 @@
+package fpt.tuanhm43.server.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.caches.ProductDetailCache;
+import fpt.tuanhm43.server.dtos.product.response.ProductDetailResponse;
+import fpt.tuanhm43.server.dtos.product.response.ProductVariantResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductDetailCacheTest {
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProductDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        cache = new ProductDetailCache(redisTemplate, objectMapper, meterRegistry, 100, 30, 300);
+    }
+
+    @Test
+    @DisplayName("Cache miss cả 2 tầng: load DB 1 lần, ghi Redis, lần sau lấy từ L1")
+    void get_MissLoadsOnceAndWritesThrough() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(id, key -> {
+            loads.incrementAndGet();
+            return detail(key);
+        });
+        ProductDetailResponse second = cache.get(id, key -> {
+            loads.incrementAndGet();
+            return detail(key);
+        });
+
+        assertThat(second.getId()).isEqualTo(id);
+        assertThat(loads.get()).isEqualTo(1);
+        verify(valueOperations).set(eq("product:detail:" + id), anyString(), eq(Duration.ofSeconds(300)));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "productDetail.remote").tag("result", "miss")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Node khác đã cache trên Redis: đọc L2, không gọi DB")
+    void get_RemoteHitSkipsLoader() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(valueOperations.get("product:detail:" + id)).thenReturn(objectMapper.writeValueAsString(detail(id)));
+
+        ProductDetailResponse result = cache.get(id, key -> {
+            throw new AssertionError("loader must not be called");
+        });
+
+        assertThat(result.getVariants()).hasSize(1);
+        assertThat(result.getVariants().get(0).getSku()).isEqualTo("HD-FPT-M");
+    }
+
+    @Test
+    @DisplayName("Redis sập: vẫn trả dữ liệu từ DB")
+    void get_RedisFailureFallsBackToLoader() {
+        UUID id = UUID.randomUUID();
+        when(valueOperations.get(any())).thenThrow(new RuntimeException("connection refused"));
+
+        ProductDetailResponse result = cache.get(id, this::detail);
+
+        assertThat(result.getId()).isEqualTo(id);
+    }
+
+    @Test
+    @DisplayName("Evict: xóa cả L1 lẫn Redis, lần sau phải load lại")
+    void evict_DropsBothTiers() {
+        UUID id = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(id, key -> {
+            loads.incrementAndGet();
+            return detail(key);
+        });
+        cache.evict(id);
+        cache.get(id, key -> {
+            loads.incrementAndGet();
+            return detail(key);
+        });
+
+        assertThat(loads.get()).isEqualTo(2);
+        verify(redisTemplate).delete("product:detail:" + id);
+    }
+
+    private ProductDetailResponse detail(UUID id) {
+        return ProductDetailResponse.builder()
+                .id(id)
+                .name("Hoodie FPT")
+                .basePrice(new BigDecimal("350000"))
+                .variants(List.of(ProductVariantResponse.builder().sku("HD-FPT-M").build()))
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package fpt.tuanhm43.server.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fpt.tuanhm43.server.dtos.product.request.ProductImportRow;
+import fpt.tuanhm43.server.dtos.product.response.ProductImportResponse;
+import fpt.tuanhm43.server.enums.ImportStatus;
+import fpt.tuanhm43.server.services.ProductSearchService;
+import fpt.tuanhm43.server.services.impl.ProductImportRunner;
+import fpt.tuanhm43.server.services.impl.ProductImportWriter;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportRunnerTest {
+
+    @Mock private ProductImportWriter importWriter;
+    @Mock private ProductSearchService productSearchService;
+
+    private ProductImportRunner runner;
+    private final List<List<String>> writtenChunks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        runner = new ProductImportRunner(importWriter, productSearchService,
+                new ObjectMapper().findAndRegisterModules(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(runner, "chunkSize", 2);
+    }
+
+    @Test
+    @DisplayName("Import CSV: chia chunk, bỏ qua dòng lỗi, reindex ES đúng 1 lần")
+    void importCsv_ChunksRowsAndReindexesOnce() {
+        UUID productId = UUID.randomUUID();
+        when(importWriter.writeChunk(anyList())).thenAnswer(inv -> {
+            List<ProductImportRow> rows = inv.getArgument(0);
+            writtenChunks.add(rows.stream().map(ProductImportRow::getSku).toList());
+            return new ProductImportWriter.ChunkResult(Set.of(productId), 1, rows.size(), List.of());
+        });
+
+        String csv = """
+                productSlug,productName,basePrice,sku,size,color,quantity
+                hoodie-fpt,Hoodie FPT,350000,HD-FPT-M,M,Black,10
+                hoodie-fpt,Hoodie FPT,350000,HD-FPT-L,L,Black,5
+                hoodie-fpt,Hoodie FPT,350000,hd-lowercase,XL,Black,5
+                hoodie-fpt,Hoodie FPT,350000,HD-FPT-M,M,White,1
+                "ao-thun, rong",Áo Thun Rồng,199000,AT-RONG-L,L,Red,3
+                """;
+
+        ProductImportResponse result = runner.importStream(job(), new StringReader(csv),
+                ProductImportRunner.Format.CSV, snapshot -> { });
+
+        assertThat(result.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(result.getProcessedRows()).isEqualTo(5);
+        assertThat(result.getImportedVariants()).isEqualTo(3);
+        assertThat(result.getFailedRows()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ProductImportResponse.RowError::getRow).containsExactly(4L, 5L);
+        assertThat(writtenChunks).containsExactly(List.of("HD-FPT-M", "HD-FPT-L"), List.of("AT-RONG-L"));
+        verify(productSearchService).syncAllToElasticsearch(Set.of(productId));
+    }
+
+    @Test
+    @DisplayName("Import NDJSON: chunk bị rollback thì mọi dòng trong chunk được báo lỗi")
+    void importNdjson_RolledBackChunkReportsEveryRow() {
+        when(importWriter.writeChunk(anyList())).thenThrow(new IllegalStateException("duplicate key"));
+
+        String ndjson = """
+                {"productSlug":"sneaker-x","productName":"Sneaker X","basePrice":1200000,"sku":"SNK-X-42"}
+                {"productSlug":"sneaker-x","sku":"SNK-X-43","priceAdjustment":50000}
+                """;
+
+        ProductImportResponse result = runner.importStream(job(), new StringReader(ndjson),
+                ProductImportRunner.Format.NDJSON, snapshot -> { });
+
+        assertThat(result.getStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(result.getFailedRows()).isEqualTo(2);
+        assertThat(result.getErrors()).allMatch(e -> e.getMessage().contains("duplicate key"));
+        verify(productSearchService, never()).syncAllToElasticsearch(any());
+    }
+
+    private ProductImportResponse job() {
+        return ProductImportResponse.builder()
+                .jobId(UUID.randomUUID())
+                .status(ImportStatus.PENDING)
+                .build();
+    }
+}
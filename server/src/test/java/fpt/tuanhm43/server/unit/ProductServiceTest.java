@@ -1,9 +1,15 @@
 package fpt.tuanhm43.server.unit;
 
+import fpt.tuanhm43.server.caches.ProductDetailCache;
+import fpt.tuanhm43.server.caches.SlugIdCache;
 import fpt.tuanhm43.server.dtos.PageResponseDTO;
 import fpt.tuanhm43.server.dtos.product.request.ProductFilterRequest;
 import fpt.tuanhm43.server.dtos.product.response.ProductResponse;
+import fpt.tuanhm43.server.dtos.product.response.ProductDetailResponse;
 import fpt.tuanhm43.server.dtos.search.AdvancedSearchRequest;
+import fpt.tuanhm43.server.entities.Product;
+import fpt.tuanhm43.server.exceptions.ResourceNotFoundException;
+import fpt.tuanhm43.server.mappers.ProductMapper;
 import fpt.tuanhm43.server.repositories.CategoryRepository;
 import fpt.tuanhm43.server.repositories.ProductRepository;
 import fpt.tuanhm43.server.services.impl.ProductServiceImpl;
@@ -13,14 +19,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,6 +43,11 @@ class ProductServiceTest {
     @Mock private CategoryRepository categoryRepository;
 
     @Mock private ProductSearchServiceImpl productSearchService;
+    @Mock private ProductMapper productMapper;
+
+    @Mock private ProductDetailCache productDetailCache;
+
+    @Spy private SlugIdCache slugIdCache = new SlugIdCache(100, 60, 60);
 
     @InjectMocks private ProductServiceImpl productService;
 
@@ -83,4 +100,42 @@ class ProductServiceTest {
 
         verify(productSearchService).advancedSearch(any(AdvancedSearchRequest.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Xem sản phẩm theo slug: Lần 2 chỉ tốn 1 query fetch-join nhờ slug cache")
+    void getBySlug_CachedSlugUsesSingleFetchJoin() {
+        UUID productId = UUID.randomUUID();
+        Product product = Product.builder().id(productId).slug("hoodie-fpt").isActive(true).build();
+
+        when(productRepository.findIdBySlug("hoodie-fpt")).thenReturn(Optional.of(productId));
+        when(productRepository.findByIdWithCategoryAndVariants(productId)).thenReturn(Optional.of(product));
+        when(productMapper.toDetailResponse(product)).thenReturn(ProductDetailResponse.builder().id(productId).build());
+        passThroughDetailCache(productId);
+
+        productService.getBySlug("hoodie-fpt");
+        ProductDetailResponse result = productService.getBySlug("hoodie-fpt");
+
+        assertThat(result.getId()).isEqualTo(productId);
+        verify(productRepository, times(1)).findIdBySlug("hoodie-fpt");
+        verify(productRepository, times(2)).findByIdWithCategoryAndVariants(productId);
+    }
+
+    @Test
+    @DisplayName("Slug không tồn tại: 404 được cache, crawler gọi lại không chạm DB")
+    void getBySlug_UnknownSlugIsNegativelyCached() {
+        when(productRepository.findIdBySlug("khong-ton-tai")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> productService.getBySlug("khong-ton-tai"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> productService.getBySlug("khong-ton-tai"))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        verify(productRepository, times(1)).findIdBySlug("khong-ton-tai");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void passThroughDetailCache(UUID productId) {
+        when(productDetailCache.get(eq(productId), any())).thenAnswer(inv ->
+                ((Function<UUID, ProductDetailResponse>) inv.getArgument(1)).apply(productId));
+    }
+}
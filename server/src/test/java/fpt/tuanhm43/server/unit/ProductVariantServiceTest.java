@@ -1,5 +1,6 @@
 package fpt.tuanhm43.server.unit;
 
+import fpt.tuanhm43.server.caches.ProductDetailCache;
 import fpt.tuanhm43.server.dtos.product.request.CreateProductVariantRequest;
 import fpt.tuanhm43.server.dtos.product.response.ProductVariantResponse;
 import fpt.tuanhm43.server.entities.*;
@@ -33,6 +34,7 @@ class ProductVariantServiceTest {
     @Mock private ProductVariantMapper variantMapper;
 
     @Mock private ProductSearchService productSearchService;
+    @Mock private ProductDetailCache productDetailCache;
 
     @InjectMocks private ProductVariantServiceImpl variantService;
 
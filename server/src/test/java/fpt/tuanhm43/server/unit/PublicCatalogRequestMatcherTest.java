@@ -0,0 +1,56 @@
+package fpt.tuanhm43.server.unit;
+
+import fpt.tuanhm43.server.config.PublicCatalogRequestMatcher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PublicCatalogRequestMatcherTest {
+
+    private final PublicCatalogRequestMatcher matcher = new PublicCatalogRequestMatcher();
+
+    @ParameterizedTest(name = "{0} {1}")
+    @DisplayName("Route đọc catalog, tìm kiếm, tra cứu đơn: đi chain public")
+    @CsvSource({
+            "GET, /api/v1/products/6f1c2a44-5a7e-4d0b-9a55-0b4c1d2e3f40",
+            "GET, /api/v1/products/slug/ao-thun-basic",
+            "GET, /api/v1/products/6f1c2a44-5a7e-4d0b-9a55-0b4c1d2e3f40/variants",
+            "POST, /api/v1/products/search",
+            "GET, /api/v1/categories",
+            "GET, /api/v1/categories/tree",
+            "GET, /api/v1/orders/track/abc123",
+            "GET, /uploads/products/a.jpg"
+    })
+    void matches_PublicReads(String method, String path) {
+        assertThat(matcher.matches(new MockHttpServletRequest(method, path))).isTrue();
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @DisplayName("Route cần xác thực hoặc ghi dữ liệu: vẫn đi chain chính")
+    @CsvSource({
+            "GET, /api/v1/products/import/6f1c2a44-5a7e-4d0b-9a55-0b4c1d2e3f40",
+            "POST, /api/v1/products",
+            "PUT, /api/v1/products/6f1c2a44-5a7e-4d0b-9a55-0b4c1d2e3f40",
+            "DELETE, /api/v1/categories/6f1c2a44-5a7e-4d0b-9a55-0b4c1d2e3f40",
+            "POST, /api/v1/categories",
+            "GET, /api/v1/orders/user/my-orders",
+            "GET, /api/v1/admin/orders",
+            "OPTIONS, /api/v1/products/slug/ao-thun-basic"
+    })
+    void doesNotMatch_ProtectedOrWriteRoutes(String method, String path) {
+        assertThat(matcher.matches(new MockHttpServletRequest(method, path))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Có context path: so khớp trên path trong ứng dụng")
+    void matches_WithinContextPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/shop/api/v1/categories/roots");
+        request.setContextPath("/shop");
+
+        assertThat(matcher.matches(request)).isTrue();
+    }
+}
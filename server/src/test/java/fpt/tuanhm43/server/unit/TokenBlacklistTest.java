@@ -0,0 +1,193 @@
+package fpt.tuanhm43.server.unit;
+
+import fpt.tuanhm43.server.caches.TokenBlacklist;
+import fpt.tuanhm43.server.utils.TokenDigestUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@ExtendWith(MockitoExtension.class)
+class TokenBlacklistTest {
+
+    private static final String REVOKED = "header.revoked-payload.signature";
+    private static final String ACTIVE = "header.active-payload.signature";
+    private static final String LEGACY = "header.legacy-payload.signature";
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private Cursor<String> cursor;
+    @Mock private RedisMessageListenerContainer listenerContainer;
+
+    private TokenBlacklist tokenBlacklist;
+
+    @BeforeEach
+    void setUp() {
+        tokenBlacklist = new TokenBlacklist(redisTemplate, listenerContainer, new SimpleMeterRegistry(), 1_000, 0.001);
+    }
+
+    private static String digestKey(String token) {
+        return "blacklist:" + TokenDigestUtils.encode(TokenDigestUtils.sha256(token));
+    }
+
+    private void syncWith(String... keys) {
+        Iterator<String> scanned = List.of(keys).iterator();
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenAnswer(invocation -> scanned.hasNext());
+        lenient().when(cursor.next()).thenAnswer(invocation -> scanned.next());
+        tokenBlacklist.resync();
+    }
+
+    @Test
+    @DisplayName("Chưa đồng bộ filter: luôn hỏi Redis")
+    void contains_BeforeSync_AsksRedis() {
+        when(redisTemplate.hasKey(digestKey(ACTIVE))).thenReturn(false);
+        when(redisTemplate.hasKey("blacklist:" + ACTIVE)).thenReturn(false);
+
+        assertThat(tokenBlacklist.contains(ACTIVE)).isFalse();
+        verify(redisTemplate).hasKey(digestKey(ACTIVE));
+    }
+
+    @Test
+    @DisplayName("Sau đồng bộ: token không bị thu hồi không gọi Redis")
+    void contains_AfterSync_SkipsRedisForUnknownToken() {
+        syncWith(digestKey(REVOKED));
+
+        assertThat(tokenBlacklist.contains(ACTIVE)).isFalse();
+        verify(redisTemplate, never()).hasKey(anyString());
+    }
+
+    @Test
+    @DisplayName("Sau đồng bộ: token bị thu hồi (kể cả key cũ chứa token gốc) vẫn được Redis xác nhận")
+    void contains_AfterSync_ConfirmsRevokedTokensWithRedis() {
+        syncWith(digestKey(REVOKED), "blacklist:" + LEGACY);
+        when(redisTemplate.hasKey(digestKey(REVOKED))).thenReturn(true);
+        when(redisTemplate.hasKey(digestKey(LEGACY))).thenReturn(false);
+        when(redisTemplate.hasKey("blacklist:" + LEGACY)).thenReturn(true);
+
+        assertThat(tokenBlacklist.contains(REVOKED)).isTrue();
+        assertThat(tokenBlacklist.contains(LEGACY)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Thu hồi token: lưu digest vào Redis với TTL và phát sự kiện")
+    void add_StoresDigestAndPublishes() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        syncWith();
+
+        tokenBlacklist.add(REVOKED, Duration.ofMinutes(5));
+
+        verify(valueOperations).set(digestKey(REVOKED), "true", Duration.ofMinutes(5));
+        verify(redisTemplate).convertAndSend(eq(TokenBlacklist.CHANNEL), eq(TokenDigestUtils.encode(TokenDigestUtils.sha256(REVOKED))));
+
+        when(redisTemplate.hasKey(digestKey(REVOKED))).thenReturn(true);
+        assertThat(tokenBlacklist.contains(REVOKED)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Nhận sự kiện từ node khác: filter cập nhật ngay, không chờ resync")
+    void onRevoked_UpdatesFilter() {
+        syncWith();
+        when(redisTemplate.hasKey(digestKey(REVOKED))).thenReturn(true);
+
+        assertThat(tokenBlacklist.contains(REVOKED)).isFalse();
+
+        tokenBlacklist.onRevoked(TokenDigestUtils.encode(TokenDigestUtils.sha256(REVOKED)));
+
+        assertThat(tokenBlacklist.contains(REVOKED)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Nhận sự kiện giữa lúc resync quét và lúc hoán đổi filter: filter mới vẫn giữ revocation")
+    void onRevoked_DuringResync_SurvivesSwap() throws Exception {
+        Iterator<String> scanned = List.of(digestKey(ACTIVE)).iterator();
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(cursor.hasNext()).thenAnswer(invocation -> {
+            if (!scanned.hasNext()) {
+                // Published after the scan passed its key
+                tokenBlacklist.onRevoked(TokenDigestUtils.encode(TokenDigestUtils.sha256(REVOKED)));
+            }
+            return scanned.hasNext();
+        });
+        when(cursor.next()).thenAnswer(invocation -> scanned.next());
+        // The cursor closes after the new filter is swapped in and before the rebuild ends
+        doAnswer(invocation -> {
+            tokenBlacklist.onRevoked(TokenDigestUtils.encode(TokenDigestUtils.sha256(LEGACY)));
+            return null;
+        }).when(cursor).close();
+        tokenBlacklist.resync();
+        when(redisTemplate.hasKey(digestKey(REVOKED))).thenReturn(true);
+        when(redisTemplate.hasKey(digestKey(LEGACY))).thenReturn(true);
+
+        assertThat(tokenBlacklist.contains(REVOKED)).isTrue();
+        assertThat(tokenBlacklist.contains(LEGACY)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Nhận sự kiện song song với resync liên tục: không revocation nào bị mất khỏi filter")
+    void onRevoked_ConcurrentWithResync_NeverLost() throws InterruptedException {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class, withSettings().stubOnly());
+        Set<String> stored = ConcurrentHashMap.newKeySet();
+        AtomicReference<Iterator<String>> scanned = new AtomicReference<>();
+        when(redis.scan(any(ScanOptions.class))).thenAnswer(invocation -> {
+            scanned.set(List.copyOf(stored).iterator());
+            return cursor;
+        });
+        lenient().when(cursor.hasNext()).thenAnswer(invocation -> scanned.get().hasNext());
+        lenient().when(cursor.next()).thenAnswer(invocation -> scanned.get().next());
+        when(redis.hasKey(anyString())).thenAnswer(invocation -> stored.contains(invocation.<String>getArgument(0)));
+        // A tiny false-positive rate means many probes per put, widening the window between its two filter writes
+        TokenBlacklist blacklist = new TokenBlacklist(redis, listenerContainer, new SimpleMeterRegistry(), 1_000, 1e-300);
+        blacklist.resync();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread resyncer = new Thread(() -> {
+            while (running.get()) {
+                blacklist.resync();
+            }
+        });
+        resyncer.start();
+        try {
+            for (int i = 0; i < 5_000; i++) {
+                String token = "header.payload-" + i + ".signature";
+                String key = digestKey(token);
+                stored.add(key);
+                blacklist.onRevoked(key.substring("blacklist:".length()));
+
+                assertThat(blacklist.contains(token)).as("revocation %d", i).isTrue();
+                stored.remove(key);
+            }
+        } finally {
+            running.set(false);
+            resyncer.join();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package fpt.tuanhm43.server.unit;
+
+import fpt.tuanhm43.server.caches.TokenBlacklist;
+import fpt.tuanhm43.server.caches.VerifiedTokenCache;
+import fpt.tuanhm43.server.config.JwtAuthenticationFilter;
+import fpt.tuanhm43.server.services.TokenService;
+import fpt.tuanhm43.server.services.impl.TokenServiceImpl;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valueOperations;
+    @Mock private FilterChain filterChain;
+    @Mock private RedisMessageListenerContainer listenerContainer;
+
+    private VerifiedTokenCache verifiedTokenCache;
+    private TokenServiceImpl tokenService;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        verifiedTokenCache = new VerifiedTokenCache(meterRegistry, 100);
+        tokenService = new TokenServiceImpl(new TokenBlacklist(redisTemplate, listenerContainer, meterRegistry, 100, 0.01), verifiedTokenCache);
+        ReflectionTestUtils.setField(tokenService, "secretKey", Base64.getEncoder().encodeToString(new byte[64]));
+        ReflectionTestUtils.setField(tokenService, "accessExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(tokenService, "refreshExpiration", 604_800_000L);
+        tokenService.init();
+
+        token = tokenService.generateAccessToken(new UsernamePasswordAuthenticationToken(
+                "tuanhm", null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Parse 1 lần: lấy được username và quyền từ claims")
+    void getAuthenticationFromToken_ReadsSubjectAndAuthorities() {
+        Authentication authentication = tokenService.getAuthenticationFromToken(token);
+
+        assertThat(authentication.getName()).isEqualTo("tuanhm");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_CUSTOMER");
+        assertThat(tokenService.getUsernameFromToken(token)).isEqualTo("tuanhm");
+    }
+
+    @Test
+    @DisplayName("Token bị sửa chữ ký: ném JwtException, validateToken trả false")
+    void getAuthenticationFromToken_RejectsTamperedToken() {
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> tokenService.getAuthenticationFromToken(tampered))
+                .isInstanceOf(JwtException.class);
+        assertThat(tokenService.validateToken(tampered)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Token lặp lại: chỉ verify chữ ký 1 lần, mỗi lần trả Authentication mới")
+    void verifiedTokenCache_VerifiesOncePerToken() {
+        AtomicInteger verifications = new AtomicInteger();
+        Function<String, VerifiedTokenCache.VerifiedToken> verifier = t -> {
+            verifications.incrementAndGet();
+            return new VerifiedTokenCache.VerifiedToken(
+                    new User("tuanhm", "", List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))),
+                    System.currentTimeMillis() + 60_000);
+        };
+
+        Authentication first = verifiedTokenCache.get(token, verifier);
+        Authentication second = verifiedTokenCache.get(token, verifier);
+
+        assertThat(verifications).hasValue(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("tuanhm");
+        assertThat(second.getCredentials()).isEqualTo(token);
+    }
+
+    @Test
+    @DisplayName("Blacklist token: xoá khỏi cache, lần sau phải verify lại")
+    void blacklistToken_EvictsVerifiedToken() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        tokenService.getAuthenticationFromToken(token);
+
+        tokenService.blacklistToken(token, tokenService.getExpirationTime(token));
+
+        AtomicInteger verifications = new AtomicInteger();
+        verifiedTokenCache.get(token, t -> {
+            verifications.incrementAndGet();
+            return null;
+        });
+        assertThat(verifications).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Token hết hạn: không được cache, luôn ném ExpiredJwtException")
+    void getAuthenticationFromToken_RejectsExpiredToken() {
+        ReflectionTestUtils.setField(tokenService, "accessExpiration", -1_000L);
+        String expired = tokenService.generateAccessToken(new UsernamePasswordAuthenticationToken(
+                "tuanhm", null, List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"))));
+
+        assertThatThrownBy(() -> tokenService.getAuthenticationFromToken(expired))
+                .isInstanceOf(ExpiredJwtException.class);
+        assertThatThrownBy(() -> tokenService.getAuthenticationFromToken(expired))
+                .isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    @DisplayName("Filter: xác thực token chỉ với 1 lần parse, không gọi validateToken")
+    void filter_AuthenticatesWithSingleParse() throws Exception {
+        TokenService service = spy(tokenService);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/orders/user/my-orders");
+        request.setServletPath("/api/v1/orders/user/my-orders");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        new JwtAuthenticationFilter(service).doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("tuanhm");
+        verify(service, never()).validateToken(anyString());
+        verify(service, times(1)).getAuthenticationFromToken(token);
+        verify(filterChain).doFilter(eq(request), any());
+    }
+}
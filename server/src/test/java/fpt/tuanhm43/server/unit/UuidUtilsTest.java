@@ -0,0 +1,34 @@
+package fpt.tuanhm43.server.unit;
+
+import fpt.tuanhm43.server.utils.UuidUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidUtilsTest {
+
+    @Test
+    @DisplayName("UUIDv7: đúng version/variant và mang timestamp hiện tại")
+    void randomV7_HasVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidUtils.randomV7();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isBetween(before, after);
+    }
+
+    @Test
+    @DisplayName("UUIDv7: id sinh sau sắp xếp sau (theo millisecond) khi so sánh dạng chuỗi")
+    void randomV7_IsTimeOrdered() throws InterruptedException {
+        UUID first = UuidUtils.randomV7();
+        Thread.sleep(2);
+        UUID second = UuidUtils.randomV7();
+
+        assertThat(second.toString()).isGreaterThan(first.toString());
+    }
+}
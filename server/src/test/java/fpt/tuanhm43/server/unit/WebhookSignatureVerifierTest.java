@@ -0,0 +1,103 @@
+package fpt.tuanhm43.server.unit;
+
+import fpt.tuanhm43.server.services.impl.WebhookSignatureVerifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebhookSignatureVerifierTest {
+
+    private static final String DATA = "SUCCESS";
+
+    private static String hmac(String key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Base64.getEncoder().encodeToString(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Chữ ký đúng khóa hiện tại: hợp lệ, lặp lại nhiều lần vẫn đúng (Mac được tái sử dụng)")
+    void verify_CurrentKey() {
+        WebhookSignatureVerifier verifier = new WebhookSignatureVerifier("current-key", "");
+        String signature = hmac("current-key", DATA);
+
+        assertThat(verifier.verify(signature, DATA)).isTrue();
+        assertThat(verifier.verify(signature, DATA)).isTrue();
+        assertThat(verifier.sign(DATA)).isEqualTo(signature);
+    }
+
+    @Test
+    @DisplayName("Dữ liệu hoặc chữ ký bị sửa, Base64 hỏng, thiếu chữ ký: không hợp lệ")
+    void verify_RejectsTamperedOrMalformed() {
+        WebhookSignatureVerifier verifier = new WebhookSignatureVerifier("current-key", "");
+        String signature = hmac("current-key", DATA);
+        byte[] flipped = Base64.getDecoder().decode(signature);
+        flipped[0] ^= 1;
+
+        assertThat(verifier.verify(signature, "FAILED")).isFalse();
+        assertThat(verifier.verify(Base64.getEncoder().encodeToString(flipped), DATA)).isFalse();
+        assertThat(verifier.verify(signature.substring(0, 10), DATA)).isFalse();
+        assertThat(verifier.verify("not base64 !!", DATA)).isFalse();
+        assertThat(verifier.verify(null, DATA)).isFalse();
+        assertThat(verifier.verify(hmac("other-key", DATA), DATA)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Xoay khóa: chữ ký bằng khóa cũ vẫn hợp lệ, ký mới luôn bằng khóa hiện tại")
+    void verify_AcceptsPreviousKeysDuringRotation() {
+        WebhookSignatureVerifier verifier = new WebhookSignatureVerifier("new-key", " old-key , older-key ");
+
+        assertThat(verifier.verify(hmac("new-key", DATA), DATA)).isTrue();
+        assertThat(verifier.verify(hmac("old-key", DATA), DATA)).isTrue();
+        assertThat(verifier.verify(hmac("older-key", DATA), DATA)).isTrue();
+        assertThat(verifier.verify(hmac("retired-key", DATA), DATA)).isFalse();
+        assertThat(verifier.sign(DATA)).isEqualTo(hmac("new-key", DATA));
+    }
+
+    @Test
+    @DisplayName("Chưa cấu hình khóa: mọi chữ ký bị từ chối, không ký được")
+    void verify_NoKeyRejectsEverything() {
+        WebhookSignatureVerifier verifier = new WebhookSignatureVerifier("", "");
+
+        assertThat(verifier.verify(hmac("any-key", DATA), DATA)).isFalse();
+        assertThatThrownBy(() -> verifier.sign(DATA)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Nhiều thread xác minh đồng thời: mỗi lần dùng một Mac riêng, kết quả luôn đúng")
+    void verify_ConcurrentCallsDoNotShareMacState() throws Exception {
+        WebhookSignatureVerifier verifier = new WebhookSignatureVerifier("current-key", "old-key");
+        List<String> payloads = IntStream.range(0, 200).mapToObj(i -> "payload-" + i).toList();
+        List<String> signatures = payloads.stream().map(p -> hmac("old-key", p)).toList();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> checks = IntStream.range(0, payloads.size())
+                    .<Callable<Boolean>>mapToObj(i -> () -> verifier.verify(signatures.get(i), payloads.get(i)))
+                    .toList();
+            for (Future<Boolean> result : pool.invokeAll(checks)) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}